@@ -0,0 +1,38 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the stack benchmarks with the allocation profiler, which reports the bytes allocated per operation
+ * ({@code gc.alloc.rate.norm}) next to the time.
+ * <p>
+ * The command line arguments are ordinary JMH options, for example {@code StackBenchmark -p size=10000}
+ * runs the stack benchmarks only with 10 000 operands. Without arguments all benchmarks in this package are run.
+ * <pre>
+ * mvn -Pjmh package
+ * java -cp target/benchmarks.jar hr.fer.oprpp1.custom.collections.jmh.BenchmarkRunner
+ * </pre>
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(BenchmarkRunner.class.getPackageName() + ".*");
+        }
+        Options options = builder.parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
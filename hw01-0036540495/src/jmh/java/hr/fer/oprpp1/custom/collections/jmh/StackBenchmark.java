@@ -0,0 +1,131 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import hr.fer.oprpp1.custom.collections.IntStack;
+import hr.fer.oprpp1.custom.collections.ObjectStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of evaluating a long postfix expression with the {@link ObjectStack} and with the {@link IntStack}.
+ * <p>
+ * The expression consists of groups of operands which are combined by the operators +, - and *,
+ * and every group is then combined with the result of the previous groups. The numbers are parsed
+ * in the setup, so only the stack operations are measured.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StackBenchmark {
+    /**
+     * Number of operands in a group, so the stack grows to at most GROUP_SIZE + 1 values.
+     */
+    private static final int GROUP_SIZE = 16;
+
+    /**
+     * Marks an operand in the array of operators.
+     */
+    private static final char OPERAND = 'n';
+
+    /**
+     * Number of operands in the expression.
+     */
+    @Param({"10000", "1000000"})
+    public int size;
+
+    /**
+     * Operators of the expression, {@link #OPERAND} for operands.
+     */
+    private char[] operators;
+
+    /**
+     * Values of the operands.
+     */
+    private int[] operands;
+
+    /**
+     * Number of elements in the expression.
+     */
+    private int length;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        operators = new char[2 * size];
+        operands = new int[2 * size];
+        length = 0;
+        for (int i = 0; i < size; i++) {
+            operators[length] = OPERAND;
+            operands[length++] = i % 100 + 1;
+            int inGroup = i % GROUP_SIZE + 1;
+            if (inGroup == GROUP_SIZE || i == size - 1) {
+                int count = i < GROUP_SIZE ? inGroup - 1 : inGroup;
+                for (int j = 0; j < count; j++) {
+                    operators[length++] = "+-*".charAt(j % 3);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int objectStack() {
+        ObjectStack stack = new ObjectStack();
+        for (int i = 0; i < length; i++) {
+            if (operators[i] == OPERAND) {
+                stack.push(operands[i]);
+                continue;
+            }
+            int secondOperand = (int) stack.pop();
+            int firstOperand = (int) stack.pop();
+            stack.push(apply(operators[i], firstOperand, secondOperand));
+        }
+        return (int) stack.pop();
+    }
+
+    @Benchmark
+    public int intStack() {
+        IntStack stack = new IntStack();
+        for (int i = 0; i < length; i++) {
+            if (operators[i] == OPERAND) {
+                stack.push(operands[i]);
+                continue;
+            }
+            int secondOperand = stack.pop();
+            int firstOperand = stack.pop();
+            stack.push(apply(operators[i], firstOperand, secondOperand));
+        }
+        return stack.pop();
+    }
+
+    /**
+     * Applies the given operator to the operands.
+     *
+     * @param operator      one of +, - and *
+     * @param firstOperand  first operand
+     * @param secondOperand second operand
+     * @return result of the operation
+     */
+    private static int apply(char operator, int firstOperand, int secondOperand) {
+        return switch (operator) {
+            case '+' -> firstOperand + secondOperand;
+            case '-' -> firstOperand - secondOperand;
+            default -> firstOperand * secondOperand;
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package hr.fer.oprpp1.custom.collections;
+
+import java.util.Arrays;
+
+/**
+ * Stack of {@code int} values with the same operations as the {@link ObjectStack}.
+ * <p>
+ * The values are stored in an {@code int[]} array, so they are not boxed, and push, pop and peek
+ * do not allocate anything except when the array is full and its capacity is doubled.
+ *
+ * @author Marko Šelendić
+ * @version 1.0
+ */
+public class IntStack {
+
+    /**
+     * Default capacity of the array.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Current number of values on the stack.
+     */
+    private int size;
+
+    /**
+     * Array of values, the top of the stack is at position size - 1.
+     */
+    private int[] elements;
+
+    /**
+     * Creates an empty stack with initial capacity of 16.
+     */
+    public IntStack() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty stack with the given initial capacity.
+     *
+     * @param initialCapacity initial capacity of the stack
+     * @throws IllegalArgumentException if initial capacity is less than 1
+     */
+    public IntStack(int initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Initial capacity must be greater than 0.");
+        }
+
+        this.elements = new int[initialCapacity];
+    }
+
+    /**
+     * Returns true only if the stack contains no values.
+     *
+     * @return true if the stack contains no values, false otherwise
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns the number of currently stored values in this stack.
+     *
+     * @return number of currently stored values
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Pushes the given value to the top of the stack.
+     *
+     * @param value value to be pushed to the top of the stack
+     */
+    public void push(int value) {
+        if (this.size == this.elements.length) {
+            this.elements = Arrays.copyOf(this.elements, this.elements.length * 2);
+        }
+
+        this.elements[this.size++] = value;
+    }
+
+    /**
+     * Removes the value from the top of the stack and returns it.
+     *
+     * @return last value pushed on the stack
+     * @throws EmptyStackException if the stack is empty
+     */
+    public int pop() {
+        if (this.size == 0) {
+            throw new EmptyStackException("The stack is empty.");
+        }
+
+        return this.elements[--this.size];
+    }
+
+    /**
+     * Returns the value from the top of the stack without removing it.
+     *
+     * @return last value placed on the stack
+     * @throws EmptyStackException if the stack is empty
+     */
+    public int peek() {
+        if (this.size == 0) {
+            throw new EmptyStackException("The stack is empty.");
+        }
+
+        return this.elements[this.size - 1];
+    }
+
+    /**
+     * Removes all values from the stack.
+     * <p>
+     * The capacity of the stack stays the same.
+     */
+    public void clear() {
+        this.size = 0;
+    }
+}
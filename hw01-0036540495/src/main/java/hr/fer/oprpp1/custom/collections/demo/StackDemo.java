@@ -1,10 +1,12 @@
 package hr.fer.oprpp1.custom.collections.demo;
 
-import hr.fer.oprpp1.custom.collections.ObjectStack;
+import hr.fer.oprpp1.custom.collections.IntStack;
 
 /**
  * A program which evaluates a mathematical expression in postfix notation.
  * The expression is given as a single command line argument with numbers and operators separated by whitespaces.
+ * <p>
+ * The operands are kept on an {@link IntStack}, so they are not boxed.
  */
 public class StackDemo {
     public static void main(String[] args) {
@@ -15,15 +17,15 @@ public class StackDemo {
 
         String[] elements = args[0].split("\\s+");
 
-        ObjectStack stack = new ObjectStack();
+        IntStack stack = new IntStack();
 
         for (String element : elements) {
-            if (element.matches("-?\\d+")) {
+            if (isNumber(element)) {
                 stack.push(Integer.parseInt(element));
                 continue;
             }
-            int secondOperand = (int) stack.pop();
-            int firstOperand = (int) stack.pop();
+            int secondOperand = stack.pop();
+            int firstOperand = stack.pop();
             int result = 0;
 
             switch (element) {
@@ -54,4 +56,26 @@ public class StackDemo {
 
         System.out.println("Expression evaluates to " + stack.pop() + ".");
     }
+
+    /**
+     * Checks whether the given element is an integer, i.e. whether it matches {@code -?\d+}.
+     * <p>
+     * Unlike {@link String#matches(String)}, this does not compile a pattern for every element.
+     *
+     * @param element element of the expression
+     * @return true if the element is an optional minus sign followed by at least one digit
+     */
+    static boolean isNumber(String element) {
+        int start = element.startsWith("-") ? 1 : 0;
+        if (start == element.length()) {
+            return false;
+        }
+        for (int i = start; i < element.length(); i++) {
+            char c = element.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
 }
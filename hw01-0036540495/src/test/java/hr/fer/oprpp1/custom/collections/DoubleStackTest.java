@@ -0,0 +1,48 @@
+package hr.fer.oprpp1.custom.collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DoubleStackTest {
+
+    @Test
+    void testDoubleStackWithInitialCapacityThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new DoubleStack(0));
+        assertDoesNotThrow(() -> new DoubleStack(1));
+    }
+
+    @Test
+    void testPushPopPeek() {
+        DoubleStack stack = new DoubleStack(1);
+        assertTrue(stack.isEmpty());
+        for (int i = 0; i < 100; i++) {
+            stack.push(i / 4.0);
+        }
+        assertEquals(100, stack.size());
+        assertEquals(24.75, stack.peek());
+        for (int i = 99; i >= 0; i--) {
+            assertEquals(i / 4.0, stack.pop());
+        }
+        assertTrue(stack.isEmpty());
+    }
+
+    @Test
+    void testEmptyStackThrows() {
+        DoubleStack stack = new DoubleStack();
+        assertThrows(EmptyStackException.class, stack::pop);
+        assertThrows(EmptyStackException.class, stack::peek);
+    }
+
+    @Test
+    void testClear() {
+        DoubleStack stack = new DoubleStack();
+        stack.push(1);
+        stack.push(2);
+        stack.clear();
+        assertEquals(0, stack.size());
+        assertThrows(EmptyStackException.class, stack::pop);
+        stack.push(3);
+        assertEquals(3.0, stack.peek());
+    }
+}
@@ -0,0 +1,48 @@
+package hr.fer.oprpp1.custom.collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntStackTest {
+
+    @Test
+    void testIntStackWithInitialCapacityThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new IntStack(0));
+        assertDoesNotThrow(() -> new IntStack(1));
+    }
+
+    @Test
+    void testPushPopPeek() {
+        IntStack stack = new IntStack(1);
+        assertTrue(stack.isEmpty());
+        for (int i = 0; i < 100; i++) {
+            stack.push(i);
+        }
+        assertEquals(100, stack.size());
+        assertEquals(99, stack.peek());
+        for (int i = 99; i >= 0; i--) {
+            assertEquals(i, stack.pop());
+        }
+        assertTrue(stack.isEmpty());
+    }
+
+    @Test
+    void testEmptyStackThrows() {
+        IntStack stack = new IntStack();
+        assertThrows(EmptyStackException.class, stack::pop);
+        assertThrows(EmptyStackException.class, stack::peek);
+    }
+
+    @Test
+    void testClear() {
+        IntStack stack = new IntStack();
+        stack.push(1);
+        stack.push(2);
+        stack.clear();
+        assertEquals(0, stack.size());
+        assertThrows(EmptyStackException.class, stack::pop);
+        stack.push(3);
+        assertEquals(3, stack.peek());
+    }
+}
@@ -0,0 +1,48 @@
+package hr.fer.oprpp1.custom.collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongStackTest {
+
+    @Test
+    void testLongStackWithInitialCapacityThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new LongStack(0));
+        assertDoesNotThrow(() -> new LongStack(1));
+    }
+
+    @Test
+    void testPushPopPeek() {
+        LongStack stack = new LongStack(1);
+        assertTrue(stack.isEmpty());
+        for (int i = 0; i < 100; i++) {
+            stack.push(i + (long) Integer.MAX_VALUE);
+        }
+        assertEquals(100, stack.size());
+        assertEquals(99L + Integer.MAX_VALUE, stack.peek());
+        for (int i = 99; i >= 0; i--) {
+            assertEquals(i + (long) Integer.MAX_VALUE, stack.pop());
+        }
+        assertTrue(stack.isEmpty());
+    }
+
+    @Test
+    void testEmptyStackThrows() {
+        LongStack stack = new LongStack();
+        assertThrows(EmptyStackException.class, stack::pop);
+        assertThrows(EmptyStackException.class, stack::peek);
+    }
+
+    @Test
+    void testClear() {
+        LongStack stack = new LongStack();
+        stack.push(1);
+        stack.push(2);
+        stack.clear();
+        assertEquals(0, stack.size());
+        assertThrows(EmptyStackException.class, stack::pop);
+        stack.push(3);
+        assertEquals(3L, stack.peek());
+    }
+}
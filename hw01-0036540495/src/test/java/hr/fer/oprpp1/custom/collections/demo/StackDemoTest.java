@@ -5,7 +5,7 @@ import org.junit.jupiter.api.Test;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class StackDemoTest {
 
@@ -120,4 +120,30 @@ public class StackDemoTest {
                 outputStream.toString().replace("\r\n", "\n")
         );
     }
+
+    @Test
+    void test7() {
+        PrintStream stdout = System.out;
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStream));
+
+        StackDemo.main(new String[]{ "5 -3 - -2 *" });
+
+        System.setOut(stdout);
+
+        assertEquals(
+                "Expression evaluates to -16.\n",
+                outputStream.toString().replace("\r\n", "\n")
+        );
+    }
+
+    @Test
+    void testIsNumber() {
+        assertTrue(StackDemo.isNumber("0"));
+        assertTrue(StackDemo.isNumber("-42"));
+        assertFalse(StackDemo.isNumber("-"));
+        assertFalse(StackDemo.isNumber("4-2"));
+        assertFalse(StackDemo.isNumber("+"));
+        assertFalse(StackDemo.isNumber(""));
+    }
 }
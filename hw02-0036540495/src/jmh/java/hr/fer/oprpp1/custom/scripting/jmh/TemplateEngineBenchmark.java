@@ -0,0 +1,142 @@
+package hr.fer.oprpp1.custom.scripting.jmh;
+
+import hr.fer.oprpp1.custom.scripting.exec.CompiledTemplate;
+import hr.fer.oprpp1.custom.scripting.exec.SmartScriptCompiler;
+import hr.fer.oprpp1.custom.scripting.exec.SmartScriptEngine;
+import hr.fer.oprpp1.custom.scripting.nodes.DocumentNode;
+import hr.fer.oprpp1.custom.scripting.parser.SmartScriptParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of rendering a template with the tree-walking {@link SmartScriptEngine}
+ * and with a {@link CompiledTemplate}.
+ * <p>
+ * The templates mix text, echo tags with variables and constant arithmetic, and nested loops;
+ * the report template also formats numbers with {@code @decfmt}. Every render writes into the same
+ * {@link StringBuilder}, which is emptied before it.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateEngineBenchmark {
+    /**
+     * Name of the template with arithmetic only.
+     */
+    private static final String TABLE = "table";
+
+    /**
+     * Name of the template which also calls a function.
+     */
+    private static final String REPORT = "report";
+
+    /**
+     * Template with arithmetic only.
+     */
+    private static final String TABLE_TEMPLATE = """
+            <h1>Report for {$= name $}</h1>
+            <p>Page size is {$= 60 24 * $} minutes, ratio {$= 1.0 3 / $}.</p>
+            <table>
+            {$ FOR row 1 rows $}  <tr>{$ FOR col 1 10 $}<td>{$= row col * $}</td>{$END$}</tr>
+            {$END$}</table>
+            <ul>
+            {$ FOR i 0 100 5 $}  <li>{$= i $}: {$= i 0.5 * $} / {$= i 2 ^ 1 + $}</li>
+            {$END$}</ul>
+            """;
+
+    /**
+     * Template which also calls a function.
+     */
+    private static final String REPORT_TEMPLATE = """
+            <h1>Report for {$= name $}</h1>
+            <p>Page size is {$= 60 24 * $} minutes, ratio {$= 1.0 3 / $}.</p>
+            <table>
+            {$ FOR row 1 rows $}  <tr>{$ FOR col 1 10 $}<td>{$= row col * $}</td>{$END$}</tr>
+            {$END$}</table>
+            <ul>
+            {$ FOR i 0 100 5 $}  <li>{$= i $}: {$= i "0.0" @decfmt $} / {$= i 2 ^ 1 + $}</li>
+            {$END$}</ul>
+            """;
+
+    /**
+     * Rendered template.
+     */
+    @Param({TABLE, REPORT})
+    public String template;
+
+    /**
+     * Interpreter of the template.
+     */
+    private SmartScriptEngine engine;
+
+    /**
+     * Compiled template.
+     */
+    private CompiledTemplate compiled;
+
+    /**
+     * Variables of the renders.
+     */
+    private Map<String, Object> variables;
+
+    /**
+     * Builder the output is written to.
+     */
+    private StringBuilder sb;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String text = switch (template) {
+            case TABLE -> TABLE_TEMPLATE;
+            case REPORT -> REPORT_TEMPLATE;
+            default -> throw new IllegalArgumentException("Unknown template: " + template);
+        };
+        DocumentNode document = new SmartScriptParser(text).getDocumentNode();
+        engine = new SmartScriptEngine(document);
+        compiled = new SmartScriptCompiler().compile(document);
+        variables = Map.of("name", "Benchmark", "rows", 10);
+        sb = new StringBuilder(1 << 16);
+
+        StringBuilder interpreted = new StringBuilder();
+        StringBuilder fromCompiled = new StringBuilder();
+        engine.execute(interpreted, variables);
+        compiled.execute(fromCompiled, variables);
+        if (!interpreted.toString().equals(fromCompiled.toString())) {
+            throw new IllegalStateException("Outputs differ.");
+        }
+    }
+
+    @Benchmark
+    public int interpreter() throws IOException {
+        sb.setLength(0);
+        engine.execute(sb, variables);
+        return sb.length();
+    }
+
+    @Benchmark
+    public int compiled() throws IOException {
+        sb.setLength(0);
+        compiled.execute(sb, variables);
+        return sb.length();
+    }
+}
@@ -0,0 +1,99 @@
+package hr.fer.oprpp1.custom.scripting.jmh;
+
+import hr.fer.oprpp1.custom.scripting.lexer.SmartScriptLexer;
+import hr.fer.oprpp1.custom.scripting.lexer.SmartScriptLexerState;
+import hr.fer.oprpp1.custom.scripting.lexer.SmartScriptToken;
+import hr.fer.oprpp1.custom.scripting.lexer.SmartScriptTokenType;
+import hr.fer.oprpp1.custom.scripting.nodes.DocumentNode;
+import hr.fer.oprpp1.custom.scripting.parser.SmartScriptParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of lexing and parsing a template which consists mostly of text.
+ * <p>
+ * The template is made of paragraphs of plain text separated by short echo and for-loop tags, and a few
+ * paragraphs contain escape sequences. It is lexed and parsed from a string, where text without escapes
+ * is not copied, and parsed from a reader, where all text is copied out of the window.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextTokenBenchmark {
+    /**
+     * Approximate number of characters of the template.
+     */
+    @Param({"100000", "10000000"})
+    public int size;
+
+    /**
+     * Generated template.
+     */
+    private String template;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String paragraph = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor "
+                + "incididunt ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud.\r\n";
+        StringBuilder sb = new StringBuilder(size + 1_000);
+        for (int i = 0; sb.length() < size; i++) {
+            sb.append(paragraph).append(paragraph).append(paragraph);
+            if (i % 10 == 0) sb.append("Escaped \\{$ and \\\\ in text.\r\n");
+            sb.append("{$= name \"x\" @sin $}");
+            if (i % 5 == 0) sb.append("{$ FOR i 1 10 1 $}").append(paragraph).append("{$END$}");
+        }
+        template = sb.toString();
+    }
+
+    /**
+     * Lexes the template from a string and returns the number of characters of text.
+     */
+    @Benchmark
+    public long lexString() {
+        SmartScriptLexer lexer = new SmartScriptLexer(template);
+        long textChars = 0;
+        while (true) {
+            SmartScriptToken token = lexer.nextToken();
+            SmartScriptTokenType type = token.getType();
+            if (type == SmartScriptTokenType.EOF) break;
+            switch (type) {
+                case TEXT -> textChars += token.getTextSequence().length();
+                case START_TAG_DEF -> lexer.setState(SmartScriptLexerState.TAG_NAME);
+                case TAG_NAME -> lexer.setState(SmartScriptLexerState.TAG_DEF);
+                case END_TAG_DEF -> lexer.setState(SmartScriptLexerState.TEXT);
+                default -> {
+                }
+            }
+        }
+        return textChars;
+    }
+
+    @Benchmark
+    public DocumentNode parseString() {
+        return new SmartScriptParser(template).getDocumentNode();
+    }
+
+    @Benchmark
+    public DocumentNode parseReader() {
+        return new SmartScriptParser(new SmartScriptLexer(new StringReader(template))).getDocumentNode();
+    }
+}
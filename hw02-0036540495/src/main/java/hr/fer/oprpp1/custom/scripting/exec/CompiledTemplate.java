@@ -0,0 +1,79 @@
+package hr.fer.oprpp1.custom.scripting.exec;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A document compiled by {@link SmartScriptCompiler} into a tree of closures, which produces the same output
+ * as {@link SmartScriptEngine} without inspecting the nodes and elements of the document on every execution.
+ * <p>
+ * A compiled template does not change after it is created, so it can be executed in several threads at once.
+ *
+ * @see SmartScriptCompiler
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public final class CompiledTemplate {
+    /**
+     * A compiled part of a document.
+     */
+    @FunctionalInterface
+    interface Step {
+        /**
+         * Executes the compiled part of the document.
+         *
+         * @param execution state of the execution
+         * @throws IOException if writing the output fails
+         */
+        void run(Execution execution) throws IOException;
+    }
+
+    /**
+     * Compiled document.
+     */
+    private final Step body;
+
+    /**
+     * Slot of every variable used in the document.
+     */
+    private final Map<String, Integer> slots;
+
+    /**
+     * Creates a template from the given compiled document.
+     *
+     * @param body  compiled document
+     * @param slots slot of every variable used in the document
+     */
+    CompiledTemplate(Step body, Map<String, Integer> slots) {
+        this.body = body;
+        this.slots = slots;
+    }
+
+    /**
+     * Executes the template and writes its output to the given appendable.
+     *
+     * @param output destination of the output
+     * @throws NullPointerException       if the output is null
+     * @throws SmartScriptEngineException if the template cannot be executed
+     * @throws IOException                if writing the output fails
+     * @see SmartScriptEngine#execute(Appendable)
+     */
+    public void execute(Appendable output) throws IOException {
+        execute(output, Map.of());
+    }
+
+    /**
+     * Executes the template with the given values of variables and writes its output to the given appendable.
+     *
+     * @param output    destination of the output
+     * @param variables values of variables by name
+     * @throws NullPointerException       if the output or the variables are null
+     * @throws SmartScriptEngineException if the template cannot be executed
+     * @throws IOException                if writing the output fails
+     * @see SmartScriptEngine#execute(Appendable, Map)
+     */
+    public void execute(Appendable output, Map<String, ?> variables) throws IOException {
+        body.run(new Execution(output, slots, variables));
+    }
+}
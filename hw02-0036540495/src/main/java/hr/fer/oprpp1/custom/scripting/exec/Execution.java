@@ -0,0 +1,119 @@
+package hr.fer.oprpp1.custom.scripting.exec;
+
+import hr.fer.oprpp1.custom.scripting.elems.Element;
+import hr.fer.oprpp1.custom.scripting.elems.ElementVariable;
+import hr.fer.oprpp1.custom.scripting.nodes.EchoNode;
+import hr.fer.oprpp1.custom.scripting.nodes.ForLoopNode;
+import hr.fer.oprpp1.custom.scripting.nodes.Node;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * State of one execution of a document by {@link SmartScriptEngine} or a {@link CompiledTemplate}.
+ * <p>
+ * Every variable of the document has a slot in {@link #variables}, assigned by {@link #assignSlots(Node)}
+ * when the document is prepared for execution.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+final class Execution {
+    /**
+     * Destination of the output.
+     */
+    final Output output;
+
+    /**
+     * Stack the elements of echo tags and loop expressions are evaluated on.
+     */
+    final ValueStack stack = new ValueStack();
+
+    /**
+     * End values and steps of the loops being executed.
+     */
+    final ValueStack bounds = new ValueStack();
+
+    /**
+     * Values of the variables, one slot per variable of the document.
+     */
+    final ValueStack variables = new ValueStack();
+
+    /**
+     * Whether a variable has a value, by slot.
+     */
+    final boolean[] defined;
+
+    /**
+     * Creates the state of an execution which writes to the given output, with the given values of variables.
+     *
+     * @param output    destination of the output
+     * @param slots     slot of every variable of the document
+     * @param variables values of variables by name, names without a slot are ignored
+     * @throws NullPointerException if the output or the variables are null
+     */
+    Execution(Appendable output, Map<String, Integer> slots, Map<String, ?> variables) {
+        if (variables == null) {
+            throw new NullPointerException("Variables cannot be null.");
+        }
+        this.output = Output.of(output);
+        this.defined = new boolean[slots.size()];
+        for (int i = 0; i < defined.length; i++) {
+            this.variables.push(null);
+        }
+        for (Map.Entry<String, ?> variable : variables.entrySet()) {
+            Integer slot = slots.get(variable.getKey());
+            if (slot != null) {
+                stack.push(variable.getValue());
+                stack.popInto(this.variables, slot);
+                defined[slot] = true;
+            }
+        }
+    }
+
+    /**
+     * Assigns a slot to every variable used in the given node and its descendants.
+     *
+     * @param node node whose variables get slots
+     * @return slot of every variable by name
+     */
+    static Map<String, Integer> assignSlots(Node node) {
+        Map<String, Integer> slots = new HashMap<>();
+        assignSlots(node, slots);
+        return slots;
+    }
+
+    /**
+     * Assigns a slot to every variable without one used in the given node and its descendants.
+     *
+     * @param node  node whose variables get slots
+     * @param slots slots assigned so far
+     */
+    private static void assignSlots(Node node, Map<String, Integer> slots) {
+        if (node instanceof ForLoopNode loop) {
+            assignSlot(loop.getVariable(), slots);
+            assignSlot(loop.getStartExpression(), slots);
+            assignSlot(loop.getEndExpression(), slots);
+            assignSlot(loop.getStepExpression(), slots);
+        } else if (node instanceof EchoNode echo) {
+            for (Element element : echo.getElements()) {
+                assignSlot(element, slots);
+            }
+        }
+        for (int i = 0; i < node.numberOfChildren(); i++) {
+            assignSlots(node.getChild(i), slots);
+        }
+    }
+
+    /**
+     * Assigns a slot to the given element if it is a variable without one.
+     *
+     * @param element element which is checked, may be null
+     * @param slots   slots assigned so far
+     */
+    private static void assignSlot(Element element, Map<String, Integer> slots) {
+        if (element instanceof ElementVariable variable) {
+            slots.putIfAbsent(variable.getName(), slots.size());
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package hr.fer.oprpp1.custom.scripting.exec;
+
+import hr.fer.oprpp1.custom.scripting.lexer.TextSlice;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Destination of the text produced by {@link SmartScriptEngine}, which writes numbers and
+ * {@link TextSlice}s without creating intermediate strings where the underlying {@link Appendable} allows it.
+ * <p>
+ * A {@link StringBuilder} and a {@link Writer} are written to directly; any other appendable receives
+ * ints character by character and doubles as strings.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+abstract class Output {
+    /**
+     * Number of characters needed to write any int.
+     */
+    private static final int INT_CHARS = 11;
+
+    /**
+     * Buffer the digits of an int are written to.
+     */
+    final char[] digits = new char[INT_CHARS];
+
+    /**
+     * Returns an output which writes to the given appendable.
+     *
+     * @param appendable destination of the text
+     * @return output for the given appendable
+     * @throws NullPointerException if the given appendable is null
+     */
+    static Output of(Appendable appendable) {
+        if (appendable == null) {
+            throw new NullPointerException("Output cannot be null.");
+        }
+        if (appendable instanceof StringBuilder sb) return new BuilderOutput(sb);
+        if (appendable instanceof Writer writer) return new WriterOutput(writer);
+        return new AppendableOutput(appendable);
+    }
+
+    /**
+     * Writes the given text.
+     *
+     * @param text text which is written
+     * @throws IOException if writing fails
+     */
+    abstract void append(CharSequence text) throws IOException;
+
+    /**
+     * Writes the given int in decimal.
+     *
+     * @param value value which is written
+     * @throws IOException if writing fails
+     */
+    abstract void append(int value) throws IOException;
+
+    /**
+     * Writes the given double as {@link Double#toString(double)} does.
+     *
+     * @param value value which is written
+     * @throws IOException if writing fails
+     */
+    abstract void append(double value) throws IOException;
+
+    /**
+     * Writes the given object, as text if it is a {@link CharSequence} and as {@link String#valueOf(Object)} otherwise.
+     *
+     * @param value value which is written, may be null
+     * @throws IOException if writing fails
+     */
+    void append(Object value) throws IOException {
+        append(value instanceof CharSequence text ? text : String.valueOf(value));
+    }
+
+    /**
+     * Writes the decimal digits of the given int to the end of the digit buffer.
+     *
+     * @param value value which is formatted
+     * @return index of the first character in {@link #digits}
+     */
+    int format(int value) {
+        int index = INT_CHARS;
+        long rest = Math.abs((long) value);
+        do {
+            digits[--index] = (char) ('0' + rest % 10);
+            rest /= 10;
+        } while (rest != 0);
+        if (value < 0) digits[--index] = '-';
+        return index;
+    }
+
+    /**
+     * An output which writes to a {@link StringBuilder}.
+     */
+    private static final class BuilderOutput extends Output {
+        /**
+         * Builder the text is written to.
+         */
+        private final StringBuilder sb;
+
+        /**
+         * Creates an output which writes to the given builder.
+         *
+         * @param sb builder the text is written to
+         */
+        private BuilderOutput(StringBuilder sb) {
+            this.sb = sb;
+        }
+
+        @Override
+        void append(CharSequence text) {
+            if (text instanceof TextSlice slice) {
+                slice.appendTo(sb);
+            } else {
+                sb.append(text);
+            }
+        }
+
+        @Override
+        void append(int value) {
+            sb.append(value);
+        }
+
+        @Override
+        void append(double value) {
+            sb.append(value);
+        }
+    }
+
+    /**
+     * An output which writes to a {@link Writer}.
+     */
+    private static final class WriterOutput extends Output {
+        /**
+         * Writer the text is written to.
+         */
+        private final Writer writer;
+
+        /**
+         * Creates an output which writes to the given writer.
+         *
+         * @param writer writer the text is written to
+         */
+        private WriterOutput(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        void append(CharSequence text) throws IOException {
+            if (text instanceof TextSlice slice) {
+                slice.writeTo(writer);
+            } else if (text instanceof String s) {
+                writer.write(s);
+            } else {
+                writer.append(text);
+            }
+        }
+
+        @Override
+        void append(int value) throws IOException {
+            int start = format(value);
+            writer.write(digits, start, INT_CHARS - start);
+        }
+
+        @Override
+        void append(double value) throws IOException {
+            writer.write(Double.toString(value));
+        }
+    }
+
+    /**
+     * An output which writes to any other {@link Appendable}.
+     */
+    private static final class AppendableOutput extends Output {
+        /**
+         * Appendable the text is written to.
+         */
+        private final Appendable appendable;
+
+        /**
+         * Creates an output which writes to the given appendable.
+         *
+         * @param appendable appendable the text is written to
+         */
+        private AppendableOutput(Appendable appendable) {
+            this.appendable = appendable;
+        }
+
+        @Override
+        void append(CharSequence text) throws IOException {
+            appendable.append(text);
+        }
+
+        @Override
+        void append(int value) throws IOException {
+            for (int i = format(value); i < INT_CHARS; i++) {
+                appendable.append(digits[i]);
+            }
+        }
+
+        @Override
+        void append(double value) throws IOException {
+            appendable.append(Double.toString(value));
+        }
+    }
+}
@@ -0,0 +1,529 @@
+package hr.fer.oprpp1.custom.scripting.exec;
+
+import hr.fer.oprpp1.custom.scripting.elems.*;
+import hr.fer.oprpp1.custom.scripting.exec.CompiledTemplate.Step;
+import hr.fer.oprpp1.custom.scripting.nodes.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * A compiler which turns a document model into a {@link CompiledTemplate}, a tree of closures
+ * with the elements of the document already bound, so executing it does not dispatch on node and element types.
+ * <p>
+ * The compiler also does the following:
+ * <ul>
+ *     <li>Operators whose operands are constants are evaluated once, when the document is compiled.
+ *     An echo tag with only constants and such operators becomes text.</li>
+ *     <li>Adjacent text nodes and constant echo tags are written with a single append.</li>
+ *     <li>An echo tag with a single variable writes the variable without using the value stack.</li>
+ *     <li>A for-loop whose start, end and step are ints counts with a local int instead of the value stack,
+ *     unless a nested loop has the same loop variable.</li>
+ * </ul>
+ * Operations which fail, such as an integer division by 0, are not evaluated at compile time, so they fail
+ * when the template is executed, as they do in {@link SmartScriptEngine}.
+ * Functions are looked up when the document is compiled, so later changes of the registry are not seen.
+ *
+ * @see CompiledTemplate
+ * @see SmartScriptEngine
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public class SmartScriptCompiler {
+    /**
+     * Registry used when none is given.
+     */
+    private static final SmartScriptFunctionRegistry DEFAULT_FUNCTIONS = SmartScriptFunctionRegistry.withDefaults();
+
+    /**
+     * Step which does nothing.
+     */
+    private static final Step NOTHING = execution -> {
+    };
+
+    /**
+     * Functions which can be called from echo tags.
+     */
+    private final SmartScriptFunctionRegistry functions;
+
+    /**
+     * Creates a compiler which uses the default functions.
+     */
+    public SmartScriptCompiler() {
+        this(DEFAULT_FUNCTIONS);
+    }
+
+    /**
+     * Creates a compiler which uses the given functions.
+     *
+     * @param functions functions which can be called from echo tags
+     * @throws NullPointerException if the registry is null
+     */
+    public SmartScriptCompiler(SmartScriptFunctionRegistry functions) {
+        if (functions == null) {
+            throw new NullPointerException("Function registry cannot be null.");
+        }
+        this.functions = functions;
+    }
+
+    /**
+     * Compiles the given document.
+     *
+     * @param documentNode document which is compiled
+     * @return compiled document
+     * @throws NullPointerException if the document is null
+     */
+    public CompiledTemplate compile(DocumentNode documentNode) {
+        if (documentNode == null) {
+            throw new NullPointerException("Document node cannot be null.");
+        }
+        Map<String, Integer> slots = Execution.assignSlots(documentNode);
+        return new CompiledTemplate(compileChildren(documentNode, slots), slots);
+    }
+
+    /**
+     * Compiles the children of the given node into one step.
+     *
+     * @param node  node whose children are compiled
+     * @param slots slot of every variable of the document
+     * @return step which executes the children
+     */
+    private Step compileChildren(Node node, Map<String, Integer> slots) {
+        ArrayList<Step> steps = new ArrayList<>();
+        ArrayList<CharSequence> texts = new ArrayList<>();
+
+        for (int i = 0; i < node.numberOfChildren(); i++) {
+            Node child = node.getChild(i);
+            if (child instanceof TextNode text) {
+                texts.add(text.getTextSequence());
+            } else if (child instanceof EchoNode echo) {
+                String constant = constantEcho(echo);
+                if (constant != null) {
+                    texts.add(constant);
+                } else {
+                    flushTexts(texts, steps);
+                    steps.add(compileEcho(echo, slots));
+                }
+            } else if (child instanceof ForLoopNode loop) {
+                flushTexts(texts, steps);
+                steps.add(compileLoop(loop, slots));
+            } else {
+                throw new SmartScriptEngineException("Unsupported node " + child.getClass().getSimpleName() + ".");
+            }
+        }
+        flushTexts(texts, steps);
+
+        if (steps.isEmpty()) return NOTHING;
+        if (steps.size() == 1) return steps.get(0);
+        Step[] array = steps.toArray(new Step[0]);
+        return execution -> {
+            for (Step step : array) {
+                step.run(execution);
+            }
+        };
+    }
+
+    /**
+     * Adds a step which writes the given texts, if there are any, and clears them.
+     * A single text is written as it is, so a {@link hr.fer.oprpp1.custom.scripting.lexer.TextSlice} is not copied.
+     *
+     * @param texts texts which are written
+     * @param steps steps the new step is added to
+     */
+    private static void flushTexts(ArrayList<CharSequence> texts, ArrayList<Step> steps) {
+        if (texts.isEmpty()) return;
+
+        CharSequence text;
+        if (texts.size() == 1) {
+            text = texts.get(0);
+        } else {
+            StringBuilder sb = new StringBuilder();
+            for (CharSequence part : texts) {
+                sb.append(part);
+            }
+            text = sb.toString();
+        }
+        texts.clear();
+        if (text.length() > 0) {
+            steps.add(execution -> execution.output.append(text));
+        }
+    }
+
+    /**
+     * Evaluates the given echo tag if all of its elements are constants and operators which can be evaluated.
+     *
+     * @param echo echo tag which is evaluated
+     * @return output of the echo tag, or null if it can only be evaluated when the template is executed
+     */
+    private static String constantEcho(EchoNode echo) {
+        ValueStack stack = new ValueStack();
+        for (Element element : echo.getElements()) {
+            if (element instanceof ElementOperator operator) {
+                if (!fold(stack, operator.getSymbol().charAt(0))) return null;
+            } else if (!pushConstant(element, stack)) {
+                return null;
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        try {
+            stack.writeAndClear(Output.of(sb));
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to a StringBuilder failed.", e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Compiles an echo tag which cannot be evaluated at compile time.
+     * <p>
+     * Constants are collected on a stack while the compiler reads the elements, so that operators
+     * can be applied to them, and are pushed by the compiled step only before an element which is not a constant.
+     *
+     * @param echo  echo tag which is compiled
+     * @param slots slot of every variable of the document
+     * @return step which executes the echo tag
+     */
+    private Step compileEcho(EchoNode echo, Map<String, Integer> slots) {
+        Element[] elements = echo.getElements();
+        if (elements.length == 1 && elements[0] instanceof ElementVariable variable) {
+            int slot = slots.get(variable.getName());
+            String name = variable.getName();
+            return execution -> {
+                checkDefined(execution, slot, name);
+                execution.variables.write(slot, execution.output);
+            };
+        }
+
+        ArrayList<Step> steps = new ArrayList<>();
+        ValueStack constants = new ValueStack();
+        for (Element element : elements) {
+            if (element instanceof ElementOperator operator) {
+                char symbol = operator.getSymbol().charAt(0);
+                if (constants.size() >= 2 && fold(constants, symbol)) continue;
+                flushConstants(constants, steps);
+                steps.add(execution -> execution.stack.apply(symbol));
+            } else if (element instanceof ElementFunction function) {
+                flushConstants(constants, steps);
+                steps.add(compileFunction(function));
+            } else if (element instanceof ElementVariable variable) {
+                flushConstants(constants, steps);
+                steps.add(compilePush(variable, slots));
+            } else if (!pushConstant(element, constants)) {
+                throw new SmartScriptEngineException("Element " + element.asText() + " is not a value.");
+            }
+        }
+        flushConstants(constants, steps);
+
+        Step[] array = steps.toArray(new Step[0]);
+        return execution -> {
+            for (Step step : array) {
+                step.run(execution);
+            }
+            execution.stack.writeAndClear(execution.output);
+        };
+    }
+
+    /**
+     * Compiles a call of the given function.
+     *
+     * @param function function which is called
+     * @return step which calls the function, or fails if the function does not exist
+     */
+    private Step compileFunction(ElementFunction function) {
+        SmartScriptFunction implementation = functions.get(function.getName());
+        if (implementation == null) {
+            String name = function.getName();
+            return execution -> {
+                throw new SmartScriptEngineException("Unknown function @" + name + ".");
+            };
+        }
+        return execution -> implementation.apply(execution.stack);
+    }
+
+    /**
+     * Compiles the given for-loop.
+     * <p>
+     * If the start, end and step are constant ints, the loop counts with them directly. Otherwise they are
+     * evaluated when the loop is executed, and the loop still counts with ints if they all turn out to be ints.
+     *
+     * @param loop  loop which is compiled
+     * @param slots slot of every variable of the document
+     * @return step which executes the loop
+     */
+    private Step compileLoop(ForLoopNode loop, Map<String, Integer> slots) {
+        Step body = compileChildren(loop, slots);
+        String name = loop.getVariable().getName();
+        int slot = slots.get(name);
+        boolean intLoop = !reassignsVariable(loop, name);
+
+        ValueStack constants = new ValueStack();
+        if (intLoop
+                && pushConstantInt(loop.getStartExpression(), constants)
+                && pushConstantInt(loop.getEndExpression(), constants)
+                && (loop.getStepExpression() == null || pushConstantInt(loop.getStepExpression(), constants))) {
+            int step = loop.getStepExpression() == null ? 1 : constants.popInt();
+            int end = constants.popInt();
+            int start = constants.popInt();
+            if (step == 0) {
+                return execution -> {
+                    throw zeroStep(name);
+                };
+            }
+            return execution -> runIntLoop(execution, slot, start, end, step, body);
+        }
+
+        Step pushStart = compilePush(loop.getStartExpression(), slots);
+        Step pushEnd = compilePush(loop.getEndExpression(), slots);
+        Step pushStep = loop.getStepExpression() == null
+                ? execution -> execution.stack.pushInt(1)
+                : compilePush(loop.getStepExpression(), slots);
+
+        return execution -> {
+            ValueStack stack = execution.stack;
+            ValueStack bounds = execution.bounds;
+            ValueStack variables = execution.variables;
+
+            pushEnd.run(execution);
+            stack.toNumber();
+            stack.moveTo(bounds);
+            int end = bounds.size() - 1;
+            pushStep.run(execution);
+            stack.toNumber();
+            stack.moveTo(bounds);
+            int step = end + 1;
+            stack.pushFrom(bounds, step);
+            stack.pushInt(0);
+            int direction = stack.compareAndPop();
+            if (direction == 0) {
+                throw zeroStep(name);
+            }
+            pushStart.run(execution);
+            stack.toNumber();
+
+            if (intLoop && stack.peekType() == ValueType.INTEGER
+                    && bounds.typeAt(end) == ValueType.INTEGER && bounds.typeAt(step) == ValueType.INTEGER) {
+                int startValue = stack.popInt();
+                int endValue = bounds.intAt(end);
+                int stepValue = bounds.intAt(step);
+                bounds.drop(2);
+                runIntLoop(execution, slot, startValue, endValue, stepValue, body);
+                return;
+            }
+
+            stack.popInto(variables, slot);
+            execution.defined[slot] = true;
+            while (true) {
+                stack.pushFrom(variables, slot);
+                stack.pushFrom(bounds, end);
+                int comparison = stack.compareAndPop();
+                if (direction > 0 ? comparison > 0 : comparison < 0) break;
+
+                body.run(execution);
+
+                stack.pushFrom(variables, slot);
+                stack.pushFrom(bounds, step);
+                stack.apply('+');
+                stack.popInto(variables, slot);
+            }
+            bounds.drop(2);
+        };
+    }
+
+    /**
+     * Runs a loop over ints, storing the counter in the slot of the loop variable before every pass,
+     * and the first value past the end after the loop, as {@link SmartScriptEngine} does.
+     *
+     * @param execution state of the execution
+     * @param slot      slot of the loop variable
+     * @param start     start value
+     * @param end       end value
+     * @param step      step, not 0
+     * @param body      body of the loop
+     * @throws IOException if writing the output fails
+     */
+    private static void runIntLoop(Execution execution, int slot, int start, int end, int step, Step body)
+            throws IOException {
+        ValueStack variables = execution.variables;
+        execution.defined[slot] = true;
+        int value = start;
+        if (step > 0) {
+            for (; value <= end; value += step) {
+                variables.setInt(slot, value);
+                body.run(execution);
+            }
+        } else {
+            for (; value >= end; value += step) {
+                variables.setInt(slot, value);
+                body.run(execution);
+            }
+        }
+        variables.setInt(slot, value);
+    }
+
+    /**
+     * Checks whether a loop nested in the given node has the variable with the given name as its loop variable,
+     * so it would change the variable while the given loop counts with it.
+     *
+     * @param node node whose descendants are checked
+     * @param name name of the variable
+     * @return true if a nested loop reassigns the variable, false otherwise
+     */
+    private static boolean reassignsVariable(Node node, String name) {
+        for (int i = 0; i < node.numberOfChildren(); i++) {
+            Node child = node.getChild(i);
+            if (child instanceof ForLoopNode loop
+                    && (loop.getVariable().getName().equals(name) || reassignsVariable(loop, name))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compiles pushing the value of the given constant or variable.
+     *
+     * @param element element whose value is pushed
+     * @param slots   slot of every variable of the document
+     * @return step which pushes the value
+     */
+    private static Step compilePush(Element element, Map<String, Integer> slots) {
+        if (element instanceof ElementVariable variable) {
+            int slot = slots.get(variable.getName());
+            String name = variable.getName();
+            return execution -> {
+                checkDefined(execution, slot, name);
+                execution.stack.pushFrom(execution.variables, slot);
+            };
+        }
+        ValueStack constant = new ValueStack();
+        if (!pushConstant(element, constant)) {
+            throw new SmartScriptEngineException("Element " + element.asText() + " is not a value.");
+        }
+        return compilePush(constant.pop());
+    }
+
+    /**
+     * Compiles pushing the given constant.
+     *
+     * @param value constant which is pushed
+     * @return step which pushes the constant
+     */
+    private static Step compilePush(Object value) {
+        if (value instanceof Integer i) {
+            int constant = i;
+            return execution -> execution.stack.pushInt(constant);
+        }
+        if (value instanceof Double d) {
+            double constant = d;
+            return execution -> execution.stack.pushDouble(constant);
+        }
+        return execution -> execution.stack.push(value);
+    }
+
+    /**
+     * Adds steps which push the given constants, from the bottom to the top, and removes them from the stack.
+     *
+     * @param constants constants which are pushed
+     * @param steps     steps the new steps are added to
+     */
+    private static void flushConstants(ValueStack constants, ArrayList<Step> steps) {
+        Object[] values = new Object[constants.size()];
+        for (int i = values.length - 1; i >= 0; i--) {
+            values[i] = constants.pop();
+        }
+        for (Object value : values) {
+            steps.add(compilePush(value));
+        }
+    }
+
+    /**
+     * Pushes the value of the given element onto the given stack if it is a constant.
+     *
+     * @param element element which is checked
+     * @param stack   stack the value is pushed onto
+     * @return true if the element is a constant, false otherwise
+     */
+    private static boolean pushConstant(Element element, ValueStack stack) {
+        if (element instanceof ElementConstantInteger constant) {
+            stack.pushInt(constant.getValue());
+        } else if (element instanceof ElementConstantDouble constant) {
+            stack.pushDouble(constant.getValue());
+        } else if (element instanceof ElementString string) {
+            stack.push(string.getValue());
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Pushes the value of the given element onto the given stack if it is a constant which is an int
+     * when it is used as a number.
+     *
+     * @param element element which is checked
+     * @param stack   stack the value is pushed onto
+     * @return true if the value was pushed, false otherwise
+     */
+    private static boolean pushConstantInt(Element element, ValueStack stack) {
+        ValueStack constant = new ValueStack();
+        if (!pushConstant(element, constant)) return false;
+        try {
+            constant.toNumber();
+        } catch (SmartScriptEngineException e) {
+            return false;
+        }
+        if (constant.peekType() != ValueType.INTEGER) return false;
+        stack.pushInt(constant.popInt());
+        return true;
+    }
+
+    /**
+     * Applies the given operator to the two constants on top of the given stack if that succeeds.
+     *
+     * @param stack    stack with at least two constants
+     * @param operator operator which is applied
+     * @return true if the operator was applied, false if the stack is left unchanged
+     */
+    private static boolean fold(ValueStack stack, char operator) {
+        if (stack.size() < 2) return false;
+
+        ValueStack operands = new ValueStack();
+        operands.pushFrom(stack, stack.size() - 2);
+        operands.pushFrom(stack, stack.size() - 1);
+        try {
+            operands.apply(operator);
+        } catch (SmartScriptEngineException e) {
+            return false;
+        }
+        stack.drop(2);
+        operands.moveTo(stack);
+        return true;
+    }
+
+    /**
+     * Checks that the variable in the given slot has a value.
+     *
+     * @param execution state of the execution
+     * @param slot      slot of the variable
+     * @param name      name of the variable
+     * @throws SmartScriptEngineException if the variable has no value
+     */
+    private static void checkDefined(Execution execution, int slot, String name) {
+        if (!execution.defined[slot]) {
+            throw new SmartScriptEngineException("Variable " + name + " has no value.");
+        }
+    }
+
+    /**
+     * Creates the exception thrown for a loop with a step of 0.
+     *
+     * @param name name of the loop variable
+     * @return exception for the loop
+     */
+    private static SmartScriptEngineException zeroStep(String name) {
+        return new SmartScriptEngineException("Step of the loop over " + name + " is 0.");
+    }
+}
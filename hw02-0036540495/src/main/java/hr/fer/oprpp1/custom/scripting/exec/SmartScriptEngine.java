@@ -0,0 +1,240 @@
+package hr.fer.oprpp1.custom.scripting.exec;
+
+import hr.fer.oprpp1.custom.scripting.elems.*;
+import hr.fer.oprpp1.custom.scripting.nodes.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * An engine which executes a document model generated by
+ * {@link hr.fer.oprpp1.custom.scripting.parser.SmartScriptParser} and writes its output to an {@link Appendable}.
+ * <p>
+ * Text nodes are written as they are. The elements of an echo tag are evaluated from left to right:
+ * constants and variables push their values onto a {@link ValueStack}, an operator replaces the two values on top
+ * with its result and a function is called with the stack. The values left on the stack are written from
+ * the bottom to the top. A for-loop sets its variable to the start value and executes its children
+ * as long as the variable has not passed the end value, adding the step (1 if omitted) after every pass.
+ * With a negative step the loop counts down.
+ * <p>
+ * Variables are either loop variables or are given to {@link #execute(Appendable, Map)}. Using a variable
+ * which has no value is an error. Values of variables are kept in typed slots, so loops over ints do not box them.
+ * <p>
+ * An engine only reads the document and the function registry, so it can execute the document
+ * in several threads at once.
+ *
+ * @see ValueStack
+ * @see SmartScriptFunctionRegistry
+ * @see SmartScriptEngineException
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public class SmartScriptEngine {
+    /**
+     * Registry used when none is given.
+     */
+    private static final SmartScriptFunctionRegistry DEFAULT_FUNCTIONS = SmartScriptFunctionRegistry.withDefaults();
+
+    /**
+     * Document which is executed.
+     */
+    private final DocumentNode documentNode;
+
+    /**
+     * Functions which can be called from echo tags.
+     */
+    private final SmartScriptFunctionRegistry functions;
+
+    /**
+     * Slot of every variable used in the document.
+     */
+    private final Map<String, Integer> slots;
+
+    /**
+     * Creates an engine which executes the given document with the default functions.
+     *
+     * @param documentNode document which is executed
+     * @throws NullPointerException if the document is null
+     */
+    public SmartScriptEngine(DocumentNode documentNode) {
+        this(documentNode, DEFAULT_FUNCTIONS);
+    }
+
+    /**
+     * Creates an engine which executes the given document with the given functions.
+     *
+     * @param documentNode document which is executed
+     * @param functions    functions which can be called from echo tags
+     * @throws NullPointerException if the document or the registry is null
+     */
+    public SmartScriptEngine(DocumentNode documentNode, SmartScriptFunctionRegistry functions) {
+        if (documentNode == null) {
+            throw new NullPointerException("Document node cannot be null.");
+        }
+        if (functions == null) {
+            throw new NullPointerException("Function registry cannot be null.");
+        }
+        this.documentNode = documentNode;
+        this.functions = functions;
+        this.slots = Execution.assignSlots(documentNode);
+    }
+
+    /**
+     * Executes the document and writes its output to the given appendable.
+     *
+     * @param output destination of the output
+     * @throws NullPointerException       if the output is null
+     * @throws SmartScriptEngineException if the document cannot be executed
+     * @throws IOException                if writing the output fails
+     */
+    public void execute(Appendable output) throws IOException {
+        execute(output, Map.of());
+    }
+
+    /**
+     * Executes the document with the given values of variables and writes its output to the given appendable.
+     * <p>
+     * A value can be a number or any object; a {@link CharSequence} is written as it is, other objects
+     * as {@link String#valueOf(Object)}.
+     *
+     * @param output    destination of the output
+     * @param variables values of variables by name
+     * @throws NullPointerException       if the output or the variables are null
+     * @throws SmartScriptEngineException if the document cannot be executed
+     * @throws IOException                if writing the output fails
+     */
+    public void execute(Appendable output, Map<String, ?> variables) throws IOException {
+        executeChildren(documentNode, new Execution(output, slots, variables));
+    }
+
+    /**
+     * Executes the children of the given node.
+     *
+     * @param node      node whose children are executed
+     * @param execution state of the execution
+     * @throws IOException if writing the output fails
+     */
+    private void executeChildren(Node node, Execution execution) throws IOException {
+        for (int i = 0, n = node.numberOfChildren(); i < n; i++) {
+            Node child = node.getChild(i);
+            if (child instanceof TextNode text) {
+                execution.output.append(text.getTextSequence());
+            } else if (child instanceof EchoNode echo) {
+                executeEcho(echo, execution);
+            } else if (child instanceof ForLoopNode loop) {
+                executeLoop(loop, execution);
+            } else {
+                throw new SmartScriptEngineException("Unsupported node " + child.getClass().getSimpleName() + ".");
+            }
+        }
+    }
+
+    /**
+     * Evaluates the elements of the given echo node and writes the values left on the stack.
+     *
+     * @param echo      node which is executed
+     * @param execution state of the execution
+     * @throws IOException if writing the output fails
+     */
+    private void executeEcho(EchoNode echo, Execution execution) throws IOException {
+        ValueStack stack = execution.stack;
+        for (Element element : echo.getElements()) {
+            if (element instanceof ElementOperator operator) {
+                stack.apply(operator.getSymbol().charAt(0));
+            } else if (element instanceof ElementFunction function) {
+                SmartScriptFunction implementation = functions.get(function.getName());
+                if (implementation == null) {
+                    throw new SmartScriptEngineException("Unknown function @" + function.getName() + ".");
+                }
+                implementation.apply(stack);
+            } else {
+                push(element, execution);
+            }
+        }
+        stack.writeAndClear(execution.output);
+    }
+
+    /**
+     * Executes the given for-loop.
+     * <p>
+     * The end and the step are evaluated once, before the first pass, and kept on the loop stack
+     * while the children are executed.
+     *
+     * @param loop      node which is executed
+     * @param execution state of the execution
+     * @throws SmartScriptEngineException if the step is 0
+     * @throws IOException if writing the output fails
+     */
+    private void executeLoop(ForLoopNode loop, Execution execution) throws IOException {
+        ValueStack stack = execution.stack;
+        ValueStack bounds = execution.bounds;
+        ValueStack variables = execution.variables;
+        int slot = slots.get(loop.getVariable().getName());
+
+        push(loop.getEndExpression(), execution);
+        stack.toNumber();
+        stack.moveTo(bounds);
+        int end = bounds.size() - 1;
+        if (loop.getStepExpression() == null) {
+            bounds.pushInt(1);
+        } else {
+            push(loop.getStepExpression(), execution);
+            stack.toNumber();
+            stack.moveTo(bounds);
+        }
+        int step = end + 1;
+        stack.pushFrom(bounds, step);
+        stack.pushInt(0);
+        int direction = stack.compareAndPop();
+        if (direction == 0) {
+            throw new SmartScriptEngineException("Step of the loop over " + loop.getVariable().getName() + " is 0.");
+        }
+
+        push(loop.getStartExpression(), execution);
+        stack.toNumber();
+        stack.popInto(variables, slot);
+        execution.defined[slot] = true;
+
+        while (true) {
+            stack.pushFrom(variables, slot);
+            stack.pushFrom(bounds, end);
+            int comparison = stack.compareAndPop();
+            if (direction > 0 ? comparison > 0 : comparison < 0) break;
+
+            executeChildren(loop, execution);
+
+            stack.pushFrom(variables, slot);
+            stack.pushFrom(bounds, step);
+            stack.apply('+');
+            stack.popInto(variables, slot);
+        }
+        bounds.drop(2);
+    }
+
+    /**
+     * Pushes the value of the given constant or variable onto the value stack.
+     *
+     * @param element   element whose value is pushed
+     * @param execution state of the execution
+     * @throws SmartScriptEngineException if the element is a variable without a value or is not a value
+     */
+    private void push(Element element, Execution execution) {
+        ValueStack stack = execution.stack;
+        if (element instanceof ElementConstantInteger constant) {
+            stack.pushInt(constant.getValue());
+        } else if (element instanceof ElementConstantDouble constant) {
+            stack.pushDouble(constant.getValue());
+        } else if (element instanceof ElementString string) {
+            stack.push(string.getValue());
+        } else if (element instanceof ElementVariable variable) {
+            int slot = slots.get(variable.getName());
+            if (!execution.defined[slot]) {
+                throw new SmartScriptEngineException("Variable " + variable.getName() + " has no value.");
+            }
+            stack.pushFrom(execution.variables, slot);
+        } else {
+            throw new SmartScriptEngineException("Element " + element.asText() + " is not a value.");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package hr.fer.oprpp1.custom.scripting.exec;
+
+/**
+ * An exception that is thrown when an error occurs while executing a document with {@link SmartScriptEngine}.
+ *
+ * @see SmartScriptEngine
+ * @see RuntimeException
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public class SmartScriptEngineException extends RuntimeException {
+    /**
+     * Constructs a new exception with the given detail message.
+     *
+     * @param message the detail message
+     */
+    public SmartScriptEngineException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new exception with the given detail message and cause.
+     *
+     * @param message the detail message
+     * @param cause   the cause of the exception
+     */
+    public SmartScriptEngineException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,24 @@
+package hr.fer.oprpp1.custom.scripting.exec;
+
+/**
+ * A function which can be called from an echo tag as {@code @name}.
+ * <p>
+ * A function pops its arguments from the value stack, the last argument being on top,
+ * and pushes its results onto it.
+ *
+ * @see SmartScriptFunctionRegistry
+ * @see ValueStack
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@FunctionalInterface
+public interface SmartScriptFunction {
+    /**
+     * Applies the function to the values on the given stack.
+     *
+     * @param stack stack the arguments are popped from and the results are pushed onto
+     * @throws SmartScriptEngineException if the arguments are invalid
+     */
+    void apply(ValueStack stack);
+}
@@ -0,0 +1,90 @@
+package hr.fer.oprpp1.custom.scripting.exec;
+
+import java.text.DecimalFormat;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A registry of the functions which can be called from the echo tags of a document.
+ * <p>
+ * {@link #withDefaults()} creates a registry with the following functions, where the top of the stack is on the right:
+ * <ul>
+ *     <li>{@code x @sin}, {@code x @cos} - sine and cosine of x given in degrees</li>
+ *     <li>{@code x @sqrt}, {@code x @abs} - square root and absolute value of x</li>
+ *     <li>{@code x f @decfmt} - x formatted with the {@link DecimalFormat} pattern f</li>
+ *     <li>{@code x @dup} - pushes x twice</li>
+ *     <li>{@code x y @swap} - pushes y and then x</li>
+ * </ul>
+ * A registry must not be changed while documents which use it are being executed.
+ *
+ * @see SmartScriptFunction
+ * @see SmartScriptEngine
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public class SmartScriptFunctionRegistry {
+    /**
+     * Functions by name.
+     */
+    private final Map<String, SmartScriptFunction> functions = new HashMap<>();
+
+    /**
+     * Creates an empty registry.
+     */
+    public SmartScriptFunctionRegistry() {
+    }
+
+    /**
+     * Creates a registry with the default functions.
+     *
+     * @return new registry with the default functions
+     */
+    public static SmartScriptFunctionRegistry withDefaults() {
+        SmartScriptFunctionRegistry registry = new SmartScriptFunctionRegistry();
+        registry.register("sin", stack -> stack.pushDouble(Math.sin(Math.toRadians(stack.popDouble()))));
+        registry.register("cos", stack -> stack.pushDouble(Math.cos(Math.toRadians(stack.popDouble()))));
+        registry.register("sqrt", stack -> stack.pushDouble(Math.sqrt(stack.popDouble())));
+        registry.register("abs", stack -> {
+            if (stack.peekType() == ValueType.INTEGER) {
+                stack.pushInt(Math.abs(stack.popInt()));
+            } else {
+                stack.pushDouble(Math.abs(stack.popDouble()));
+            }
+        });
+        registry.register("decfmt", stack -> {
+            String pattern = String.valueOf(stack.pop());
+            stack.push(new DecimalFormat(pattern).format(stack.popDouble()));
+        });
+        registry.register("dup", ValueStack::dup);
+        registry.register("swap", ValueStack::swap);
+        return registry;
+    }
+
+    /**
+     * Registers the given function under the given name, replacing a function with the same name.
+     *
+     * @param name     name of the function, without the '@'
+     * @param function function which is registered
+     * @throws NullPointerException if the name or the function is null
+     */
+    public void register(String name, SmartScriptFunction function) {
+        if (name == null) {
+            throw new NullPointerException("Function name cannot be null.");
+        }
+        if (function == null) {
+            throw new NullPointerException("Function cannot be null.");
+        }
+        functions.put(name, function);
+    }
+
+    /**
+     * Returns the function with the given name.
+     *
+     * @param name name of the function, without the '@'
+     * @return function with the given name, or null if there is none
+     */
+    public SmartScriptFunction get(String name) {
+        return functions.get(name);
+    }
+}
@@ -0,0 +1,527 @@
+package hr.fer.oprpp1.custom.scripting.exec;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A stack of values used to evaluate the elements of an echo tag and to pass arguments to functions.
+ * <p>
+ * Ints and doubles are stored in primitive arrays next to an array of objects, so arithmetic
+ * does not box numbers. Objects pushed with {@link #push(Object)} which are {@link Integer}s or {@link Double}s
+ * are stored as primitives as well.
+ * <p>
+ * When a value is used as a number, null is 0, and a {@link CharSequence} is parsed as a double if it
+ * contains a '.' or an exponent, and as an int otherwise. An operation on two ints gives an int,
+ * an operation with a double gives a double.
+ *
+ * @see SmartScriptEngine
+ * @see SmartScriptFunction
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public final class ValueStack {
+    /**
+     * Default number of values the stack can hold before it grows.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Types of the values.
+     */
+    private ValueType[] types;
+
+    /**
+     * Int values, used where the type is {@link ValueType#INTEGER}.
+     */
+    private int[] ints;
+
+    /**
+     * Double values, used where the type is {@link ValueType#DOUBLE}.
+     */
+    private double[] doubles;
+
+    /**
+     * Object values, used where the type is {@link ValueType#OBJECT}.
+     */
+    private Object[] objects;
+
+    /**
+     * Number of values on the stack.
+     */
+    private int size;
+
+    /**
+     * Creates an empty stack.
+     */
+    public ValueStack() {
+        types = new ValueType[DEFAULT_CAPACITY];
+        ints = new int[DEFAULT_CAPACITY];
+        doubles = new double[DEFAULT_CAPACITY];
+        objects = new Object[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Returns the number of values on the stack.
+     *
+     * @return number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the stack is empty.
+     *
+     * @return true if there are no values on the stack, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all values from the stack.
+     */
+    public void clear() {
+        Arrays.fill(objects, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Pushes the given int.
+     *
+     * @param value value which is pushed
+     */
+    public void pushInt(int value) {
+        int index = grow();
+        types[index] = ValueType.INTEGER;
+        ints[index] = value;
+    }
+
+    /**
+     * Pushes the given double.
+     *
+     * @param value value which is pushed
+     */
+    public void pushDouble(double value) {
+        int index = grow();
+        types[index] = ValueType.DOUBLE;
+        doubles[index] = value;
+    }
+
+    /**
+     * Pushes the given object, which is stored as a primitive if it is an {@link Integer} or a {@link Double}.
+     *
+     * @param value value which is pushed, may be null
+     */
+    public void push(Object value) {
+        if (value instanceof Integer i) {
+            pushInt(i);
+        } else if (value instanceof Double d) {
+            pushDouble(d);
+        } else {
+            int index = grow();
+            types[index] = ValueType.OBJECT;
+            objects[index] = value;
+        }
+    }
+
+    /**
+     * Returns the type of the value on top of the stack.
+     *
+     * @return type of the top value
+     * @throws SmartScriptEngineException if the stack is empty
+     */
+    public ValueType peekType() {
+        return types[top()];
+    }
+
+    /**
+     * Removes the value on top of the stack and returns it, boxing numbers.
+     *
+     * @return top value, may be null
+     * @throws SmartScriptEngineException if the stack is empty
+     */
+    public Object pop() {
+        int index = top();
+        size--;
+        return switch (types[index]) {
+            case INTEGER -> ints[index];
+            case DOUBLE -> doubles[index];
+            case OBJECT -> release(index);
+        };
+    }
+
+    /**
+     * Removes the value on top of the stack and returns it as an int.
+     *
+     * @return top value as an int
+     * @throws SmartScriptEngineException if the stack is empty or the value is not an int
+     */
+    public int popInt() {
+        int index = top();
+        if (toNumber(index) != ValueType.INTEGER) {
+            throw new SmartScriptEngineException("Expected an integer but got " + doubles[index] + ".");
+        }
+        size--;
+        return ints[index];
+    }
+
+    /**
+     * Removes the value on top of the stack and returns it as a double.
+     *
+     * @return top value as a double
+     * @throws SmartScriptEngineException if the stack is empty or the value is not a number
+     */
+    public double popDouble() {
+        int index = top();
+        size--;
+        return toNumber(index) == ValueType.INTEGER ? ints[index] : doubles[index];
+    }
+
+    /**
+     * Pushes a copy of the value on top of the stack.
+     *
+     * @throws SmartScriptEngineException if the stack is empty
+     */
+    public void dup() {
+        int index = top();
+        int copy = grow();
+        types[copy] = types[index];
+        ints[copy] = ints[index];
+        doubles[copy] = doubles[index];
+        objects[copy] = objects[index];
+    }
+
+    /**
+     * Swaps the two values on top of the stack.
+     *
+     * @throws SmartScriptEngineException if there are less than two values on the stack
+     */
+    public void swap() {
+        if (size < 2) {
+            throw new SmartScriptEngineException("Expected two values on the stack but got " + size + ".");
+        }
+        int a = size - 1;
+        int b = size - 2;
+
+        ValueType type = types[a];
+        types[a] = types[b];
+        types[b] = type;
+
+        int i = ints[a];
+        ints[a] = ints[b];
+        ints[b] = i;
+
+        double d = doubles[a];
+        doubles[a] = doubles[b];
+        doubles[b] = d;
+
+        Object o = objects[a];
+        objects[a] = objects[b];
+        objects[b] = o;
+    }
+
+    /**
+     * Replaces the two values on top of the stack with the result of the given operator applied to them,
+     * the lower value being the left operand.
+     *
+     * @param operator one of '+', '-', '*', '/' and '^'
+     * @throws SmartScriptEngineException if there are less than two values, they are not numbers,
+     *                                    an int is divided by 0 or the operator is unknown
+     */
+    void apply(char operator) {
+        if (size < 2) {
+            throw new SmartScriptEngineException("Operator " + operator + " expects two operands but got " + size + ".");
+        }
+        int right = size - 1;
+        int left = size - 2;
+        ValueType rightType = toNumber(right);
+        ValueType leftType = toNumber(left);
+        size--;
+
+        if (leftType == ValueType.INTEGER && rightType == ValueType.INTEGER) {
+            int a = ints[left];
+            int b = ints[right];
+            switch (operator) {
+                case '+' -> ints[left] = a + b;
+                case '-' -> ints[left] = a - b;
+                case '*' -> ints[left] = a * b;
+                case '/' -> {
+                    if (b == 0) {
+                        throw new SmartScriptEngineException("Integer division by zero.");
+                    }
+                    ints[left] = a / b;
+                }
+                case '^' -> {
+                    if (b < 0) {
+                        types[left] = ValueType.DOUBLE;
+                        doubles[left] = Math.pow(a, b);
+                    } else {
+                        ints[left] = power(a, b);
+                    }
+                }
+                default -> throw new SmartScriptEngineException("Unknown operator " + operator + ".");
+            }
+            return;
+        }
+
+        double a = leftType == ValueType.INTEGER ? ints[left] : doubles[left];
+        double b = rightType == ValueType.INTEGER ? ints[right] : doubles[right];
+        types[left] = ValueType.DOUBLE;
+        doubles[left] = switch (operator) {
+            case '+' -> a + b;
+            case '-' -> a - b;
+            case '*' -> a * b;
+            case '/' -> a / b;
+            case '^' -> Math.pow(a, b);
+            default -> throw new SmartScriptEngineException("Unknown operator " + operator + ".");
+        };
+    }
+
+    /**
+     * Compares the two values on top of the stack as numbers and removes them.
+     *
+     * @return negative, zero or positive if the lower value is less than, equal to or greater than the top value
+     * @throws SmartScriptEngineException if there are less than two values or they are not numbers
+     */
+    int compareAndPop() {
+        if (size < 2) {
+            throw new SmartScriptEngineException("Expected two values on the stack but got " + size + ".");
+        }
+        int right = size - 1;
+        int left = size - 2;
+        ValueType rightType = toNumber(right);
+        ValueType leftType = toNumber(left);
+        size -= 2;
+
+        if (leftType == ValueType.INTEGER && rightType == ValueType.INTEGER) {
+            return Integer.compare(ints[left], ints[right]);
+        }
+        double a = leftType == ValueType.INTEGER ? ints[left] : doubles[left];
+        double b = rightType == ValueType.INTEGER ? ints[right] : doubles[right];
+        return Double.compare(a, b);
+    }
+
+    /**
+     * Converts the value on top of the stack to a number in place.
+     *
+     * @throws SmartScriptEngineException if the stack is empty or the value is not a number
+     */
+    void toNumber() {
+        toNumber(top());
+    }
+
+    /**
+     * Pushes a copy of the value at the given index of the given stack.
+     *
+     * @param source stack the value is copied from
+     * @param index  index of the value, 0 being the bottom of the source stack
+     */
+    void pushFrom(ValueStack source, int index) {
+        int copy = grow();
+        types[copy] = source.types[index];
+        ints[copy] = source.ints[index];
+        doubles[copy] = source.doubles[index];
+        objects[copy] = source.objects[index];
+    }
+
+    /**
+     * Removes the value on top of the stack and stores it at the given index of the given stack.
+     *
+     * @param target stack the value is stored to
+     * @param index  index of the replaced value, 0 being the bottom of the target stack
+     * @throws SmartScriptEngineException if the stack is empty
+     */
+    void popInto(ValueStack target, int index) {
+        int from = top();
+        size--;
+        target.types[index] = types[from];
+        target.ints[index] = ints[from];
+        target.doubles[index] = doubles[from];
+        target.objects[index] = release(from);
+    }
+
+    /**
+     * Removes the value on top of the stack and pushes it onto the given stack.
+     *
+     * @param target stack the value is moved to
+     * @throws SmartScriptEngineException if the stack is empty
+     */
+    void moveTo(ValueStack target) {
+        target.pushFrom(this, top());
+        release(--size);
+    }
+
+    /**
+     * Returns the type of the value at the given index.
+     *
+     * @param index index of the value, 0 being the bottom of the stack
+     * @return type of the value
+     */
+    ValueType typeAt(int index) {
+        return types[index];
+    }
+
+    /**
+     * Returns the int at the given index, which must be of type {@link ValueType#INTEGER}.
+     *
+     * @param index index of the value, 0 being the bottom of the stack
+     * @return int at the given index
+     */
+    int intAt(int index) {
+        return ints[index];
+    }
+
+    /**
+     * Replaces the value at the given index with the given int.
+     *
+     * @param index index of the replaced value, 0 being the bottom of the stack
+     * @param value new value
+     */
+    void setInt(int index, int value) {
+        types[index] = ValueType.INTEGER;
+        ints[index] = value;
+        objects[index] = null;
+    }
+
+    /**
+     * Writes the value at the given index to the given output, leaving it on the stack.
+     *
+     * @param index  index of the value, 0 being the bottom of the stack
+     * @param output output the value is written to
+     * @throws IOException if writing fails
+     */
+    void write(int index, Output output) throws IOException {
+        switch (types[index]) {
+            case INTEGER -> output.append(ints[index]);
+            case DOUBLE -> output.append(doubles[index]);
+            case OBJECT -> output.append(objects[index]);
+        }
+    }
+
+    /**
+     * Removes the given number of values from the top of the stack.
+     *
+     * @param count number of removed values
+     */
+    void drop(int count) {
+        for (int i = 0; i < count; i++) {
+            release(--size);
+        }
+    }
+
+    /**
+     * Writes all values from the bottom to the top of the stack to the given output and removes them.
+     *
+     * @param output output the values are written to
+     * @throws IOException if writing fails
+     */
+    void writeAndClear(Output output) throws IOException {
+        for (int i = 0; i < size; i++) {
+            switch (types[i]) {
+                case INTEGER -> output.append(ints[i]);
+                case DOUBLE -> output.append(doubles[i]);
+                case OBJECT -> output.append(release(i));
+            }
+        }
+        size = 0;
+    }
+
+    /**
+     * Converts the value at the given index to a number in place.
+     *
+     * @param index index of the value
+     * @return type of the number, either {@link ValueType#INTEGER} or {@link ValueType#DOUBLE}
+     * @throws SmartScriptEngineException if the value is not a number
+     */
+    private ValueType toNumber(int index) {
+        if (types[index] != ValueType.OBJECT) return types[index];
+
+        Object value = release(index);
+        if (value == null) {
+            types[index] = ValueType.INTEGER;
+            ints[index] = 0;
+        } else if (value instanceof CharSequence text) {
+            String s = text.toString();
+            try {
+                if (s.indexOf('.') >= 0 || s.indexOf('E') >= 0 || s.indexOf('e') >= 0) {
+                    types[index] = ValueType.DOUBLE;
+                    doubles[index] = Double.parseDouble(s);
+                } else {
+                    types[index] = ValueType.INTEGER;
+                    ints[index] = Integer.parseInt(s);
+                }
+            } catch (NumberFormatException e) {
+                types[index] = ValueType.OBJECT;
+                objects[index] = value;
+                throw new SmartScriptEngineException("Value \"" + s + "\" is not a number.", e);
+            }
+        } else if (value instanceof Number number) {
+            types[index] = ValueType.DOUBLE;
+            doubles[index] = number.doubleValue();
+        } else {
+            objects[index] = value;
+            throw new SmartScriptEngineException("Value of " + value.getClass().getName() + " is not a number.");
+        }
+        return types[index];
+    }
+
+    /**
+     * Clears the object at the given index, so the stack does not keep it alive.
+     *
+     * @param index index of the object
+     * @return object which was at the given index
+     */
+    private Object release(int index) {
+        Object value = objects[index];
+        objects[index] = null;
+        return value;
+    }
+
+    /**
+     * Returns the index of the top value.
+     *
+     * @return index of the top value
+     * @throws SmartScriptEngineException if the stack is empty
+     */
+    private int top() {
+        if (size == 0) {
+            throw new SmartScriptEngineException("Value stack is empty.");
+        }
+        return size - 1;
+    }
+
+    /**
+     * Adds a slot on top of the stack, growing the arrays if needed.
+     *
+     * @return index of the new slot
+     */
+    private int grow() {
+        if (size == types.length) {
+            int capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            ints = Arrays.copyOf(ints, capacity);
+            doubles = Arrays.copyOf(doubles, capacity);
+            objects = Arrays.copyOf(objects, capacity);
+        }
+        return size++;
+    }
+
+    /**
+     * Raises the given base to the given non-negative exponent by squaring.
+     *
+     * @param base     base
+     * @param exponent non-negative exponent
+     * @return base raised to the exponent, with int overflow
+     */
+    private static int power(int base, int exponent) {
+        int result = 1;
+        while (exponent > 0) {
+            if ((exponent & 1) != 0) result *= base;
+            base *= base;
+            exponent >>= 1;
+        }
+        return result;
+    }
+}
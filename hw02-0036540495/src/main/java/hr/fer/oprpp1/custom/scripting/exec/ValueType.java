@@ -0,0 +1,26 @@
+package hr.fer.oprpp1.custom.scripting.exec;
+
+/**
+ * Type of a value on a {@link ValueStack}.
+ *
+ * @see ValueStack
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public enum ValueType {
+    /**
+     * An int, stored without boxing.
+     */
+    INTEGER,
+
+    /**
+     * A double, stored without boxing.
+     */
+    DOUBLE,
+
+    /**
+     * Any other object, such as a string, or null.
+     */
+    OBJECT
+}
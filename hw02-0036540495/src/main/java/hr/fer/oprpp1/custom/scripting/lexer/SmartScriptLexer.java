@@ -2,10 +2,30 @@ package hr.fer.oprpp1.custom.scripting.lexer;
 
 import hr.fer.oprpp1.custom.scripting.parser.SmartScriptParser;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.util.Objects;
+
 /**
  * Lexer for SmartScriptParser.
  * <p>
  * It is modeled after the {@link hr.fer.oprpp1.hw02.prob1.Lexer} class.
+ * <p>
+ * The input is either a whole text given as a {@link String}, or a stream of characters read from
+ * a {@link Reader} or decoded from a {@link ByteBuffer}, for example a memory-mapped file.
+ * A stream is read through a sliding window: characters before the current index are discarded when
+ * the window is refilled, so the lexer holds at most a window of input no matter how long the document is.
+ * Indices reported by the lexer are always counted from the start of the input.
+ * <p>
+ * The value of a TEXT token is always a {@link String}, but {@link SmartScriptToken#getTextSequence()} returns
+ * the text without copying it. For a text given as a string, a run of text without escape sequences is a
+ * {@link TextSlice} of the input, which becomes a string only when {@link SmartScriptToken#getValue()} is called.
+ * Text with escape sequences, and all text of a stream, whose window is reused, is copied into a {@link String}.
  *
  * @see SmartScriptLexerException
  * @see SmartScriptLexerState
@@ -18,9 +38,39 @@ import hr.fer.oprpp1.custom.scripting.parser.SmartScriptParser;
  */
 public class SmartScriptLexer {
     /**
-     * Input text.
+     * Default number of characters in the window of a streaming lexer.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 8192;
+
+    /**
+     * Smallest allowed number of characters in the window of a streaming lexer.
+     */
+    public static final int MIN_WINDOW_SIZE = 16;
+
+    /**
+     * Input characters, either the whole input text or the window of a streaming lexer.
+     */
+    private char[] data;
+
+    /**
+     * Index in the input of the first character in {@link #data}.
+     */
+    private int dataStart;
+
+    /**
+     * Index in the input one past the last character in {@link #data}.
+     */
+    private int dataEnd;
+
+    /**
+     * Source of further input characters, or null if all input characters have been read.
+     */
+    private Reader reader;
+
+    /**
+     * Whether {@link #data} is a window which is refilled, rather than the whole input text.
      */
-    private final char[] data;
+    private final boolean streaming;
 
     /**
      * Current token.
@@ -48,11 +98,68 @@ public class SmartScriptLexer {
             throw new NullPointerException("Input text cannot be null.");
         }
         this.data = text.toCharArray();
+        this.dataEnd = data.length;
+        this.streaming = false;
         this.token = null;
         this.currentIndex = 0;
         this.state = SmartScriptLexerState.TEXT;
     }
 
+    /**
+     * Creates a new lexer which reads its input from the given reader through a window
+     * of {@link #DEFAULT_WINDOW_SIZE} characters.
+     * <p>
+     * The reader is not closed by the lexer.
+     *
+     * @param reader source of input characters
+     * @throws NullPointerException if the given reader is null
+     */
+    public SmartScriptLexer(Reader reader) {
+        this(reader, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Creates a new lexer which reads its input from the given reader through a window of the given size.
+     * <p>
+     * The window only grows if a single lookahead does not fit into it, which does not happen
+     * for windows of at least {@link #MIN_WINDOW_SIZE} characters.
+     * The reader is not closed by the lexer.
+     *
+     * @param reader     source of input characters
+     * @param windowSize number of characters in the window
+     * @throws NullPointerException     if the given reader is null
+     * @throws IllegalArgumentException if the window size is less than {@link #MIN_WINDOW_SIZE}
+     */
+    public SmartScriptLexer(Reader reader, int windowSize) {
+        if (reader == null) {
+            throw new NullPointerException("Input reader cannot be null.");
+        }
+        if (windowSize < MIN_WINDOW_SIZE) {
+            throw new IllegalArgumentException("Window size must be at least " + MIN_WINDOW_SIZE + " but was " + windowSize + ".");
+        }
+        this.data = new char[windowSize];
+        this.reader = reader;
+        this.streaming = true;
+        this.token = null;
+        this.currentIndex = 0;
+        this.state = SmartScriptLexerState.TEXT;
+    }
+
+    /**
+     * Creates a new lexer which decodes its input from the remaining bytes of the given buffer
+     * with the given charset, through a window of {@link #DEFAULT_WINDOW_SIZE} characters.
+     * <p>
+     * The bytes are decoded as they are needed, so a memory-mapped file is never decoded as a whole.
+     * The position of the given buffer is not changed.
+     *
+     * @param bytes   encoded input
+     * @param charset charset of the input
+     * @throws NullPointerException if the given buffer or charset is null
+     */
+    public SmartScriptLexer(ByteBuffer bytes, Charset charset) {
+        this(new ByteBufferReader(bytes, charset));
+    }
+
     /**
      * Returns the last token that was generated.
      * Will not generate the next token even if called multiple times.
@@ -107,7 +214,7 @@ public class SmartScriptLexer {
         }
 
         // If we reached the end of the input, generate the EOF token.
-        if (currentIndex >= data.length) {
+        if (!hasChar(currentIndex)) {
             token = new SmartScriptToken(SmartScriptTokenType.EOF, null);
             return token;
         }
@@ -120,6 +227,75 @@ public class SmartScriptLexer {
         };
     }
 
+    /**
+     * Checks whether the input has a character at the given index, reading more input into the window if needed.
+     * <p>
+     * The index must not be less than the current index.
+     *
+     * @param index index in the input
+     * @return true if the input has a character at the given index, false if it is shorter
+     * @throws SmartScriptLexerException if reading the input fails
+     */
+    private boolean hasChar(int index) {
+        while (index >= dataEnd) {
+            if (!fill()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the character at the given index of the input, reading more input into the window if needed.
+     * <p>
+     * The index must not be less than the current index.
+     *
+     * @param index index in the input
+     * @return character at the given index
+     * @throws SmartScriptLexerException if the input ends before the given index or reading the input fails
+     */
+    private char charAt(int index) {
+        if (!hasChar(index)) {
+            throw new SmartScriptLexerException("Unexpected end of input at index " + index + ".");
+        }
+        return data[index - dataStart];
+    }
+
+    /**
+     * Reads more characters into the window.
+     * <p>
+     * Characters before the current index are no longer needed, so they are discarded first.
+     * If the remaining characters still take more than half of the window, the window is doubled,
+     * so that every read has room for a few characters.
+     *
+     * @return true if at least one character was read, false if the input has ended
+     * @throws SmartScriptLexerException if reading the input fails
+     */
+    private boolean fill() {
+        if (reader == null) return false;
+
+        int discard = Math.min(currentIndex, dataEnd);
+        int keep = dataEnd - discard;
+        char[] target = keep > data.length / 2 ? new char[data.length * 2] : data;
+        System.arraycopy(data, discard - dataStart, target, 0, keep);
+        data = target;
+        dataStart = discard;
+
+        int read;
+        try {
+            do {
+                read = reader.read(data, keep, data.length - keep);
+            } while (read == 0);
+        } catch (IOException e) {
+            throw new SmartScriptLexerException("Unable to read input at index " + dataEnd + ": " + e.getMessage(), e);
+        }
+
+        if (read < 0) {
+            reader = null;
+            return false;
+        }
+        dataEnd += read;
+        return true;
+    }
+
     /**
      * Generates the next token in the TEXT state.
      *
@@ -128,23 +304,30 @@ public class SmartScriptLexer {
      */
     private SmartScriptToken textState() throws SmartScriptLexerException {
         // If the next character is an opening tag, generate the opening tag token.
-        if (data[currentIndex] == '{' && currentIndex + 1 < data.length && data[currentIndex + 1] == '$') {
+        if (charAt(currentIndex) == '{' && hasChar(currentIndex + 1) && charAt(currentIndex + 1) == '$') {
             token = new SmartScriptToken(SmartScriptTokenType.START_TAG_DEF, null);
             currentIndex += 2;
             return token;
         }
 
         // Else, generate the text token.
-        StringBuilder sb = new StringBuilder();
-
-        while (currentIndex < data.length) {
-            if (data[currentIndex] == '{' && currentIndex + 1 < data.length && data[currentIndex + 1] == '$') {
+        // The characters are only copied into a builder once an escape sequence is found,
+        // or from the start if the window may be refilled before the end of the text.
+        int start = currentIndex;
+        StringBuilder sb = streaming ? new StringBuilder() : null;
+
+        while (hasChar(currentIndex)) {
+            char c = charAt(currentIndex);
+            if (c == '{' && hasChar(currentIndex + 1) && charAt(currentIndex + 1) == '$') {
                 break;
             }
 
-            if (data[currentIndex] == '\\') {
-                if (currentIndex + 1 < data.length && (data[currentIndex + 1] == '\\' || data[currentIndex + 1] == '{')) {
-                    sb.append(data[currentIndex + 1]);
+            if (c == '\\') {
+                if (hasChar(currentIndex + 1) && (charAt(currentIndex + 1) == '\\' || charAt(currentIndex + 1) == '{')) {
+                    if (sb == null) {
+                        sb = new StringBuilder().append(data, start, currentIndex - start);
+                    }
+                    sb.append(charAt(currentIndex + 1));
                     currentIndex += 2;
                     continue;
                 } else {
@@ -152,11 +335,12 @@ public class SmartScriptLexer {
                 }
             }
 
-            sb.append(data[currentIndex]);
+            if (sb != null) sb.append(c);
             currentIndex++;
         }
 
-        token = new SmartScriptToken(SmartScriptTokenType.TEXT, sb.toString());
+        CharSequence text = sb == null ? new TextSlice(data, start, currentIndex - start) : sb.toString();
+        token = new SmartScriptToken(SmartScriptTokenType.TEXT, text);
         return token;
     }
 
@@ -171,26 +355,26 @@ public class SmartScriptLexer {
         StringBuilder sb = new StringBuilder();
 
         // First, skip all whitespaces
-        while (currentIndex < data.length && Character.isWhitespace(data[currentIndex])) {
+        while (hasChar(currentIndex) && Character.isWhitespace(charAt(currentIndex))) {
             currentIndex++;
         }
 
         // Valid tag name is either a "="...
-        if (data[currentIndex] == '=') {
-            sb.append(data[currentIndex]);
+        if (charAt(currentIndex) == '=') {
+            sb.append(charAt(currentIndex));
             currentIndex++;
             token = new SmartScriptToken(SmartScriptTokenType.TAG_NAME, sb.toString());
             return token;
         }
 
         // ...or a letter followed by letters, digits or underscores.
-        if (Character.isLetter(data[currentIndex])) {
-            while (currentIndex < data.length && (
-                    Character.isLetter(data[currentIndex]) ||
-                    Character.isDigit(data[currentIndex]) ||
-                    data[currentIndex] == '_'
+        if (Character.isLetter(charAt(currentIndex))) {
+            while (hasChar(currentIndex) && (
+                    Character.isLetter(charAt(currentIndex)) ||
+                    Character.isDigit(charAt(currentIndex)) ||
+                    charAt(currentIndex) == '_'
             )) {
-                        sb.append(data[currentIndex]);
+                        sb.append(charAt(currentIndex));
                         currentIndex++;
             }
             token = new SmartScriptToken(SmartScriptTokenType.TAG_NAME, sb.toString());
@@ -209,12 +393,12 @@ public class SmartScriptLexer {
      */
     private SmartScriptToken tagDefState() throws SmartScriptLexerException {
         // First skip all whitespaces
-        while (currentIndex < data.length && Character.isWhitespace(data[currentIndex])) {
+        while (hasChar(currentIndex) && Character.isWhitespace(charAt(currentIndex))) {
             currentIndex++;
         }
 
         // If the next character is a closing tag, generate the closing tag token.
-        if (data[currentIndex] == '$' && currentIndex + 1 < data.length && data[currentIndex + 1] == '}') {
+        if (charAt(currentIndex) == '$' && hasChar(currentIndex + 1) && charAt(currentIndex + 1) == '}') {
             token = new SmartScriptToken(SmartScriptTokenType.END_TAG_DEF, null);
             currentIndex += 2;
             return token;
@@ -224,27 +408,27 @@ public class SmartScriptLexer {
         // the options for the token are a variable, a number (integer or double), a string, a function or an operator.
 
         // If the current character is a letter, the token is a variable.
-        if (Character.isLetter(data[currentIndex])) {
+        if (Character.isLetter(charAt(currentIndex))) {
             return variableToken();
         }
 
         // If the current character is a digit, the token is a number.
-        if (Character.isDigit(data[currentIndex])) {
+        if (Character.isDigit(charAt(currentIndex))) {
             return numberToken();
         }
 
         // If the current character is a double quote, the token is a string.
-        if (data[currentIndex] == '"') {
+        if (charAt(currentIndex) == '"') {
             return stringToken();
         }
 
         // If the current character is a '@', the token is a function.
-        if (data[currentIndex] == '@') {
+        if (charAt(currentIndex) == '@') {
             return functionToken();
         }
 
         // Now for the operators: +, -, *, /, ^.
-        switch (data[currentIndex]) {
+        switch (charAt(currentIndex)) {
             case '+' -> {
                 currentIndex++;
                 token = new SmartScriptToken(SmartScriptTokenType.OPERATOR, "+");
@@ -252,7 +436,7 @@ public class SmartScriptLexer {
             }
             case '-' -> {
                 // Check if the '-' is a part of a negative number.
-                if (currentIndex + 1 < data.length && Character.isDigit(data[currentIndex + 1])) {
+                if (hasChar(currentIndex + 1) && Character.isDigit(charAt(currentIndex + 1))) {
                     return numberToken();
                 }
                 // Else, it is an operator.
@@ -292,13 +476,13 @@ public class SmartScriptLexer {
     private SmartScriptToken variableToken() throws SmartScriptLexerException {
         StringBuilder sb = new StringBuilder();
         // Variable name must start with a letter, followed by letters, digits or underscores.
-        if (Character.isLetter(data[currentIndex])) {
-            while (currentIndex < data.length && (
-                    Character.isLetter(data[currentIndex]) ||
-                    Character.isDigit(data[currentIndex]) ||
-                    data[currentIndex] == '_'
+        if (Character.isLetter(charAt(currentIndex))) {
+            while (hasChar(currentIndex) && (
+                    Character.isLetter(charAt(currentIndex)) ||
+                    Character.isDigit(charAt(currentIndex)) ||
+                    charAt(currentIndex) == '_'
             )) {
-                        sb.append(data[currentIndex]);
+                        sb.append(charAt(currentIndex));
                         currentIndex++;
             }
         } else {
@@ -317,23 +501,23 @@ public class SmartScriptLexer {
     private SmartScriptToken numberToken() {
         StringBuilder sb = new StringBuilder();
         // Check for a leading minus sign.
-        if (data[currentIndex] == '-') {
-            sb.append(data[currentIndex]);
+        if (charAt(currentIndex) == '-') {
+            sb.append(charAt(currentIndex));
             currentIndex++;
         }
         // Check for digits before the dot.
-        while (currentIndex < data.length && Character.isDigit(data[currentIndex])) {
-            sb.append(data[currentIndex]);
+        while (hasChar(currentIndex) && Character.isDigit(charAt(currentIndex))) {
+            sb.append(charAt(currentIndex));
             currentIndex++;
         }
         // Check if a dot follows.
-        if (currentIndex < data.length && data[currentIndex] == '.') {
-            sb.append(data[currentIndex]);
+        if (hasChar(currentIndex) && charAt(currentIndex) == '.') {
+            sb.append(charAt(currentIndex));
             currentIndex++;
             // Check if there are more digits after the dot.
-            if (currentIndex < data.length && Character.isDigit(data[currentIndex])) {
-                while (currentIndex < data.length && Character.isDigit(data[currentIndex])) {
-                    sb.append(data[currentIndex]);
+            if (hasChar(currentIndex) && Character.isDigit(charAt(currentIndex))) {
+                while (hasChar(currentIndex) && Character.isDigit(charAt(currentIndex))) {
+                    sb.append(charAt(currentIndex));
                     currentIndex++;
                 }
             } else {
@@ -359,19 +543,19 @@ public class SmartScriptLexer {
         // Skip the opening double quote.
         currentIndex++;
         // Check for escaped characters.
-        while (currentIndex < data.length && data[currentIndex] != '"') {
-            if (data[currentIndex] == '\\') {
-                if (currentIndex + 1 >= data.length) {
+        while (hasChar(currentIndex) && charAt(currentIndex) != '"') {
+            if (charAt(currentIndex) == '\\') {
+                if (!hasChar(currentIndex + 1)) {
                     throw new SmartScriptLexerException("Invalid escape sequence at index " + currentIndex + ".");
                 }
-                switch (data[currentIndex + 1]) {
+                switch (charAt(currentIndex + 1)) {
                     case '\\' -> {
                         sb.append('\\');
                         currentIndex += 2;
                         continue;
                     }
                     case '"' -> {
-                        sb.append(data[currentIndex + 1]);
+                        sb.append(charAt(currentIndex + 1));
                         currentIndex += 2;
                         continue;
                     }
@@ -394,7 +578,7 @@ public class SmartScriptLexer {
                             throw new SmartScriptLexerException("Invalid escape sequence at index " + currentIndex + ".");
                 }
             }
-            sb.append(data[currentIndex]);
+            sb.append(charAt(currentIndex));
             currentIndex++;
         }
         // Skip the closing double quote.
@@ -414,13 +598,13 @@ public class SmartScriptLexer {
         // Skip the '@' character.
         currentIndex++;
         // Function name must start with a letter, followed by letters, digits or underscores.
-        if (Character.isLetter(data[currentIndex])) {
-            while (currentIndex < data.length && (
-                    Character.isLetter(data[currentIndex]) ||
-                    Character.isDigit(data[currentIndex]) ||
-                    data[currentIndex] == '_'
+        if (Character.isLetter(charAt(currentIndex))) {
+            while (hasChar(currentIndex) && (
+                    Character.isLetter(charAt(currentIndex)) ||
+                    Character.isDigit(charAt(currentIndex)) ||
+                    charAt(currentIndex) == '_'
             )) {
-                        sb.append(data[currentIndex]);
+                        sb.append(charAt(currentIndex));
                         currentIndex++;
             }
         } else {
@@ -429,4 +613,59 @@ public class SmartScriptLexer {
         token = new SmartScriptToken(SmartScriptTokenType.FUNCTION, sb.toString());
         return token;
     }
+
+    /**
+     * A reader which decodes the remaining bytes of a buffer as they are read.
+     */
+    private static final class ByteBufferReader extends Reader {
+        /**
+         * Bytes which are not decoded yet.
+         */
+        private final ByteBuffer bytes;
+
+        /**
+         * Decoder of the bytes, which reports malformed input.
+         */
+        private final CharsetDecoder decoder;
+
+        /**
+         * Whether all bytes have been decoded and the decoder has been flushed.
+         */
+        private boolean finished;
+
+        /**
+         * Creates a reader of the remaining bytes of the given buffer, without changing its position.
+         *
+         * @param bytes   encoded input
+         * @param charset charset of the input
+         * @throws NullPointerException if the given buffer or charset is null
+         */
+        private ByteBufferReader(ByteBuffer bytes, Charset charset) {
+            this.bytes = Objects.requireNonNull(bytes, "Input buffer cannot be null.").duplicate();
+            this.decoder = Objects.requireNonNull(charset, "Input charset cannot be null.").newDecoder();
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            Objects.checkFromIndexSize(offset, length, buffer.length);
+            if (length == 0) return 0;
+
+            CharBuffer out = CharBuffer.wrap(buffer, offset, length);
+            if (!finished) {
+                CoderResult result = decoder.decode(bytes, out, true);
+                if (result.isUnderflow()) {
+                    result = decoder.flush(out);
+                    finished = result.isUnderflow();
+                }
+                if (result.isError()) result.throwException();
+            }
+
+            int count = out.position() - offset;
+            return count == 0 && finished ? -1 : count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
 }
@@ -18,4 +18,14 @@ public class SmartScriptLexerException extends RuntimeException {
     public SmartScriptLexerException(String message) {
         super(message);
     }
+
+    /**
+     * Constructs a {@link SmartScriptLexerException} with a given message and cause.
+     *
+     * @param message the detail message
+     * @param cause   the cause of the exception
+     */
+    public SmartScriptLexerException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -35,11 +35,30 @@ public class SmartScriptToken {
 
     /**
      * Returns the value of the token.
+     * <p>
+     * The value of a {@link SmartScriptTokenType#TEXT} token is always a {@link String}. If the lexer returned
+     * the text as a slice of its input, the string is created by the first call and then reused.
      *
      * @return value of the token
      */
     public Object getValue() {
-        return value;
+        return value instanceof TextSlice ? value.toString() : value;
+    }
+
+    /**
+     * Returns the text of a {@link SmartScriptTokenType#TEXT} token without copying it.
+     * <p>
+     * When the lexer reads a {@link String}, text without escape sequences is returned as a {@link TextSlice}
+     * of the input, so no string is created unless it is needed. Otherwise the text is a {@link String}.
+     *
+     * @return text of the token
+     * @throws IllegalStateException if the token is not a TEXT token
+     */
+    public CharSequence getTextSequence() {
+        if (type != SmartScriptTokenType.TEXT) {
+            throw new IllegalStateException("Only TEXT tokens have a text sequence, this token is " + type + ".");
+        }
+        return (CharSequence) value;
     }
 
     /**
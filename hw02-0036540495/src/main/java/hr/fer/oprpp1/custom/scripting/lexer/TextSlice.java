@@ -0,0 +1,159 @@
+package hr.fer.oprpp1.custom.scripting.lexer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Objects;
+
+/**
+ * A read-only view of a range of characters in an array, used as the text of TEXT tokens
+ * so that text without escape sequences is not copied out of the input.
+ * It is returned by {@link SmartScriptToken#getTextSequence()}.
+ * <p>
+ * The characters are copied into a {@link String} only when {@link #toString()} is called,
+ * and that string is cached. The viewed array must not be changed while the slice is in use.
+ * <p>
+ * Two slices are equal if they contain the same characters.
+ *
+ * @see SmartScriptLexer
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public final class TextSlice implements CharSequence {
+    /**
+     * Array which contains the characters of the slice.
+     */
+    private final char[] source;
+
+    /**
+     * Index of the first character of the slice in the array.
+     */
+    private final int offset;
+
+    /**
+     * Number of characters in the slice.
+     */
+    private final int length;
+
+    /**
+     * Characters of the slice as a string, or null if they have not been copied yet.
+     */
+    private String string;
+
+    /**
+     * Creates a view of the given range of characters in the given array.
+     *
+     * @param source array which contains the characters
+     * @param offset index of the first character
+     * @param length number of characters
+     * @throws NullPointerException      if the given array is null
+     * @throws IndexOutOfBoundsException if the range is not within the array
+     */
+    public TextSlice(char[] source, int offset, int length) {
+        if (source == null) {
+            throw new NullPointerException("Source array cannot be null.");
+        }
+        Objects.checkFromIndexSize(offset, length, source.length);
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Returns the number of characters in the slice.
+     *
+     * @return number of characters
+     */
+    @Override
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Returns the character at the given index of the slice.
+     *
+     * @param index index in the slice
+     * @return character at the given index
+     * @throws IndexOutOfBoundsException if the index is not within the slice
+     */
+    @Override
+    public char charAt(int index) {
+        Objects.checkIndex(index, length);
+        return source[offset + index];
+    }
+
+    /**
+     * Returns a view of the given range of this slice, without copying the characters.
+     *
+     * @param start index of the first character, inclusive
+     * @param end   index of the last character, exclusive
+     * @return view of the given range
+     * @throws IndexOutOfBoundsException if the range is not within the slice
+     */
+    @Override
+    public TextSlice subSequence(int start, int end) {
+        Objects.checkFromToIndex(start, end, length);
+        return new TextSlice(source, offset + start, end - start);
+    }
+
+    /**
+     * Appends the characters of the slice to the given builder without creating a string.
+     *
+     * @param sb builder the characters are appended to
+     * @return the given builder
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        return sb.append(source, offset, length);
+    }
+
+    /**
+     * Writes the characters of the slice to the given writer without creating a string.
+     *
+     * @param writer writer the characters are written to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(Writer writer) throws IOException {
+        writer.write(source, offset, length);
+    }
+
+    /**
+     * Returns the characters of the slice as a string, which is created on the first call.
+     *
+     * @return characters of the slice
+     */
+    @Override
+    public String toString() {
+        if (string == null) {
+            string = new String(source, offset, length);
+        }
+        return string;
+    }
+
+    /**
+     * Checks if the given object is a slice with the same characters.
+     *
+     * @param o object to be compared to
+     * @return true if the given object is a slice with the same characters, false otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TextSlice that)) return false;
+
+        return CharSequence.compare(this, that) == 0;
+    }
+
+    /**
+     * Returns the hash code of the characters, which is the same as the hash code of {@link #toString()}.
+     *
+     * @return hash code of the characters
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            hash = 31 * hash + source[i];
+        }
+        return hash;
+    }
+}
@@ -14,12 +14,21 @@ public class Node {
      */
     private ArrayIndexedCollection children;
 
+    /**
+     * Whether children can no longer be added.
+     */
+    private boolean frozen;
+
     /**
      * Adds given child to an internally managed collection of children.
      *
      * @param child child node to be added
+     * @throws UnsupportedOperationException if the node is frozen
      */
     public void addChildNode(Node child) {
+        if (frozen) {
+            throw new UnsupportedOperationException("Node is frozen.");
+        }
         if (children == null) {
             children = new ArrayIndexedCollection();
         }
@@ -48,4 +57,30 @@ public class Node {
     public Node getChild(int index) {
         return (Node) children.get(index);
     }
+
+    /**
+     * Freezes this node and all of its descendants, so that no more children can be added to them.
+     * <p>
+     * Other nodes only hold values given to their constructors, so a frozen tree cannot be changed
+     * and can be shared between threads, as long as the elements of echo nodes are not modified.
+     */
+    public void freeze() {
+        if (frozen) {
+            return;
+        }
+        frozen = true;
+        for (int i = 0; i < numberOfChildren(); i++) {
+            getChild(i).freeze();
+        }
+    }
+
+    /**
+     * Checks whether this node is frozen.
+     *
+     * @return true if no more children can be added, false otherwise
+     * @see #freeze()
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
 }
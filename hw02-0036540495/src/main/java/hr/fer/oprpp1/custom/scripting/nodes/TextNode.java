@@ -2,6 +2,10 @@ package hr.fer.oprpp1.custom.scripting.nodes;
 
 /**
  * A node representing a piece of textual data.
+ * <p>
+ * The text is kept as the {@link CharSequence} it was created with, usually a
+ * {@link hr.fer.oprpp1.custom.scripting.lexer.TextSlice} of the parsed document,
+ * and is only copied into a {@link String} when {@link #getText()} is called.
  *
  * @see Node
  *
@@ -12,14 +16,14 @@ public class TextNode extends Node {
     /**
      * Textual data stored in this node.
      */
-    private final String text;
+    private final CharSequence text;
 
     /**
      * Constructs a new text node with given text.
      *
      * @param text text to be stored in this node
      */
-    public TextNode(String text) {
+    public TextNode(CharSequence text) {
         this.text = text;
     }
 
@@ -29,6 +33,15 @@ public class TextNode extends Node {
      * @return text stored in this node
      */
     public String getText() {
+        return text.toString();
+    }
+
+    /**
+     * Returns the text stored in this node without copying it into a {@link String}.
+     *
+     * @return text stored in this node
+     */
+    public CharSequence getTextSequence() {
         return text;
     }
 
@@ -37,7 +50,7 @@ public class TextNode extends Node {
      */
     @Override
     public String toString() {
-        return text
+        return getText()
                 .replaceAll("\\\\", "\\\\\\\\")
                 .replaceAll("\\{", "\\\\{");
     }
@@ -54,6 +67,6 @@ public class TextNode extends Node {
         if (this == o) return true;
         if (!(o instanceof TextNode textNode)) return false;
 
-        return text.equals(textNode.text);
+        return CharSequence.compare(text, textNode.text) == 0;
     }
 }
@@ -34,7 +34,25 @@ public class SmartScriptParser {
      * @throws SmartScriptParserException if the input text is invalid
      */
     public SmartScriptParser(String text) {
-        lexer = new SmartScriptLexer(text);
+        this(new SmartScriptLexer(text));
+    }
+
+    /**
+     * Constructs a new parser that generates a document model from the tokens of the given lexer.
+     * <p>
+     * This allows parsing a document which is streamed through a {@link SmartScriptLexer} created
+     * from a {@link java.io.Reader} or a {@link java.nio.ByteBuffer}, without loading the whole text first.
+     * The lexer must not have generated any tokens yet.
+     *
+     * @param lexer lexer that generates tokens from the input text
+     * @throws NullPointerException if the given lexer is null
+     * @throws SmartScriptParserException if the input text is invalid
+     */
+    public SmartScriptParser(SmartScriptLexer lexer) {
+        if (lexer == null) {
+            throw new NullPointerException("Lexer cannot be null.");
+        }
+        this.lexer = lexer;
         documentNode = new DocumentNode();
         try {
             parse();
@@ -68,7 +86,7 @@ public class SmartScriptParser {
             if (token.getType() == SmartScriptTokenType.EOF) break;
 
             if (token.getType() == SmartScriptTokenType.TEXT) {
-                ((Node) stack.peek()).addChildNode(new TextNode((String) token.getValue()));
+                ((Node) stack.peek()).addChildNode(new TextNode(token.getTextSequence()));
             } else if (token.getType() == SmartScriptTokenType.START_TAG_DEF) {
                 lexer.setState(SmartScriptLexerState.TAG_NAME);
             } else if (token.getType() == SmartScriptTokenType.TAG_NAME) {
@@ -0,0 +1,550 @@
+package hr.fer.oprpp1.custom.scripting.parser;
+
+import hr.fer.oprpp1.custom.scripting.lexer.SmartScriptLexer;
+import hr.fer.oprpp1.custom.scripting.nodes.DocumentNode;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cache of parsed documents, so that a template which is used again is not parsed again.
+ * <p>
+ * Templates given as text are cached by the SHA-256 hash of their content.
+ * Templates read from files are cached by their path, and an entry is used only
+ * while the last modification time and the size of the file are unchanged.
+ * Cached documents are {@linkplain hr.fer.oprpp1.custom.scripting.nodes.Node#freeze() frozen},
+ * so the same document can be returned to several threads at once.
+ * <p>
+ * The cache holds at most the given number of documents, whose total weight is at most the given weight.
+ * The weight of a document given as text is the length of the text in chars, and the weight of a document
+ * read from a file is the size of the file in bytes. Both count against the same maximum weight, so a file
+ * whose characters take several bytes in UTF-8 weighs more than the same template given as text.
+ * When a limit is exceeded, the least recently used documents are evicted.
+ * A document which is heavier than the maximum weight is returned, but not cached;
+ * such documents are counted by {@link #getRejectionCount()}, not as evictions.
+ * <p>
+ * If a reload interval is given, a background thread checks the cached files in that interval and
+ * parses the changed ones again, so that {@link #get(Path)} does not have to check the file on every call.
+ * Files which were deleted or can no longer be parsed are removed from the cache.
+ * Such a cache should be {@linkplain #close() closed} when it is no longer used.
+ * <p>
+ * All methods are thread safe. Parsing is done without holding the lock of the cache,
+ * so threads which miss the same template at the same time may each parse it.
+ *
+ * @see SmartScriptParser
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public class TemplateCache implements AutoCloseable {
+    /**
+     * A cached document.
+     */
+    private static final class Entry {
+        /**
+         * Key of the entry, a {@link Path} or a {@link ContentKey}.
+         */
+        private final Object key;
+
+        /**
+         * Cached document.
+         */
+        private final DocumentNode document;
+
+        /**
+         * Weight of the document.
+         */
+        private final long weight;
+
+        /**
+         * Last modification time of the file, or null if the document was not read from a file.
+         */
+        private final FileTime lastModified;
+
+        /**
+         * Creates an entry.
+         *
+         * @param key          key of the entry
+         * @param document     cached document
+         * @param weight       weight of the document
+         * @param lastModified last modification time of the file, or null if there is no file
+         */
+        private Entry(Object key, DocumentNode document, long weight, FileTime lastModified) {
+            this.key = key;
+            this.document = document;
+            this.weight = weight;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * Checks whether the document was read from the file with the given attributes.
+         *
+         * @param attributes current attributes of the file
+         * @return true if the file has not changed since the document was read, false otherwise
+         */
+        private boolean isCurrent(BasicFileAttributes attributes) {
+            return lastModified.equals(attributes.lastModifiedTime()) && weight == attributes.size();
+        }
+    }
+
+    /**
+     * Key of a template given as text.
+     */
+    private static final class ContentKey {
+        /**
+         * SHA-256 hash of the text.
+         */
+        private final byte[] hash;
+
+        /**
+         * Hash code of the key, taken from the hash of the text.
+         */
+        private final int hashCode;
+
+        /**
+         * Creates a key from the given hash of the text.
+         *
+         * @param hash SHA-256 hash of the text
+         */
+        private ContentKey(byte[] hash) {
+            this.hash = hash;
+            this.hashCode = (hash[0] & 0xFF) << 24 | (hash[1] & 0xFF) << 16 | (hash[2] & 0xFF) << 8 | (hash[3] & 0xFF);
+        }
+
+        /**
+         * Checks whether the given object is a key of the same text.
+         *
+         * @param o object to be compared to
+         * @return true if the hashes are equal, false otherwise
+         */
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ContentKey that && Arrays.equals(hash, that.hash);
+        }
+
+        /**
+         * Returns the hash code of the key.
+         *
+         * @return hash code of the key
+         */
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Number of characters of a text which are hashed at once.
+     */
+    private static final int HASH_CHUNK = 512;
+
+    /**
+     * Entries in the order from the least to the most recently used.
+     */
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Maximum number of entries.
+     */
+    private final int maximumSize;
+
+    /**
+     * Maximum total weight of the entries.
+     */
+    private final long maximumWeight;
+
+    /**
+     * Thread which reloads the changed files, or null if files are checked on every lookup.
+     */
+    private final ScheduledExecutorService reloader;
+
+    /**
+     * Total weight of the entries.
+     */
+    private long weight;
+
+    /**
+     * Number of lookups which found an entry.
+     */
+    private long hitCount;
+
+    /**
+     * Number of lookups which did not find an entry.
+     */
+    private long missCount;
+
+    /**
+     * Number of evicted entries.
+     */
+    private long evictionCount;
+
+    /**
+     * Number of documents which were not cached because they are heavier than the maximum weight.
+     */
+    private long rejectionCount;
+
+    /**
+     * Number of entries which were reloaded because their file changed.
+     */
+    private long reloadCount;
+
+    /**
+     * Creates a cache with the given limits, which checks whether a file has changed on every lookup.
+     *
+     * @param maximumSize   maximum number of cached documents
+     * @param maximumWeight maximum total weight of cached documents, in chars of text or bytes of files
+     * @throws IllegalArgumentException if a limit is not positive
+     */
+    public TemplateCache(int maximumSize, long maximumWeight) {
+        this(maximumSize, maximumWeight, null);
+    }
+
+    /**
+     * Creates a cache with the given limits, which reloads the changed files in the background.
+     *
+     * @param maximumSize    maximum number of cached documents
+     * @param maximumWeight  maximum total weight of cached documents, in chars of text or bytes of files
+     * @param reloadInterval time between two checks of the cached files,
+     *                       or null to check whether a file has changed on every lookup
+     * @throws IllegalArgumentException if a limit or the interval is not positive
+     */
+    public TemplateCache(int maximumSize, long maximumWeight, Duration reloadInterval) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive, was " + maximumSize + ".");
+        }
+        if (maximumWeight < 1) {
+            throw new IllegalArgumentException("Maximum weight must be positive, was " + maximumWeight + ".");
+        }
+        if (reloadInterval != null && (reloadInterval.isZero() || reloadInterval.isNegative())) {
+            throw new IllegalArgumentException("Reload interval must be positive, was " + reloadInterval + ".");
+        }
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+
+        if (reloadInterval == null) {
+            this.reloader = null;
+        } else {
+            this.reloader = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "template-cache-reloader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long nanos = reloadInterval.toNanos();
+            this.reloader.scheduleWithFixedDelay(this::reloadChanged, nanos, nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Returns the document parsed from the given text.
+     *
+     * @param text text of the template
+     * @return frozen document parsed from the text
+     * @throws NullPointerException       if the text is null
+     * @throws SmartScriptParserException if the text is invalid
+     */
+    public DocumentNode get(String text) {
+        if (text == null) {
+            throw new NullPointerException("Text cannot be null.");
+        }
+        ContentKey key = new ContentKey(hash(text));
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hitCount++;
+                return entry.document;
+            }
+            missCount++;
+        }
+
+        DocumentNode document = new SmartScriptParser(text).getDocumentNode();
+        document.freeze();
+        return store(new Entry(key, document, text.length(), null));
+    }
+
+    /**
+     * Returns the document parsed from the file with the given path, which is read as UTF-8.
+     * <p>
+     * Without a reload interval, the attributes of the file are read on every call, and the file is parsed again
+     * if it has changed. With a reload interval, a cached document is returned without checking the file.
+     *
+     * @param path path of the file
+     * @return frozen document parsed from the file
+     * @throws NullPointerException       if the path is null
+     * @throws IOException                if the file cannot be read
+     * @throws SmartScriptParserException if the content of the file is invalid
+     */
+    public DocumentNode get(Path path) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("Path cannot be null.");
+        }
+        Path key = path.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = reloader == null ? Files.readAttributes(key, BasicFileAttributes.class) : null;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && (attributes == null || entry.isCurrent(attributes))) {
+                hitCount++;
+                return entry.document;
+            }
+            missCount++;
+        }
+
+        if (attributes == null) {
+            attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        }
+        return store(load(key, attributes));
+    }
+
+    /**
+     * Checks all cached files and parses the changed ones again.
+     * Files which were deleted or can no longer be parsed are removed from the cache.
+     * <p>
+     * This is done periodically in the background if the cache was created with a reload interval.
+     */
+    public void reloadChanged() {
+        List<Entry> files = new ArrayList<>();
+        synchronized (this) {
+            for (Entry entry : entries.values()) {
+                if (entry.key instanceof Path) {
+                    files.add(entry);
+                }
+            }
+        }
+
+        for (Entry entry : files) {
+            Path path = (Path) entry.key;
+            Entry reloaded;
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                if (entry.isCurrent(attributes)) {
+                    continue;
+                }
+                reloaded = load(path, attributes);
+            } catch (IOException | RuntimeException e) {
+                synchronized (this) {
+                    if (entries.remove(path, entry)) {
+                        weight -= entry.weight;
+                    }
+                }
+                continue;
+            }
+
+            synchronized (this) {
+                if (entries.replace(path, entry, reloaded)) {
+                    weight += reloaded.weight - entry.weight;
+                    reloadCount++;
+                    if (reloaded.weight > maximumWeight) {
+                        entries.remove(path);
+                        weight -= reloaded.weight;
+                        rejectionCount++;
+                    } else {
+                        evict();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the document read from the file with the given path.
+     *
+     * @param path path of the file
+     * @throws NullPointerException if the path is null
+     */
+    public synchronized void invalidate(Path path) {
+        if (path == null) {
+            throw new NullPointerException("Path cannot be null.");
+        }
+        Entry entry = entries.remove(path.toAbsolutePath().normalize());
+        if (entry != null) {
+            weight -= entry.weight;
+        }
+    }
+
+    /**
+     * Removes all documents. The statistics are kept.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * Stops the background thread which reloads the changed files, if there is one.
+     * The cache can still be used, but files are no longer reloaded.
+     */
+    @Override
+    public void close() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the number of cached documents.
+     *
+     * @return number of cached documents
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the total weight of the cached documents.
+     *
+     * @return total weight
+     */
+    public synchronized long weight() {
+        return weight;
+    }
+
+    /**
+     * Returns the number of lookups which found a document.
+     *
+     * @return number of hits
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of lookups which had to parse a document.
+     *
+     * @return number of misses
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of documents which were evicted because a limit was exceeded.
+     *
+     * @return number of evictions
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the number of documents which were not cached because they are heavier than the maximum weight.
+     * Every lookup of such a document parses it again and is counted once more.
+     *
+     * @return number of rejected documents
+     */
+    public synchronized long getRejectionCount() {
+        return rejectionCount;
+    }
+
+    /**
+     * Returns the number of documents which were parsed again by {@link #reloadChanged()}.
+     *
+     * @return number of reloads
+     */
+    public synchronized long getReloadCount() {
+        return reloadCount;
+    }
+
+    /**
+     * Returns the fraction of lookups which found a document.
+     *
+     * @return hit rate, or 0 if there have been no lookups
+     */
+    public synchronized double hitRate() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * Parses the file with the given path and attributes.
+     * The file is streamed through the lexer, so its whole text is not loaded at once.
+     *
+     * @param path       path of the file
+     * @param attributes attributes of the file, read before its content
+     * @return entry with the parsed document
+     * @throws IOException                if the file cannot be opened
+     * @throws SmartScriptParserException if the content of the file is invalid
+     */
+    private static Entry load(Path path, BasicFileAttributes attributes) throws IOException {
+        DocumentNode document;
+        try (Reader reader = Files.newBufferedReader(path)) {
+            document = new SmartScriptParser(new SmartScriptLexer(reader)).getDocumentNode();
+        }
+        document.freeze();
+        return new Entry(path, document, attributes.size(), attributes.lastModifiedTime());
+    }
+
+    /**
+     * Caches the given entry and evicts entries until the cache is within its limits.
+     *
+     * @param entry entry which is cached
+     * @return document of the entry
+     */
+    private synchronized DocumentNode store(Entry entry) {
+        if (entry.weight > maximumWeight) {
+            rejectionCount++;
+            return entry.document;
+        }
+        Entry previous = entries.put(entry.key, entry);
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        weight += entry.weight;
+        evict();
+        return entry.document;
+    }
+
+    /**
+     * Evicts the least recently used entries until the cache is within its limits.
+     */
+    private void evict() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while ((entries.size() > maximumSize || weight > maximumWeight) && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            weight -= eldest.weight;
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Computes the SHA-256 hash of the given text, encoded as UTF-16.
+     * The text is hashed in chunks, so it is not copied at once.
+     *
+     * @param text text which is hashed
+     * @return hash of the text
+     */
+    private static byte[] hash(String text) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+        byte[] chunk = new byte[2 * HASH_CHUNK];
+        for (int start = 0; start < text.length(); start += HASH_CHUNK) {
+            int end = Math.min(start + HASH_CHUNK, text.length());
+            int length = 0;
+            for (int i = start; i < end; i++) {
+                char c = text.charAt(i);
+                chunk[length++] = (byte) (c >>> 8);
+                chunk[length++] = (byte) c;
+            }
+            digest.update(chunk, 0, length);
+        }
+        return digest.digest();
+    }
+}
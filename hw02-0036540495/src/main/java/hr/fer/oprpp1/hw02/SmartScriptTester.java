@@ -1,10 +1,12 @@
 package hr.fer.oprpp1.hw02;
 
+import hr.fer.oprpp1.custom.scripting.lexer.SmartScriptLexer;
 import hr.fer.oprpp1.custom.scripting.nodes.DocumentNode;
 import hr.fer.oprpp1.custom.scripting.parser.SmartScriptParser;
 import hr.fer.oprpp1.custom.scripting.parser.SmartScriptParserException;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 
@@ -12,7 +14,7 @@ import java.nio.file.Paths;
  * Class SmartScriptTester is used to test the SmartScriptParser class.
  * <p>
  * It takes one argument, the path to the document to be parsed,
- * parses the document, prints out the result, parses the result again,
+ * parses the document while streaming it from the file, prints out the result, parses the result again,
  * and then checks if the two documents are equal.
  */
 public class SmartScriptTester {
@@ -23,17 +25,13 @@ public class SmartScriptTester {
             System.exit(-1);
         }
         String filepath = args[0];
-        String docBody = null;
-        try {
-            docBody = Files.readString(Paths.get(filepath));
+
+        SmartScriptParser parser = null;
+        try (Reader reader = Files.newBufferedReader(Paths.get(filepath))) {
+            parser = new SmartScriptParser(new SmartScriptLexer(reader));
         } catch (IOException e) {
             System.out.println("Unable to read file " + filepath);
             System.exit(-1);
-        }
-
-        SmartScriptParser parser = null;
-        try {
-            parser = new SmartScriptParser(docBody);
         } catch(SmartScriptParserException e) {
             System.out.println("Unable to parse document!");
             System.out.println(e.getMessage());
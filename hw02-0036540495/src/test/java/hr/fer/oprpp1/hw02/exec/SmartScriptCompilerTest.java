@@ -0,0 +1,122 @@
+package hr.fer.oprpp1.hw02.exec;
+
+import hr.fer.oprpp1.custom.scripting.exec.*;
+import hr.fer.oprpp1.custom.scripting.nodes.DocumentNode;
+import hr.fer.oprpp1.custom.scripting.parser.SmartScriptParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SmartScriptCompilerTest {
+
+    private static final String[] TEMPLATES = {
+            "",
+            "plain \\{$ text \\\\ ",
+            "a {$= 1 $} {$= 2.5 $} b {$= \"s\" $}",
+            "{$= 2 3 4 * + $} {$= 7.0 2 / $} {$= 2 -1 ^ $} {$= \"2.5\" \"3\" + $}",
+            "{$= 1 2 + x * 3 4 + $}",
+            "{$= x 1 2 + * $}",
+            "{$= 90 @sin 2 3 + @dup @swap $}",
+            "{$= 3.14159 \"0.00\" @decfmt $}",
+            "{$ FOR i 1 3 $}{$= i $} {$END$}",
+            "{$ FOR i 0 10 3 $}{$= i $} {$END$}{$= i $}",
+            "{$ FOR i 10 7 -2 $}{$= i $} {$END$}{$= i $}",
+            "{$ FOR i 5 1 $}{$= i $}{$END$}{$= i $}",
+            "{$ FOR x 0.5 1.5 0.5 $}{$= x $} {$END$}",
+            "{$ FOR i \"1\" \"3\" $}{$= i $} {$END$}",
+            "{$ FOR i 1 x $}{$= i i * $},{$END$}",
+            "{$ FOR i 1 n step $}{$= i $}{$END$}",
+            "{$ FOR i 1 3 1 $}{$ FOR j 1 i $}{$= i j * $},{$END$};{$END$}",
+            "{$ FOR i 1 3 $}[{$ FOR i i 4 $}{$= i $}{$END$}]{$= i $}{$END$}",
+            "{$ FOR i 1 2 $}{$ FOR j 1 2 $}{$ FOR i 5 6 $}{$= i j $}{$END$}{$END$}{$END$}",
+            "{$ FOR i 1 x 0.5 $}{$= i $} {$END$}",
+            "{$= name $}, {$= name \"!\" $}",
+    };
+
+    private static final Map<String, ?> VARIABLES = Map.of("x", 3, "n", "10", "step", 2, "name", "World");
+
+    private static String interpret(String template, Map<String, ?> variables) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        new SmartScriptEngine(new SmartScriptParser(template).getDocumentNode()).execute(sb, variables);
+        return sb.toString();
+    }
+
+    private static String compile(String template, Map<String, ?> variables) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        new SmartScriptCompiler().compile(new SmartScriptParser(template).getDocumentNode()).execute(sb, variables);
+        return sb.toString();
+    }
+
+    @Test
+    public void testNullArguments() {
+        assertThrows(NullPointerException.class, () -> new SmartScriptCompiler(null));
+        assertThrows(NullPointerException.class, () -> new SmartScriptCompiler().compile(null));
+        CompiledTemplate template = new SmartScriptCompiler().compile(new DocumentNode());
+        assertThrows(NullPointerException.class, () -> template.execute(null));
+        assertThrows(NullPointerException.class, () -> template.execute(new StringBuilder(), null));
+    }
+
+    @Test
+    public void testSameOutputAsInterpreter() throws IOException {
+        for (String template : TEMPLATES) {
+            assertEquals(interpret(template, VARIABLES), compile(template, VARIABLES), template);
+        }
+    }
+
+    @Test
+    public void testExamples() throws IOException {
+        assertEquals("1 2 3 ", compile("{$ FOR i 1 3 $}{$= i $} {$END$}", Map.of()));
+        assertEquals("14 3.5", compile("{$= 2 3 4 * + $} {$= 7.0 2 / $}", Map.of()));
+        // the nested loop leaves i at 5, which ends the outer loop
+        assertEquals("[1234]5", compile("{$ FOR i 1 3 $}[{$ FOR i i 4 $}{$= i $}{$END$}]{$= i $}{$END$}", Map.of()));
+    }
+
+    @Test
+    public void testErrorsAtExecution() {
+        String[] failing = {
+                "{$= 1 0 / $}",
+                "{$= 1 + $}",
+                "{$= \"abc\" 1 + $}",
+                "{$= y $}",
+                "{$= 1 y + $}",
+                "{$= 4 @unknown $}",
+                "{$ FOR i 1 3 0 $}{$END$}",
+                "{$ FOR i 1 3 zero $}{$END$}",
+        };
+        SmartScriptCompiler compiler = new SmartScriptCompiler();
+        for (String template : failing) {
+            DocumentNode document = new SmartScriptParser(template).getDocumentNode();
+            CompiledTemplate compiled = assertDoesNotThrow(() -> compiler.compile(document), template);
+            assertThrows(SmartScriptEngineException.class,
+                    () -> compiled.execute(new StringBuilder(), Map.of("zero", 0)), template);
+            assertThrows(SmartScriptEngineException.class,
+                    () -> new SmartScriptEngine(document).execute(new StringBuilder(), Map.of("zero", 0)), template);
+        }
+    }
+
+    @Test
+    public void testCustomFunctions() throws IOException {
+        SmartScriptFunctionRegistry functions = new SmartScriptFunctionRegistry();
+        functions.register("twice", stack -> stack.pushInt(stack.popInt() * 2));
+        CompiledTemplate template = new SmartScriptCompiler(functions)
+                .compile(new SmartScriptParser("{$ FOR i 1 3 $}{$= i @twice $}{$END$}").getDocumentNode());
+
+        StringWriter writer = new StringWriter();
+        template.execute(writer);
+        assertEquals("246", writer.toString());
+    }
+
+    @Test
+    public void testTemplateIsReusable() throws IOException {
+        CompiledTemplate template = new SmartScriptCompiler()
+                .compile(new SmartScriptParser("{$ FOR i 1 2 $}{$= i name $}{$END$}").getDocumentNode());
+        StringBuilder sb = new StringBuilder();
+        template.execute(sb, Map.of("name", "a"));
+        template.execute(sb, Map.of("name", "b"));
+        assertEquals("1a2a1b2b", sb.toString());
+    }
+}
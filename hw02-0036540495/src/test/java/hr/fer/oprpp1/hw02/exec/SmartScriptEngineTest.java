@@ -0,0 +1,188 @@
+package hr.fer.oprpp1.hw02.exec;
+
+import hr.fer.oprpp1.custom.scripting.exec.*;
+import hr.fer.oprpp1.custom.scripting.nodes.DocumentNode;
+import hr.fer.oprpp1.custom.scripting.parser.SmartScriptParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SmartScriptEngineTest {
+
+    private static String execute(String template) {
+        return execute(template, Map.of());
+    }
+
+    private static String execute(String template, Map<String, ?> variables) {
+        DocumentNode document = new SmartScriptParser(template).getDocumentNode();
+        StringBuilder sb = new StringBuilder();
+        try {
+            new SmartScriptEngine(document).execute(sb, variables);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testNullArguments() {
+        DocumentNode document = new SmartScriptParser("text").getDocumentNode();
+        assertThrows(NullPointerException.class, () -> new SmartScriptEngine(null));
+        assertThrows(NullPointerException.class, () -> new SmartScriptEngine(document, null));
+        assertThrows(NullPointerException.class, () -> new SmartScriptEngine(document).execute(null));
+        assertThrows(NullPointerException.class, () -> new SmartScriptEngine(document).execute(new StringBuilder(), null));
+    }
+
+    @Test
+    public void testText() {
+        assertEquals("", execute(""));
+        assertEquals("plain {$ text \\ ", execute("plain \\{$ text \\\\ "));
+    }
+
+    @Test
+    public void testEchoConstants() {
+        assertEquals("a 1 2.5 b", execute("a {$= 1 $} {$= 2.5 $} b"));
+        assertEquals("12.5x", execute("{$= 1 2.5 \"x\" $}"));
+        assertEquals("-7", execute("{$= -7 $}"));
+    }
+
+    @Test
+    public void testOperators() {
+        assertEquals("5", execute("{$= 2 3 + $}"));
+        assertEquals("-1", execute("{$= 2 3 - $}"));
+        assertEquals("6", execute("{$= 2 3 * $}"));
+        assertEquals("3", execute("{$= 7 2 / $}"));
+        assertEquals("3.5", execute("{$= 7.0 2 / $}"));
+        assertEquals("8", execute("{$= 2 3 ^ $}"));
+        assertEquals("0.5", execute("{$= 2 -1 ^ $}"));
+        assertEquals("14", execute("{$= 2 3 4 * + $}"));
+        assertEquals("5.5", execute("{$= \"2.5\" \"3\" + $}"));
+    }
+
+    @Test
+    public void testOperatorErrors() {
+        assertThrows(SmartScriptEngineException.class, () -> execute("{$= 1 0 / $}"));
+        assertThrows(SmartScriptEngineException.class, () -> execute("{$= 1 + $}"));
+        assertThrows(SmartScriptEngineException.class, () -> execute("{$= \"abc\" 1 + $}"));
+        assertEquals("Infinity", execute("{$= 1.0 0 / $}"));
+    }
+
+    @Test
+    public void testForLoop() {
+        assertEquals("1 2 3 ", execute("{$ FOR i 1 3 $}{$= i $} {$END$}"));
+        assertEquals("0 3 6 9 ", execute("{$ FOR i 0 10 3 $}{$= i $} {$END$}"));
+        assertEquals("", execute("{$ FOR i 5 1 $}{$= i $}{$END$}"));
+        assertEquals("10 8 ", execute("{$ FOR i 10 7 -2 $}{$= i $} {$END$}"));
+        assertThrows(SmartScriptEngineException.class, () -> execute("{$ FOR i 1 3 0 $}{$END$}"));
+        assertEquals("0.5 1.0 1.5 ", execute("{$ FOR x 0.5 1.5 0.5 $}{$= x $} {$END$}"));
+        assertEquals("1 2 ", execute("{$ FOR i \"1\" \"2\" $}{$= i $} {$END$}"));
+    }
+
+    @Test
+    public void testNestedLoops() {
+        String template = "{$ FOR i 1 3 1 $}{$ FOR j 1 i $}{$= i j * $},{$END$};{$END$}";
+        assertEquals("1,;2,4,;3,6,9,;", execute(template));
+    }
+
+    @Test
+    public void testLoopBoundsFromVariables() {
+        String template = "{$ FOR i 1 n step $}{$= i $}{$END$}";
+        assertEquals("13579", execute(template, Map.of("n", 10, "step", 2)));
+        assertEquals("1234", execute(template, Map.of("n", "4", "step", 1.0)).replace(".0", ""));
+    }
+
+    @Test
+    public void testVariables() {
+        assertEquals("Hello, World! 42", execute("Hello, {$= name $}! {$= x $}", Map.of("name", "World", "x", 42)));
+        SmartScriptEngineException e = assertThrows(SmartScriptEngineException.class, () -> execute("{$= y $}"));
+        assertEquals("Variable y has no value.", e.getMessage());
+    }
+
+    @Test
+    public void testDefaultFunctions() {
+        assertEquals("1.0", execute("{$= 90 @sin $}"));
+        assertEquals("3.0", execute("{$= 9 @sqrt $}"));
+        assertEquals("5 2.5", execute("{$= -5 @abs \" \" -2.5 @abs $}"));
+        assertEquals("3.14", execute("{$= 3.14159 \"0.00\" @decfmt $}"));
+        assertEquals("77", execute("{$= 7 @dup $}"));
+        assertEquals("21", execute("{$= 1 2 @swap $}"));
+    }
+
+    @Test
+    public void testCustomFunction() throws IOException {
+        SmartScriptFunctionRegistry functions = new SmartScriptFunctionRegistry();
+        functions.register("square", stack -> {
+            if (stack.peekType() == ValueType.INTEGER) {
+                int value = stack.popInt();
+                stack.pushInt(value * value);
+            } else {
+                double value = stack.popDouble();
+                stack.pushDouble(value * value);
+            }
+        });
+        DocumentNode document = new SmartScriptParser("{$= 4 @square 1.5 @square $}").getDocumentNode();
+        StringBuilder sb = new StringBuilder();
+        new SmartScriptEngine(document, functions).execute(sb);
+        assertEquals("162.25", sb.toString());
+
+        DocumentNode unknown = new SmartScriptParser("{$= 4 @sin $}").getDocumentNode();
+        assertThrows(SmartScriptEngineException.class, () -> new SmartScriptEngine(unknown, functions).execute(sb));
+    }
+
+    @Test
+    public void testOutputs() throws IOException {
+        DocumentNode document = new SmartScriptParser("n={$= -2147483648 1 - $} d={$= 0.25 $} t").getDocumentNode();
+        SmartScriptEngine engine = new SmartScriptEngine(document);
+        String expected = "n=2147483647 d=0.25 t";
+
+        StringWriter writer = new StringWriter();
+        engine.execute(writer);
+        assertEquals(expected, writer.toString());
+
+        CharBuffer buffer = CharBuffer.allocate(100);
+        engine.execute(buffer);
+        assertEquals(expected, buffer.flip().toString());
+    }
+
+    @Test
+    public void testEngineIsReusable() throws IOException {
+        DocumentNode document = new SmartScriptParser("{$ FOR i 1 2 $}{$= i name $}{$END$}").getDocumentNode();
+        SmartScriptEngine engine = new SmartScriptEngine(document);
+        StringBuilder sb = new StringBuilder();
+        engine.execute(sb, Map.of("name", "a"));
+        engine.execute(sb, Map.of("name", "b"));
+        assertEquals("1a2a1b2b", sb.toString());
+    }
+
+    @Test
+    public void testValueStack() {
+        ValueStack stack = new ValueStack();
+        assertTrue(stack.isEmpty());
+        for (int i = 0; i < 100; i++) {
+            stack.push(i % 2 == 0 ? (Object) i : "s" + i);
+        }
+        assertEquals(100, stack.size());
+        assertEquals(ValueType.OBJECT, stack.peekType());
+        assertEquals("s99", stack.pop());
+        assertEquals(ValueType.INTEGER, stack.peekType());
+        assertEquals(98, stack.pop());
+
+        stack.clear();
+        stack.push(2.5);
+        assertEquals(ValueType.DOUBLE, stack.peekType());
+        assertThrows(SmartScriptEngineException.class, stack::popInt);
+        stack.push("12");
+        assertEquals(12, stack.popInt());
+        stack.push(null);
+        assertEquals(0.0, stack.popDouble());
+        // a value which is not an int stays on the stack
+        assertEquals(2.5, stack.pop());
+        assertThrows(SmartScriptEngineException.class, stack::pop);
+    }
+}
@@ -5,7 +5,11 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -13,7 +17,7 @@ public class SmartScriptLexerTest {
 
     @Test
     public void testNullInput() {
-        assertThrows(NullPointerException.class, () -> new SmartScriptLexer(null));
+        assertThrows(NullPointerException.class, () -> new SmartScriptLexer((String) null));
     }
 
     @Test
@@ -40,6 +44,130 @@ public class SmartScriptLexerTest {
         assertEquals(token, lexer.getToken());
     }
 
+    @Test
+    public void testNullReader() {
+        assertThrows(NullPointerException.class, () -> new SmartScriptLexer((Reader) null));
+        assertThrows(NullPointerException.class, () -> new SmartScriptLexer(null, StandardCharsets.UTF_8));
+        assertThrows(NullPointerException.class, () -> new SmartScriptLexer(ByteBuffer.allocate(0), null));
+    }
+
+    @Test
+    public void testWindowTooSmall() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SmartScriptLexer(new StringReader(""), SmartScriptLexer.MIN_WINDOW_SIZE - 1));
+    }
+
+    @Test
+    public void testReaderExamples() {
+        Function<String, SmartScriptLexer> reader =
+                text -> new SmartScriptLexer(new StringReader(text), SmartScriptLexer.MIN_WINDOW_SIZE);
+        for (int n : new int[]{1, 2, 3, 6, 7}) {
+            testExample(n, reader);
+        }
+        for (int n : new int[]{4, 5, 8, 9}) {
+            testExampleThrows(n, reader);
+        }
+    }
+
+    @Test
+    public void testByteBufferExamples() {
+        Function<String, SmartScriptLexer> buffer =
+                text -> new SmartScriptLexer(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+        for (int n : new int[]{1, 2, 3, 6, 7}) {
+            testExample(n, buffer);
+        }
+        for (int n : new int[]{4, 5, 8, 9}) {
+            testExampleThrows(n, buffer);
+        }
+    }
+
+    @Test
+    public void testReaderLongText() {
+        String text = "ab\\\\c\\{".repeat(10_000) + "{$= i $}";
+        SmartScriptLexer lexer = new SmartScriptLexer(new StringReader(text), SmartScriptLexer.MIN_WINDOW_SIZE);
+
+        assertEquals("ab\\c{".repeat(10_000), lexer.nextToken().getValue());
+        assertEquals(SmartScriptTokenType.START_TAG_DEF, lexer.nextToken().getType());
+        assertEquals(text.length() - 6, lexer.getCurrentIndex());
+    }
+
+    @Test
+    public void testReaderErrorIndex() {
+        String text = "x".repeat(1_000) + "\\a";
+        SmartScriptLexer lexer = new SmartScriptLexer(new StringReader(text), SmartScriptLexer.MIN_WINDOW_SIZE);
+
+        SmartScriptLexerException e = assertThrows(SmartScriptLexerException.class, lexer::nextToken);
+        assertEquals("Invalid escape sequence at index 1000.", e.getMessage());
+    }
+
+    @Test
+    public void testByteBufferMalformedInput() {
+        ByteBuffer bytes = ByteBuffer.wrap(new byte[]{'a', (byte) 0xC3, 'b'});
+        SmartScriptLexer lexer = new SmartScriptLexer(bytes, StandardCharsets.UTF_8);
+
+        assertThrows(SmartScriptLexerException.class, lexer::nextToken);
+        assertEquals(0, bytes.position());
+    }
+
+    @Test
+    public void testUnterminatedTag() {
+        SmartScriptLexer lexer = new SmartScriptLexer("{$ ");
+        lexer.nextToken();
+        lexer.setState(SmartScriptLexerState.TAG_NAME);
+
+        assertThrows(SmartScriptLexerException.class, lexer::nextToken);
+    }
+
+    @Test
+    public void testTextWithoutEscapesIsNotCopied() {
+        SmartScriptLexer lexer = new SmartScriptLexer("plain text{$= i $}more");
+
+        SmartScriptToken text = lexer.nextToken();
+        assertInstanceOf(TextSlice.class, text.getTextSequence());
+        assertEquals("plain text", text.getValue());
+        assertSame(text.getValue(), text.getValue());
+    }
+
+    @Test
+    public void testTextWithEscapesIsCopied() {
+        SmartScriptLexer lexer = new SmartScriptLexer("a \\{$ b \\\\");
+
+        SmartScriptToken text = lexer.nextToken();
+        assertInstanceOf(String.class, text.getTextSequence());
+        assertEquals("a {$ b \\", text.getValue());
+    }
+
+    @Test
+    public void testStreamedTextIsCopied() {
+        SmartScriptLexer lexer = new SmartScriptLexer(new StringReader("plain text"));
+
+        assertEquals("plain text", lexer.nextToken().getValue());
+    }
+
+    @Test
+    public void testTextSequenceOfOtherTokens() {
+        SmartScriptLexer lexer = new SmartScriptLexer("{$= i $}");
+
+        SmartScriptToken tag = lexer.nextToken();
+        assertEquals(SmartScriptTokenType.START_TAG_DEF, tag.getType());
+        assertThrows(IllegalStateException.class, tag::getTextSequence);
+    }
+
+    @Test
+    public void testTextSlice() {
+        TextSlice slice = new TextSlice("xxhello worldxx".toCharArray(), 2, 11);
+
+        assertEquals(11, slice.length());
+        assertEquals('w', slice.charAt(6));
+        assertThrows(IndexOutOfBoundsException.class, () -> slice.charAt(11));
+        assertEquals("world", slice.subSequence(6, 11).toString());
+        assertEquals(new TextSlice("hello world".toCharArray(), 0, 11), slice);
+        assertEquals("hello world".hashCode(), slice.hashCode());
+        assertEquals("[hello world]", slice.appendTo(new StringBuilder("[")).append(']').toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> new TextSlice(new char[3], 2, 2));
+        assertThrows(NullPointerException.class, () -> new TextSlice(null, 0, 0));
+    }
+
     @Test
     public void testExample12367() {
         testExample(1);
@@ -58,8 +186,12 @@ public class SmartScriptLexerTest {
     }
 
     private void testExample(int n) {
+        testExample(n, SmartScriptLexer::new);
+    }
+
+    private void testExample(int n, Function<String, SmartScriptLexer> lexerFactory) {
         String docBody = readExample(n);
-        SmartScriptLexer lexer = new SmartScriptLexer(docBody);
+        SmartScriptLexer lexer = lexerFactory.apply(docBody);
         SmartScriptToken[] correctData = expectedTokens(n);
         for (SmartScriptToken expected : correctData) {
             SmartScriptToken actual = lexer.nextToken();
@@ -77,8 +209,12 @@ public class SmartScriptLexerTest {
     }
 
     private void testExampleThrows(int n) {
+        testExampleThrows(n, SmartScriptLexer::new);
+    }
+
+    private void testExampleThrows(int n, Function<String, SmartScriptLexer> lexerFactory) {
         String docBody = readExample(n);
-        SmartScriptLexer lexer = new SmartScriptLexer(docBody);
+        SmartScriptLexer lexer = lexerFactory.apply(docBody);
         SmartScriptToken[] correctData = expectedTokens(n);
         for (SmartScriptToken expected : correctData) {
             SmartScriptToken actual = lexer.nextToken();
@@ -1,6 +1,7 @@
 package hr.fer.oprpp1.hw02.parser;
 
 import hr.fer.oprpp1.custom.scripting.elems.*;
+import hr.fer.oprpp1.custom.scripting.lexer.SmartScriptLexer;
 import hr.fer.oprpp1.custom.scripting.nodes.EchoNode;
 import hr.fer.oprpp1.custom.scripting.nodes.ForLoopNode;
 import hr.fer.oprpp1.custom.scripting.nodes.TextNode;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -17,7 +19,31 @@ import static org.junit.jupiter.api.Assertions.*;
 public class SmartScriptParserTest {
     @Test
     public void testNullInput() {
-        assertThrows(NullPointerException.class, () -> new SmartScriptParser(null));
+        assertThrows(NullPointerException.class, () -> new SmartScriptParser((String) null));
+    }
+
+    @Test
+    public void testNullLexer() {
+        assertThrows(NullPointerException.class, () -> new SmartScriptParser((SmartScriptLexer) null));
+    }
+
+    @Test
+    public void testStreamedDocuments() {
+        for (int n = 1; n <= 3; n++) {
+            String docBody = readDoc(n);
+            SmartScriptParser parser = new SmartScriptParser(docBody);
+            SmartScriptParser streamed = new SmartScriptParser(
+                    new SmartScriptLexer(new StringReader(docBody), SmartScriptLexer.MIN_WINDOW_SIZE));
+            assertEquals(parser.getDocumentNode(), streamed.getDocumentNode());
+            assertEquals(parser.getDocumentNode().toString(), streamed.getDocumentNode().toString());
+        }
+    }
+
+    @Test
+    public void testStreamedInvalidDocument() {
+        String docBody = readExample(8);
+        assertThrows(SmartScriptParserException.class,
+                () -> new SmartScriptParser(new SmartScriptLexer(new StringReader(docBody))));
     }
 
     @Test
@@ -0,0 +1,236 @@
+package hr.fer.oprpp1.hw02.parser;
+
+import hr.fer.oprpp1.custom.scripting.nodes.DocumentNode;
+import hr.fer.oprpp1.custom.scripting.nodes.TextNode;
+import hr.fer.oprpp1.custom.scripting.parser.SmartScriptParser;
+import hr.fer.oprpp1.custom.scripting.parser.SmartScriptParserException;
+import hr.fer.oprpp1.custom.scripting.parser.TemplateCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TemplateCacheTest {
+    private static final String TEMPLATE = "Hello {$= name $}!{$ FOR i 1 3 $}{$= i $}{$END$}";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TemplateCache(0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new TemplateCache(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TemplateCache(10, 100, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new TemplateCache(10, 100, Duration.ofSeconds(-1)));
+
+        TemplateCache cache = new TemplateCache(10, 100);
+        assertThrows(NullPointerException.class, () -> cache.get((String) null));
+        assertThrows(NullPointerException.class, () -> cache.get((Path) null));
+        assertThrows(NullPointerException.class, () -> cache.invalidate(null));
+    }
+
+    @Test
+    public void testTextHitAndMiss() {
+        TemplateCache cache = new TemplateCache(10, 1000);
+        DocumentNode first = cache.get(TEMPLATE);
+        DocumentNode second = cache.get(new String(TEMPLATE.toCharArray()));
+
+        assertSame(first, second);
+        assertEquals(new SmartScriptParser(TEMPLATE).getDocumentNode(), first);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.hitRate());
+        assertEquals(1, cache.size());
+        assertEquals(TEMPLATE.length(), cache.weight());
+
+        assertNotSame(first, cache.get(TEMPLATE + " "));
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testDocumentsAreFrozen() {
+        DocumentNode document = new TemplateCache(10, 1000).get(TEMPLATE);
+        assertTrue(document.isFrozen());
+        assertTrue(document.getChild(2).isFrozen());
+        assertThrows(UnsupportedOperationException.class, () -> document.addChildNode(new TextNode("x")));
+        assertThrows(UnsupportedOperationException.class, () -> document.getChild(2).addChildNode(new TextNode("x")));
+    }
+
+    @Test
+    public void testInvalidTextIsNotCached() {
+        TemplateCache cache = new TemplateCache(10, 1000);
+        assertThrows(SmartScriptParserException.class, () -> cache.get("{$ FOR $}"));
+        assertThrows(SmartScriptParserException.class, () -> cache.get("{$ FOR $}"));
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        TemplateCache cache = new TemplateCache(2, 1000);
+        DocumentNode a = cache.get("a");
+        cache.get("b");
+        cache.get("a");
+        cache.get("c");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertSame(a, cache.get("a"));
+        long misses = cache.getMissCount();
+        cache.get("b");
+        assertEquals(misses + 1, cache.getMissCount());
+    }
+
+    @Test
+    public void testEvictsByWeight() {
+        TemplateCache cache = new TemplateCache(10, 10);
+        cache.get("aaaa");
+        cache.get("bbbb");
+        cache.get("cccc");
+
+        assertEquals(2, cache.size());
+        assertEquals(8, cache.weight());
+        assertEquals(1, cache.getEvictionCount());
+
+        DocumentNode heavy = cache.get("x".repeat(11));
+        assertEquals("x".repeat(11), heavy.toString());
+        cache.get("x".repeat(11));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.getRejectionCount());
+    }
+
+    @Test
+    public void testFileIsReparsedWhenChanged() throws IOException {
+        Path file = dir.resolve("template.txt");
+        Files.writeString(file, TEMPLATE);
+        TemplateCache cache = new TemplateCache(10, 1000);
+
+        DocumentNode first = cache.get(file);
+        assertSame(first, cache.get(dir.resolve(".").resolve("template.txt")));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(Files.size(file), cache.weight());
+
+        modify(file, "Changed {$= name $}");
+        DocumentNode second = cache.get(file);
+        assertNotSame(first, second);
+        assertEquals(new SmartScriptParser("Changed {$= name $}").getDocumentNode(), second);
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.size());
+
+        cache.invalidate(file);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    public void testTextWeighsCharsAndFileWeighsBytes() throws IOException {
+        Path file = dir.resolve("template.txt");
+        Files.writeString(file, "čč");
+        TemplateCache cache = new TemplateCache(10, 1000);
+
+        cache.get("čč");
+        assertEquals(2, cache.weight());
+        cache.get(file);
+        assertEquals(2 + 4, cache.weight());
+    }
+
+    @Test
+    public void testMissingFile() {
+        TemplateCache cache = new TemplateCache(10, 1000);
+        assertThrows(NoSuchFileException.class, () -> cache.get(dir.resolve("missing.txt")));
+    }
+
+    @Test
+    public void testReloadChanged() throws IOException {
+        Path file = dir.resolve("template.txt");
+        Path other = dir.resolve("other.txt");
+        Files.writeString(file, TEMPLATE);
+        Files.writeString(other, "Other");
+
+        try (TemplateCache cache = new TemplateCache(10, 1000, Duration.ofHours(1))) {
+            DocumentNode first = cache.get(file);
+            cache.get(other);
+
+            modify(file, "Changed");
+            assertSame(first, cache.get(file));
+
+            cache.reloadChanged();
+            assertEquals(1, cache.getReloadCount());
+            DocumentNode reloaded = cache.get(file);
+            assertEquals(new SmartScriptParser("Changed").getDocumentNode(), reloaded);
+            assertTrue(reloaded.isFrozen());
+            assertEquals(2, cache.getMissCount());
+            assertEquals(2, cache.getHitCount());
+
+            Files.delete(other);
+            cache.reloadChanged();
+            assertEquals(1, cache.size());
+            assertEquals(Files.size(file), cache.weight());
+            assertThrows(NoSuchFileException.class, () -> cache.get(other));
+        }
+    }
+
+    @Test
+    public void testInvalidFileIsRemovedOnReload() throws IOException {
+        Path file = dir.resolve("template.txt");
+        Files.writeString(file, TEMPLATE);
+
+        try (TemplateCache cache = new TemplateCache(10, 1000, Duration.ofHours(1))) {
+            cache.get(file);
+            modify(file, "{$ FOR $}");
+            cache.reloadChanged();
+
+            assertEquals(0, cache.size());
+            assertThrows(SmartScriptParserException.class, () -> cache.get(file));
+        }
+    }
+
+    @Test
+    public void testReloadsInBackground() throws IOException, InterruptedException {
+        Path file = dir.resolve("template.txt");
+        Files.writeString(file, TEMPLATE);
+
+        try (TemplateCache cache = new TemplateCache(10, 1000, Duration.ofMillis(10))) {
+            DocumentNode first = cache.get(file);
+            modify(file, "Changed");
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (cache.getReloadCount() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertNotSame(first, cache.get(file));
+            assertEquals("Changed", cache.get(file).toString());
+            assertEquals(1, cache.getMissCount());
+        }
+    }
+
+    @Test
+    public void testInvalidateAllKeepsStatistics() {
+        TemplateCache cache = new TemplateCache(10, 1000);
+        cache.get("a");
+        cache.get("a");
+        cache.invalidateAll();
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+        assertEquals(1, cache.getHitCount());
+        cache.get("a");
+        assertEquals(2, cache.getMissCount());
+    }
+
+    private static void modify(Path file, String content) throws IOException {
+        FileTime previous = Files.getLastModifiedTime(file);
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(previous.toMillis() + 1000));
+    }
+}
@@ -0,0 +1,123 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import hr.fer.oprpp1.custom.collections.ArrayIndexedCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the bulk operations of the {@link ArrayIndexedCollection}.
+ * <p>
+ * Every bulk operation is compared with the same work done one element at a time:
+ * {@code addAll} with repeated {@code add}, {@code insertAll} at the front with repeated {@code insert},
+ * and {@code removeRange} at the front with repeated {@code remove}. Each operation moves {@link #size}
+ * elements; the insertions and removals work on a collection of 2 * size elements, which is copied
+ * before every invocation.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayBulkOperationsBenchmark {
+    /**
+     * Number of elements which are added, inserted or removed.
+     */
+    @Param({"20000"})
+    public int size;
+
+    /**
+     * Elements 0 to size - 1.
+     */
+    private ArrayIndexedCollection<Integer> source;
+
+    /**
+     * Collection of 2 * size elements, whose copies are changed.
+     */
+    private ArrayIndexedCollection<Integer> doubled;
+
+    /**
+     * Copy of the collection of 2 * size elements, made again before every invocation.
+     */
+    @State(Scope.Thread)
+    public static class Copy {
+        /**
+         * Collection which is changed by the invocation.
+         */
+        private ArrayIndexedCollection<Integer> collection;
+
+        @Setup(Level.Invocation)
+        public void setUp(ArrayBulkOperationsBenchmark benchmark) {
+            collection = new ArrayIndexedCollection<>(benchmark.doubled);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = new ArrayIndexedCollection<>(size);
+        for (int i = 0; i < size; i++) {
+            source.add(i);
+        }
+        doubled = new ArrayIndexedCollection<>(source);
+        doubled.addAll(source);
+    }
+
+    @Benchmark
+    public ArrayIndexedCollection<Integer> addLoop() {
+        ArrayIndexedCollection<Integer> added = new ArrayIndexedCollection<>(1);
+        for (int i = 0; i < size; i++) {
+            added.add(source.get(i));
+        }
+        return added;
+    }
+
+    @Benchmark
+    public ArrayIndexedCollection<Integer> addAll() {
+        ArrayIndexedCollection<Integer> added = new ArrayIndexedCollection<>(1);
+        added.addAll(source);
+        return added;
+    }
+
+    @Benchmark
+    public ArrayIndexedCollection<Integer> insertLoop(Copy copy) {
+        for (int i = 0; i < size; i++) {
+            copy.collection.insert(source.get(i), 0);
+        }
+        return copy.collection;
+    }
+
+    @Benchmark
+    public ArrayIndexedCollection<Integer> insertAll(Copy copy) {
+        copy.collection.insertAll(source, 0);
+        return copy.collection;
+    }
+
+    @Benchmark
+    public ArrayIndexedCollection<Integer> removeLoop(Copy copy) {
+        for (int i = 0; i < size; i++) {
+            copy.collection.remove(0);
+        }
+        return copy.collection;
+    }
+
+    @Benchmark
+    public ArrayIndexedCollection<Integer> removeRange(Copy copy) {
+        copy.collection.removeRange(0, size);
+        return copy.collection;
+    }
+}
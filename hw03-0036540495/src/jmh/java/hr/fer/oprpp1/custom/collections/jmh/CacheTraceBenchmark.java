@@ -0,0 +1,189 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import hr.fer.oprpp1.custom.collections.BoundedCache;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks which replay access traces against a {@link BoundedCache} with every eviction policy.
+ * <p>
+ * Every access of a trace is a {@code get}, followed by a {@code put} if it misses. The synthetic traces
+ * have 2 000 000 accesses over 100 000 keys:
+ * <ul>
+ *     <li>zipf: keys drawn from a Zipf distribution with exponent 0.9,</li>
+ *     <li>zipf+scan: the same, with a scan of 20 000 keys which are used only once after every 100 000 accesses,</li>
+ *     <li>loop: the keys 0 to 12 499 accessed in a loop, which is longer than every cache.</li>
+ * </ul>
+ * Any other value of {@link #trace} is the name of a file which is replayed, with one key per line,
+ * for example {@code CacheTraceBenchmark -p trace=requests.log}.
+ * <p>
+ * The score is the time of one replay. The hits and misses of all replays in an iteration are reported
+ * as the secondary results {@code hits} and {@code misses}, their ratio is the hit rate of the policy.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheTraceBenchmark {
+    /**
+     * Name of the Zipf trace.
+     */
+    private static final String ZIPF = "zipf";
+
+    /**
+     * Name of the Zipf trace with scans.
+     */
+    private static final String ZIPF_SCAN = "zipf+scan";
+
+    /**
+     * Name of the loop trace.
+     */
+    private static final String LOOP = "loop";
+
+    /**
+     * Number of accesses of a synthetic trace.
+     */
+    private static final int ACCESSES = 2_000_000;
+
+    /**
+     * Number of distinct keys of the Zipf traces.
+     */
+    private static final int KEYS = 100_000;
+
+    /**
+     * Eviction policy of the cache.
+     */
+    @Param
+    public BoundedCache.EvictionPolicy policy;
+
+    /**
+     * Name of a synthetic trace, or the name of a file with a trace.
+     */
+    @Param({ZIPF, ZIPF_SCAN, LOOP})
+    public String trace;
+
+    /**
+     * Maximal number of entries in the cache.
+     */
+    @Param({"500", "2000", "10000"})
+    public int cacheSize;
+
+    /**
+     * Keys which are accessed.
+     */
+    private Object[] keys;
+
+    /**
+     * Hits and misses of the replays, reported next to the time.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        /**
+         * Number of accesses which hit.
+         */
+        public long hits;
+
+        /**
+         * Number of accesses which missed.
+         */
+        public long misses;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        keys = switch (trace) {
+            case ZIPF -> zipfTrace();
+            case ZIPF_SCAN -> withScans(zipfTrace());
+            case LOOP -> loopTrace();
+            default -> Files.readAllLines(Path.of(trace)).toArray();
+        };
+    }
+
+    @Benchmark
+    public BoundedCache<Object, Object> replay(Counters counters) {
+        BoundedCache<Object, Object> cache = new BoundedCache<>(cacheSize, policy);
+        for (Object key : keys) {
+            if (cache.get(key) == null) {
+                cache.put(key, key);
+            }
+        }
+        counters.hits += cache.getHitCount();
+        counters.misses += cache.getMissCount();
+        return cache;
+    }
+
+    /**
+     * Creates a trace of keys drawn from a Zipf distribution.
+     *
+     * @return trace of keys
+     */
+    private static Integer[] zipfTrace() {
+        Random random = new Random(42);
+        double[] cumulative = new double[KEYS];
+        double sum = 0;
+        for (int i = 0; i < KEYS; i++) {
+            sum += 1 / Math.pow(i + 1, 0.9);
+            cumulative[i] = sum;
+        }
+        Integer[] trace = new Integer[ACCESSES];
+        for (int i = 0; i < ACCESSES; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            // spread the popular keys, so their hash codes are not consecutive
+            trace[i] = (index < 0 ? -index - 1 : index) * 0x9E3779B1;
+        }
+        return trace;
+    }
+
+    /**
+     * Replaces the first 20 000 accesses of every 100 000 with keys which are not used anywhere else.
+     *
+     * @param trace trace which is changed
+     * @return the given trace
+     */
+    private static Integer[] withScans(Integer[] trace) {
+        int scanKey = KEYS;
+        for (int start = 0; start + 20_000 <= trace.length; start += 100_000) {
+            for (int i = start; i < start + 20_000; i++) {
+                trace[i] = scanKey++;
+            }
+        }
+        return trace;
+    }
+
+    /**
+     * Creates a trace which accesses the keys 0 to 12 499 in a loop.
+     *
+     * @return trace of keys
+     */
+    private static Integer[] loopTrace() {
+        Integer[] trace = new Integer[ACCESSES];
+        for (int i = 0; i < ACCESSES; i++) {
+            trace[i] = i % 12_500;
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,109 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import hr.fer.oprpp1.custom.collections.ConcurrentSimpleHashtable;
+import hr.fer.oprpp1.custom.collections.SimpleHashtable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the throughput of a hash table shared between threads.
+ * <p>
+ * A {@link SimpleHashtable} guarded by one global lock is compared with a {@link ConcurrentSimpleHashtable}.
+ * Every thread runs a mix of 90% gets and 10% puts over a fixed set of keys. The number of threads is
+ * the number of processors, it can be changed with the JMH option {@code -t}.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class ConcurrentHashtableBenchmark {
+    /**
+     * Name of the {@link SimpleHashtable} guarded by a global lock.
+     */
+    private static final String SYNCHRONIZED = "synchronized SimpleHashtable";
+
+    /**
+     * Name of the {@link ConcurrentSimpleHashtable} implementation.
+     */
+    private static final String CONCURRENT = "ConcurrentSimpleHashtable";
+
+    /**
+     * Percentage of operations which are puts.
+     */
+    private static final int PUT_PERCENT = 10;
+
+    /**
+     * Measured implementation.
+     */
+    @Param({SYNCHRONIZED, CONCURRENT})
+    public String implementation;
+
+    /**
+     * Number of different keys.
+     */
+    @Param({"100000"})
+    public int size;
+
+    /**
+     * Keys which are used, 0 to size - 1.
+     */
+    private Integer[] keys;
+
+    /**
+     * Table used if the synchronized {@link SimpleHashtable} is measured, guarded by itself.
+     */
+    private SimpleHashtable<Integer, Integer> simple;
+
+    /**
+     * Table used if {@link ConcurrentSimpleHashtable} is measured.
+     */
+    private ConcurrentSimpleHashtable<Integer, Integer> concurrent;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new Integer[size];
+        simple = new SimpleHashtable<>();
+        concurrent = new ConcurrentSimpleHashtable<>();
+        for (int i = 0; i < size; i++) {
+            keys[i] = i;
+            if (SYNCHRONIZED.equals(implementation)) {
+                simple.put(keys[i], keys[i]);
+            } else {
+                concurrent.put(keys[i], keys[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public Integer getOrPut() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Integer key = keys[random.nextInt(keys.length)];
+        boolean put = random.nextInt(100) < PUT_PERCENT;
+        if (CONCURRENT.equals(implementation)) {
+            return put ? concurrent.put(key, key) : concurrent.get(key);
+        }
+        synchronized (simple) {
+            return put ? simple.put(key, key) : simple.get(key);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import hr.fer.oprpp1.custom.collections.HashSpreader;
+import hr.fer.oprpp1.custom.collections.SimpleHashtable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the hash spreading strategies of the {@link SimpleHashtable}.
+ * <p>
+ * Two key sets are used: 100 000 integers which are multiples of 1024, so their low bits are all zero,
+ * and 4096 strings built from "Aa" and "BB", which all have the same hash code and end up in one
+ * treeified bucket.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashSpreadingBenchmark {
+    /**
+     * Name of the integer keys.
+     */
+    private static final String MULTIPLES_OF_1024 = "i*1024";
+
+    /**
+     * Name of the colliding string keys.
+     */
+    private static final String COLLIDING_STRINGS = "Aa/BB";
+
+    /**
+     * Number of integer keys.
+     */
+    private static final int INTEGERS = 100_000;
+
+    /**
+     * Number of "Aa"/"BB" pairs in a colliding string key, there are 2^STRING_PAIRS such keys.
+     */
+    private static final int STRING_PAIRS = 12;
+
+    /**
+     * Name of the {@link HashSpreader} constant used by the table.
+     */
+    @Param({"ABSOLUTE", "XOR_SHIFT", "MURMUR3"})
+    public String spreader;
+
+    /**
+     * Key set which is put and looked up.
+     */
+    @Param({MULTIPLES_OF_1024, COLLIDING_STRINGS})
+    public String keySet;
+
+    /**
+     * Keys of the table.
+     */
+    private Object[] keys;
+
+    /**
+     * Table with all keys.
+     */
+    private SimpleHashtable<Object, Integer> table;
+
+    /**
+     * Random indexes into {@link #keys} which are used in turn.
+     */
+    private int[] indexes;
+
+    /**
+     * Position in {@link #indexes}.
+     */
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = switch (keySet) {
+            case MULTIPLES_OF_1024 -> integers();
+            case COLLIDING_STRINGS -> strings();
+            default -> throw new IllegalArgumentException("Unknown key set: " + keySet);
+        };
+        table = putAll();
+        Random random = new Random(42);
+        indexes = new int[1024];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = random.nextInt(keys.length);
+        }
+    }
+
+    /**
+     * Creates the integer keys.
+     *
+     * @return multiples of 1024
+     */
+    private static Integer[] integers() {
+        Integer[] integers = new Integer[INTEGERS];
+        for (int i = 0; i < INTEGERS; i++) {
+            integers[i] = i * 1024;
+        }
+        return integers;
+    }
+
+    /**
+     * Creates the string keys with equal hash codes.
+     *
+     * @return strings of "Aa" and "BB"
+     */
+    private static String[] strings() {
+        String[] strings = new String[1 << STRING_PAIRS];
+        for (int i = 0; i < strings.length; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int bit = 0; bit < STRING_PAIRS; bit++) {
+                sb.append((i >> bit & 1) == 0 ? "Aa" : "BB");
+            }
+            strings[i] = sb.toString();
+        }
+        return strings;
+    }
+
+    /**
+     * Returns the spreader with the name given by {@link #spreader}.
+     *
+     * @return measured spreader
+     */
+    private HashSpreader spreader() {
+        return switch (spreader) {
+            case "ABSOLUTE" -> HashSpreader.ABSOLUTE;
+            case "XOR_SHIFT" -> HashSpreader.XOR_SHIFT;
+            case "MURMUR3" -> HashSpreader.MURMUR3;
+            default -> throw new IllegalArgumentException("Unknown spreader: " + spreader);
+        };
+    }
+
+    /**
+     * Fills a new table from the default capacity.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public SimpleHashtable<Object, Integer> putAll() {
+        SimpleHashtable<Object, Integer> table = new SimpleHashtable<>(16, spreader());
+        for (int i = 0; i < keys.length; i++) {
+            table.put(keys[i], i);
+        }
+        return table;
+    }
+
+    @Benchmark
+    public Integer get() {
+        next = (next + 1) & (indexes.length - 1);
+        return table.get(keys[indexes[next]]);
+    }
+}
@@ -0,0 +1,185 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import hr.fer.oprpp1.custom.collections.OpenAddressingHashtable;
+import hr.fer.oprpp1.custom.collections.SimpleHashtable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the chained {@link SimpleHashtable} and the {@link OpenAddressingHashtable}.
+ * <p>
+ * The keys are scrambled distinct integers, so that neither table profits from keys which are consecutive.
+ * Every benchmark except {@link #putAll(Blackhole)} keeps the size of the table constant.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashtableBenchmark {
+    /**
+     * Name of the {@link SimpleHashtable} implementation.
+     */
+    private static final String SIMPLE_HASHTABLE = "SimpleHashtable";
+
+    /**
+     * Name of the {@link OpenAddressingHashtable} implementation.
+     */
+    private static final String OPEN_ADDRESSING = "OpenAddressingHashtable";
+
+    /**
+     * Measured implementation.
+     */
+    @Param({SIMPLE_HASHTABLE, OPEN_ADDRESSING})
+    public String implementation;
+
+    /**
+     * Number of entries in the table.
+     */
+    @Param({"10000", "1000000"})
+    public int size;
+
+    /**
+     * Keys of the entries.
+     */
+    private Integer[] keys;
+
+    /**
+     * Keys which are not in the table.
+     */
+    private Integer[] missing;
+
+    /**
+     * Random indexes into {@link #keys} which are used in turn.
+     */
+    private int[] indexes;
+
+    /**
+     * Position in {@link #indexes}.
+     */
+    private int next;
+
+    /**
+     * Filled table, used if {@link SimpleHashtable} is measured.
+     */
+    private SimpleHashtable<Integer, Integer> chained;
+
+    /**
+     * Filled table, used if {@link OpenAddressingHashtable} is measured.
+     */
+    private OpenAddressingHashtable<Integer, Integer> open;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new Integer[size];
+        missing = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = scramble(i);
+            missing[i] = -1 - scramble(size + i);
+        }
+        Random random = new Random(42);
+        indexes = new int[1024];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = random.nextInt(size);
+        }
+        chained = new SimpleHashtable<>();
+        open = new OpenAddressingHashtable<>();
+        fill(chained, open);
+    }
+
+    /**
+     * Maps the given index to a pseudo-random non-negative integer.
+     * Multiplication by an odd constant is a bijection modulo 2^31, so different indexes give different keys.
+     *
+     * @param i index
+     * @return scrambled index
+     */
+    private static int scramble(int i) {
+        return (int) ((i * 0x5DEECE66DL) & Integer.MAX_VALUE);
+    }
+
+    /**
+     * Puts all keys into the table of the measured implementation, the other table stays empty.
+     *
+     * @param chained table which is filled if {@link SimpleHashtable} is measured
+     * @param open    table which is filled if {@link OpenAddressingHashtable} is measured
+     */
+    private void fill(SimpleHashtable<Integer, Integer> chained, OpenAddressingHashtable<Integer, Integer> open) {
+        for (Integer key : keys) {
+            if (SIMPLE_HASHTABLE.equals(implementation)) {
+                chained.put(key, key);
+            } else {
+                open.put(key, key);
+            }
+        }
+    }
+
+    /**
+     * Returns the next random index.
+     *
+     * @return index between 0 and size - 1
+     */
+    private int nextIndex() {
+        next = (next + 1) & (indexes.length - 1);
+        return indexes[next];
+    }
+
+    /**
+     * Fills a new table from the default capacity, including all resizes.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void putAll(Blackhole blackhole) {
+        SimpleHashtable<Integer, Integer> chained = new SimpleHashtable<>();
+        OpenAddressingHashtable<Integer, Integer> open = new OpenAddressingHashtable<>();
+        fill(chained, open);
+        blackhole.consume(chained);
+        blackhole.consume(open);
+    }
+
+    @Benchmark
+    public Integer getHit() {
+        Integer key = keys[nextIndex()];
+        return SIMPLE_HASHTABLE.equals(implementation) ? chained.get(key) : open.get(key);
+    }
+
+    @Benchmark
+    public Integer getMiss() {
+        Integer key = missing[nextIndex()];
+        return SIMPLE_HASHTABLE.equals(implementation) ? chained.get(key) : open.get(key);
+    }
+
+    /**
+     * Removes a key and puts it back, so the size stays constant.
+     */
+    @Benchmark
+    public Integer removeAndPut() {
+        Integer key = keys[nextIndex()];
+        if (SIMPLE_HASHTABLE.equals(implementation)) {
+            Integer value = chained.remove(key);
+            chained.put(key, value);
+            return value;
+        }
+        Integer value = open.remove(key);
+        open.put(key, value);
+        return value;
+    }
+}
@@ -0,0 +1,77 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import hr.fer.oprpp1.custom.collections.SimpleHashtable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the iteration over all entries of a {@link SimpleHashtable}, with {@link HashMap} as the baseline.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashtableIterationBenchmark {
+    /**
+     * Number of entries in the tables.
+     */
+    @Param({"100", "10000"})
+    public int size;
+
+    /**
+     * Measured table.
+     */
+    private SimpleHashtable<Integer, Integer> table;
+
+    /**
+     * Baseline map with the same entries.
+     */
+    private Map<Integer, Integer> map;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        table = new SimpleHashtable<>();
+        map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            table.put(i, i);
+            map.put(i, i);
+        }
+    }
+
+    @Benchmark
+    public long simpleHashtable() {
+        long sum = 0;
+        for (SimpleHashtable.TableEntry<Integer, Integer> entry : table) {
+            sum += entry.getValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long hashMap() {
+        long sum = 0;
+        for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+            sum += entry.getValue();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,93 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import hr.fer.oprpp1.custom.collections.ArrayIndexedCollection;
+import hr.fer.oprpp1.custom.collections.Collection;
+import hr.fer.oprpp1.custom.collections.ElementsGetter;
+import hr.fer.oprpp1.custom.collections.LinkedListIndexedCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of iterating a collection element by element with an {@link ElementsGetter}
+ * and with {@link Collection#forEach}, which walks the array or the nodes directly.
+ * <p>
+ * Both benchmarks sum the elements of an {@link ArrayIndexedCollection} or a {@link LinkedListIndexedCollection}.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IterationBenchmark {
+    /**
+     * Name of the {@link ArrayIndexedCollection} implementation.
+     */
+    private static final String ARRAY_INDEXED = "ArrayIndexedCollection";
+
+    /**
+     * Name of the {@link LinkedListIndexedCollection} implementation.
+     */
+    private static final String LINKED_LIST_INDEXED = "LinkedListIndexedCollection";
+
+    /**
+     * Measured implementation.
+     */
+    @Param({ARRAY_INDEXED, LINKED_LIST_INDEXED})
+    public String implementation;
+
+    /**
+     * Number of elements in the collection.
+     */
+    @Param({"10000", "1000000", "10000000"})
+    public int size;
+
+    /**
+     * Collection with {@link #size} elements from 0 to 999.
+     */
+    private Collection<Integer> collection;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        collection = switch (implementation) {
+            case ARRAY_INDEXED -> new ArrayIndexedCollection<>(size);
+            case LINKED_LIST_INDEXED -> new LinkedListIndexedCollection<>();
+            default -> throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        };
+        for (int i = 0; i < size; i++) {
+            collection.add(i % 1000);
+        }
+    }
+
+    @Benchmark
+    public long elementsGetter() {
+        long sum = 0;
+        ElementsGetter<Integer> getter = collection.createElementsGetter();
+        while (getter.hasNextElement()) {
+            sum += getter.getNextElement();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long forEach() {
+        long[] sum = new long[1];
+        collection.forEach(value -> sum[0] += value);
+        return sum[0];
+    }
+}
@@ -0,0 +1,222 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import hr.fer.oprpp1.custom.collections.ArrayIndexedCollection;
+import hr.fer.oprpp1.custom.collections.CircularArrayIndexedCollection;
+import hr.fer.oprpp1.custom.collections.ElementsGetter;
+import hr.fer.oprpp1.custom.collections.LinkedListIndexedCollection;
+import hr.fer.oprpp1.custom.collections.List;
+import hr.fer.oprpp1.custom.collections.UnrolledIndexedCollection;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+
+/**
+ * Common operations of the custom lists and their {@code java.util} counterparts,
+ * so that one benchmark can run against all of them.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+interface ListAdapter {
+    /**
+     * Name of the {@code ArrayIndexedCollection} implementation.
+     */
+    String ARRAY_INDEXED = "ArrayIndexedCollection";
+
+    /**
+     * Name of the {@code LinkedListIndexedCollection} implementation.
+     */
+    String LINKED_LIST_INDEXED = "LinkedListIndexedCollection";
+
+    /**
+     * Name of the {@code CircularArrayIndexedCollection} implementation.
+     */
+    String CIRCULAR_ARRAY_INDEXED = "CircularArrayIndexedCollection";
+
+    /**
+     * Name of the {@code UnrolledIndexedCollection} implementation.
+     */
+    String UNROLLED_INDEXED = "UnrolledIndexedCollection";
+
+    /**
+     * Name of the {@link ArrayList} baseline.
+     */
+    String ARRAY_LIST = "java.util.ArrayList";
+
+    /**
+     * Name of the {@link LinkedList} baseline.
+     */
+    String LINKED_LIST = "java.util.LinkedList";
+
+    /**
+     * Appends the value to the list.
+     *
+     * @param value value which is appended
+     */
+    void add(Integer value);
+
+    /**
+     * Inserts the value at the given position.
+     *
+     * @param value    value which is inserted
+     * @param position position of the value
+     */
+    void insert(Integer value, int position);
+
+    /**
+     * Returns the element at the given index.
+     *
+     * @param index index of the element
+     * @return element at the index
+     */
+    Integer get(int index);
+
+    /**
+     * Removes the element at the given index.
+     *
+     * @param index index of the element
+     */
+    void remove(int index);
+
+    /**
+     * Checks if the list contains the value.
+     *
+     * @param value value which is searched for
+     * @return true if the list contains the value, false otherwise
+     */
+    boolean contains(Integer value);
+
+    /**
+     * Visits all elements, through an {@link ElementsGetter} or an {@link java.util.Iterator}.
+     *
+     * @return sum of the elements
+     */
+    long sum();
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return number of elements
+     */
+    int size();
+
+    /**
+     * Creates an empty list of the given implementation.
+     *
+     * @param implementation name of the implementation
+     * @return adapter of the new list
+     * @throws IllegalArgumentException if the implementation is unknown
+     */
+    static ListAdapter create(String implementation) {
+        return switch (implementation) {
+            case ARRAY_INDEXED -> new CustomList(new ArrayIndexedCollection<>());
+            case LINKED_LIST_INDEXED -> new CustomList(new LinkedListIndexedCollection<>());
+            case CIRCULAR_ARRAY_INDEXED -> new CustomList(new CircularArrayIndexedCollection<>());
+            case UNROLLED_INDEXED -> new CustomList(new UnrolledIndexedCollection<>());
+            case ARRAY_LIST -> new JavaList(new ArrayList<>());
+            case LINKED_LIST -> new JavaList(new LinkedList<>());
+            default -> throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        };
+    }
+
+    /**
+     * Adapter of a {@link List} from the collections package.
+     */
+    final class CustomList implements ListAdapter {
+        private final List<Integer> list;
+
+        CustomList(List<Integer> list) {
+            this.list = list;
+        }
+
+        @Override
+        public void add(Integer value) {
+            list.add(value);
+        }
+
+        @Override
+        public void insert(Integer value, int position) {
+            list.insert(value, position);
+        }
+
+        @Override
+        public Integer get(int index) {
+            return list.get(index);
+        }
+
+        @Override
+        public void remove(int index) {
+            list.remove(index);
+        }
+
+        @Override
+        public boolean contains(Integer value) {
+            return list.contains(value);
+        }
+
+        @Override
+        public long sum() {
+            long sum = 0;
+            ElementsGetter<Integer> getter = list.createElementsGetter();
+            while (getter.hasNextElement()) {
+                sum += getter.getNextElement();
+            }
+            return sum;
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+    }
+
+    /**
+     * Adapter of a {@link java.util.List}.
+     */
+    final class JavaList implements ListAdapter {
+        private final java.util.List<Integer> list;
+
+        JavaList(java.util.List<Integer> list) {
+            this.list = list;
+        }
+
+        @Override
+        public void add(Integer value) {
+            list.add(value);
+        }
+
+        @Override
+        public void insert(Integer value, int position) {
+            list.add(position, value);
+        }
+
+        @Override
+        public Integer get(int index) {
+            return list.get(index);
+        }
+
+        @Override
+        public void remove(int index) {
+            list.remove(index);
+        }
+
+        @Override
+        public boolean contains(Integer value) {
+            return list.contains(value);
+        }
+
+        @Override
+        public long sum() {
+            long sum = 0;
+            for (Integer value : list) {
+                sum += value;
+            }
+            return sum;
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+    }
+}
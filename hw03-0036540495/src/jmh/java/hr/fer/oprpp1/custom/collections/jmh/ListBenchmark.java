@@ -0,0 +1,157 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the list operations of {@code ArrayIndexedCollection}, {@code LinkedListIndexedCollection},
+ * {@code CircularArrayIndexedCollection} and {@code UnrolledIndexedCollection}, with {@link java.util.ArrayList}
+ * and {@link java.util.LinkedList} as baselines.
+ * <p>
+ * Every benchmark except {@link #addAll()} keeps the size of the list constant, so the numbers do not drift
+ * during a measurement.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListBenchmark {
+    /**
+     * Measured implementation.
+     */
+    @Param({ListAdapter.ARRAY_INDEXED, ListAdapter.LINKED_LIST_INDEXED, ListAdapter.CIRCULAR_ARRAY_INDEXED,
+            ListAdapter.UNROLLED_INDEXED, ListAdapter.ARRAY_LIST, ListAdapter.LINKED_LIST})
+    public String implementation;
+
+    /**
+     * Number of elements in the list.
+     */
+    @Param({"100", "10000"})
+    public int size;
+
+    /**
+     * List with {@link #size} elements.
+     */
+    private ListAdapter list;
+
+    /**
+     * Elements of the list, 0 to size - 1.
+     */
+    private Integer[] values;
+
+    /**
+     * Random indexes which are used in turn by the indexed benchmarks.
+     */
+    private int[] indexes;
+
+    /**
+     * Position in {@link #indexes}.
+     */
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+        }
+        list = ListAdapter.create(implementation);
+        for (Integer value : values) {
+            list.add(value);
+        }
+        Random random = new Random(42);
+        indexes = new int[1024];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = random.nextInt(size);
+        }
+    }
+
+    /**
+     * Returns the next random index.
+     *
+     * @return index between 0 and size - 1
+     */
+    private int nextIndex() {
+        next = (next + 1) & (indexes.length - 1);
+        return indexes[next];
+    }
+
+    /**
+     * Fills a new list, including all resizes of its storage.
+     */
+    @Benchmark
+    public ListAdapter addAll() {
+        ListAdapter fresh = ListAdapter.create(implementation);
+        for (Integer value : values) {
+            fresh.add(value);
+        }
+        return fresh;
+    }
+
+    @Benchmark
+    public Integer get() {
+        return list.get(nextIndex());
+    }
+
+    @Benchmark
+    public int insertAndRemoveAtRandomIndex() {
+        int index = nextIndex();
+        list.insert(values[index], index);
+        list.remove(index);
+        return index;
+    }
+
+    @Benchmark
+    public int insertAndRemoveAtHead() {
+        list.insert(values[0], 0);
+        list.remove(0);
+        return list.size();
+    }
+
+    /**
+     * Removes the first element and appends it again, like a queue.
+     */
+    @Benchmark
+    public int removeHeadAndAppend() {
+        Integer head = list.get(0);
+        list.remove(0);
+        list.add(head);
+        return list.size();
+    }
+
+    @Benchmark
+    public boolean containsRandom() {
+        return list.contains(values[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean containsMissing() {
+        return list.contains(-1);
+    }
+
+    /**
+     * Visits all elements through an {@code ElementsGetter} or an iterator.
+     */
+    @Benchmark
+    public long iterate() {
+        return list.sum();
+    }
+}
@@ -0,0 +1,232 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import hr.fer.oprpp1.custom.collections.Dictionary;
+import hr.fer.oprpp1.custom.collections.SimpleHashtable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link SimpleHashtable} and {@link Dictionary}, with {@link HashMap} as the baseline.
+ * <p>
+ * The keys are strings, so hashing and {@code equals} are not trivial. {@link #putAll()} starts from the default
+ * capacity and therefore measures all resizes of the table. With 10 entries the {@link Dictionary} is still below
+ * the size at which it builds its hash index, so the sizes cover it both with and without the index.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapBenchmark {
+    /**
+     * Name of the {@link SimpleHashtable} implementation.
+     */
+    private static final String SIMPLE_HASHTABLE = "SimpleHashtable";
+
+    /**
+     * Name of the {@link Dictionary} implementation.
+     */
+    private static final String DICTIONARY = "Dictionary";
+
+    /**
+     * Name of the {@link HashMap} baseline.
+     */
+    private static final String HASH_MAP = "java.util.HashMap";
+
+    /**
+     * Measured implementation.
+     */
+    @Param({SIMPLE_HASHTABLE, DICTIONARY, HASH_MAP})
+    public String implementation;
+
+    /**
+     * Number of entries in the map.
+     */
+    @Param({"10", "100", "10000"})
+    public int size;
+
+    /**
+     * Keys of the entries.
+     */
+    private String[] keys;
+
+    /**
+     * Keys which are not in the map.
+     */
+    private String[] missing;
+
+    /**
+     * Random indexes into {@link #keys} which are used in turn.
+     */
+    private int[] indexes;
+
+    /**
+     * Position in {@link #indexes}.
+     */
+    private int next;
+
+    /**
+     * Filled table, used if {@link SimpleHashtable} is measured.
+     */
+    private SimpleHashtable<String, Integer> table;
+
+    /**
+     * Filled dictionary, used if {@link Dictionary} is measured.
+     */
+    private Dictionary<String, Integer> dictionary;
+
+    /**
+     * Filled map, used if {@link HashMap} is measured.
+     */
+    private Map<String, Integer> map;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new String[size];
+        missing = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = "key" + i;
+            missing[i] = "missing" + i;
+        }
+        Random random = new Random(42);
+        indexes = new int[1024];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = random.nextInt(size);
+        }
+        table = new SimpleHashtable<>();
+        dictionary = new Dictionary<>();
+        map = new HashMap<>();
+        fill(table, dictionary, map);
+    }
+
+    /**
+     * Puts all keys into the map of the measured implementation, the other two maps stay empty.
+     *
+     * @param table      table which is filled if {@link SimpleHashtable} is measured
+     * @param dictionary dictionary which is filled if {@link Dictionary} is measured
+     * @param map        map which is filled if {@link HashMap} is measured
+     */
+    private void fill(SimpleHashtable<String, Integer> table, Dictionary<String, Integer> dictionary,
+                      Map<String, Integer> map) {
+        for (int i = 0; i < size; i++) {
+            switch (implementation) {
+                case SIMPLE_HASHTABLE -> table.put(keys[i], i);
+                case DICTIONARY -> dictionary.put(keys[i], i);
+                default -> map.put(keys[i], i);
+            }
+        }
+    }
+
+    /**
+     * Returns the next random index.
+     *
+     * @return index between 0 and size - 1
+     */
+    private int nextIndex() {
+        next = (next + 1) & (indexes.length - 1);
+        return indexes[next];
+    }
+
+    /**
+     * Fills a new map from the default capacity, including all resizes.
+     */
+    @Benchmark
+    public void putAll(Blackhole blackhole) {
+        SimpleHashtable<String, Integer> table = new SimpleHashtable<>();
+        Dictionary<String, Integer> dictionary = new Dictionary<>();
+        Map<String, Integer> map = new HashMap<>();
+        fill(table, dictionary, map);
+        blackhole.consume(table);
+        blackhole.consume(dictionary);
+        blackhole.consume(map);
+    }
+
+    @Benchmark
+    public Integer getHit() {
+        String key = keys[nextIndex()];
+        return switch (implementation) {
+            case SIMPLE_HASHTABLE -> table.get(key);
+            case DICTIONARY -> dictionary.get(key);
+            default -> map.get(key);
+        };
+    }
+
+    @Benchmark
+    public Integer getMiss() {
+        String key = missing[nextIndex()];
+        return switch (implementation) {
+            case SIMPLE_HASHTABLE -> table.get(key);
+            case DICTIONARY -> dictionary.get(key);
+            default -> map.get(key);
+        };
+    }
+
+    @Benchmark
+    public boolean containsKey() {
+        String key = keys[nextIndex()];
+        return switch (implementation) {
+            case SIMPLE_HASHTABLE -> table.containsKey(key);
+            case DICTIONARY -> dictionary.get(key) != null;
+            default -> map.containsKey(key);
+        };
+    }
+
+    /**
+     * Overwrites the value of an existing key.
+     */
+    @Benchmark
+    public Object putExisting() {
+        int index = nextIndex();
+        String key = keys[index];
+        switch (implementation) {
+            case SIMPLE_HASHTABLE -> {
+                return table.put(key, index);
+            }
+            case DICTIONARY -> {
+                dictionary.put(key, index);
+                return dictionary;
+            }
+            default -> {
+                return map.put(key, index);
+            }
+        }
+    }
+
+    /**
+     * Removes a key and puts it back, so the size stays constant.
+     * {@code Dictionary} has no public removal, so it only runs through {@link SimpleHashtable} and {@link HashMap}.
+     */
+    @Benchmark
+    public Integer removeAndPut() {
+        int index = nextIndex();
+        String key = keys[index];
+        if (SIMPLE_HASHTABLE.equals(implementation)) {
+            Integer value = table.remove(key);
+            table.put(key, value);
+            return value;
+        }
+        Integer value = map.remove(key);
+        map.put(key, value);
+        return value;
+    }
+}
@@ -0,0 +1,134 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import hr.fer.oprpp1.custom.collections.ArrayIndexedCollection;
+import hr.fer.oprpp1.custom.collections.LinkedListIndexedCollection;
+import hr.fer.oprpp1.custom.collections.SimpleHashtable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of membership tests that mostly miss, with and without a Bloom filter.
+ * <p>
+ * An {@link ArrayIndexedCollection}, a {@link LinkedListIndexedCollection} or the values of a
+ * {@link SimpleHashtable} hold the even integers in [0, 2 * size). Every probe asks for an integer
+ * from [0, 2 * size), odd with a probability of 99 %, so nearly every probe scans the whole collection
+ * unless the filter answers it.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MembershipFilterBenchmark {
+    /**
+     * Name of the {@link ArrayIndexedCollection} implementation.
+     */
+    private static final String ARRAY_INDEXED = "ArrayIndexedCollection";
+
+    /**
+     * Name of the {@link LinkedListIndexedCollection} implementation.
+     */
+    private static final String LINKED_LIST_INDEXED = "LinkedListIndexedCollection";
+
+    /**
+     * Name of the {@link SimpleHashtable} implementation, whose values are probed.
+     */
+    private static final String SIMPLE_HASHTABLE = "SimpleHashtable";
+
+    /**
+     * Measured implementation.
+     */
+    @Param({ARRAY_INDEXED, LINKED_LIST_INDEXED, SIMPLE_HASHTABLE})
+    public String implementation;
+
+    /**
+     * Number of elements in the collection.
+     */
+    @Param({"100000"})
+    public int size;
+
+    /**
+     * False positive rate of the filter, 0 if the filter is disabled.
+     */
+    @Param({"0", "0.01"})
+    public double falsePositiveRate;
+
+    /**
+     * Filled collection, used if {@link ArrayIndexedCollection} is measured.
+     */
+    private ArrayIndexedCollection<Integer> array;
+
+    /**
+     * Filled collection, used if {@link LinkedListIndexedCollection} is measured.
+     */
+    private LinkedListIndexedCollection<Integer> list;
+
+    /**
+     * Filled table, used if {@link SimpleHashtable} is measured.
+     */
+    private SimpleHashtable<Integer, Integer> table;
+
+    /**
+     * Values which are looked up in turn, every hundredth of them is in the collection.
+     */
+    private Integer[] probes;
+
+    /**
+     * Position in {@link #probes}.
+     */
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        array = new ArrayIndexedCollection<>();
+        list = new LinkedListIndexedCollection<>();
+        table = new SimpleHashtable<>();
+        for (int i = 0; i < size; i++) {
+            switch (implementation) {
+                case ARRAY_INDEXED -> array.add(2 * i);
+                case LINKED_LIST_INDEXED -> list.add(2 * i);
+                default -> table.put(i, 2 * i);
+            }
+        }
+        if (falsePositiveRate > 0) {
+            switch (implementation) {
+                case ARRAY_INDEXED -> array.enableMembershipFilter(falsePositiveRate);
+                case LINKED_LIST_INDEXED -> list.enableMembershipFilter(falsePositiveRate);
+                default -> table.enableValueFilter(falsePositiveRate);
+            }
+        }
+
+        probes = new Integer[1024];
+        for (int i = 0; i < probes.length; i++) {
+            int value = (int) ((i * 2_654_435_761L) % size) * 2;
+            probes[i] = i % 100 == 0 ? value : value + 1;
+        }
+    }
+
+    @Benchmark
+    public boolean contains() {
+        next = (next + 1) & (probes.length - 1);
+        Integer probe = probes[next];
+        return switch (implementation) {
+            case ARRAY_INDEXED -> array.contains(probe);
+            case LINKED_LIST_INDEXED -> list.contains(probe);
+            default -> table.containsValue(probe);
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import hr.fer.oprpp1.custom.collections.ArrayIndexedCollection;
+import hr.fer.oprpp1.custom.collections.CollectionMetricsRecorder;
+import hr.fer.oprpp1.custom.collections.SimpleHashtable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the cost of collection metrics.
+ * <p>
+ * An {@link ArrayIndexedCollection} or a {@link SimpleHashtable} is filled with {@link #size} integers and every
+ * element is read back, without metrics or with a {@link CollectionMetricsRecorder}.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+    /**
+     * Number of elements which are added and read.
+     */
+    @Param({"10000", "1000000"})
+    public int size;
+
+    /**
+     * Whether the collections record metrics.
+     */
+    @Param({"false", "true"})
+    public boolean metricsEnabled;
+
+    /**
+     * Recorder of the metrics, null if they are disabled.
+     */
+    private CollectionMetricsRecorder metrics;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        metrics = metricsEnabled ? new CollectionMetricsRecorder() : null;
+    }
+
+    @Benchmark
+    public long arrayAddAndGet() {
+        ArrayIndexedCollection<Integer> array = new ArrayIndexedCollection<>();
+        array.setMetrics(metrics);
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            array.add(i);
+        }
+        for (int i = 0; i < size; i++) {
+            sum += array.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long tablePutAndGet() {
+        SimpleHashtable<Integer, Integer> table = new SimpleHashtable<>();
+        table.setMetrics(metrics);
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            table.put(i, i);
+        }
+        for (int i = 0; i < size; i++) {
+            sum += table.get(i);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,107 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import hr.fer.oprpp1.custom.collections.ArrayIndexedCollection;
+import hr.fer.oprpp1.custom.collections.ElementCodec;
+import hr.fer.oprpp1.custom.collections.ElementsGetter;
+import hr.fer.oprpp1.custom.collections.List;
+import hr.fer.oprpp1.custom.collections.OffHeapIndexedCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of an {@link ArrayIndexedCollection} of longs and an {@link OffHeapIndexedCollection} with
+ * {@link ElementCodec#LONG}.
+ * <p>
+ * {@link #fill()} adds {@link #size} longs to an empty collection and {@link #iterate()} sums the elements
+ * of a full one with an {@link ElementsGetter}. The garbage collections caused by the boxed elements are
+ * reported by the GC profiler of {@link BenchmarkRunner}.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OffHeapBenchmark {
+    /**
+     * Name of the {@link ArrayIndexedCollection} implementation.
+     */
+    private static final String ARRAY_INDEXED = "ArrayIndexedCollection";
+
+    /**
+     * Name of the {@link OffHeapIndexedCollection} implementation.
+     */
+    private static final String OFF_HEAP = "OffHeapIndexedCollection";
+
+    /**
+     * Measured implementation.
+     */
+    @Param({ARRAY_INDEXED, OFF_HEAP})
+    public String implementation;
+
+    /**
+     * Number of elements in the collection.
+     */
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    /**
+     * Collection with the elements 0 to size - 1.
+     */
+    private List<Long> collection;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        collection = create();
+        for (long i = 0; i < size; i++) {
+            collection.add(i);
+        }
+    }
+
+    @Benchmark
+    public List<Long> fill() {
+        List<Long> filled = create();
+        for (long i = 0; i < size; i++) {
+            filled.add(i);
+        }
+        return filled;
+    }
+
+    @Benchmark
+    public long iterate() {
+        long sum = 0;
+        ElementsGetter<Long> getter = collection.createElementsGetter();
+        while (getter.hasNextElement()) {
+            sum += getter.getNextElement();
+        }
+        return sum;
+    }
+
+    /**
+     * Creates an empty collection of the measured implementation.
+     *
+     * @return empty collection
+     */
+    private List<Long> create() {
+        return switch (implementation) {
+            case ARRAY_INDEXED -> new ArrayIndexedCollection<>();
+            case OFF_HEAP -> new OffHeapIndexedCollection<>(ElementCodec.LONG);
+            default -> throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        };
+    }
+}
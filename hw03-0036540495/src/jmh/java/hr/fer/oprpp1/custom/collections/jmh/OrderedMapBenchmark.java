@@ -0,0 +1,188 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import hr.fer.oprpp1.custom.collections.BPlusTreeMap;
+import hr.fer.oprpp1.custom.collections.Dictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of range queries on a {@link Dictionary}, a {@link BPlusTreeMap} and a {@link TreeMap}.
+ * <p>
+ * The maps are filled with {@link #size} distinct random integer keys from [0, 4 * size), inserted in random
+ * order. A range query sums the values of all keys in [from, from + width). The dictionary has no ordered
+ * iteration, so it has to look up every integer in the range; the trees find the first key and walk
+ * the following ones.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderedMapBenchmark {
+    /**
+     * Name of the {@link Dictionary} implementation.
+     */
+    private static final String DICTIONARY = "Dictionary";
+
+    /**
+     * Name of the {@link BPlusTreeMap} implementation.
+     */
+    private static final String B_PLUS_TREE = "BPlusTreeMap";
+
+    /**
+     * Name of the {@link TreeMap} baseline.
+     */
+    private static final String TREE_MAP = "java.util.TreeMap";
+
+    /**
+     * Measured implementation.
+     */
+    @Param({DICTIONARY, B_PLUS_TREE, TREE_MAP})
+    public String implementation;
+
+    /**
+     * Number of keys in the map.
+     */
+    @Param({"100000", "1000000"})
+    public int size;
+
+    /**
+     * Number of integers in a queried range.
+     */
+    @Param({"1000"})
+    public int width;
+
+    /**
+     * Keys of the entries, in the order of insertion.
+     */
+    private Integer[] keys;
+
+    /**
+     * Random lower bounds of the ranges which are used in turn.
+     */
+    private int[] starts;
+
+    /**
+     * Position in {@link #starts}.
+     */
+    private int next;
+
+    /**
+     * Filled dictionary, used if {@link Dictionary} is measured.
+     */
+    private Dictionary<Integer, Integer> dictionary;
+
+    /**
+     * Filled tree, used if {@link BPlusTreeMap} is measured.
+     */
+    private BPlusTreeMap<Integer, Integer> tree;
+
+    /**
+     * Filled map, used if {@link TreeMap} is measured.
+     */
+    private TreeMap<Integer, Integer> map;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        keys = new Integer[size];
+        boolean[] used = new boolean[4 * size];
+        for (int i = 0; i < size; i++) {
+            int key;
+            do {
+                key = random.nextInt(4 * size);
+            } while (used[key]);
+            used[key] = true;
+            keys[i] = key;
+        }
+        starts = new int[1024];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = random.nextInt(4 * size - width);
+        }
+        dictionary = new Dictionary<>();
+        tree = new BPlusTreeMap<>();
+        map = new TreeMap<>();
+        fill(dictionary, tree, map);
+    }
+
+    /**
+     * Puts all keys into the map of the measured implementation, the other two maps stay empty.
+     *
+     * @param dictionary dictionary which is filled if {@link Dictionary} is measured
+     * @param tree       tree which is filled if {@link BPlusTreeMap} is measured
+     * @param map        map which is filled if {@link TreeMap} is measured
+     */
+    private void fill(Dictionary<Integer, Integer> dictionary, BPlusTreeMap<Integer, Integer> tree,
+                      TreeMap<Integer, Integer> map) {
+        for (Integer key : keys) {
+            switch (implementation) {
+                case DICTIONARY -> dictionary.put(key, key);
+                case B_PLUS_TREE -> tree.put(key, key);
+                default -> map.put(key, key);
+            }
+        }
+    }
+
+    /**
+     * Fills a new map with all keys.
+     */
+    @Benchmark
+    public void putAll(Blackhole blackhole) {
+        Dictionary<Integer, Integer> dictionary = new Dictionary<>();
+        BPlusTreeMap<Integer, Integer> tree = new BPlusTreeMap<>();
+        TreeMap<Integer, Integer> map = new TreeMap<>();
+        fill(dictionary, tree, map);
+        blackhole.consume(dictionary);
+        blackhole.consume(tree);
+        blackhole.consume(map);
+    }
+
+    /**
+     * Sums the values of the keys in the next range.
+     */
+    @Benchmark
+    public long rangeQuery() {
+        next = (next + 1) & (starts.length - 1);
+        int from = starts[next];
+        long sum = 0;
+        switch (implementation) {
+            case DICTIONARY -> {
+                for (int key = from; key < from + width; key++) {
+                    Integer value = dictionary.get(key);
+                    if (value != null) sum += value;
+                }
+            }
+            case B_PLUS_TREE -> {
+                Iterator<BPlusTreeMap.Entry<Integer, Integer>> it = tree.rangeIterator(from, from + width);
+                while (it.hasNext()) sum += it.next().getValue();
+            }
+            default -> {
+                for (Map.Entry<Integer, Integer> entry : map.subMap(from, from + width).entrySet()) {
+                    sum += entry.getValue();
+                }
+            }
+        }
+        return sum;
+    }
+}
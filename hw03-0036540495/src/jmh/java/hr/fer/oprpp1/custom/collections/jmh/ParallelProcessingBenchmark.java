@@ -0,0 +1,145 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import hr.fer.oprpp1.custom.collections.ArrayIndexedCollection;
+import hr.fer.oprpp1.custom.collections.Collection;
+import hr.fer.oprpp1.custom.collections.LinkedListIndexedCollection;
+import hr.fer.oprpp1.custom.collections.SimpleHashtable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Benchmarks of the sequential {@code forEach} against {@code parallelForEach} and {@code parallelFilterInto}
+ * on the collections and on the {@link SimpleHashtable}.
+ * <p>
+ * Every element is passed through a small amount of arithmetic, so the work per element is not negligible.
+ * The speedup depends on the parallelism of the common {@link ForkJoinPool}.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelProcessingBenchmark {
+    /**
+     * Name of the {@link ArrayIndexedCollection} implementation.
+     */
+    private static final String ARRAY_INDEXED = "ArrayIndexedCollection";
+
+    /**
+     * Name of the {@link LinkedListIndexedCollection} implementation.
+     */
+    private static final String LINKED_LIST_INDEXED = "LinkedListIndexedCollection";
+
+    /**
+     * Name of the {@link SimpleHashtable} implementation.
+     */
+    private static final String SIMPLE_HASHTABLE = "SimpleHashtable";
+
+    /**
+     * Measured implementation.
+     */
+    @Param({ARRAY_INDEXED, LINKED_LIST_INDEXED, SIMPLE_HASHTABLE})
+    public String implementation;
+
+    /**
+     * Number of elements.
+     */
+    @Param({"1000000"})
+    public int size;
+
+    /**
+     * Filled collection, used if one of the collections is measured.
+     */
+    private Collection<Integer> collection;
+
+    /**
+     * Filled table, used if {@link SimpleHashtable} is measured.
+     */
+    private SimpleHashtable<Integer, Integer> table;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        collection = switch (implementation) {
+            case ARRAY_INDEXED -> new ArrayIndexedCollection<>(size);
+            case LINKED_LIST_INDEXED -> new LinkedListIndexedCollection<>();
+            case SIMPLE_HASHTABLE -> null;
+            default -> throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        };
+        table = new SimpleHashtable<>(size);
+        for (int i = 0; i < size; i++) {
+            if (collection != null) {
+                collection.add(i);
+            } else {
+                table.put(i, i);
+            }
+        }
+    }
+
+    /**
+     * Simulates some work on the given value.
+     *
+     * @param value value which is processed
+     * @return result of the work
+     */
+    private static long work(int value) {
+        long x = value;
+        for (int i = 0; i < 50; i++) {
+            x = x * 6364136223846793005L + 1442695040888963407L;
+        }
+        return x;
+    }
+
+    @Benchmark
+    public long forEach() {
+        LongAdder sum = new LongAdder();
+        if (collection != null) {
+            collection.forEach(value -> sum.add(work(value)));
+        } else {
+            for (SimpleHashtable.TableEntry<Integer, Integer> entry : table) {
+                sum.add(work(entry.getValue()));
+            }
+        }
+        return sum.sum();
+    }
+
+    @Benchmark
+    public long parallelForEach() {
+        LongAdder sum = new LongAdder();
+        if (collection != null) {
+            collection.parallelForEach(value -> sum.add(work(value)));
+        } else {
+            table.parallelForEach(entry -> sum.add(work(entry.getValue())));
+        }
+        return sum.sum();
+    }
+
+    @Benchmark
+    public int parallelFilterInto() {
+        if (collection != null) {
+            ArrayIndexedCollection<Integer> filtered = new ArrayIndexedCollection<>();
+            collection.parallelFilterInto(value -> (work(value) & 1) == 0, filtered);
+            return filtered.size();
+        }
+        ArrayIndexedCollection<SimpleHashtable.TableEntry<Integer, Integer>> filtered = new ArrayIndexedCollection<>();
+        table.parallelFilterInto(entry -> (work(entry.getValue()) & 1) == 0, filtered);
+        return filtered.size();
+    }
+}
@@ -0,0 +1,169 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import hr.fer.oprpp1.custom.collections.IntIntHashtable;
+import hr.fer.oprpp1.custom.collections.IntObjectHashtable;
+import hr.fer.oprpp1.custom.collections.LongObjectHashtable;
+import hr.fer.oprpp1.custom.collections.SimpleHashtable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the primitive-specialised hash tables, with a {@link SimpleHashtable} of boxed integers
+ * as the baseline.
+ * <p>
+ * The keys are 0 to size - 1. The object tables map every key to the empty string, the {@link IntIntHashtable}
+ * and the {@link SimpleHashtable} map it to itself. The memory footprint of the tables is printed by
+ * {@code PrimitiveHashtableFootprint} in the demo package.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveHashtableBenchmark {
+    /**
+     * Name of the {@link IntIntHashtable} implementation.
+     */
+    private static final String INT_INT = "IntIntHashtable";
+
+    /**
+     * Name of the {@link IntObjectHashtable} implementation.
+     */
+    private static final String INT_OBJECT = "IntObjectHashtable";
+
+    /**
+     * Name of the {@link LongObjectHashtable} implementation.
+     */
+    private static final String LONG_OBJECT = "LongObjectHashtable";
+
+    /**
+     * Name of the {@link SimpleHashtable} baseline.
+     */
+    private static final String SIMPLE_HASHTABLE = "SimpleHashtable";
+
+    /**
+     * Measured implementation.
+     */
+    @Param({INT_INT, INT_OBJECT, LONG_OBJECT, SIMPLE_HASHTABLE})
+    public String implementation;
+
+    /**
+     * Number of entries in the table.
+     */
+    @Param({"10000", "1000000"})
+    public int size;
+
+    /**
+     * Random keys which are looked up in turn.
+     */
+    private int[] keys;
+
+    /**
+     * Position in {@link #keys}.
+     */
+    private int next;
+
+    /**
+     * Filled table, used if {@link IntIntHashtable} is measured.
+     */
+    private IntIntHashtable intInt;
+
+    /**
+     * Filled table, used if {@link IntObjectHashtable} is measured.
+     */
+    private IntObjectHashtable<String> intObject;
+
+    /**
+     * Filled table, used if {@link LongObjectHashtable} is measured.
+     */
+    private LongObjectHashtable<String> longObject;
+
+    /**
+     * Filled table, used if {@link SimpleHashtable} is measured.
+     */
+    private SimpleHashtable<Integer, Integer> simple;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        keys = new int[1024];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt(size);
+        }
+        intInt = new IntIntHashtable();
+        intObject = new IntObjectHashtable<>();
+        longObject = new LongObjectHashtable<>();
+        simple = new SimpleHashtable<>();
+        fill(intInt, intObject, longObject, simple);
+    }
+
+    /**
+     * Puts all keys into the table of the measured implementation, the other tables stay empty.
+     *
+     * @param intInt     table which is filled if {@link IntIntHashtable} is measured
+     * @param intObject  table which is filled if {@link IntObjectHashtable} is measured
+     * @param longObject table which is filled if {@link LongObjectHashtable} is measured
+     * @param simple     table which is filled if {@link SimpleHashtable} is measured
+     */
+    private void fill(IntIntHashtable intInt, IntObjectHashtable<String> intObject,
+                      LongObjectHashtable<String> longObject, SimpleHashtable<Integer, Integer> simple) {
+        for (int i = 0; i < size; i++) {
+            switch (implementation) {
+                case INT_INT -> intInt.put(i, i);
+                case INT_OBJECT -> intObject.put(i, "");
+                case LONG_OBJECT -> longObject.put(i, "");
+                default -> simple.put(i, i);
+            }
+        }
+    }
+
+    /**
+     * Fills new tables from the default capacity, including all resizes.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void putAll(Blackhole blackhole) {
+        IntIntHashtable intInt = new IntIntHashtable();
+        IntObjectHashtable<String> intObject = new IntObjectHashtable<>();
+        LongObjectHashtable<String> longObject = new LongObjectHashtable<>();
+        SimpleHashtable<Integer, Integer> simple = new SimpleHashtable<>();
+        fill(intInt, intObject, longObject, simple);
+        blackhole.consume(intInt);
+        blackhole.consume(intObject);
+        blackhole.consume(longObject);
+        blackhole.consume(simple);
+    }
+
+    /**
+     * Looks up the next random key, the value of the {@link IntIntHashtable} is consumed without boxing.
+     */
+    @Benchmark
+    public void get(Blackhole blackhole) {
+        next = (next + 1) & (keys.length - 1);
+        int key = keys[next];
+        switch (implementation) {
+            case INT_INT -> blackhole.consume(intInt.get(key));
+            case INT_OBJECT -> blackhole.consume(intObject.get(key));
+            case LONG_OBJECT -> blackhole.consume(longObject.get(key));
+            default -> blackhole.consume(simple.get(key));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import hr.fer.oprpp1.custom.collections.SimpleHashtable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the cost of growing a {@link SimpleHashtable} with string keys.
+ * <p>
+ * The keys are put into a table which starts with the default capacity and grows by immediate resizes,
+ * or into a table which is created large enough to never resize. The difference between the two is
+ * the cost of the resizes, the bytes they allocate are reported by the GC profiler of {@link BenchmarkRunner}.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResizeBenchmark {
+    /**
+     * Number of keys in the table.
+     */
+    @Param({"100000", "1000000"})
+    public int size;
+
+    /**
+     * Whether the table is created with a capacity which needs no resize.
+     */
+    @Param({"false", "true"})
+    public boolean presized;
+
+    /**
+     * Distinct keys of the table.
+     */
+    private String[] keys;
+
+    /**
+     * Table with all keys.
+     */
+    private SimpleHashtable<String, Integer> table;
+
+    /**
+     * Random indexes into {@link #keys} which are used in turn.
+     */
+    private int[] indexes;
+
+    /**
+     * Position in {@link #indexes}.
+     */
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = "key" + i;
+        }
+        table = putAll();
+        Random random = new Random(42);
+        indexes = new int[1024];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = random.nextInt(size);
+        }
+    }
+
+    /**
+     * Fills a new table with all keys.
+     */
+    @Benchmark
+    public SimpleHashtable<String, Integer> putAll() {
+        SimpleHashtable<String, Integer> table = presized
+                ? new SimpleHashtable<>(Integer.highestOneBit(size) << 2)
+                : new SimpleHashtable<>();
+        Integer value = 1;
+        for (String key : keys) {
+            table.put(key, value);
+        }
+        return table;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Integer get() {
+        next = (next + 1) & (indexes.length - 1);
+        return table.get(keys[indexes[next]]);
+    }
+}
@@ -0,0 +1,84 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import hr.fer.oprpp1.custom.collections.SimpleHashtable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the latency of single puts into a growing {@link SimpleHashtable}, for both resize modes.
+ * <p>
+ * With {@link SimpleHashtable.ResizeMode#IMMEDIATE} the put which crosses the load factor threshold moves all
+ * entries, which shows up in the highest percentiles of the sampled times. With
+ * {@link SimpleHashtable.ResizeMode#INCREMENTAL} the work is spread over the following puts.
+ * <p>
+ * Every invocation puts the next key. After {@link #size} keys the table is replaced by a new, empty one,
+ * so the table goes through all resizes from the default capacity again.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResizeLatencyBenchmark {
+    /**
+     * Resize mode of the table.
+     */
+    @Param
+    public SimpleHashtable.ResizeMode mode;
+
+    /**
+     * Number of keys which are put before the table is replaced.
+     */
+    @Param({"1000000"})
+    public int size;
+
+    /**
+     * Keys which are put, 0 to size - 1.
+     */
+    private Integer[] keys;
+
+    /**
+     * Table into which the keys are put.
+     */
+    private SimpleHashtable<Integer, Integer> table;
+
+    /**
+     * Index of the next key.
+     */
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = i;
+        }
+        table = new SimpleHashtable<>(16, mode);
+    }
+
+    @Benchmark
+    public Integer put() {
+        if (next == size) {
+            table = new SimpleHashtable<>(16, mode);
+            next = 0;
+        }
+        Integer key = keys[next++];
+        return table.put(key, key);
+    }
+}
@@ -0,0 +1,107 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import hr.fer.oprpp1.custom.collections.ArrayIndexedCollection;
+import hr.fer.oprpp1.custom.collections.PersistentVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of taking snapshots of an {@link ArrayIndexedCollection} with {@code toArray()}
+ * and with {@code snapshot()}.
+ * <p>
+ * Every invocation appends {@link #APPENDS_PER_SNAPSHOT} elements, takes a snapshot and reads one element of it.
+ * Since the collection grows with every invocation, each iteration is a single batch of {@value #SNAPSHOTS}
+ * invocations on a collection which is filled again before it, and the score is the time of the whole batch.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = SnapshotBenchmark.SNAPSHOTS)
+@Measurement(iterations = 10, batchSize = SnapshotBenchmark.SNAPSHOTS)
+@Fork(1)
+public class SnapshotBenchmark {
+    /**
+     * Number of snapshots in a batch.
+     */
+    static final int SNAPSHOTS = 1_000;
+
+    /**
+     * Number of elements appended to the collection between two snapshots.
+     */
+    private static final int APPENDS_PER_SNAPSHOT = 10;
+
+    /**
+     * Number of elements in the collection before the first snapshot of a batch.
+     */
+    @Param({"10000", "1000000"})
+    public int size;
+
+    /**
+     * Collection of which the snapshots are taken.
+     */
+    private ArrayIndexedCollection<Integer> collection;
+
+    /**
+     * Number of snapshots taken in the current batch.
+     */
+    private int taken;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        collection = new ArrayIndexedCollection<>(size + SNAPSHOTS * APPENDS_PER_SNAPSHOT);
+        for (int i = 0; i < size; i++) {
+            collection.add(i);
+        }
+        // the first snapshot() copies the whole array, the following ones only the appended elements
+        collection.snapshot();
+        taken = 0;
+    }
+
+    @Benchmark
+    public Object toArray() {
+        append();
+        Object[] snapshot = collection.toArray();
+        return snapshot[index()];
+    }
+
+    @Benchmark
+    public Integer snapshot() {
+        append();
+        PersistentVector<Integer> snapshot = collection.snapshot();
+        return snapshot.get(index());
+    }
+
+    /**
+     * Appends the elements which come before a snapshot.
+     */
+    private void append() {
+        Integer value = taken;
+        for (int i = 0; i < APPENDS_PER_SNAPSHOT; i++) {
+            collection.add(value);
+        }
+    }
+
+    /**
+     * Returns the index of the element which is read from the current snapshot.
+     *
+     * @return index of an element of the snapshot
+     */
+    private int index() {
+        return taken++ * 997 % collection.size();
+    }
+}
@@ -0,0 +1,84 @@
+package hr.fer.oprpp1.custom.collections.jmh;
+
+import hr.fer.oprpp1.custom.collections.ObjectStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.Stack;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link ObjectStack}, with {@link ArrayDeque} and {@link Stack} as baselines.
+ * <p>
+ * Every benchmark pushes the given number of elements onto a new stack and pops them again,
+ * so the growth of the storage is included.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StackBenchmark {
+    /**
+     * Number of pushed elements.
+     */
+    @Param({"100", "10000"})
+    public int size;
+
+    /**
+     * Pushed element, the same object every time so that boxing is not measured.
+     */
+    private final Integer value = 42;
+
+    @Benchmark
+    public long objectStack() {
+        ObjectStack<Integer> stack = new ObjectStack<>();
+        for (int i = 0; i < size; i++) {
+            stack.push(value);
+        }
+        long sum = 0;
+        while (!stack.isEmpty()) {
+            sum += stack.pop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long arrayDeque() {
+        ArrayDeque<Integer> stack = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            stack.push(value);
+        }
+        long sum = 0;
+        while (!stack.isEmpty()) {
+            sum += stack.pop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long javaUtilStack() {
+        Stack<Integer> stack = new Stack<>();
+        for (int i = 0; i < size; i++) {
+            stack.push(value);
+        }
+        long sum = 0;
+        while (!stack.isEmpty()) {
+            sum += stack.pop();
+        }
+        return sum;
+    }
+}
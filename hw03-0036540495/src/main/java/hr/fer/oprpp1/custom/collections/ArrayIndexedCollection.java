@@ -16,7 +16,7 @@ import java.util.NoSuchElementException;
  * @see Collection
  * @see ElementsGetter
  *
- * @version 3.0
+ * @version 3.3
  * @author Marko Šelendić
  */
 public class ArrayIndexedCollection<T> implements List<T> {
@@ -43,6 +43,22 @@ public class ArrayIndexedCollection<T> implements List<T> {
      */
     private long modificationCount = 0;
 
+    /**
+     * The last snapshot of the collection, whose elements are still the first elements of the collection.
+     * It is set to null by every modification other than appending.
+     */
+    private PersistentVector<T> snapshot;
+
+    /**
+     * Bloom filter of the elements, null unless it is enabled by {@link #enableMembershipFilter(double)}.
+     */
+    private BloomFilter membershipFilter;
+
+    /**
+     * Metrics which are notified of the operations, null unless they are set by {@link #setMetrics(CollectionMetrics)}.
+     */
+    private CollectionMetrics metrics;
+
     /**
      * Creates an empty collection with default initial capacity.
      */
@@ -129,30 +145,162 @@ public class ArrayIndexedCollection<T> implements List<T> {
      * @throws NullPointerException if the value is null
      */
     @Override
-    @SuppressWarnings("unchecked")
     public void add(T value) {
         if (value == null) {
             throw new NullPointerException("Value must not be null.");
         }
 
         if (this.size == this.elements.length) {
-            this.elements = (T[]) this.newArrayWithDoubleCapacity();
+            this.ensureCapacity(this.size + 1);
         }
 
         this.elements[this.size] = value;
         this.size++;
         modificationCount++;
+        this.addToMembershipFilter(value);
+        this.record(CollectionMetrics.Operation.ADD);
+    }
+
+    /**
+     * Grows the elements array so that it can hold at least the given number of elements.
+     * <p>
+     * The capacity is doubled, or set to the given capacity if doubling is not enough,
+     * so the array is copied at most once per call.
+     *
+     * @param minCapacity minimal capacity of the elements array
+     */
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity <= this.elements.length) {
+            return;
+        }
+        int newCapacity = Math.max(this.elements.length * 2, minCapacity);
+        if (this.metrics != null) {
+            this.metrics.resized(this.elements.length, newCapacity);
+        }
+        this.elements = Arrays.copyOf(this.elements, newCapacity);
+    }
+
+    /**
+     * Sets the metrics which are notified of the operations, resizes and failed iterations of this collection.
+     *
+     * @param metrics metrics of the collection, or null to stop recording
+     */
+    public void setMetrics(CollectionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the metrics of this collection.
+     *
+     * @return metrics of the collection, or null if none are set
+     */
+    public CollectionMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Notifies the metrics, if they are set, of an operation.
+     *
+     * @param operation kind of the operation
+     */
+    private void record(CollectionMetrics.Operation operation) {
+        if (this.metrics != null) {
+            this.metrics.operation(operation);
+        }
+    }
+
+    /**
+     * Notifies the metrics, if they are set, of a failed iteration and creates the exception which is thrown.
+     *
+     * @return exception for a modification of the collection during an iteration
+     */
+    private ConcurrentModificationException concurrentModification() {
+        if (this.metrics != null) {
+            this.metrics.concurrentModification();
+        }
+        return new ConcurrentModificationException("The collection has been modified.");
+    }
+
+    /**
+     * Enables a Bloom filter which lets {@link #contains(Object)}, {@link #indexOf(Object)} and
+     * {@link #remove(Object)} skip the scan of the array for values which are definitely not in the collection.
+     * <p>
+     * The filter is built from the current elements and kept up to date by every modification.
+     * It is rebuilt from the elements when the collection has doubled in size or half of the added
+     * values have been removed since the last build, which takes amortised constant time per modification.
+     *
+     * @param falsePositiveRate probability that a value which is not in the collection still has to be searched
+     * @throws IllegalArgumentException if the rate is not between 0 and 1
+     */
+    public void enableMembershipFilter(double falsePositiveRate) {
+        this.rebuildMembershipFilter(falsePositiveRate);
+    }
+
+    /**
+     * Disables the membership filter, so every search scans the array again.
+     */
+    public void disableMembershipFilter() {
+        this.membershipFilter = null;
+    }
+
+    /**
+     * Returns the membership filter, whose methods report its memory usage and false positive rate.
+     *
+     * @return membership filter, or null if it is not enabled
+     */
+    public BloomFilter getMembershipFilter() {
+        return this.membershipFilter;
+    }
+
+    /**
+     * Replaces the membership filter with a new one built from the current elements,
+     * keeping the statistics of the old filter.
+     *
+     * @param falsePositiveRate false positive rate of the new filter
+     */
+    private void rebuildMembershipFilter(double falsePositiveRate) {
+        BloomFilter filter = new BloomFilter(this.size * 2, falsePositiveRate);
+        for (int i = 0; i < this.size; i++) {
+            filter.add(this.elements[i]);
+        }
+        if (this.membershipFilter != null) {
+            filter.copyStatistics(this.membershipFilter);
+        }
+        this.membershipFilter = filter;
+    }
+
+    /**
+     * Rebuilds the membership filter when it has outgrown its size or holds too many removed values.
+     */
+    private void rebuildMembershipFilterIfNeeded() {
+        if (this.membershipFilter.needsRebuild()) {
+            this.rebuildMembershipFilter(this.membershipFilter.getFalsePositiveRate());
+        }
     }
 
     /**
-     * Doubles the capacity of the elements array.
+     * Adds the given value to the membership filter, if it is enabled, and rebuilds the filter if it is full.
      *
-     * @return new array with double capacity
+     * @param value value which has been added to the collection
      */
-    private Object[] newArrayWithDoubleCapacity() {
-        Object[] newElements = new Object[this.elements.length * 2];
-        if (this.size >= 0) System.arraycopy(this.elements, 0, newElements, 0, this.size);
-        return newElements;
+    private void addToMembershipFilter(Object value) {
+        if (this.membershipFilter != null) {
+            this.membershipFilter.add(value);
+            this.rebuildMembershipFilterIfNeeded();
+        }
+    }
+
+    /**
+     * Records removed values in the membership filter, if it is enabled, and rebuilds the filter if too many
+     * of its values are gone.
+     *
+     * @param count number of values which have been removed from the collection
+     */
+    private void removeFromMembershipFilter(int count) {
+        if (this.membershipFilter != null) {
+            this.membershipFilter.recordRemovals(count);
+            this.rebuildMembershipFilterIfNeeded();
+        }
     }
 
     /**
@@ -176,19 +324,13 @@ public class ArrayIndexedCollection<T> implements List<T> {
     @Override
     @SuppressWarnings("unchecked")
     public boolean remove(Object value) {
-        if (value == null || this.isEmpty()) {
+        int index = this.indexOf(value);
+        if (index == -1) {
             return false;
         }
 
-        for (int i = 0; i < this.size; i++) {
-            if (this.elements[i].equals(value)) {
-                this.remove(i);
-                modificationCount++;
-                return true;
-            }
-        }
-
-        return false;
+        this.remove(index);
+        return true;
     }
 
     /**
@@ -232,6 +374,7 @@ public class ArrayIndexedCollection<T> implements List<T> {
             throw new IndexOutOfBoundsException("Index must be between 0 and size-1.");
         }
 
+        this.record(CollectionMetrics.Operation.GET);
         return this.elements[index];
     }
 
@@ -240,18 +383,152 @@ public class ArrayIndexedCollection<T> implements List<T> {
      */
     @Override
     public void clear() {
-        for (int i = 0; i < this.size; i++) {
-            this.elements[i] = null;
-        }
+        Arrays.fill(this.elements, 0, this.size, null);
         this.size = 0;
+        this.snapshot = null;
         modificationCount++;
+        if (this.membershipFilter != null) {
+            this.membershipFilter.clear();
+        }
+        this.record(CollectionMetrics.Operation.CLEAR);
+    }
+
+    /**
+     * Adds all elements from the given collection to the end of this collection.
+     * <p>
+     * The array is grown at most once, to fit {@code other.size()} more elements, and the elements are
+     * copied straight into it, with one {@link System#arraycopy} call if the other collection is
+     * an ArrayIndexedCollection. Only a collection which is added to itself is copied into a temporary array
+     * first. If the given collection contains null, this collection is left unchanged.
+     *
+     * @see Collection#addAll(Collection)
+     * @throws NullPointerException if other collection is null or contains null
+     */
+    @Override
+    public void addAll(Collection<? extends T> other) {
+        if (other == null) {
+            throw new NullPointerException("Other collection must not be null.");
+        }
+        if (other == this) {
+            this.insertCopy(other, this.size, CollectionMetrics.Operation.ADD);
+            return;
+        }
+
+        this.ensureCapacity(this.size + other.size());
+        int end;
+        if (other instanceof ArrayIndexedCollection<? extends T> array) {
+            // an ArrayIndexedCollection never contains null
+            System.arraycopy(array.elements, 0, this.elements, this.size, array.size);
+            end = this.size + array.size;
+        } else {
+            end = this.copyBehindLast(other);
+        }
+        this.record(CollectionMetrics.Operation.ADD);
+        if (end == this.size) {
+            return;
+        }
+
+        int start = this.size;
+        this.size = end;
+        modificationCount++;
+        if (this.membershipFilter != null) {
+            for (int i = start; i < this.size; i++) {
+                this.membershipFilter.add(this.elements[i]);
+            }
+            this.rebuildMembershipFilterIfNeeded();
+        }
+    }
+
+    /**
+     * Writes the elements of the given collection into the array behind the last element, without changing the size.
+     * <p>
+     * If the given collection contains null, the written slots are cleared again.
+     *
+     * @param other collection whose elements are written
+     * @return index after the last written element
+     * @throws NullPointerException if other collection contains null
+     */
+    private int copyBehindLast(Collection<? extends T> other) {
+        int[] end = {this.size};
+        try {
+            other.forEach(value -> {
+                if (value == null) {
+                    throw new NullPointerException("Value must not be null.");
+                }
+                if (end[0] == this.elements.length) {
+                    this.ensureCapacity(end[0] + 1);
+                }
+                this.elements[end[0]++] = value;
+            });
+        } catch (RuntimeException e) {
+            Arrays.fill(this.elements, this.size, end[0], null);
+            throw e;
+        }
+        return end[0];
+    }
+
+    /**
+     * Inserts all elements from the given collection at the given position.
+     * <p>
+     * The elements at greater positions are shifted by one {@link System#arraycopy} call
+     * and the array is grown at most once.
+     *
+     * @see List#insertAll(Collection, int)
+     */
+    @Override
+    public void insertAll(Collection<? extends T> other, int position) {
+        if (other == null) {
+            throw new NullPointerException("Other collection must not be null.");
+        }
+
+        if (position < 0 || position > this.size) {
+            throw new IndexOutOfBoundsException("Position must be between 0 and size.");
+        }
+
+        this.insertCopy(other, position, CollectionMetrics.Operation.INSERT);
+    }
+
+    /**
+     * Inserts a copy of the elements of the given collection at the given position.
+     *
+     * @param other     collection whose elements are inserted, may be this collection
+     * @param position  position at which the elements are inserted, between 0 and size
+     * @param operation operation which is recorded in the metrics
+     * @throws NullPointerException if other collection contains null
+     */
+    private void insertCopy(Collection<? extends T> other, int position, CollectionMetrics.Operation operation) {
+        // copy first, so that the collection may be inserted into itself
+        Object[] values = other.toArray();
+        for (Object value : values) {
+            if (value == null) {
+                throw new NullPointerException("Value must not be null.");
+            }
+        }
+        this.record(operation);
+        if (values.length == 0) {
+            return;
+        }
+
+        if (position < this.size) {
+            this.snapshot = null;
+        }
+        this.ensureCapacity(this.size + values.length);
+        System.arraycopy(this.elements, position, this.elements, position + values.length, this.size - position);
+        System.arraycopy(values, 0, this.elements, position, values.length);
+        this.size += values.length;
+        modificationCount++;
+        if (this.membershipFilter != null) {
+            for (Object value : values) {
+                this.membershipFilter.add(value);
+            }
+            this.rebuildMembershipFilterIfNeeded();
+        }
     }
 
     /**
      * @see List#insert(T, int)
      */
     @Override
-    @SuppressWarnings("unchecked")
     public void insert(T value, int position) {
         if (value == null) {
             throw new NullPointerException("Value must not be null.");
@@ -262,19 +539,46 @@ public class ArrayIndexedCollection<T> implements List<T> {
         }
 
         if (this.size == this.elements.length) {
-            this.elements = (T[]) this.newArrayWithDoubleCapacity();
+            this.ensureCapacity(this.size + 1);
         }
 
-        for (int i = this.size; i > position; i--) {
-            this.elements[i] = this.elements[i - 1];
+        if (position < this.size) {
+            this.snapshot = null;
         }
+        System.arraycopy(this.elements, position, this.elements, position + 1, this.size - position);
 
         this.elements[position] = value;
         this.size++;
         modificationCount++;
+        this.addToMembershipFilter(value);
+        this.record(CollectionMetrics.Operation.INSERT);
     }
 
     /**
+     * Returns an immutable copy of the current elements of this collection.
+     * <p>
+     * The previous snapshot is reused while the collection has only been appended to since it was taken:
+     * it is returned as it is if nothing was appended, otherwise only the appended elements are added to it.
+     * Any other modification makes the next snapshot copy the whole array.
+     *
+     * @see Collection#snapshot()
+     */
+    @Override
+    public PersistentVector<T> snapshot() {
+        if (this.snapshot == null) {
+            this.snapshot = PersistentVector.fromArray(this.elements, this.size);
+        } else {
+            this.snapshot = this.snapshot.appendAll(this.elements, this.snapshot.size(), this.size);
+        }
+        return this.snapshot;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the given value.
+     * <p>
+     * If the membership filter is enabled and reports that the value is definitely not in the collection,
+     * the array is not scanned.
+     *
      * @see List#indexOf(Object)
      */
     @Override
@@ -283,12 +587,20 @@ public class ArrayIndexedCollection<T> implements List<T> {
             return -1;
         }
 
+        this.record(CollectionMetrics.Operation.SEARCH);
+        if (this.membershipFilter != null && !this.membershipFilter.mightContain(value)) {
+            return -1;
+        }
+
         for (int i = 0; i < this.size; i++) {
             if (this.elements[i].equals(value)) {
                 return i;
             }
         }
 
+        if (this.membershipFilter != null) {
+            this.membershipFilter.recordFalsePositive();
+        }
         return -1;
     }
 
@@ -300,13 +612,40 @@ public class ArrayIndexedCollection<T> implements List<T> {
             throw new IndexOutOfBoundsException("Index must be between 0 and size-1.");
         }
 
-        for (int i = index; i < this.size - 1; i++) {
-            this.elements[i] = this.elements[i + 1];
-        }
+        System.arraycopy(this.elements, index + 1, this.elements, index, this.size - index - 1);
 
         this.elements[this.size - 1] = null;
         this.size--;
+        this.snapshot = null;
         modificationCount++;
+        this.removeFromMembershipFilter(1);
+        this.record(CollectionMetrics.Operation.REMOVE);
+    }
+
+    /**
+     * Removes the elements in the given range with one {@link System#arraycopy} call.
+     *
+     * @see List#removeRange(int, int)
+     */
+    @Override
+    public void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > this.size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range must satisfy 0 <= fromIndex <= toIndex <= size.");
+        }
+
+        if (fromIndex == toIndex) {
+            return;
+        }
+
+        System.arraycopy(this.elements, toIndex, this.elements, fromIndex, this.size - toIndex);
+
+        int newSize = this.size - (toIndex - fromIndex);
+        Arrays.fill(this.elements, newSize, this.size, null);
+        this.size = newSize;
+        this.snapshot = null;
+        modificationCount++;
+        this.removeFromMembershipFilter(toIndex - fromIndex);
+        this.record(CollectionMetrics.Operation.REMOVE);
     }
 
     /**
@@ -346,7 +685,7 @@ public class ArrayIndexedCollection<T> implements List<T> {
         @Override
         public boolean hasNextElement() {
             if (this.savedModificationCount != this.collection.modificationCount) {
-                throw new ConcurrentModificationException("The collection has been modified.");
+                throw this.collection.concurrentModification();
             }
             return this.index < this.collection.size;
         }
@@ -357,16 +696,158 @@ public class ArrayIndexedCollection<T> implements List<T> {
          */
         @Override
         public T getNextElement() {
+            if (!this.hasNextElement()) {
+                throw new NoSuchElementException("The collection has no more elements.");
+            }
+
+            return this.collection.elements[this.index++];
+        }
+
+        /**
+         * Processes the remaining elements directly from the array.
+         * <p>
+         * The modification count is checked after every processed element, so a modification made by
+         * the processor is detected before the next element is processed.
+         *
+         * @see ElementsGetter#processRemaining(Processor)
+         * @throws ConcurrentModificationException if the collection has been modified after ElementsGetter was created
+         */
+        @Override
+        public void processRemaining(Processor<? super T> p) {
+            ArrayIndexedCollection<T> collection = this.collection;
+            if (this.savedModificationCount != collection.modificationCount) {
+                throw collection.concurrentModification();
+            }
+            T[] elements = collection.elements;
+            int size = collection.size;
+            int i = this.index;
+            while (i < size) {
+                p.process(elements[i++]);
+                if (this.savedModificationCount != collection.modificationCount) {
+                    this.index = i;
+                    throw collection.concurrentModification();
+                }
+            }
+            this.index = i;
+        }
+    }
+
+    /**
+     * Implementation of the SplittableElementsGetter interface for the ArrayIndexedCollection class.
+     * <p>
+     * The getter covers a range of indexes, which is split in halves.
+     */
+    private static class ArraySplittableElementsGetter<T> implements SplittableElementsGetter<T> {
+        /**
+         * Collection whose elements SplittableElementsGetter will be getting.
+         */
+        private final ArrayIndexedCollection<T> collection;
+
+        /**
+         * Current index SplittableElementsGetter has reached in the collection.
+         */
+        private int index;
+
+        /**
+         * Index after the last element of the range.
+         */
+        private final int fence;
+
+        /**
+         * Number of modifications made to the collection when this SplittableElementsGetter was created.
+         */
+        private final long savedModificationCount;
+
+        /**
+         * Creates a new instance of ArraySplittableElementsGetter.
+         *
+         * @param collection             collection whose elements SplittableElementsGetter will be getting
+         * @param index                  index of the first element of the range
+         * @param fence                  index after the last element of the range
+         * @param savedModificationCount number of modifications made to the collection
+         */
+        private ArraySplittableElementsGetter(ArrayIndexedCollection<T> collection, int index, int fence,
+                                              long savedModificationCount) {
+            this.collection = collection;
+            this.index = index;
+            this.fence = fence;
+            this.savedModificationCount = savedModificationCount;
+        }
+
+        /**
+         * @see ElementsGetter#hasNextElement()
+         * @throws ConcurrentModificationException if the collection has been modified after the getter was created
+         */
+        @Override
+        public boolean hasNextElement() {
             if (this.savedModificationCount != this.collection.modificationCount) {
-                throw new ConcurrentModificationException("The collection has been modified.");
+                throw this.collection.concurrentModification();
             }
+            return this.index < this.fence;
+        }
 
+        /**
+         * @see ElementsGetter#getNextElement()
+         * @throws ConcurrentModificationException if the collection has been modified after the getter was created
+         */
+        @Override
+        public T getNextElement() {
             if (!this.hasNextElement()) {
                 throw new NoSuchElementException("The collection has no more elements.");
             }
 
             return this.collection.elements[this.index++];
         }
+
+        /**
+         * Processes the remaining elements of the range directly from the array.
+         *
+         * @see ElementsGetter#processRemaining(Processor)
+         * @throws ConcurrentModificationException if the collection has been modified after the getter was created
+         */
+        @Override
+        public void processRemaining(Processor<? super T> p) {
+            T[] elements = this.collection.elements;
+            for (; this.index < this.fence; this.index++) {
+                p.process(elements[this.index]);
+            }
+            if (this.savedModificationCount != this.collection.modificationCount) {
+                throw this.collection.concurrentModification();
+            }
+        }
+
+        /**
+         * @see SplittableElementsGetter#trySplit()
+         */
+        @Override
+        public SplittableElementsGetter<T> trySplit() {
+            int middle = (this.index + this.fence) >>> 1;
+            if (middle <= this.index) {
+                return null;
+            }
+            SplittableElementsGetter<T> prefix =
+                    new ArraySplittableElementsGetter<>(this.collection, this.index, middle, this.savedModificationCount);
+            this.index = middle;
+            return prefix;
+        }
+
+        /**
+         * @see SplittableElementsGetter#estimateSize()
+         */
+        @Override
+        public long estimateSize() {
+            return this.fence - this.index;
+        }
+    }
+
+    /**
+     * Creates and returns a new instance of ArraySplittableElementsGetter.
+     *
+     * @return new instance of ArraySplittableElementsGetter
+     */
+    @Override
+    public SplittableElementsGetter<T> createSplittableElementsGetter() {
+        return new ArraySplittableElementsGetter<>(this, 0, this.size, this.modificationCount);
     }
 
     /**
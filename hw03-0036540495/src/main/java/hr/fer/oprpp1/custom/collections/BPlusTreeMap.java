@@ -0,0 +1,948 @@
+package hr.fer.oprpp1.custom.collections;
+
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Ordered map of keys to values implemented as a B+-tree.
+ * <p>
+ * Every node keeps its keys in one array, so a lookup reads a few contiguous arrays instead of following
+ * a reference per comparison like a binary search tree. The entries are stored only in the leaves,
+ * which are linked in key order, so ordered iteration and range scans walk the leaves without going back
+ * up the tree. Nodes hold between {@code order / 2} and {@code order} keys, except the root.
+ * <p>
+ * Keys are ordered by the given comparator, or by their natural ordering if no comparator is given.
+ * Null keys are not allowed, null values are.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ *
+ * @see Dictionary
+ * @see SimpleHashtable
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public class BPlusTreeMap<K,V> implements Iterable<BPlusTreeMap.Entry<K,V>> {
+
+    /**
+     * Default maximal number of keys in a node.
+     */
+    private static final int DEFAULT_ORDER = 64;
+
+    /**
+     * Smallest allowed order.
+     */
+    private static final int MIN_ORDER = 4;
+
+    /**
+     * This class models a key-value pair returned by the iterators of the map.
+     * <p>
+     * The entries are copies, changing the map does not change the entries which were already returned.
+     */
+    public static class Entry<K,V> {
+
+        /**
+         * Key of the entry.
+         */
+        private final K key;
+
+        /**
+         * Value of the entry.
+         */
+        private final V value;
+
+        /**
+         * Constructor for the Entry.
+         *
+         * @param key   key of the entry
+         * @param value value of the entry
+         */
+        private Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        /**
+         * Getter for the key of the entry.
+         *
+         * @return key
+         */
+        public K getKey() {
+            return key;
+        }
+
+        /**
+         * Getter for the value of the entry.
+         *
+         * @return value
+         */
+        public V getValue() {
+            return value;
+        }
+
+        /**
+         * Returns the string representation of the entry.
+         *
+         * @return key=value
+         */
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * Node of the tree.
+     */
+    private abstract static class Node {
+        /**
+         * Keys of the node, the first size of them are used.
+         */
+        final Object[] keys;
+
+        /**
+         * Number of keys in the node.
+         */
+        int size;
+
+        /**
+         * Creates an empty node.
+         *
+         * @param order maximal number of keys
+         */
+        Node(int order) {
+            this.keys = new Object[order];
+        }
+    }
+
+    /**
+     * Leaf of the tree, holds the entries.
+     */
+    private static final class Leaf extends Node {
+        /**
+         * Values of the entries, the value at index i belongs to the key at index i.
+         */
+        final Object[] values;
+
+        /**
+         * Next leaf in key order, or null for the last leaf.
+         */
+        Leaf next;
+
+        /**
+         * Creates an empty leaf.
+         *
+         * @param order maximal number of entries
+         */
+        Leaf(int order) {
+            super(order);
+            this.values = new Object[order];
+        }
+    }
+
+    /**
+     * Inner node of the tree.
+     * <p>
+     * The keys of the child at index i are greater than or equal to the key at index i - 1
+     * and less than the key at index i.
+     */
+    private static final class Inner extends Node {
+        /**
+         * Children of the node, there is one more child than keys.
+         */
+        final Node[] children;
+
+        /**
+         * Creates an inner node without keys.
+         *
+         * @param order maximal number of keys
+         */
+        Inner(int order) {
+            super(order);
+            this.children = new Node[order + 1];
+        }
+    }
+
+    /**
+     * Maximal number of keys in a node.
+     */
+    private final int order;
+
+    /**
+     * Minimal number of keys in a node other than the root.
+     */
+    private final int minSize;
+
+    /**
+     * Comparator of the keys, or null for natural ordering.
+     */
+    private final Comparator<? super K> comparator;
+
+    /**
+     * Root of the tree.
+     */
+    private Node root;
+
+    /**
+     * Number of entries in the map.
+     */
+    private int size;
+
+    /**
+     * Number of structural modifications made to the map.
+     */
+    private long modificationCount;
+
+    /**
+     * Key which separates the two halves of the node split by the last call of {@link #insert}.
+     */
+    private Object splitKey;
+
+    /**
+     * Creates an empty map with the default order and natural ordering of keys.
+     */
+    public BPlusTreeMap() {
+        this(DEFAULT_ORDER, null);
+    }
+
+    /**
+     * Creates an empty map with the given order and natural ordering of keys.
+     *
+     * @param order maximal number of keys in a node
+     * @throws IllegalArgumentException if order is less than 4
+     */
+    public BPlusTreeMap(int order) {
+        this(order, null);
+    }
+
+    /**
+     * Creates an empty map with the default order and the given comparator.
+     *
+     * @param comparator comparator of keys, or null for natural ordering
+     */
+    public BPlusTreeMap(Comparator<? super K> comparator) {
+        this(DEFAULT_ORDER, comparator);
+    }
+
+    /**
+     * Creates an empty map with the given order and comparator.
+     *
+     * @param order      maximal number of keys in a node
+     * @param comparator comparator of keys, or null for natural ordering
+     * @throws IllegalArgumentException if order is less than 4
+     */
+    public BPlusTreeMap(int order, Comparator<? super K> comparator) {
+        if (order < MIN_ORDER) {
+            throw new IllegalArgumentException("Order must be at least " + MIN_ORDER + ".");
+        }
+
+        this.order = order;
+        this.minSize = order / 2;
+        this.comparator = comparator;
+        this.root = new Leaf(order);
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty.
+     *
+     * @return true if the map is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of levels of the tree.
+     *
+     * @return 1 if the root is a leaf, more otherwise
+     */
+    int height() {
+        int height = 1;
+        for (Node node = root; node instanceof Inner inner; node = inner.children[0]) {
+            height++;
+        }
+        return height;
+    }
+
+    /**
+     * Compares two keys with the comparator or by their natural ordering.
+     *
+     * @param a first key
+     * @param b second key
+     * @return negative if a is less than b, 0 if they are equal, positive otherwise
+     * @throws ClassCastException if the keys cannot be compared
+     */
+    @SuppressWarnings("unchecked")
+    private int compare(Object a, Object b) {
+        return comparator != null
+                ? comparator.compare((K) a, (K) b)
+                : ((Comparable<Object>) a).compareTo(b);
+    }
+
+    /**
+     * Binary searches the keys of the given node.
+     *
+     * @param node node whose keys are searched
+     * @param key  key which is searched
+     * @return index of the key, or (-(insertion point) - 1) if the node does not contain it
+     */
+    private int search(Node node, Object key) {
+        int low = 0;
+        int high = node.size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(node.keys[middle], key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Returns the index of the child of the given inner node whose subtree may contain the given key.
+     *
+     * @param inner inner node
+     * @param key   key which is searched
+     * @return index of the child
+     */
+    private int childIndex(Inner inner, Object key) {
+        int index = search(inner, key);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Returns the leaf whose key range contains the given key.
+     *
+     * @param key key which is searched
+     * @return leaf which contains the key if it is in the map
+     */
+    private Leaf findLeaf(Object key) {
+        Node node = root;
+        while (node instanceof Inner inner) {
+            node = inner.children[childIndex(inner, key)];
+        }
+        return (Leaf) node;
+    }
+
+    /**
+     * Returns the value of the entry with the given key.
+     *
+     * @param key key of the entry
+     * @return value of the entry or null if the entry does not exist
+     * @throws ClassCastException if the key cannot be compared with the keys of the map
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        Leaf leaf = findLeaf(key);
+        int index = search(leaf, key);
+        return index >= 0 ? (V) leaf.values[index] : null;
+    }
+
+    /**
+     * Checks if the map contains an entry with the given key.
+     *
+     * @param key key of the entry
+     * @return true if the entry exists, false otherwise
+     * @throws ClassCastException if the key cannot be compared with the keys of the map
+     */
+    public boolean containsKey(Object key) {
+        return key != null && search(findLeaf(key), key) >= 0;
+    }
+
+    /**
+     * Adds the entry with the given key and value to the map.
+     * <p>
+     * If the entry with the given key already exists, its value is overwritten with the given value.
+     *
+     * @param key   key of the entry
+     * @param value value of the entry
+     * @return value of the overwritten entry or null if a new entry is added
+     * @throws NullPointerException if the key is null
+     * @throws ClassCastException   if the key cannot be compared with the keys of the map
+     */
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new NullPointerException("Key must not be null.");
+        }
+
+        Leaf leaf = findLeaf(key);
+        int index = search(leaf, key);
+        if (index >= 0) {
+            V oldValue = (V) leaf.values[index];
+            leaf.values[index] = value;
+            return oldValue;
+        }
+
+        Node split = insert(root, key, value);
+        if (split != null) {
+            Inner newRoot = new Inner(order);
+            newRoot.keys[0] = splitKey;
+            newRoot.children[0] = root;
+            newRoot.children[1] = split;
+            newRoot.size = 1;
+            root = newRoot;
+        }
+        splitKey = null;
+        size++;
+        modificationCount++;
+        return null;
+    }
+
+    /**
+     * Inserts a new entry into the subtree of the given node.
+     * <p>
+     * A full node is split in half. The new right half is returned and the key which separates the halves
+     * is stored in {@link #splitKey}, so the parent can add them.
+     *
+     * @param node  root of the subtree
+     * @param key   key of the entry, which is not in the map
+     * @param value value of the entry
+     * @return right half of the node if it was split, null otherwise
+     */
+    private Node insert(Node node, Object key, Object value) {
+        if (node instanceof Leaf leaf) {
+            int position = -search(leaf, key) - 1;
+            if (leaf.size < order) {
+                insertIntoLeaf(leaf, position, key, value);
+                return null;
+            }
+
+            // the left half keeps (order + 1) / 2 entries after the insertion
+            int middle = (order + 1) / 2;
+            Leaf right = new Leaf(order);
+            int moved = position < middle ? middle - 1 : middle;
+            right.size = order - moved;
+            System.arraycopy(leaf.keys, moved, right.keys, 0, right.size);
+            System.arraycopy(leaf.values, moved, right.values, 0, right.size);
+            clear(leaf.keys, moved, order);
+            clear(leaf.values, moved, order);
+            leaf.size = moved;
+            if (position < middle) {
+                insertIntoLeaf(leaf, position, key, value);
+            } else {
+                insertIntoLeaf(right, position - middle, key, value);
+            }
+            right.next = leaf.next;
+            leaf.next = right;
+            splitKey = right.keys[0];
+            return right;
+        }
+
+        Inner inner = (Inner) node;
+        int index = childIndex(inner, key);
+        Node child = insert(inner.children[index], key, value);
+        if (child == null) {
+            return null;
+        }
+        if (inner.size < order) {
+            insertIntoInner(inner, index, splitKey, child);
+            return null;
+        }
+
+        // split the order + 1 keys around the middle one, which moves up to the parent
+        Object[] keys = new Object[order + 1];
+        Node[] children = new Node[order + 2];
+        System.arraycopy(inner.keys, 0, keys, 0, index);
+        System.arraycopy(inner.keys, index, keys, index + 1, order - index);
+        keys[index] = splitKey;
+        System.arraycopy(inner.children, 0, children, 0, index + 1);
+        System.arraycopy(inner.children, index + 1, children, index + 2, order - index);
+        children[index + 1] = child;
+
+        int middle = (order + 1) / 2;
+        Inner right = new Inner(order);
+        right.size = order - middle;
+        System.arraycopy(keys, middle + 1, right.keys, 0, right.size);
+        System.arraycopy(children, middle + 1, right.children, 0, right.size + 1);
+        System.arraycopy(keys, 0, inner.keys, 0, middle);
+        System.arraycopy(children, 0, inner.children, 0, middle + 1);
+        clear(inner.keys, middle, order);
+        clear(inner.children, middle + 1, order + 1);
+        inner.size = middle;
+        splitKey = keys[middle];
+        return right;
+    }
+
+    /**
+     * Inserts an entry into a leaf which is not full.
+     *
+     * @param leaf     leaf into which the entry is inserted
+     * @param position index of the new entry
+     * @param key      key of the entry
+     * @param value    value of the entry
+     */
+    private static void insertIntoLeaf(Leaf leaf, int position, Object key, Object value) {
+        System.arraycopy(leaf.keys, position, leaf.keys, position + 1, leaf.size - position);
+        System.arraycopy(leaf.values, position, leaf.values, position + 1, leaf.size - position);
+        leaf.keys[position] = key;
+        leaf.values[position] = value;
+        leaf.size++;
+    }
+
+    /**
+     * Inserts a key and the child after it into an inner node which is not full.
+     *
+     * @param inner    inner node
+     * @param position index of the new key
+     * @param key      key which separates the child from the one before it
+     * @param child    new child, placed at index position + 1
+     */
+    private static void insertIntoInner(Inner inner, int position, Object key, Node child) {
+        System.arraycopy(inner.keys, position, inner.keys, position + 1, inner.size - position);
+        System.arraycopy(inner.children, position + 1, inner.children, position + 2, inner.size - position);
+        inner.keys[position] = key;
+        inner.children[position + 1] = child;
+        inner.size++;
+    }
+
+    /**
+     * Sets the given range of the array to null, so the removed references can be collected.
+     *
+     * @param array array which is cleared
+     * @param from  index of the first cleared element
+     * @param to    index after the last cleared element
+     */
+    private static void clear(Object[] array, int from, int to) {
+        for (int i = from; i < to; i++) {
+            array[i] = null;
+        }
+    }
+
+    /**
+     * Removes the entry with the given key from the map and returns its value.
+     *
+     * @param key key of the entry
+     * @return value of the entry or null if the entry does not exist
+     * @throws ClassCastException if the key cannot be compared with the keys of the map
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        if (key == null) {
+            return null;
+        }
+
+        Leaf leaf = findLeaf(key);
+        int index = search(leaf, key);
+        if (index < 0) {
+            return null;
+        }
+        V oldValue = (V) leaf.values[index];
+
+        delete(root, key);
+        if (root instanceof Inner inner && inner.size == 0) {
+            root = inner.children[0];
+        }
+        size--;
+        modificationCount++;
+        return oldValue;
+    }
+
+    /**
+     * Deletes the entry with the given key from the subtree of the given node.
+     * <p>
+     * A child which is left with fewer than {@link #minSize} keys borrows a key from a sibling,
+     * or is merged with it if the sibling has no keys to spare.
+     *
+     * @param node root of the subtree
+     * @param key  key of the entry, which is in the map
+     */
+    private void delete(Node node, Object key) {
+        if (node instanceof Leaf leaf) {
+            int index = search(leaf, key);
+            System.arraycopy(leaf.keys, index + 1, leaf.keys, index, leaf.size - index - 1);
+            System.arraycopy(leaf.values, index + 1, leaf.values, index, leaf.size - index - 1);
+            leaf.size--;
+            leaf.keys[leaf.size] = null;
+            leaf.values[leaf.size] = null;
+            return;
+        }
+
+        Inner inner = (Inner) node;
+        int index = childIndex(inner, key);
+        Node child = inner.children[index];
+        delete(child, key);
+        if (child.size >= minSize) {
+            return;
+        }
+
+        Node left = index > 0 ? inner.children[index - 1] : null;
+        Node right = index < inner.size ? inner.children[index + 1] : null;
+        if (left != null && left.size > minSize) {
+            borrowFromLeft(inner, index);
+        } else if (right != null && right.size > minSize) {
+            borrowFromRight(inner, index);
+        } else if (left != null) {
+            merge(inner, index - 1);
+        } else {
+            merge(inner, index);
+        }
+    }
+
+    /**
+     * Moves the last key of the left sibling into the child at the given index.
+     *
+     * @param parent parent of the child
+     * @param index  index of the child, greater than 0
+     */
+    private static void borrowFromLeft(Inner parent, int index) {
+        Node child = parent.children[index];
+        Node left = parent.children[index - 1];
+        System.arraycopy(child.keys, 0, child.keys, 1, child.size);
+
+        if (child instanceof Leaf leaf) {
+            Leaf leftLeaf = (Leaf) left;
+            System.arraycopy(leaf.values, 0, leaf.values, 1, leaf.size);
+            leaf.keys[0] = leftLeaf.keys[leftLeaf.size - 1];
+            leaf.values[0] = leftLeaf.values[leftLeaf.size - 1];
+            leftLeaf.values[leftLeaf.size - 1] = null;
+            parent.keys[index - 1] = leaf.keys[0];
+        } else {
+            Inner inner = (Inner) child;
+            Inner leftInner = (Inner) left;
+            System.arraycopy(inner.children, 0, inner.children, 1, inner.size + 1);
+            inner.keys[0] = parent.keys[index - 1];
+            inner.children[0] = leftInner.children[leftInner.size];
+            leftInner.children[leftInner.size] = null;
+            parent.keys[index - 1] = leftInner.keys[leftInner.size - 1];
+        }
+
+        left.keys[left.size - 1] = null;
+        left.size--;
+        child.size++;
+    }
+
+    /**
+     * Moves the first key of the right sibling into the child at the given index.
+     *
+     * @param parent parent of the child
+     * @param index  index of the child, less than the number of keys of the parent
+     */
+    private static void borrowFromRight(Inner parent, int index) {
+        Node child = parent.children[index];
+        Node right = parent.children[index + 1];
+
+        if (child instanceof Leaf leaf) {
+            Leaf rightLeaf = (Leaf) right;
+            leaf.keys[leaf.size] = rightLeaf.keys[0];
+            leaf.values[leaf.size] = rightLeaf.values[0];
+            System.arraycopy(rightLeaf.values, 1, rightLeaf.values, 0, rightLeaf.size - 1);
+            rightLeaf.values[rightLeaf.size - 1] = null;
+            System.arraycopy(rightLeaf.keys, 1, rightLeaf.keys, 0, rightLeaf.size - 1);
+            parent.keys[index] = rightLeaf.keys[0];
+        } else {
+            Inner inner = (Inner) child;
+            Inner rightInner = (Inner) right;
+            inner.keys[inner.size] = parent.keys[index];
+            inner.children[inner.size + 1] = rightInner.children[0];
+            parent.keys[index] = rightInner.keys[0];
+            System.arraycopy(rightInner.keys, 1, rightInner.keys, 0, rightInner.size - 1);
+            System.arraycopy(rightInner.children, 1, rightInner.children, 0, rightInner.size);
+            rightInner.children[rightInner.size] = null;
+        }
+
+        right.keys[right.size - 1] = null;
+        right.size--;
+        child.size++;
+    }
+
+    /**
+     * Merges the child at index + 1 into the child at the given index and removes the key between them.
+     *
+     * @param parent parent of the children
+     * @param index  index of the left child
+     */
+    private static void merge(Inner parent, int index) {
+        Node left = parent.children[index];
+        Node right = parent.children[index + 1];
+
+        if (left instanceof Leaf leftLeaf) {
+            Leaf rightLeaf = (Leaf) right;
+            System.arraycopy(rightLeaf.keys, 0, leftLeaf.keys, leftLeaf.size, rightLeaf.size);
+            System.arraycopy(rightLeaf.values, 0, leftLeaf.values, leftLeaf.size, rightLeaf.size);
+            leftLeaf.size += rightLeaf.size;
+            leftLeaf.next = rightLeaf.next;
+        } else {
+            Inner leftInner = (Inner) left;
+            Inner rightInner = (Inner) right;
+            leftInner.keys[leftInner.size] = parent.keys[index];
+            System.arraycopy(rightInner.keys, 0, leftInner.keys, leftInner.size + 1, rightInner.size);
+            System.arraycopy(rightInner.children, 0, leftInner.children, leftInner.size + 1, rightInner.size + 1);
+            leftInner.size += 1 + rightInner.size;
+        }
+
+        System.arraycopy(parent.keys, index + 1, parent.keys, index, parent.size - index - 1);
+        System.arraycopy(parent.children, index + 2, parent.children, index + 1, parent.size - index - 1);
+        parent.size--;
+        parent.keys[parent.size] = null;
+        parent.children[parent.size + 1] = null;
+    }
+
+    /**
+     * Returns the smallest key in the map.
+     *
+     * @return smallest key or null if the map is empty
+     */
+    @SuppressWarnings("unchecked")
+    public K firstKey() {
+        Node node = root;
+        while (node instanceof Inner inner) {
+            node = inner.children[0];
+        }
+        return node.size == 0 ? null : (K) node.keys[0];
+    }
+
+    /**
+     * Returns the largest key in the map.
+     *
+     * @return largest key or null if the map is empty
+     */
+    @SuppressWarnings("unchecked")
+    public K lastKey() {
+        Node node = root;
+        while (node instanceof Inner inner) {
+            node = inner.children[inner.size];
+        }
+        return node.size == 0 ? null : (K) node.keys[node.size - 1];
+    }
+
+    /**
+     * Returns the largest key in the map which is less than or equal to the given key.
+     *
+     * @param key key which is searched
+     * @return the greatest key less than or equal to the given key, or null if there is no such key
+     * @throws NullPointerException if the key is null
+     * @throws ClassCastException   if the key cannot be compared with the keys of the map
+     */
+    @SuppressWarnings("unchecked")
+    public K floorKey(Object key) {
+        if (key == null) {
+            throw new NullPointerException("Key must not be null.");
+        }
+
+        // the closest subtree on the left of the search path holds the answer if the leaf does not
+        Node lower = null;
+        Node node = root;
+        while (node instanceof Inner inner) {
+            int index = childIndex(inner, key);
+            if (index > 0) {
+                lower = inner.children[index - 1];
+            }
+            node = inner.children[index];
+        }
+
+        int index = search(node, key);
+        if (index >= 0) {
+            return (K) node.keys[index];
+        }
+        int insertion = -index - 1;
+        if (insertion > 0) {
+            return (K) node.keys[insertion - 1];
+        }
+        if (lower == null) {
+            return null;
+        }
+        while (lower instanceof Inner inner) {
+            lower = inner.children[inner.size];
+        }
+        return (K) lower.keys[lower.size - 1];
+    }
+
+    /**
+     * Returns the smallest key in the map which is greater than or equal to the given key.
+     *
+     * @param key key which is searched
+     * @return the least key greater than or equal to the given key, or null if there is no such key
+     * @throws NullPointerException if the key is null
+     * @throws ClassCastException   if the key cannot be compared with the keys of the map
+     */
+    @SuppressWarnings("unchecked")
+    public K ceilingKey(Object key) {
+        if (key == null) {
+            throw new NullPointerException("Key must not be null.");
+        }
+
+        Leaf leaf = findLeaf(key);
+        int index = search(leaf, key);
+        int position = index >= 0 ? index : -index - 1;
+        if (position < leaf.size) {
+            return (K) leaf.keys[position];
+        }
+        return leaf.next == null ? null : (K) leaf.next.keys[0];
+    }
+
+    /**
+     * Removes all entries from the map.
+     */
+    public void clear() {
+        root = new Leaf(order);
+        size = 0;
+        modificationCount++;
+    }
+
+    /**
+     * Returns the string representation of the map, with the entries in key order.
+     *
+     * @return string representation of the map
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (Entry<K,V> entry : this) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(entry);
+        }
+        return sb.append("]").toString();
+    }
+
+    /**
+     * Returns an iterator over the entries whose keys are greater than or equal to {@code from}
+     * and less than {@code to}, in key order.
+     * <p>
+     * The iterator finds the first leaf by one descent from the root and then follows the links
+     * between the leaves, so a scan of k entries takes O(log n + k) time.
+     *
+     * @param from smallest key of the range, inclusive, or null for no lower bound
+     * @param to   largest key of the range, exclusive, or null for no upper bound
+     * @return iterator over the entries in the range
+     * @throws IllegalArgumentException if {@code from} is greater than {@code to}
+     * @throws ClassCastException       if a bound cannot be compared with the keys of the map
+     */
+    public Iterator<Entry<K,V>> rangeIterator(K from, K to) {
+        if (from != null && to != null && compare(from, to) > 0) {
+            throw new IllegalArgumentException("Lower bound must not be greater than upper bound.");
+        }
+
+        Leaf leaf;
+        int index;
+        if (from == null) {
+            Node node = root;
+            while (node instanceof Inner inner) {
+                node = inner.children[0];
+            }
+            leaf = (Leaf) node;
+            index = 0;
+        } else {
+            leaf = findLeaf(from);
+            int found = search(leaf, from);
+            index = found >= 0 ? found : -found - 1;
+        }
+        return new RangeIterator(leaf, index, to);
+    }
+
+    /**
+     * Returns the iterator over all entries of the map, in key order.
+     *
+     * @return iterator over the entries
+     */
+    @Override
+    public Iterator<Entry<K,V>> iterator() {
+        return rangeIterator(null, null);
+    }
+
+    /**
+     * Iterator over a range of entries, which walks the linked leaves.
+     */
+    private class RangeIterator implements Iterator<Entry<K,V>> {
+        /**
+         * Leaf of the next entry, or null if there are no more entries.
+         */
+        private Leaf leaf;
+
+        /**
+         * Index of the next entry in the leaf.
+         */
+        private int index;
+
+        /**
+         * Upper bound of the keys, exclusive, or null for no bound.
+         */
+        private final K to;
+
+        /**
+         * Number of modifications of the map when the iterator was created.
+         */
+        private final long savedModificationCount;
+
+        /**
+         * Creates an iterator which starts at the given position.
+         *
+         * @param leaf  leaf of the first entry
+         * @param index index of the first entry in the leaf, may be equal to the size of the leaf
+         * @param to    upper bound of the keys, exclusive, or null for no bound
+         */
+        private RangeIterator(Leaf leaf, int index, K to) {
+            this.leaf = leaf;
+            this.index = index;
+            this.to = to;
+            this.savedModificationCount = modificationCount;
+        }
+
+        /**
+         * Checks if there are more entries in the range.
+         *
+         * @return true if there are more entries, false otherwise
+         * @throws ConcurrentModificationException if the map has been structurally modified
+         *                                         since the iterator was created
+         */
+        @Override
+        public boolean hasNext() {
+            if (savedModificationCount != modificationCount) {
+                throw new ConcurrentModificationException("The map has been modified.");
+            }
+            if (leaf != null && index == leaf.size) {
+                leaf = leaf.next;
+                index = 0;
+            }
+            if (leaf == null) {
+                return false;
+            }
+            if (to != null && compare(leaf.keys[index], to) >= 0) {
+                leaf = null;
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Returns the next entry in the range.
+         *
+         * @return next entry
+         * @throws NoSuchElementException          if there are no more entries
+         * @throws ConcurrentModificationException if the map has been structurally modified
+         *                                         since the iterator was created
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<K,V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("There are no more entries in the range.");
+            }
+            Entry<K,V> entry = new Entry<>((K) leaf.keys[index], (V) leaf.values[index]);
+            index++;
+            return entry;
+        }
+    }
+}
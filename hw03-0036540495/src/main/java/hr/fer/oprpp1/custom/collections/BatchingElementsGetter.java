@@ -0,0 +1,179 @@
+package hr.fer.oprpp1.custom.collections;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link SplittableElementsGetter} on top of an ordinary {@link ElementsGetter}.
+ * <p>
+ * The underlying getter can only be read sequentially, so a split copies the next batch of elements into an array
+ * and returns a getter over that array. Every split copies a bigger batch, so a few splits are enough to give
+ * work to all threads, while the copying itself stays sequential.
+ *
+ * @param <T> type of elements in the collection
+ *
+ * @see Collection#createSplittableElementsGetter()
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+class BatchingElementsGetter<T> implements SplittableElementsGetter<T> {
+    /**
+     * Growth of the batch size with every split.
+     */
+    private static final int BATCH_UNIT = 1 << 10;
+
+    /**
+     * Maximal size of a batch.
+     */
+    private static final int MAX_BATCH = 1 << 25;
+
+    /**
+     * Getter whose elements are split.
+     */
+    private final ElementsGetter<T> getter;
+
+    /**
+     * Estimated number of remaining elements.
+     */
+    private long estimatedSize;
+
+    /**
+     * Size of the last batch.
+     */
+    private int batch;
+
+    /**
+     * Creates a new getter over the given getter.
+     *
+     * @param getter        getter whose elements are split
+     * @param estimatedSize number of elements the getter returns
+     */
+    BatchingElementsGetter(ElementsGetter<T> getter, long estimatedSize) {
+        this.getter = getter;
+        this.estimatedSize = estimatedSize;
+    }
+
+    /**
+     * @see ElementsGetter#hasNextElement()
+     */
+    @Override
+    public boolean hasNextElement() {
+        return this.getter.hasNextElement();
+    }
+
+    /**
+     * @see ElementsGetter#getNextElement()
+     */
+    @Override
+    public T getNextElement() {
+        T value = this.getter.getNextElement();
+        if (this.estimatedSize > 0) {
+            this.estimatedSize--;
+        }
+        return value;
+    }
+
+    /**
+     * Copies the next batch of elements into an array and returns a getter over it.
+     *
+     * @see SplittableElementsGetter#trySplit()
+     */
+    @Override
+    public SplittableElementsGetter<T> trySplit() {
+        if (this.estimatedSize <= 1 || !this.getter.hasNextElement()) {
+            return null;
+        }
+        int n = (int) Math.min(Math.min(this.batch + BATCH_UNIT, MAX_BATCH), this.estimatedSize);
+        Object[] elements = new Object[n];
+        int count = 0;
+        while (count < n && this.getter.hasNextElement()) {
+            elements[count++] = this.getter.getNextElement();
+        }
+        this.batch = count;
+        this.estimatedSize -= count;
+        return new ArrayElementsGetter<>(elements, 0, count);
+    }
+
+    /**
+     * @see SplittableElementsGetter#estimateSize()
+     */
+    @Override
+    public long estimateSize() {
+        return this.estimatedSize;
+    }
+
+    /**
+     * A splittable getter over a range of an array, which splits the range in halves.
+     */
+    private static class ArrayElementsGetter<T> implements SplittableElementsGetter<T> {
+        /**
+         * Array with the elements.
+         */
+        private final Object[] elements;
+
+        /**
+         * Index of the next element.
+         */
+        private int index;
+
+        /**
+         * Index after the last element.
+         */
+        private final int fence;
+
+        /**
+         * Creates a new getter over the given range of the array.
+         *
+         * @param elements array with the elements
+         * @param index    index of the first element
+         * @param fence    index after the last element
+         */
+        private ArrayElementsGetter(Object[] elements, int index, int fence) {
+            this.elements = elements;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        /**
+         * @see ElementsGetter#hasNextElement()
+         */
+        @Override
+        public boolean hasNextElement() {
+            return this.index < this.fence;
+        }
+
+        /**
+         * @see ElementsGetter#getNextElement()
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public T getNextElement() {
+            if (this.index >= this.fence) {
+                throw new NoSuchElementException("The collection has no more elements.");
+            }
+            return (T) this.elements[this.index++];
+        }
+
+        /**
+         * @see SplittableElementsGetter#trySplit()
+         */
+        @Override
+        public SplittableElementsGetter<T> trySplit() {
+            int middle = (this.index + this.fence) >>> 1;
+            if (middle <= this.index) {
+                return null;
+            }
+            ArrayElementsGetter<T> prefix = new ArrayElementsGetter<>(this.elements, this.index, middle);
+            this.index = middle;
+            return prefix;
+        }
+
+        /**
+         * @see SplittableElementsGetter#estimateSize()
+         */
+        @Override
+        public long estimateSize() {
+            return this.fence - this.index;
+        }
+    }
+}
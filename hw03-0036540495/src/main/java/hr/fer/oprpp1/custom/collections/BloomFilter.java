@@ -0,0 +1,311 @@
+package hr.fer.oprpp1.custom.collections;
+
+import java.util.Arrays;
+
+/**
+ * A Bloom filter which tells whether a collection may contain a value, used to skip scans for values
+ * which are definitely not in the collection.
+ * <p>
+ * A value sets {@link #getHashCount()} bits of a bit array, chosen from its hash code by double hashing.
+ * If one of the bits of a value is not set, the value has never been added, so the answer "no" is always correct
+ * and the answer "maybe" is wrong with a probability that depends on the number of added values.
+ * Bits cannot be cleared, so removals are only counted, and the owner of the filter rebuilds it when
+ * {@link #needsRebuild()} reports that too many added values are gone or that more values were added
+ * than the filter was sized for.
+ * <p>
+ * Values are hashed by {@link Object#hashCode()}, null is allowed.
+ *
+ * @see ArrayIndexedCollection#enableMembershipFilter(double)
+ * @see LinkedListIndexedCollection#enableMembershipFilter(double)
+ * @see SimpleHashtable#enableValueFilter(double)
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public final class BloomFilter {
+
+    /**
+     * Smallest number of values the filter is sized for.
+     */
+    private static final int MIN_EXPECTED_VALUES = 16;
+
+    /**
+     * Bits of the filter.
+     */
+    private final long[] bits;
+
+    /**
+     * Number of bits minus 1, the number of bits is a power of 2.
+     */
+    private final int mask;
+
+    /**
+     * Number of bits set for every value.
+     */
+    private final int hashCount;
+
+    /**
+     * Number of values the filter is sized for.
+     */
+    private final int expectedValues;
+
+    /**
+     * Requested probability of a false positive answer.
+     */
+    private final double falsePositiveRate;
+
+    /**
+     * Number of values added since the filter was created or cleared.
+     */
+    private int addedCount;
+
+    /**
+     * Number of added values which have been removed from the collection.
+     */
+    private int removedCount;
+
+    /**
+     * Number of calls of {@link #mightContain(Object)}.
+     */
+    private long probeCount;
+
+    /**
+     * Number of calls of {@link #mightContain(Object)} which returned false.
+     */
+    private long negativeCount;
+
+    /**
+     * Number of positive answers for which the collection did not contain the value.
+     */
+    private long falsePositiveCount;
+
+    /**
+     * Creates an empty filter sized for the given number of values and false positive rate.
+     * <p>
+     * The number of bits is rounded up to a power of 2, so the actual false positive rate is usually lower.
+     *
+     * @param expectedValues    number of values the filter is sized for
+     * @param falsePositiveRate probability of a false positive answer when the expected number of values is added
+     * @throws IllegalArgumentException if expected values are negative or the rate is not between 0 and 1
+     */
+    public BloomFilter(int expectedValues, double falsePositiveRate) {
+        if (expectedValues < 0) {
+            throw new IllegalArgumentException("Expected number of values must not be negative.");
+        }
+
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1.");
+        }
+
+        this.expectedValues = Math.max(MIN_EXPECTED_VALUES, expectedValues);
+        this.falsePositiveRate = falsePositiveRate;
+
+        double ln2 = Math.log(2);
+        double optimalBits = -this.expectedValues * Math.log(falsePositiveRate) / (ln2 * ln2);
+        int bitCount = Integer.highestOneBit((int) Math.min(1 << 30, Math.max(64, Math.ceil(optimalBits))) - 1) << 1;
+        this.bits = new long[bitCount >>> 6];
+        this.mask = bitCount - 1;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / this.expectedValues * ln2));
+    }
+
+    /**
+     * Returns the first hash of the given value.
+     *
+     * @param value value which is hashed, may be null
+     * @return first hash
+     */
+    private static int firstHash(Object value) {
+        return HashSpreader.MURMUR3.spread(value == null ? 0 : value.hashCode());
+    }
+
+    /**
+     * Returns the step between the bits of a value, derived from its first hash.
+     *
+     * @param firstHash first hash of the value
+     * @return odd step, so the bits of a value are distinct until they wrap around the whole array
+     */
+    private static int step(int firstHash) {
+        return HashSpreader.MURMUR3.spread(firstHash ^ 0x9E3779B9) | 1;
+    }
+
+    /**
+     * Sets the bits of the given value.
+     *
+     * @param value value which is added, may be null
+     */
+    public void add(Object value) {
+        int hash = firstHash(value);
+        int step = step(hash);
+        for (int i = 0; i < this.hashCount; i++) {
+            int bit = hash & this.mask;
+            this.bits[bit >>> 6] |= 1L << bit;
+            hash += step;
+        }
+        this.addedCount++;
+    }
+
+    /**
+     * Checks whether the given value may have been added to the filter.
+     *
+     * @param value value which is checked, may be null
+     * @return false if the value has definitely not been added, true if it may have been
+     */
+    public boolean mightContain(Object value) {
+        this.probeCount++;
+        int hash = firstHash(value);
+        int step = step(hash);
+        for (int i = 0; i < this.hashCount; i++) {
+            int bit = hash & this.mask;
+            if ((this.bits[bit >>> 6] & 1L << bit) == 0) {
+                this.negativeCount++;
+                return false;
+            }
+            hash += step;
+        }
+        return true;
+    }
+
+    /**
+     * Records that a value for which {@link #mightContain(Object)} returned true was not in the collection.
+     */
+    public void recordFalsePositive() {
+        this.falsePositiveCount++;
+    }
+
+    /**
+     * Records that the given number of added values have been removed from the collection.
+     *
+     * @param count number of removed values
+     */
+    public void recordRemovals(int count) {
+        this.removedCount += count;
+    }
+
+    /**
+     * Checks whether the filter should be rebuilt from the values which are still in the collection.
+     * <p>
+     * That is the case when more values were added than the filter was sized for, so the false positive rate
+     * has grown above the requested one, or when more than half of the added values have been removed,
+     * so their bits cause false positives.
+     *
+     * @return true if the filter should be rebuilt, false otherwise
+     */
+    public boolean needsRebuild() {
+        return this.addedCount > this.expectedValues || this.removedCount * 2 > this.addedCount;
+    }
+
+    /**
+     * Clears all bits and the counts of added and removed values.
+     * <p>
+     * The counts of probes and false positives are kept.
+     */
+    public void clear() {
+        Arrays.fill(this.bits, 0);
+        this.addedCount = 0;
+        this.removedCount = 0;
+    }
+
+    /**
+     * Returns the number of bits of the filter.
+     *
+     * @return number of bits, a power of 2
+     */
+    public int getBitCount() {
+        return this.mask + 1;
+    }
+
+    /**
+     * Returns the number of bits set for every value.
+     *
+     * @return number of hash functions
+     */
+    public int getHashCount() {
+        return this.hashCount;
+    }
+
+    /**
+     * Returns the number of values the filter is sized for.
+     *
+     * @return expected number of values
+     */
+    public int getExpectedValues() {
+        return this.expectedValues;
+    }
+
+    /**
+     * Returns the false positive rate the filter was created with.
+     *
+     * @return requested false positive rate
+     */
+    public double getFalsePositiveRate() {
+        return this.falsePositiveRate;
+    }
+
+    /**
+     * Returns the number of bytes used by the bit array.
+     *
+     * @return memory used by the bits
+     */
+    public long memoryBytes() {
+        return (long) this.bits.length * Long.BYTES;
+    }
+
+    /**
+     * Returns the probability of a false positive answer for the values added so far,
+     * including the removed ones whose bits are still set.
+     *
+     * @return estimated false positive rate
+     */
+    public double estimatedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) this.hashCount * this.addedCount / this.getBitCount()), this.hashCount);
+    }
+
+    /**
+     * Returns the fraction of probes for values which were not in the collection that were answered with "maybe".
+     *
+     * @return observed false positive rate, or 0 if no such value has been probed
+     */
+    public double observedFalsePositiveRate() {
+        long misses = this.negativeCount + this.falsePositiveCount;
+        return misses == 0 ? 0 : (double) this.falsePositiveCount / misses;
+    }
+
+    /**
+     * Returns the number of probes.
+     *
+     * @return number of calls of {@link #mightContain(Object)}
+     */
+    public long getProbeCount() {
+        return this.probeCount;
+    }
+
+    /**
+     * Returns the number of probes which were answered without scanning the collection.
+     *
+     * @return number of calls of {@link #mightContain(Object)} which returned false
+     */
+    public long getNegativeCount() {
+        return this.negativeCount;
+    }
+
+    /**
+     * Returns the number of recorded false positives.
+     *
+     * @return number of calls of {@link #recordFalsePositive()}
+     */
+    public long getFalsePositiveCount() {
+        return this.falsePositiveCount;
+    }
+
+    /**
+     * Copies the counts of probes, negative answers and false positives of the given filter,
+     * so they are kept when a filter is replaced by a rebuilt one.
+     *
+     * @param other filter whose counts are copied
+     */
+    void copyStatistics(BloomFilter other) {
+        this.probeCount = other.probeCount;
+        this.negativeCount = other.negativeCount;
+        this.falsePositiveCount = other.falsePositiveCount;
+    }
+}
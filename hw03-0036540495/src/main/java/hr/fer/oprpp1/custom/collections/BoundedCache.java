@@ -0,0 +1,782 @@
+package hr.fer.oprpp1.custom.collections;
+
+import java.util.Arrays;
+
+/**
+ * A cache of bounded size or weight which evicts entries when the bound is exceeded.
+ * <p>
+ * The entries are stored in a {@link SimpleHashtable} from keys to nodes, and the nodes are also linked into
+ * access-order lists, so {@link #get(Object)} and {@link #put(Object, Object)} take constant time.
+ * The order in which the entries are evicted is chosen by the {@link EvictionPolicy}:
+ * <ul>
+ *     <li>{@link EvictionPolicy#LRU} evicts the least recently used entry,</li>
+ *     <li>{@link EvictionPolicy#W_TINY_LFU} keeps new entries in a small LRU window and admits them into the
+ *     main part of the cache only if they are used more often than the entry they would replace, so entries
+ *     which are used once, e.g. by a scan, do not push out the frequently used ones.</li>
+ * </ul>
+ * Entries which are heavier than the maximum weight are not cached; they are counted by
+ * {@link #getRejectionCount()}, not as evictions. Keys and values must not be null.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ *
+ * @see SimpleHashtable
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public class BoundedCache<K, V> {
+
+    /**
+     * Policies which choose the entries that are evicted.
+     */
+    public enum EvictionPolicy {
+        /**
+         * Evicts the least recently used entry.
+         */
+        LRU,
+        /**
+         * Admits an entry into the main part of the cache only if its estimated frequency of use is higher
+         * than that of the entry it replaces. The main part is a segmented LRU, whose protected segment
+         * holds the entries which have been used again after their admission.
+         */
+        W_TINY_LFU
+    }
+
+    /**
+     * A functional interface which computes the weight of an entry.
+     *
+     * @param <K> type of keys
+     * @param <V> type of values
+     */
+    public interface Weigher<K, V> {
+        /**
+         * Returns the weight of the entry with the given key and value.
+         *
+         * @param key   key of the entry
+         * @param value value of the entry
+         * @return weight of the entry, must not be negative
+         */
+        int weigh(K key, V value);
+    }
+
+    /**
+     * A functional interface which is notified of evicted entries.
+     *
+     * @param <K> type of keys
+     * @param <V> type of values
+     */
+    public interface EvictionListener<K, V> {
+        /**
+         * Called after the entry with the given key and value has been evicted from the cache.
+         *
+         * @param key   key of the evicted entry
+         * @param value value of the evicted entry
+         */
+        void evicted(K key, V value);
+    }
+
+    /**
+     * An entry of the cache, which is also a node of one of the access-order lists.
+     */
+    private static class Node<K, V> {
+        /**
+         * Key of the entry.
+         */
+        final K key;
+
+        /**
+         * Value of the entry.
+         */
+        V value;
+
+        /**
+         * Weight of the entry.
+         */
+        int weight;
+
+        /**
+         * List which holds the node.
+         */
+        AccessOrderList<K, V> list;
+
+        /**
+         * Previous node of the list, toward the least recently used end.
+         */
+        Node<K, V> previous;
+
+        /**
+         * Next node of the list, toward the most recently used end.
+         */
+        Node<K, V> next;
+
+        /**
+         * Creates a node which is not in any list.
+         *
+         * @param key    key of the entry
+         * @param value  value of the entry
+         * @param weight weight of the entry
+         */
+        Node(K key, V value, int weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * A doubly linked list of nodes ordered from the least to the most recently used one,
+     * which keeps the total weight of its nodes.
+     */
+    private static class AccessOrderList<K, V> {
+        /**
+         * Least recently used node.
+         */
+        Node<K, V> first;
+
+        /**
+         * Most recently used node.
+         */
+        Node<K, V> last;
+
+        /**
+         * Total weight of the nodes.
+         */
+        long weight;
+
+        /**
+         * Appends the given node, which is not in any list, as the most recently used one.
+         *
+         * @param node node which is appended
+         */
+        void addLast(Node<K, V> node) {
+            node.list = this;
+            node.previous = this.last;
+            node.next = null;
+            if (this.last == null) {
+                this.first = node;
+            } else {
+                this.last.next = node;
+            }
+            this.last = node;
+            this.weight += node.weight;
+        }
+
+        /**
+         * Unlinks the given node of this list.
+         *
+         * @param node node which is unlinked
+         */
+        void remove(Node<K, V> node) {
+            if (node.previous == null) {
+                this.first = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                this.last = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+            node.previous = null;
+            node.next = null;
+            node.list = null;
+            this.weight -= node.weight;
+        }
+
+        /**
+         * Moves the given node of this list to the most recently used end.
+         *
+         * @param node node which is moved
+         */
+        void moveToLast(Node<K, V> node) {
+            if (node != this.last) {
+                this.remove(node);
+                this.addLast(node);
+            }
+        }
+
+        /**
+         * Removes all nodes.
+         */
+        void clear() {
+            this.first = null;
+            this.last = null;
+            this.weight = 0;
+        }
+    }
+
+    /**
+     * A count-min sketch which estimates how often keys have been used, with 4-bit counters.
+     * <p>
+     * A key increments one counter in each of 4 rows and its frequency is the smallest of them.
+     * After a number of increments proportional to the size of the cache all counters are halved,
+     * so that the frequencies reflect recent use.
+     */
+    private static class FrequencySketch {
+        /**
+         * Seeds of the hash functions of the rows.
+         */
+        private static final int[] SEEDS = {0x97CB3127, 0xB7ADB0D9, 0x42C3B5B1, 0x9D4FA8AB};
+
+        /**
+         * Counters, 16 in every long.
+         */
+        private final long[] table;
+
+        /**
+         * Number of counters minus 1, the number of counters is a power of 2.
+         */
+        private final int counterMask;
+
+        /**
+         * Number of increments after which the counters are halved.
+         */
+        private final int sampleSize;
+
+        /**
+         * Number of increments since the counters were last halved.
+         */
+        private int additions;
+
+        /**
+         * Creates a sketch for a cache of the given number of entries.
+         *
+         * @param entries expected number of entries of the cache
+         */
+        FrequencySketch(int entries) {
+            int length = Integer.highestOneBit(Math.max(16, entries) - 1) << 1;
+            this.table = new long[length];
+            this.counterMask = length * 16 - 1;
+            this.sampleSize = 10 * length;
+        }
+
+        /**
+         * Returns the index of the counter of the given hash in the given row.
+         *
+         * @param hash hash code of a key
+         * @param row  row of the counter
+         * @return index of the counter
+         */
+        private int indexOf(int hash, int row) {
+            return HashSpreader.MURMUR3.spread(hash ^ SEEDS[row]) & this.counterMask;
+        }
+
+        /**
+         * Returns the value of the counter at the given index.
+         *
+         * @param index index of the counter
+         * @return value of the counter, between 0 and 15
+         */
+        private int counter(int index) {
+            return (int) (this.table[index >>> 4] >>> ((index & 15) << 2)) & 15;
+        }
+
+        /**
+         * Returns the estimated number of uses of the given key.
+         *
+         * @param key key of an entry
+         * @return estimated frequency, at most 15
+         */
+        int frequency(Object key) {
+            int hash = key.hashCode();
+            int frequency = 15;
+            for (int row = 0; row < SEEDS.length; row++) {
+                frequency = Math.min(frequency, this.counter(this.indexOf(hash, row)));
+            }
+            return frequency;
+        }
+
+        /**
+         * Records a use of the given key.
+         *
+         * @param key key of an entry
+         */
+        void increment(Object key) {
+            int hash = key.hashCode();
+            for (int row = 0; row < SEEDS.length; row++) {
+                int index = this.indexOf(hash, row);
+                if (this.counter(index) < 15) {
+                    this.table[index >>> 4] += 1L << ((index & 15) << 2);
+                }
+            }
+            if (++this.additions == this.sampleSize) {
+                this.halve();
+            }
+        }
+
+        /**
+         * Halves all counters.
+         */
+        private void halve() {
+            for (int i = 0; i < this.table.length; i++) {
+                this.table[i] = (this.table[i] >>> 1) & 0x7777777777777777L;
+            }
+            this.additions /= 2;
+        }
+
+        /**
+         * Sets all counters to 0.
+         */
+        void clear() {
+            Arrays.fill(this.table, 0);
+            this.additions = 0;
+        }
+    }
+
+    /**
+     * Percentage of the maximum weight which is given to the window of W-TinyLFU.
+     */
+    private static final int WINDOW_PERCENT = 1;
+
+    /**
+     * Percentage of the main part of W-TinyLFU which is given to the protected segment.
+     */
+    private static final int PROTECTED_PERCENT = 80;
+
+    /**
+     * Nodes of the cache by their keys.
+     */
+    private final SimpleHashtable<K, Node<K, V>> table;
+
+    /**
+     * Eviction policy of the cache.
+     */
+    private final EvictionPolicy policy;
+
+    /**
+     * Maximum total weight of the entries.
+     */
+    private final long maximumWeight;
+
+    /**
+     * Weigher of the entries.
+     */
+    private final Weigher<? super K, ? super V> weigher;
+
+    /**
+     * List of new entries. With the LRU policy, it holds all entries.
+     */
+    private final AccessOrderList<K, V> window = new AccessOrderList<>();
+
+    /**
+     * Entries of the main part of W-TinyLFU which have not been used since their admission.
+     */
+    private final AccessOrderList<K, V> probation = new AccessOrderList<>();
+
+    /**
+     * Entries of the main part of W-TinyLFU which have been used since their admission.
+     */
+    private final AccessOrderList<K, V> protectedList = new AccessOrderList<>();
+
+    /**
+     * Maximum weight of the window.
+     */
+    private final long windowMaximum;
+
+    /**
+     * Maximum weight of the protected segment.
+     */
+    private final long protectedMaximum;
+
+    /**
+     * Frequency sketch of W-TinyLFU, null with the LRU policy.
+     */
+    private final FrequencySketch sketch;
+
+    /**
+     * Listener which is notified of evicted entries, may be null.
+     */
+    private EvictionListener<? super K, ? super V> evictionListener;
+
+    /**
+     * Number of lookups which found an entry.
+     */
+    private long hitCount;
+
+    /**
+     * Number of lookups which did not find an entry.
+     */
+    private long missCount;
+
+    /**
+     * Number of evicted entries.
+     */
+    private long evictionCount;
+
+    /**
+     * Number of entries which were not cached because they are heavier than the maximum weight.
+     */
+    private long rejectionCount;
+
+    /**
+     * Creates an LRU cache which holds at most the given number of entries.
+     *
+     * @param maximumSize maximum number of entries
+     * @throws IllegalArgumentException if the maximum size is less than 1
+     */
+    public BoundedCache(int maximumSize) {
+        this(maximumSize, EvictionPolicy.LRU);
+    }
+
+    /**
+     * Creates a cache with the given eviction policy which holds at most the given number of entries.
+     *
+     * @param maximumSize maximum number of entries
+     * @param policy      eviction policy
+     * @throws IllegalArgumentException if the maximum size is less than 1
+     * @throws NullPointerException     if the policy is null
+     */
+    public BoundedCache(int maximumSize, EvictionPolicy policy) {
+        this(maximumSize, (key, value) -> 1, policy);
+    }
+
+    /**
+     * Creates a cache with the given eviction policy whose entries weigh at most the given weight in total.
+     *
+     * @param maximumWeight maximum total weight of the entries
+     * @param weigher       weigher of the entries
+     * @param policy        eviction policy
+     * @throws IllegalArgumentException if the maximum weight is less than 1
+     * @throws NullPointerException     if the weigher or the policy is null
+     */
+    public BoundedCache(long maximumWeight, Weigher<? super K, ? super V> weigher, EvictionPolicy policy) {
+        if (maximumWeight < 1) {
+            throw new IllegalArgumentException("Maximum weight must be greater than 0.");
+        }
+        if (weigher == null) {
+            throw new NullPointerException("Weigher must not be null.");
+        }
+        if (policy == null) {
+            throw new NullPointerException("Eviction policy must not be null.");
+        }
+
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.policy = policy;
+        this.table = new SimpleHashtable<>();
+        if (policy == EvictionPolicy.W_TINY_LFU) {
+            this.windowMaximum = Math.max(1, maximumWeight * WINDOW_PERCENT / 100);
+            this.protectedMaximum = (maximumWeight - this.windowMaximum) * PROTECTED_PERCENT / 100;
+            this.sketch = new FrequencySketch((int) Math.min(maximumWeight, 1 << 18));
+        } else {
+            this.windowMaximum = maximumWeight;
+            this.protectedMaximum = 0;
+            this.sketch = null;
+        }
+    }
+
+    /**
+     * Sets the listener which is notified of evicted entries.
+     *
+     * @param evictionListener listener, or null to stop notifying
+     */
+    public void setEvictionListener(EvictionListener<? super K, ? super V> evictionListener) {
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * Returns the value of the given key and marks the entry as used.
+     *
+     * @param key key of the entry
+     * @return value of the entry, or null if the cache does not contain the key
+     */
+    public V get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        if (this.sketch != null) {
+            this.sketch.increment(key);
+        }
+
+        Node<K, V> node = this.table.get(key);
+        if (node == null) {
+            this.missCount++;
+            return null;
+        }
+        this.hitCount++;
+        this.onAccess(node);
+        return node.value;
+    }
+
+    /**
+     * Checks whether the cache contains the given key, without marking the entry as used or counting a lookup.
+     *
+     * @param key key of the entry
+     * @return true if the cache contains the key, false otherwise
+     */
+    public boolean containsKey(Object key) {
+        return this.table.containsKey(key);
+    }
+
+    /**
+     * Adds the entry with the given key and value, or replaces the value of the existing entry,
+     * and evicts entries until the cache is within its bound.
+     * <p>
+     * An entry which is heavier than the maximum weight is rejected: it is not cached, the previous entry
+     * with the same key is removed, and the eviction listener is not notified.
+     *
+     * @param key   key of the entry
+     * @param value value of the entry
+     * @return previous value of the entry, or null if the cache did not contain the key
+     * @throws NullPointerException     if the key or the value is null
+     * @throws IllegalArgumentException if the weigher returns a negative weight
+     */
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new NullPointerException("Key must not be null.");
+        }
+        if (value == null) {
+            throw new NullPointerException("Value must not be null.");
+        }
+        int weight = this.weigher.weigh(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must not be negative.");
+        }
+        if (this.sketch != null) {
+            this.sketch.increment(key);
+        }
+        if (weight > this.maximumWeight) {
+            this.rejectionCount++;
+            return this.remove(key);
+        }
+
+        Node<K, V> node = this.table.get(key);
+        V oldValue = null;
+        if (node == null) {
+            node = new Node<>(key, value, weight);
+            this.table.put(key, node);
+            this.window.addLast(node);
+        } else {
+            oldValue = node.value;
+            AccessOrderList<K, V> list = node.list;
+            list.remove(node);
+            node.value = value;
+            node.weight = weight;
+            list.addLast(node);
+            this.onAccess(node);
+        }
+        this.evict();
+        return oldValue;
+    }
+
+    /**
+     * Removes the entry with the given key. The eviction listener is not notified.
+     *
+     * @param key key of the entry
+     * @return value of the removed entry, or null if the cache did not contain the key
+     */
+    public V remove(Object key) {
+        Node<K, V> node = this.table.remove(key);
+        if (node == null) {
+            return null;
+        }
+        node.list.remove(node);
+        return node.value;
+    }
+
+    /**
+     * Removes all entries. The eviction listener is not notified and the statistics are kept.
+     */
+    public void clear() {
+        this.table.clear();
+        this.window.clear();
+        this.probation.clear();
+        this.protectedList.clear();
+        if (this.sketch != null) {
+            this.sketch.clear();
+        }
+    }
+
+    /**
+     * Moves the given node to the most recently used end of its list. With W-TinyLFU, a node of the
+     * probation segment is promoted to the protected segment, which demotes the least recently used
+     * protected nodes if the segment is full.
+     *
+     * @param node node which has been used
+     */
+    private void onAccess(Node<K, V> node) {
+        if (node.list != this.probation) {
+            node.list.moveToLast(node);
+            return;
+        }
+        this.probation.remove(node);
+        this.protectedList.addLast(node);
+        while (this.protectedList.weight > this.protectedMaximum && this.protectedList.first != node) {
+            Node<K, V> demoted = this.protectedList.first;
+            this.protectedList.remove(demoted);
+            this.probation.addLast(demoted);
+        }
+    }
+
+    /**
+     * Evicts entries until the cache is within its bound.
+     * <p>
+     * With W-TinyLFU, the nodes which overflow the window are candidates for the main part. A candidate replaces
+     * the least recently used nodes of the main part only while it is estimated to be used more often than them,
+     * otherwise the candidate is evicted.
+     */
+    private void evict() {
+        while (this.window.weight > this.windowMaximum) {
+            Node<K, V> candidate = this.window.first;
+            this.window.remove(candidate);
+            if (this.sketch == null) {
+                this.evicted(candidate);
+            } else {
+                this.admit(candidate);
+            }
+        }
+        // an update may have made the main part heavier
+        while (this.weight() > this.maximumWeight) {
+            AccessOrderList<K, V> list = this.probation.first != null ? this.probation
+                    : this.protectedList.first != null ? this.protectedList : this.window;
+            Node<K, V> victim = list.first;
+            list.remove(victim);
+            this.evicted(victim);
+        }
+    }
+
+    /**
+     * Adds the given candidate to the probation segment if it wins against the nodes it has to replace,
+     * otherwise evicts it.
+     *
+     * @param candidate node which has left the window
+     */
+    private void admit(Node<K, V> candidate) {
+        long mainMaximum = this.maximumWeight - this.windowMaximum;
+        if (candidate.weight > mainMaximum) {
+            this.evicted(candidate);
+            return;
+        }
+        int candidateFrequency = -1;
+        while (this.probation.weight + this.protectedList.weight + candidate.weight > mainMaximum) {
+            AccessOrderList<K, V> list = this.probation.first != null ? this.probation : this.protectedList;
+            Node<K, V> victim = list.first;
+            if (candidateFrequency < 0) {
+                candidateFrequency = this.sketch.frequency(candidate.key);
+            }
+            if (candidateFrequency <= this.sketch.frequency(victim.key)) {
+                this.evicted(candidate);
+                return;
+            }
+            list.remove(victim);
+            this.evicted(victim);
+        }
+        this.probation.addLast(candidate);
+    }
+
+    /**
+     * Removes the given node, which is not in any list any more, from the table and notifies the listener.
+     *
+     * @param node evicted node
+     */
+    private void evicted(Node<K, V> node) {
+        this.table.remove(node.key);
+        this.evictionCount++;
+        if (this.evictionListener != null) {
+            this.evictionListener.evicted(node.key, node.value);
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return number of entries
+     */
+    public int size() {
+        return this.table.size();
+    }
+
+    /**
+     * Checks whether the cache is empty.
+     *
+     * @return true if the cache has no entries, false otherwise
+     */
+    public boolean isEmpty() {
+        return this.table.isEmpty();
+    }
+
+    /**
+     * Returns the total weight of the entries.
+     *
+     * @return total weight
+     */
+    public long weight() {
+        return this.window.weight + this.probation.weight + this.protectedList.weight;
+    }
+
+    /**
+     * Returns the maximum total weight of the entries, which is the maximum number of entries
+     * if the cache is bounded by size.
+     *
+     * @return maximum weight
+     */
+    public long getMaximumWeight() {
+        return this.maximumWeight;
+    }
+
+    /**
+     * Returns the eviction policy.
+     *
+     * @return eviction policy
+     */
+    public EvictionPolicy getPolicy() {
+        return this.policy;
+    }
+
+    /**
+     * Returns the number of lookups which found an entry.
+     *
+     * @return number of hits
+     */
+    public long getHitCount() {
+        return this.hitCount;
+    }
+
+    /**
+     * Returns the number of lookups which did not find an entry.
+     *
+     * @return number of misses
+     */
+    public long getMissCount() {
+        return this.missCount;
+    }
+
+    /**
+     * Returns the number of evicted entries.
+     *
+     * @return number of evictions
+     */
+    public long getEvictionCount() {
+        return this.evictionCount;
+    }
+
+    /**
+     * Returns the number of entries which were not cached because they are heavier than the maximum weight.
+     *
+     * @return number of rejected entries
+     */
+    public long getRejectionCount() {
+        return this.rejectionCount;
+    }
+
+    /**
+     * Returns the fraction of lookups which found an entry.
+     *
+     * @return hit rate, or 0 if there have been no lookups
+     */
+    public double hitRate() {
+        long lookups = this.hitCount + this.missCount;
+        return lookups == 0 ? 0 : (double) this.hitCount / lookups;
+    }
+
+    /**
+     * Sets the counts of hits, misses, evictions and rejections to 0.
+     */
+    public void resetStatistics() {
+        this.hitCount = 0;
+        this.missCount = 0;
+        this.evictionCount = 0;
+        this.rejectionCount = 0;
+    }
+}
@@ -0,0 +1,433 @@
+package hr.fer.oprpp1.custom.collections;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+/**
+ * Collection of objects implemented as a circular array indexed list.
+ * <p>
+ * The elements are stored in a circular buffer which starts at an arbitrary position of the array,
+ * so inserting or removing at either end of the list does not shift the other elements.
+ * Inserting and removing in the middle shifts the elements on the shorter side of the position.
+ * <p>
+ * Duplicate elements are allowed.
+ * Storage of null references is not allowed.
+ *
+ * @param <T> type of elements stored in the collection
+ *
+ * @see List
+ * @see Collection
+ * @see ElementsGetter
+ * @see ArrayIndexedCollection
+ *
+ * @version 1.1
+ * @author Marko Šelendić
+ */
+public class CircularArrayIndexedCollection<T> implements List<T> {
+
+    /**
+     * Default capacity of the array.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Current number of elements stored in the array.
+     */
+    private int size;
+
+    /**
+     * Position of the first element in the array.
+     */
+    private int head;
+
+    /**
+     * Array of object references, the element at index i of the list is at position (head + i) % length.
+     * Duplicate references are allowed.
+     * Null references are NOT allowed.
+     */
+    private T[] elements;
+
+    /**
+     * Number of modifications made to the collection.
+     */
+    private long modificationCount = 0;
+
+    /**
+     * The last snapshot of the collection, null if no snapshot has been taken.
+     */
+    private PersistentVector<T> snapshot;
+
+    /**
+     * Number of modifications made to the collection when the last snapshot was taken.
+     */
+    private long snapshotModificationCount;
+
+    /**
+     * Creates an empty collection with default initial capacity.
+     */
+    public CircularArrayIndexedCollection() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty collection with the given initial capacity.
+     *
+     * @param initialCapacity initial capacity of the collection
+     * @throws IllegalArgumentException if initial capacity is less than 1
+     */
+    @SuppressWarnings("unchecked")
+    public CircularArrayIndexedCollection(int initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Initial capacity must be greater than 0.");
+        }
+
+        this.elements = (T[]) new Object[initialCapacity];
+    }
+
+    /**
+     * Creates a collection with the same elements as the given collection.
+     * The initial capacity of the collection is the default value or the size of the given collection,
+     * whichever is greater.
+     *
+     * @param other collection whose elements will be copied into this collection
+     * @throws NullPointerException if other collection is null
+     */
+    public CircularArrayIndexedCollection(Collection<? extends T> other) {
+        this(other, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a collection with the same elements as the given collection and with the given initial capacity.
+     * The initial capacity of the collection is the given capacity or the size of the given collection,
+     * whichever is greater.
+     *
+     * @param other collection whose elements will be copied into this collection
+     * @param initialCapacity initial capacity of the collection
+     * @throws NullPointerException if other collection is null
+     * @throws IllegalArgumentException if initial capacity is less than 1
+     */
+    public CircularArrayIndexedCollection(Collection<? extends T> other, int initialCapacity) {
+        this(Math.max(initialCapacity, other == null ? 0 : other.size()));
+        if (other == null) {
+            throw new NullPointerException("Other collection must not be null.");
+        }
+        this.addAll(other);
+    }
+
+    /**
+     * Returns the current capacity of the collection.
+     *
+     * @return current capacity of the collection
+     */
+    public int getCapacity() {
+        return this.elements.length;
+    }
+
+    /**
+     * Converts an index of the list into a position in the array.
+     *
+     * @param index index of the list, between 0 and capacity - 1
+     * @return position of the element in the array
+     */
+    private int position(int index) {
+        int position = this.head + index;
+        return position >= this.elements.length ? position - this.elements.length : position;
+    }
+
+    /**
+     * Doubles the capacity of the array if it is full.
+     * The elements are copied to the beginning of the new array.
+     */
+    @SuppressWarnings("unchecked")
+    private void growIfFull() {
+        if (this.size < this.elements.length) {
+            return;
+        }
+        T[] newElements = (T[]) new Object[this.elements.length * 2];
+        this.copyTo(newElements, 0);
+        this.elements = newElements;
+        this.head = 0;
+    }
+
+    /**
+     * Copies the elements in list order into the given array, starting from the given position.
+     *
+     * @param array    array into which the elements are copied
+     * @param position position of the first element in the array
+     */
+    private void copyTo(Object[] array, int position) {
+        int firstPart = Math.min(this.size, this.elements.length - this.head);
+        System.arraycopy(this.elements, this.head, array, position, firstPart);
+        System.arraycopy(this.elements, 0, array, position + firstPart, this.size - firstPart);
+    }
+
+    /**
+     * @see Collection#size()
+     */
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @see Collection#add(T)
+     * @throws NullPointerException if the value is null
+     */
+    @Override
+    public void add(T value) {
+        this.insert(value, this.size);
+    }
+
+    /**
+     * @see Collection#contains(Object)
+     */
+    @Override
+    public boolean contains(Object value) {
+        return this.indexOf(value) != -1;
+    }
+
+    /**
+     * Removes a single instance of the given value from this collection if it exists.
+     *
+     * @param value value to be removed from the collection
+     * @return true if the collection contains given value, false otherwise
+     */
+    @Override
+    public boolean remove(Object value) {
+        int index = this.indexOf(value);
+        if (index == -1) {
+            return false;
+        }
+
+        this.remove(index);
+        return true;
+    }
+
+    /**
+     * @see Collection#toArray()
+     */
+    @Override
+    public Object[] toArray() {
+        Object[] array = new Object[this.size];
+        this.copyTo(array, 0);
+        return array;
+    }
+
+    /**
+     * @see Collection#toArray(T[])
+     * @throws NullPointerException if the given array is null
+     * @throws ArrayStoreException if an element copied from this collection is not of a runtime type
+     *                             that can be stored in the new array
+     */
+    @Override
+    public T[] toArray(T[] a) {
+        if (a == null) {
+            throw new NullPointerException("Given array must not be null.");
+        }
+        if (a.length < this.size) {
+            a = Arrays.copyOf(a, this.size);
+        }
+        this.copyTo(a, 0);
+        if (a.length > this.size) {
+            a[this.size] = null;
+        }
+        return a;
+    }
+
+    /**
+     * @see List#get(int)
+     */
+    @Override
+    public T get(int index) {
+        if (index < 0 || index > this.size - 1) {
+            throw new IndexOutOfBoundsException("Index must be between 0 and size-1.");
+        }
+
+        return this.elements[this.position(index)];
+    }
+
+    /**
+     * @see Collection#clear()
+     */
+    @Override
+    public void clear() {
+        int firstPart = Math.min(this.size, this.elements.length - this.head);
+        Arrays.fill(this.elements, this.head, this.head + firstPart, null);
+        Arrays.fill(this.elements, 0, this.size - firstPart, null);
+        this.size = 0;
+        this.head = 0;
+        modificationCount++;
+    }
+
+    /**
+     * Inserts the given value at the given position.
+     * <p>
+     * The elements before the position are shifted one place down if they are fewer than the elements after it,
+     * otherwise the elements after the position are shifted one place up.
+     * Inserting at the beginning or the end of the list takes amortised constant time.
+     *
+     * @see List#insert(T, int)
+     */
+    @Override
+    public void insert(T value, int position) {
+        if (value == null) {
+            throw new NullPointerException("Value must not be null.");
+        }
+
+        if (position < 0 || position > this.size) {
+            throw new IndexOutOfBoundsException("Position must be between 0 and size.");
+        }
+
+        this.growIfFull();
+
+        if (position < this.size - position) {
+            // move the head one place down and shift the elements before the position
+            this.head = this.head == 0 ? this.elements.length - 1 : this.head - 1;
+            for (int i = 0; i < position; i++) {
+                this.elements[this.position(i)] = this.elements[this.position(i + 1)];
+            }
+        } else {
+            for (int i = this.size; i > position; i--) {
+                this.elements[this.position(i)] = this.elements[this.position(i - 1)];
+            }
+        }
+
+        this.elements[this.position(position)] = value;
+        this.size++;
+        modificationCount++;
+    }
+
+    /**
+     * Returns an immutable copy of the current elements of this collection.
+     * <p>
+     * The previous snapshot is returned if the collection has not been modified since it was taken,
+     * so repeated snapshots of an unchanged collection do not copy it.
+     *
+     * @see Collection#snapshot()
+     */
+    @Override
+    public PersistentVector<T> snapshot() {
+        if (this.snapshot == null || this.snapshotModificationCount != this.modificationCount) {
+            this.snapshot = PersistentVector.of(this);
+            this.snapshotModificationCount = this.modificationCount;
+        }
+        return this.snapshot;
+    }
+
+    /**
+     * @see List#indexOf(Object)
+     */
+    @Override
+    public int indexOf(Object value) {
+        if (value == null) {
+            return -1;
+        }
+
+        for (int i = 0; i < this.size; i++) {
+            if (this.elements[this.position(i)].equals(value)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Removes the element at the given index.
+     * <p>
+     * The shorter side of the list is shifted to close the gap,
+     * so removing at the beginning or the end of the list takes constant time.
+     *
+     * @see List#remove(int)
+     */
+    @Override
+    public void remove(int index) {
+        if (index < 0 || index > this.size - 1) {
+            throw new IndexOutOfBoundsException("Index must be between 0 and size-1.");
+        }
+
+        if (index < this.size - 1 - index) {
+            // shift the elements before the index one place up and move the head
+            for (int i = index; i > 0; i--) {
+                this.elements[this.position(i)] = this.elements[this.position(i - 1)];
+            }
+            this.elements[this.head] = null;
+            this.head = this.position(1);
+        } else {
+            for (int i = index; i < this.size - 1; i++) {
+                this.elements[this.position(i)] = this.elements[this.position(i + 1)];
+            }
+            this.elements[this.position(this.size - 1)] = null;
+        }
+
+        this.size--;
+        modificationCount++;
+    }
+
+    /**
+     * Implementation of the ElementsGetter interface for the CircularArrayIndexedCollection class.
+     */
+    private static class CircularElementsGetter<T> implements ElementsGetter<T> {
+        /**
+         * Collection whose elements ElementsGetter will be getting.
+         */
+        private final CircularArrayIndexedCollection<T> collection;
+
+        /**
+         * Current index ElementsGetter has reached in the collection.
+         */
+        private int index;
+
+        /**
+         * Number of modifications made to the collection when this ElementsGetter was created.
+         */
+        private final long savedModificationCount;
+
+        /**
+         * Creates a new instance of CircularElementsGetter.
+         *
+         * @param collection collection whose elements ElementsGetter will be getting
+         */
+        private CircularElementsGetter(CircularArrayIndexedCollection<T> collection) {
+            this.collection = collection;
+            this.index = 0;
+            this.savedModificationCount = collection.modificationCount;
+        }
+
+        /**
+         * @see ElementsGetter#hasNextElement()
+         * @throws ConcurrentModificationException if the collection has been modified after ElementsGetter was created
+         */
+        @Override
+        public boolean hasNextElement() {
+            if (this.savedModificationCount != this.collection.modificationCount) {
+                throw new ConcurrentModificationException("The collection has been modified.");
+            }
+            return this.index < this.collection.size;
+        }
+
+        /**
+         * @see ElementsGetter#getNextElement()
+         * @throws ConcurrentModificationException if the collection has been modified after ElementsGetter was created
+         */
+        @Override
+        public T getNextElement() {
+            if (!this.hasNextElement()) {
+                throw new NoSuchElementException("The collection has no more elements.");
+            }
+
+            return this.collection.elements[this.collection.position(this.index++)];
+        }
+    }
+
+    /**
+     * Creates and returns a new instance of CircularElementsGetter.
+     *
+     * @return new instance of CircularElementsGetter
+     */
+    @Override
+    public ElementsGetter<T> createElementsGetter() {
+        return new CircularElementsGetter<>(this);
+    }
+}
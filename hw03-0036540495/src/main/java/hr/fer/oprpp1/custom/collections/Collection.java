@@ -9,7 +9,7 @@ package hr.fer.oprpp1.custom.collections;
  *
  * @see ArrayIndexedCollection
  * @see LinkedListIndexedCollection
- * @version 3.0
+ * @version 3.3
  * @author Marko Šelendić
  */
 public interface Collection<T> {
@@ -75,19 +75,19 @@ public interface Collection<T> {
 
     /**
      * Calls processor.process(.) for each element of this collection.
+     * <p>
+     * The elements are passed to {@link ElementsGetter#processRemaining(Processor)} of a new ElementsGetter,
+     * so collections whose getters walk their storage directly use that for forEach as well.
      *
      * @param processor processor whose method process(.) is called for each element of this collection
      * @throws NullPointerException if the given processor is null
      */
-   default void forEach(Processor<? super T> processor) {
-       if (processor == null) {
-           throw new NullPointerException("Processor must not be null.");
-       }
-        ElementsGetter<T> getter = this.createElementsGetter();
-        while (getter.hasNextElement()) {
-            processor.process(getter.getNextElement());
+    default void forEach(Processor<? super T> processor) {
+        if (processor == null) {
+            throw new NullPointerException("Processor must not be null.");
         }
-   }
+        this.createElementsGetter().processRemaining(processor);
+    }
 
     /**
      * Adds all elements from the given collection to this collection.
@@ -116,6 +116,65 @@ public interface Collection<T> {
      */
     ElementsGetter<T> createElementsGetter();
 
+    /**
+     * Creates a new SplittableElementsGetter for this collection.
+     * <p>
+     * The default implementation splits off batches of elements read from {@link #createElementsGetter()}.
+     *
+     * @return new SplittableElementsGetter for this collection
+     */
+    default SplittableElementsGetter<T> createSplittableElementsGetter() {
+        return new BatchingElementsGetter<>(this.createElementsGetter(), this.size());
+    }
+
+    /**
+     * Calls processor.process(.) for each element of this collection, using all threads of the common
+     * {@link java.util.concurrent.ForkJoinPool}.
+     * <p>
+     * The elements are processed in no particular order, so the processor must be thread-safe.
+     * The collection must not be modified while the elements are processed.
+     *
+     * @param processor processor whose method process(.) is called for each element of this collection
+     * @throws NullPointerException if the given processor is null
+     */
+    default void parallelForEach(Processor<? super T> processor) {
+        if (processor == null) {
+            throw new NullPointerException("Processor must not be null.");
+        }
+        ParallelProcessing.forEach(this.createSplittableElementsGetter(), processor);
+    }
+
+    /**
+     * Adds all elements of this collection which satisfy the condition of the given tester to the given collection.
+     * <p>
+     * The elements are tested in parallel, using all threads of the common {@link java.util.concurrent.ForkJoinPool},
+     * so the tester must be thread-safe. The satisfying elements are added to the given collection
+     * by the calling thread, in the order of this collection.
+     *
+     * @param tester tester whose test method is called for each element of this collection
+     * @param target collection to which the satisfying elements are added
+     * @throws NullPointerException if the given tester or collection is null
+     */
+    default void parallelFilterInto(Tester<? super T> tester, Collection<? super T> target) {
+        if (tester == null || target == null) {
+            throw new NullPointerException("Tester and target collection must not be null.");
+        }
+        ParallelProcessing.filterInto(this.createSplittableElementsGetter(), tester, target);
+    }
+
+    /**
+     * Returns an immutable copy of the current elements of this collection, in the order of its ElementsGetter.
+     * <p>
+     * Later changes of this collection do not affect the returned vector, so it can be handed to readers
+     * instead of the array returned by {@link #toArray()}. The default implementation copies all elements,
+     * collections which can reuse their previous snapshot override it.
+     *
+     * @return persistent vector with the elements of this collection
+     */
+    default PersistentVector<T> snapshot() {
+        return PersistentVector.of(this);
+    }
+
     /**
      * Adds all elements which satisfy the condition of the given tester from the given collection to this collection.
      * @param col    collection whose elements are being added to this collection
@@ -0,0 +1,64 @@
+package hr.fer.oprpp1.custom.collections;
+
+/**
+ * A hook which is notified of the operations of a collection, so they can be counted in production.
+ * <p>
+ * A collection has no metrics by default, in which case every notification costs a single null check.
+ * Metrics are installed with {@code setMetrics}, and one instance may be shared by many collections,
+ * so implementations must be thread-safe.
+ *
+ * @see CollectionMetricsRecorder
+ * @see ArrayIndexedCollection#setMetrics(CollectionMetrics)
+ * @see LinkedListIndexedCollection#setMetrics(CollectionMetrics)
+ * @see SimpleHashtable#setMetrics(CollectionMetrics)
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public interface CollectionMetrics {
+
+    /**
+     * Kinds of operations which are counted.
+     */
+    enum Operation {
+        /** Adding an element to the end of a collection or putting an entry into a hash table. */
+        ADD,
+        /** Inserting elements at a position of a list. */
+        INSERT,
+        /** Getting an element by its index or a value by its key. */
+        GET,
+        /** Searching for an element, a key or a value. */
+        SEARCH,
+        /** Removing elements or entries. */
+        REMOVE,
+        /** Removing all elements or entries. */
+        CLEAR
+    }
+
+    /**
+     * Called once for every operation of the given kind.
+     *
+     * @param operation kind of the operation
+     */
+    void operation(Operation operation);
+
+    /**
+     * Called when the storage of a collection grows.
+     *
+     * @param oldCapacity capacity before the resize
+     * @param newCapacity capacity after the resize
+     */
+    void resized(int oldCapacity, int newCapacity);
+
+    /**
+     * Called when a hash table has looked up a key in a slot.
+     *
+     * @param length number of entries whose keys were compared
+     */
+    void probed(int length);
+
+    /**
+     * Called when an iterator or an elements getter fails because the collection has been modified.
+     */
+    void concurrentModification();
+}
@@ -0,0 +1,298 @@
+package hr.fer.oprpp1.custom.collections;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collection metrics which count the notifications and export the counts as a JMX MBean.
+ * <p>
+ * Counts are kept in {@link LongAdder}s, so a recorder can be shared by collections used from many threads
+ * without the threads contending for one counter.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public class CollectionMetricsRecorder implements CollectionMetrics, CollectionMetricsRecorderMBean {
+
+    /**
+     * Domain of the object names under which recorders are registered.
+     */
+    public static final String DOMAIN = "hr.fer.oprpp1.custom.collections";
+
+    /**
+     * Number of buckets of the probe length histogram, the last one counts all longer probes.
+     */
+    private static final int HISTOGRAM_SIZE = 17;
+
+    /**
+     * Counts of operations, indexed by the ordinal of the operation.
+     */
+    private final LongAdder[] operationCounts = new LongAdder[Operation.values().length];
+
+    /**
+     * Number of resizes.
+     */
+    private final LongAdder resizeCount = new LongAdder();
+
+    /**
+     * Old and new capacity of the last resize, packed into one value so they are always read together.
+     */
+    private volatile long lastResize;
+
+    /**
+     * Number of probes.
+     */
+    private final LongAdder probeCount = new LongAdder();
+
+    /**
+     * Sum of the lengths of all probes.
+     */
+    private final LongAdder probeLengthSum = new LongAdder();
+
+    /**
+     * Greatest probe length.
+     */
+    private final LongAccumulator maxProbeLength = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Numbers of probes of every length.
+     */
+    private final AtomicLongArray probeLengthHistogram = new AtomicLongArray(HISTOGRAM_SIZE);
+
+    /**
+     * Number of concurrent modification failures.
+     */
+    private final LongAdder concurrentModificationCount = new LongAdder();
+
+    /**
+     * Creates a recorder with all counts set to 0.
+     */
+    public CollectionMetricsRecorder() {
+        for (int i = 0; i < this.operationCounts.length; i++) {
+            this.operationCounts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Registers this recorder with the platform MBean server.
+     *
+     * @param name value of the name key of the object name, e.g. the name of the monitored collection
+     * @return object name under which the recorder is registered
+     * @throws NullPointerException if the name is null
+     * @throws JMException          if the name is not valid or is already registered
+     */
+    public ObjectName register(String name) throws JMException {
+        if (name == null) {
+            throw new NullPointerException("Name must not be null.");
+        }
+        ObjectName objectName = new ObjectName(DOMAIN + ":type=CollectionMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * @see CollectionMetrics#operation(Operation)
+     */
+    @Override
+    public void operation(Operation operation) {
+        this.operationCounts[operation.ordinal()].increment();
+    }
+
+    /**
+     * @see CollectionMetrics#resized(int, int)
+     */
+    @Override
+    public void resized(int oldCapacity, int newCapacity) {
+        this.resizeCount.increment();
+        this.lastResize = (long) oldCapacity << 32 | newCapacity & 0xFFFFFFFFL;
+    }
+
+    /**
+     * @see CollectionMetrics#probed(int)
+     */
+    @Override
+    public void probed(int length) {
+        this.probeCount.increment();
+        this.probeLengthSum.add(length);
+        this.maxProbeLength.accumulate(length);
+        this.probeLengthHistogram.incrementAndGet(Math.min(length, HISTOGRAM_SIZE - 1));
+    }
+
+    /**
+     * @see CollectionMetrics#concurrentModification()
+     */
+    @Override
+    public void concurrentModification() {
+        this.concurrentModificationCount.increment();
+    }
+
+    /**
+     * Returns the number of operations of the given kind.
+     *
+     * @param operation kind of the operations
+     * @return number of operations
+     */
+    public long getCount(Operation operation) {
+        return this.operationCounts[operation.ordinal()].sum();
+    }
+
+    /**
+     * @see CollectionMetricsRecorderMBean#getAddCount()
+     */
+    @Override
+    public long getAddCount() {
+        return this.getCount(Operation.ADD);
+    }
+
+    /**
+     * @see CollectionMetricsRecorderMBean#getInsertCount()
+     */
+    @Override
+    public long getInsertCount() {
+        return this.getCount(Operation.INSERT);
+    }
+
+    /**
+     * @see CollectionMetricsRecorderMBean#getGetCount()
+     */
+    @Override
+    public long getGetCount() {
+        return this.getCount(Operation.GET);
+    }
+
+    /**
+     * @see CollectionMetricsRecorderMBean#getSearchCount()
+     */
+    @Override
+    public long getSearchCount() {
+        return this.getCount(Operation.SEARCH);
+    }
+
+    /**
+     * @see CollectionMetricsRecorderMBean#getRemoveCount()
+     */
+    @Override
+    public long getRemoveCount() {
+        return this.getCount(Operation.REMOVE);
+    }
+
+    /**
+     * @see CollectionMetricsRecorderMBean#getClearCount()
+     */
+    @Override
+    public long getClearCount() {
+        return this.getCount(Operation.CLEAR);
+    }
+
+    /**
+     * @see CollectionMetricsRecorderMBean#getResizeCount()
+     */
+    @Override
+    public long getResizeCount() {
+        return this.resizeCount.sum();
+    }
+
+    /**
+     * @see CollectionMetricsRecorderMBean#getLastResizeOldCapacity()
+     */
+    @Override
+    public int getLastResizeOldCapacity() {
+        return (int) (this.lastResize >>> 32);
+    }
+
+    /**
+     * @see CollectionMetricsRecorderMBean#getLastResizeNewCapacity()
+     */
+    @Override
+    public int getLastResizeNewCapacity() {
+        return (int) this.lastResize;
+    }
+
+    /**
+     * @see CollectionMetricsRecorderMBean#getProbeCount()
+     */
+    @Override
+    public long getProbeCount() {
+        return this.probeCount.sum();
+    }
+
+    /**
+     * @see CollectionMetricsRecorderMBean#getAverageProbeLength()
+     */
+    @Override
+    public double getAverageProbeLength() {
+        long count = this.probeCount.sum();
+        return count == 0 ? 0 : (double) this.probeLengthSum.sum() / count;
+    }
+
+    /**
+     * @see CollectionMetricsRecorderMBean#getMaxProbeLength()
+     */
+    @Override
+    public long getMaxProbeLength() {
+        return this.maxProbeLength.get();
+    }
+
+    /**
+     * @see CollectionMetricsRecorderMBean#getProbeLengthHistogram()
+     */
+    @Override
+    public long[] getProbeLengthHistogram() {
+        long[] histogram = new long[HISTOGRAM_SIZE];
+        for (int i = 0; i < HISTOGRAM_SIZE; i++) {
+            histogram[i] = this.probeLengthHistogram.get(i);
+        }
+        return histogram;
+    }
+
+    /**
+     * @see CollectionMetricsRecorderMBean#getConcurrentModificationCount()
+     */
+    @Override
+    public long getConcurrentModificationCount() {
+        return this.concurrentModificationCount.sum();
+    }
+
+    /**
+     * Sets all counts to 0.
+     * <p>
+     * Notifications which arrive during the reset may be lost.
+     */
+    @Override
+    public void reset() {
+        for (LongAdder count : this.operationCounts) {
+            count.reset();
+        }
+        this.resizeCount.reset();
+        this.lastResize = 0;
+        this.probeCount.reset();
+        this.probeLengthSum.reset();
+        this.maxProbeLength.reset();
+        for (int i = 0; i < HISTOGRAM_SIZE; i++) {
+            this.probeLengthHistogram.set(i, 0);
+        }
+        this.concurrentModificationCount.reset();
+    }
+
+    /**
+     * Returns the counts in a readable form.
+     *
+     * @return string with the counts of the recorder
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CollectionMetrics[");
+        for (Operation operation : Operation.values()) {
+            sb.append(operation.name().toLowerCase()).append('=').append(this.getCount(operation)).append(", ");
+        }
+        return sb.append("resizes=").append(this.getResizeCount())
+                .append(", probes=").append(this.getProbeCount())
+                .append(", maxProbeLength=").append(this.getMaxProbeLength())
+                .append(", concurrentModifications=").append(this.getConcurrentModificationCount())
+                .append(']').toString();
+    }
+}
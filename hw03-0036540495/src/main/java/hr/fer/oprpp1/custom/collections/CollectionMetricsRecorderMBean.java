@@ -0,0 +1,113 @@
+package hr.fer.oprpp1.custom.collections;
+
+/**
+ * The management interface of {@link CollectionMetricsRecorder}, through which its counts are exported by JMX.
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public interface CollectionMetricsRecorderMBean {
+
+    /**
+     * Returns the number of add and put operations.
+     *
+     * @return number of {@link CollectionMetrics.Operation#ADD} operations
+     */
+    long getAddCount();
+
+    /**
+     * Returns the number of insert operations.
+     *
+     * @return number of {@link CollectionMetrics.Operation#INSERT} operations
+     */
+    long getInsertCount();
+
+    /**
+     * Returns the number of get operations.
+     *
+     * @return number of {@link CollectionMetrics.Operation#GET} operations
+     */
+    long getGetCount();
+
+    /**
+     * Returns the number of searches.
+     *
+     * @return number of {@link CollectionMetrics.Operation#SEARCH} operations
+     */
+    long getSearchCount();
+
+    /**
+     * Returns the number of remove operations.
+     *
+     * @return number of {@link CollectionMetrics.Operation#REMOVE} operations
+     */
+    long getRemoveCount();
+
+    /**
+     * Returns the number of clear operations.
+     *
+     * @return number of {@link CollectionMetrics.Operation#CLEAR} operations
+     */
+    long getClearCount();
+
+    /**
+     * Returns the number of resizes.
+     *
+     * @return number of resizes
+     */
+    long getResizeCount();
+
+    /**
+     * Returns the capacity before the last resize.
+     *
+     * @return old capacity of the last resize, or 0 if there has been none
+     */
+    int getLastResizeOldCapacity();
+
+    /**
+     * Returns the capacity after the last resize.
+     *
+     * @return new capacity of the last resize, or 0 if there has been none
+     */
+    int getLastResizeNewCapacity();
+
+    /**
+     * Returns the number of key lookups in hash table slots.
+     *
+     * @return number of probes
+     */
+    long getProbeCount();
+
+    /**
+     * Returns the average number of entries compared by a lookup.
+     *
+     * @return average probe length, or 0 if there have been no probes
+     */
+    double getAverageProbeLength();
+
+    /**
+     * Returns the greatest number of entries compared by a lookup.
+     *
+     * @return maximal probe length
+     */
+    long getMaxProbeLength();
+
+    /**
+     * Returns the number of probes of every length.
+     *
+     * @return array whose element i is the number of probes of length i, the last element counts all longer probes
+     */
+    long[] getProbeLengthHistogram();
+
+    /**
+     * Returns the number of iterations which failed with a {@link java.util.ConcurrentModificationException}.
+     *
+     * @return number of concurrent modification failures
+     */
+    long getConcurrentModificationCount();
+
+    /**
+     * Sets all counts to 0.
+     */
+    void reset();
+}
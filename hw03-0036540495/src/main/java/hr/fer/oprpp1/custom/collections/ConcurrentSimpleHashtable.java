@@ -0,0 +1,647 @@
+package hr.fer.oprpp1.custom.collections;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class represents a hash table which can be shared between threads.
+ * <p>
+ * The table is split into segments, each of which is a small chained hash table guarded by its own lock
+ * (lock striping). Only {@code put}, {@code remove} and {@code clear} take a lock and only of the segments
+ * they change, so writers to different segments do not block each other.
+ * <p>
+ * Reads never take a lock. Chains are never changed in place: a removal copies the entries in front of the
+ * removed one and a resize builds a new bucket array of the segment, which is then published with a single
+ * volatile write. A reader therefore always walks a consistent chain, also while the segment is being resized.
+ * New chain heads are written into the bucket array with release semantics and read with acquire semantics,
+ * so a reader which reaches a new entry also sees its key and value.
+ * <p>
+ * Iteration is weakly consistent: the iterator never throws {@link java.util.ConcurrentModificationException},
+ * returns every entry which existed when the iteration started and was not removed in the meantime at most once,
+ * and may or may not return entries which were added after it was created.
+ *
+ * @param <K> key
+ * @param <V> value
+ *
+ * @see SimpleHashtable
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public class ConcurrentSimpleHashtable<K,V> implements Iterable<SimpleHashtable.TableEntry<K,V>> {
+
+    /**
+     * Default capacity of the hash table.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Default number of segments, i.e. the number of writers which can work without blocking each other.
+     */
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    /**
+     * Maximum ratio of entries to buckets of a segment before the segment is resized.
+     */
+    private static final double LOAD_FACTOR = 0.75;
+
+    /**
+     * Handle for release writes and acquire reads of the elements of a bucket array.
+     */
+    private static final VarHandle BUCKETS = MethodHandles.arrayElementVarHandle(Node[].class);
+
+    /**
+     * Segments of the table.
+     */
+    private final Segment<K,V>[] segments;
+
+    /**
+     * Number of bits by which a spread hash is shifted to get the index of its segment.
+     */
+    private final int segmentShift;
+
+    /**
+     * Constructs a new hash table with the default capacity (16) and concurrency level (16).
+     */
+    public ConcurrentSimpleHashtable() {
+        this(DEFAULT_CAPACITY, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Constructs a new hash table with the given capacity and the default concurrency level (16).
+     *
+     * @param capacity capacity of the hash table
+     *
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    public ConcurrentSimpleHashtable(int capacity) {
+        this(capacity, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Constructs a new hash table with the given capacity and concurrency level.
+     * <p>
+     * The number of segments is the first power of 2 that is greater than or equal to the concurrency level,
+     * and the capacity is split evenly among them (every segment has at least one bucket).
+     *
+     * @param capacity         capacity of the hash table
+     * @param concurrencyLevel expected number of threads which change the table at the same time
+     *
+     * @throws IllegalArgumentException if the capacity or the concurrency level is less than 1
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentSimpleHashtable(int capacity, int concurrencyLevel) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        }
+        if (concurrencyLevel < 1) {
+            throw new IllegalArgumentException("Concurrency level must be greater than 0");
+        }
+        int segmentCount = ceilingPowerOfTwo(Math.min(concurrencyLevel, 1 << 16));
+        segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+        int segmentCapacity = ceilingPowerOfTwo(Math.max(1, (capacity + segmentCount - 1) / segmentCount));
+        segments = (Segment<K,V>[]) new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+    }
+
+    /**
+     * Returns the first power of 2 that is greater than or equal to the given positive number.
+     *
+     * @param n positive number
+     * @return first power of 2 that is greater than or equal to n
+     */
+    private static int ceilingPowerOfTwo(int n) {
+        return n == 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    /**
+     * Mixes the bits of the hash code of the given key.
+     * <p>
+     * The high bits select the segment and the low bits select the bucket, so both have to be well distributed.
+     *
+     * @param key key, must not be null
+     * @return spread hash of the key
+     */
+    private static int spread(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Reads the head of the chain in the given bucket with acquire semantics.
+     *
+     * @param table bucket array
+     * @param index index of the bucket
+     * @return head of the chain, or null if the bucket is empty
+     */
+    @SuppressWarnings("unchecked")
+    private static <K,V> Node<K,V> bucketAt(Node<K,V>[] table, int index) {
+        return (Node<K,V>) BUCKETS.getAcquire(table, index);
+    }
+
+    /**
+     * Writes the head of the chain in the given bucket with release semantics, so that a reader which
+     * reads it with {@link #bucketAt(Node[], int)} also sees all writes made before, such as the fields of the node.
+     *
+     * @param table bucket array
+     * @param index index of the bucket
+     * @param head  new head of the chain, may be null
+     */
+    private static <K,V> void setBucketAt(Node<K,V>[] table, int index, Node<K,V> head) {
+        BUCKETS.setRelease(table, index, head);
+    }
+
+    /**
+     * Returns the segment which is responsible for the given hash.
+     *
+     * @param hash spread hash
+     * @return segment of the hash
+     */
+    private Segment<K,V> segmentFor(int hash) {
+        // with a single segment the shift is 32, which Java treats as 0, so the mask is needed
+        return segments[(hash >>> segmentShift) & (segments.length - 1)];
+    }
+
+    /**
+     * Returns the number of entries in the hash table.
+     * <p>
+     * While other threads change the table, the result is only an estimate.
+     *
+     * @return number of entries in the hash table
+     */
+    public int size() {
+        long size = 0;
+        for (Segment<K,V> segment : segments) {
+            size += segment.count;
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Checks if the hash table is empty.
+     *
+     * @return true if the hash table is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        for (Segment<K,V> segment : segments) {
+            if (segment.count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the capacity of the hash table, i.e. the total number of buckets of all segments.
+     *
+     * @return capacity of the hash table
+     */
+    public int capacity() {
+        int capacity = 0;
+        for (Segment<K,V> segment : segments) {
+            capacity += segment.table.length;
+        }
+        return capacity;
+    }
+
+    /**
+     * Adds the entry with the given key and value to the hash table.
+     * <p>
+     * If the entry with the given key already exists, the value of the entry is overwritten with the given value.
+     *
+     * @param key   key of the entry
+     * @param value value of the entry
+     * @return value of the overwritten entry or null if a new entry is added
+     *
+     * @throws NullPointerException if the key is null
+     */
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new NullPointerException("Key must not be null");
+        }
+        int hash = spread(key);
+        return segmentFor(hash).put(key, hash, value);
+    }
+
+    /**
+     * Returns the value of the entry with the given key.
+     *
+     * @param key key of the entry
+     * @return value of the entry or null if the entry does not exist
+     */
+    public V get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        int hash = spread(key);
+        Node<K,V> node = segmentFor(hash).find(key, hash);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Checks if the hash table contains the entry with the given key.
+     *
+     * @param key key of the entry
+     * @return true if the hash table contains the entry with the given key, false otherwise
+     */
+    public boolean containsKey(Object key) {
+        if (key == null) {
+            return false;
+        }
+        int hash = spread(key);
+        return segmentFor(hash).find(key, hash) != null;
+    }
+
+    /**
+     * Checks if the hash table contains the entry with the given value.
+     *
+     * @param value value of the entry
+     * @return true if the hash table contains the entry with the given value, false otherwise
+     */
+    public boolean containsValue(Object value) {
+        if (value == null) {
+            return false;
+        }
+        for (Segment<K,V> segment : segments) {
+            Node<K,V>[] tab = segment.table;
+            for (int i = 0; i < tab.length; i++) {
+                for (Node<K,V> node = bucketAt(tab, i); node != null; node = node.next) {
+                    if (value.equals(node.value)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the entry with the given key from the hash table and returns its value.
+     *
+     * @param key key of the entry
+     * @return value of the entry or null if the entry does not exist
+     */
+    public V remove(Object key) {
+        if (key == null) {
+            return null;
+        }
+        int hash = spread(key);
+        return segmentFor(hash).remove(key, hash);
+    }
+
+    /**
+     * Clears the hash table.
+     * <p>
+     * The segments are cleared one after another, so entries added by other threads
+     * during this call may remain in the table.
+     */
+    public void clear() {
+        for (Segment<K,V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Returns the string representation of the hash table.
+     *
+     * @return string representation of the hash table
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (SimpleHashtable.TableEntry<K,V> entry : this) {
+            sb.append(entry.getKey()).append("=").append(entry.getValue()).append(", ");
+        }
+        // remove the last comma and space
+        if (sb.length() > 1) {
+            sb.delete(sb.length() - 2, sb.length());
+        }
+        return sb.append("]").toString();
+    }
+
+    /**
+     * Returns a weakly consistent iterator for the hash table.
+     * <p>
+     * The entries returned by the iterator are snapshots; {@link SimpleHashtable.TableEntry#setValue(Object)}
+     * puts the new value into the table.
+     *
+     * @return iterator for the hash table
+     */
+    @Override
+    public Iterator<SimpleHashtable.TableEntry<K,V>> iterator() {
+        return new IteratorImpl();
+    }
+
+    /**
+     * This class models a single entry of a segment.
+     * <p>
+     * Everything except the value is final, so a chain which a reader has reached never changes under it.
+     */
+    private static class Node<K,V> {
+        /**
+         * Spread hash of the key.
+         */
+        final int hash;
+
+        /**
+         * Key of the entry.
+         */
+        final K key;
+
+        /**
+         * Value of the entry.
+         */
+        volatile V value;
+
+        /**
+         * Reference to the next entry.
+         */
+        final Node<K,V> next;
+
+        /**
+         * Constructor for the Node.
+         *
+         * @param hash  spread hash of the key
+         * @param key   key of the entry
+         * @param value value of the entry
+         * @param next  reference to the next entry
+         */
+        Node(int hash, K key, V value, Node<K,V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /**
+     * This class models a segment: a chained hash table guarded by its own lock.
+     * <p>
+     * The bucket array is replaced as a whole on resize and the buckets are only changed under the lock,
+     * by writing a new chain head into the array with release semantics. Readers read the chain heads with
+     * acquire semantics, so a reader which finds a new node also sees its fields. The volatile {@link #count}
+     * is only used for the size and to skip empty segments.
+     */
+    private static class Segment<K,V> extends ReentrantLock {
+        /**
+         * Serialization version of the segment.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Buckets of the segment.
+         */
+        volatile Node<K,V>[] table;
+
+        /**
+         * Number of entries in the segment.
+         */
+        volatile int count;
+
+        /**
+         * Constructs a new segment with the given number of buckets.
+         *
+         * @param capacity number of buckets, must be a power of 2
+         */
+        @SuppressWarnings("unchecked")
+        Segment(int capacity) {
+            table = (Node<K,V>[]) new Node[capacity];
+        }
+
+        /**
+         * Returns the node with the given key without locking.
+         *
+         * @param key  key of the entry
+         * @param hash spread hash of the key
+         * @return node with the given key or null if the entry does not exist
+         */
+        Node<K,V> find(Object key, int hash) {
+            if (count == 0) {
+                return null;
+            }
+            Node<K,V>[] tab = table;
+            for (Node<K,V> node = bucketAt(tab, hash & (tab.length - 1)); node != null; node = node.next) {
+                if (node.hash == hash && node.key.equals(key)) {
+                    return node;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Adds or overwrites the entry with the given key.
+         *
+         * @param key   key of the entry
+         * @param hash  spread hash of the key
+         * @param value value of the entry
+         * @return value of the overwritten entry or null if a new entry is added
+         */
+        V put(K key, int hash, V value) {
+            lock();
+            try {
+                Node<K,V>[] tab = table;
+                int slot = hash & (tab.length - 1);
+                for (Node<K,V> node = tab[slot]; node != null; node = node.next) {
+                    if (node.hash == hash && node.key.equals(key)) {
+                        V oldValue = node.value;
+                        node.value = value;
+                        return oldValue;
+                    }
+                }
+                if (count + 1 > tab.length * LOAD_FACTOR) {
+                    tab = resize();
+                    slot = hash & (tab.length - 1);
+                }
+                // a new entry is always added to the head of the chain, so the rest of the chain is untouched
+                setBucketAt(tab, slot, new Node<>(hash, key, value, tab[slot]));
+                count = count + 1;
+                return null;
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Doubles the number of buckets of the segment.
+         * <p>
+         * Must be called while holding the lock. The new array is filled completely before it is published,
+         * and the nodes of the old array are copied rather than relinked, so readers which still walk
+         * the old array see unchanged chains.
+         *
+         * @return new bucket array
+         */
+        @SuppressWarnings("unchecked")
+        private Node<K,V>[] resize() {
+            Node<K,V>[] oldTable = table;
+            Node<K,V>[] newTable = (Node<K,V>[]) new Node[oldTable.length * 2];
+            int mask = newTable.length - 1;
+            for (Node<K,V> node : oldTable) {
+                for (; node != null; node = node.next) {
+                    int slot = node.hash & mask;
+                    newTable[slot] = new Node<>(node.hash, node.key, node.value, newTable[slot]);
+                }
+            }
+            table = newTable;
+            return newTable;
+        }
+
+        /**
+         * Removes the entry with the given key.
+         *
+         * @param key  key of the entry
+         * @param hash spread hash of the key
+         * @return value of the removed entry or null if the entry does not exist
+         */
+        V remove(Object key, int hash) {
+            lock();
+            try {
+                Node<K,V>[] tab = table;
+                int slot = hash & (tab.length - 1);
+                Node<K,V> head = tab[slot];
+                Node<K,V> node = head;
+                while (node != null && !(node.hash == hash && node.key.equals(key))) {
+                    node = node.next;
+                }
+                if (node == null) {
+                    return null;
+                }
+                // the nodes in front of the removed one are copied, the nodes after it are shared
+                Node<K,V> newHead = node.next;
+                for (Node<K,V> p = head; p != node; p = p.next) {
+                    newHead = new Node<>(p.hash, p.key, p.value, newHead);
+                }
+                setBucketAt(tab, slot, newHead);
+                count = count - 1;
+                return node.value;
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Removes all entries of the segment.
+         */
+        @SuppressWarnings("unchecked")
+        void clear() {
+            lock();
+            try {
+                table = (Node<K,V>[]) new Node[table.length];
+                count = 0;
+            } finally {
+                unlock();
+            }
+        }
+    }
+
+    /**
+     * Entry which is returned by the iterator. Setting its value puts the value into the table.
+     */
+    private class WriteThroughEntry extends SimpleHashtable.TableEntry<K,V> {
+        /**
+         * Constructs a new entry.
+         *
+         * @param key   key of the entry
+         * @param value value of the entry
+         */
+        WriteThroughEntry(K key, V value) {
+            super(key, value, null);
+        }
+
+        @Override
+        public void setValue(V value) {
+            super.setValue(value);
+            put(getKey(), value);
+        }
+    }
+
+    /**
+     * This class represents a weakly consistent iterator for the hash table.
+     * <p>
+     * The iterator walks the segments one after another; of every segment it walks the bucket array
+     * which was current when the iterator reached that segment.
+     */
+    private class IteratorImpl implements Iterator<SimpleHashtable.TableEntry<K,V>> {
+        /**
+         * Index of the next segment.
+         */
+        private int segmentIndex;
+
+        /**
+         * Bucket array of the current segment.
+         */
+        private Node<K,V>[] currentTable;
+
+        /**
+         * Index of the next bucket of the current bucket array.
+         */
+        private int bucketIndex;
+
+        /**
+         * Node which will be returned next, or null if it has not been found yet.
+         */
+        private Node<K,V> nextNode;
+
+        /**
+         * Key of the entry returned by the last call of next(), or null.
+         */
+        private K lastKey;
+
+        /**
+         * Checks if there are more entries in the hash table.
+         *
+         * @return true if there are more entries in the hash table, false otherwise
+         */
+        @Override
+        public boolean hasNext() {
+            while (nextNode == null) {
+                if (currentTable != null && bucketIndex < currentTable.length) {
+                    nextNode = bucketAt(currentTable, bucketIndex++);
+                } else if (segmentIndex < segments.length) {
+                    Segment<K,V> segment = segments[segmentIndex++];
+                    currentTable = segment.count == 0 ? null : segment.table;
+                    bucketIndex = 0;
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns the next entry in the hash table.
+         *
+         * @return next entry in the hash table
+         *
+         * @throws NoSuchElementException if there are no more entries
+         */
+        @Override
+        public SimpleHashtable.TableEntry<K,V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("There are no more elements.");
+            }
+            Node<K,V> node = nextNode;
+            nextNode = node.next;
+            lastKey = node.key;
+            return new WriteThroughEntry(node.key, node.value);
+        }
+
+        /**
+         * Removes the entry returned by the last call of next() from the hash table.
+         *
+         * @throws IllegalStateException if next() has not been called or the entry has already been removed
+         */
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException("There is no current element.");
+            }
+            ConcurrentSimpleHashtable.this.remove(lastKey);
+            lastKey = null;
+        }
+    }
+}
@@ -2,6 +2,10 @@ package hr.fer.oprpp1.custom.collections;
 
 /**
  * This class represents a collection of key-value pairs.
+ * <p>
+ * Small dictionaries are searched linearly. Once the dictionary reaches {@value #INDEX_THRESHOLD} entries,
+ * a hash index from keys to entries is built, so that lookups no longer scan all entries.
+ * The entries themselves stay in insertion order in the internal collection.
  * @param <K> type of key
  * @param <V> type of value
  */
@@ -9,7 +13,25 @@ public class Dictionary<K,V> {
     /**
      * Internally managed collection of key-value pairs as {@link Entry} objects.
      */
-    private final ArrayIndexedCollection<Entry<K,V>> collection;
+    private ArrayIndexedCollection<Entry<K,V>> collection;
+
+    /**
+     * Number of entries at which the hash index is built.
+     */
+    static final int INDEX_THRESHOLD = 16;
+
+    /**
+     * Hash index from keys to entries, null while the dictionary is smaller than {@value #INDEX_THRESHOLD}.
+     */
+    private SimpleHashtable<K, Entry<K,V>> index;
+
+    /**
+     * Number of removed entries which are still in the collection.
+     * <p>
+     * While the index exists, removed entries are only marked, since removing them from the collection
+     * would shift all later entries. They are dropped once they make up half of the collection.
+     */
+    private int removedCount;
     
     /**
     * Constructs a new dictionary.
@@ -24,7 +46,7 @@ public class Dictionary<K,V> {
     * @return true if the dictionary is empty, false otherwise
     */
     public boolean isEmpty() {
-        return this.collection.isEmpty();
+        return this.size() == 0;
     }
 
     /**
@@ -33,7 +55,7 @@ public class Dictionary<K,V> {
     * @return number of elements in the dictionary
     */
     public int size() {
-        return this.collection.size();
+        return this.collection.size() - this.removedCount;
     }
 
     /**
@@ -41,6 +63,58 @@ public class Dictionary<K,V> {
     */
     public void clear() {
         this.collection.clear();
+        this.index = null;
+        this.removedCount = 0;
+    }
+
+    /**
+     * Checks if the hash index is used for lookups.
+     *
+     * @return true if the dictionary is indexed, false if it is searched linearly
+     */
+    boolean isIndexed() {
+        return this.index != null;
+    }
+
+    /**
+     * Returns the entry with the given key.
+     *
+     * @param key key of the entry, must not be null
+     * @return entry with the given key or null if it doesn't exist
+     */
+    private Entry<K,V> findEntry(Object key) {
+        if (this.index != null) {
+            return this.index.get(key);
+        }
+        for (int i = 0; i < this.collection.size(); i++) {
+            Entry<K,V> entry = this.collection.get(i);
+            if (entry.getKey().equals(key)) return entry;
+        }
+        return null;
+    }
+
+    /**
+     * Builds the hash index from all entries in the collection.
+     */
+    private void buildIndex() {
+        this.index = new SimpleHashtable<>(INDEX_THRESHOLD * 2, HashSpreader.XOR_SHIFT);
+        for (int i = 0; i < this.collection.size(); i++) {
+            Entry<K,V> entry = this.collection.get(i);
+            this.index.put(entry.getKey(), entry);
+        }
+    }
+
+    /**
+     * Drops the removed entries from the collection, keeping the order of the remaining ones.
+     */
+    private void compact() {
+        ArrayIndexedCollection<Entry<K,V>> compacted = new ArrayIndexedCollection<>(Math.max(1, this.size()));
+        for (int i = 0; i < this.collection.size(); i++) {
+            Entry<K,V> entry = this.collection.get(i);
+            if (!entry.removed) compacted.add(entry);
+        }
+        this.collection = compacted;
+        this.removedCount = 0;
     }
 
     /**
@@ -52,15 +126,18 @@ public class Dictionary<K,V> {
     */
     public void put(K key, V value) {
         if (key == null) throw new NullPointerException("Key cannot be null.");
-        for (int i = 0; i < this.collection.size(); i++) {
-            Entry<K,V> entry = this.collection.get(i);
-            if (entry.getKey().equals(key)) {
-                entry.value = value;
-                return;
-            }
+        Entry<K,V> existing = this.findEntry(key);
+        if (existing != null) {
+            existing.value = value;
+            return;
         }
         Entry<K,V> entry = new Entry<>(key, value);
         this.collection.add(entry);
+        if (this.index != null) {
+            this.index.put(key, entry);
+        } else if (this.collection.size() >= INDEX_THRESHOLD) {
+            this.buildIndex();
+        }
     }
 
     /**
@@ -69,22 +146,12 @@ public class Dictionary<K,V> {
     * @param key key of the pair
     * @return value of the pair
     */
-    @SuppressWarnings("unchecked")
     public V get(Object key) {
-        if (key == null || this.collection.isEmpty()) {
+        if (key == null || this.isEmpty()) {
             return null;
         }
-        K castKey;
-        try {
-            castKey = (K) key;
-        } catch (ClassCastException ex) {
-            return null;
-        }
-        for (int i = 0; i < this.collection.size(); i++) {
-            Entry<K,V> entry = this.collection.get(i);
-            if (entry.getKey().equals(castKey)) return entry.getValue();
-        }
-        return null;
+        Entry<K,V> entry = this.findEntry(key);
+        return entry == null ? null : entry.getValue();
     }
 
     /**
@@ -94,9 +161,18 @@ public class Dictionary<K,V> {
      * @return value of the removed entry or null if the entry with the given key doesn't exist
      */
     V remove(K key) {
-        if (key == null || this.collection.isEmpty()) {
+        if (key == null || this.isEmpty()) {
             return null;
         }
+        if (this.index != null) {
+            Entry<K,V> entry = this.index.remove(key);
+            if (entry == null) return null;
+            // the entry stays in the collection until enough removed entries pile up
+            entry.removed = true;
+            this.removedCount++;
+            if (this.removedCount * 2 >= this.collection.size()) this.compact();
+            return entry.getValue();
+        }
         for (int i = 0; i < this.collection.size(); i++) {
             Entry<K,V> entry = this.collection.get(i);
             if (entry.getKey().equals(key)) {
@@ -124,6 +200,11 @@ public class Dictionary<K,V> {
          */
         private V value;
 
+        /**
+         * True if the entry has been removed from the dictionary but is still in the collection.
+         */
+        private boolean removed;
+
         /**
         * Constructs a new entry with the given key and value.
          *
@@ -0,0 +1,105 @@
+package hr.fer.oprpp1.custom.collections;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An interface which represents a fixed-width binary encoding of elements, used by collections
+ * which store their elements outside the Java heap.
+ * <p>
+ * Every element is encoded into exactly {@link #width()} bytes, so the element at index i of a collection
+ * starts at byte i * width. The offsets are absolute, so the position and limit of the buffer are never changed.
+ *
+ * @param <T> type of encoded elements
+ *
+ * @see OffHeapIndexedCollection
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public interface ElementCodec<T> {
+
+    /**
+     * Encodes integers in 4 bytes.
+     */
+    ElementCodec<Integer> INTEGER = new ElementCodec<>() {
+        @Override
+        public int width() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void encode(Integer value, ByteBuffer buffer, int offset) {
+            buffer.putInt(offset, value);
+        }
+
+        @Override
+        public Integer decode(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+    };
+
+    /**
+     * Encodes longs in 8 bytes.
+     */
+    ElementCodec<Long> LONG = new ElementCodec<>() {
+        @Override
+        public int width() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void encode(Long value, ByteBuffer buffer, int offset) {
+            buffer.putLong(offset, value);
+        }
+
+        @Override
+        public Long decode(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    };
+
+    /**
+     * Encodes doubles in 8 bytes.
+     */
+    ElementCodec<Double> DOUBLE = new ElementCodec<>() {
+        @Override
+        public int width() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void encode(Double value, ByteBuffer buffer, int offset) {
+            buffer.putDouble(offset, value);
+        }
+
+        @Override
+        public Double decode(ByteBuffer buffer, int offset) {
+            return buffer.getDouble(offset);
+        }
+    };
+
+    /**
+     * Returns the number of bytes of an encoded element.
+     *
+     * @return number of bytes of an encoded element, at least 1
+     */
+    int width();
+
+    /**
+     * Writes the given value into {@link #width()} bytes of the buffer, starting at the given offset.
+     *
+     * @param value  value which is encoded, never null
+     * @param buffer buffer into which the value is written
+     * @param offset index of the first byte
+     */
+    void encode(T value, ByteBuffer buffer, int offset);
+
+    /**
+     * Reads the value from {@link #width()} bytes of the buffer, starting at the given offset.
+     *
+     * @param buffer buffer from which the value is read
+     * @param offset index of the first byte
+     * @return decoded value, never null
+     */
+    T decode(ByteBuffer buffer, int offset);
+}
@@ -0,0 +1,48 @@
+package hr.fer.oprpp1.custom.collections;
+
+/**
+ * A functional interface which represents a strategy for mixing the bits of a hash code
+ * before it is masked to a slot of a hash table whose capacity is a power of 2.
+ * <p>
+ * Masking keeps only the lowest bits of the hash code, so keys whose hash codes differ only in the higher bits
+ * end up in the same slot. A spreader moves information from the higher bits into the lower ones.
+ *
+ * @see SimpleHashtable
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public interface HashSpreader {
+
+    /**
+     * Uses the absolute value of the hash code, which gives the same slots as {@code |hashCode()| % capacity}.
+     * <p>
+     * {@code Math.abs(Integer.MIN_VALUE)} is negative, but masking it still gives slot 0.
+     */
+    HashSpreader ABSOLUTE = Math::abs;
+
+    /**
+     * XORs the higher half of the hash code into the lower half.
+     */
+    HashSpreader XOR_SHIFT = h -> h ^ (h >>> 16);
+
+    /**
+     * Applies the finalisation step of the MurmurHash3 function, so every bit of the hash code
+     * affects every bit of the result.
+     */
+    HashSpreader MURMUR3 = h -> {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    };
+
+    /**
+     * Mixes the bits of the given hash code.
+     *
+     * @param hashCode hash code of a key
+     * @return spread hash code, the slot is calculated by masking it with capacity - 1
+     */
+    int spread(int hashCode);
+}
@@ -0,0 +1,385 @@
+package hr.fer.oprpp1.custom.collections;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a hash table which maps {@code int} keys to objects without boxing the keys.
+ * <p>
+ * The API has the same shape as the one of {@link SimpleHashtable}; lookups of missing keys return null.
+ * <p>
+ * Keys and values are stored in two parallel arrays with linear probing. The key 0 marks an empty slot,
+ * so an entry with key 0 is kept outside of the arrays.
+ *
+ * @see SimpleHashtable
+ * @see IntIntHashtable
+ * @see LongObjectHashtable
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public class IntObjectHashtable<V> {
+
+    /**
+     * A functional interface which processes a single entry of the table.
+     */
+    public interface EntryProcessor<V> {
+        /**
+         * Processes the given entry.
+         *
+         * @param key   key of the entry
+         * @param value value of the entry
+         */
+        void process(int key, V value);
+    }
+
+    /**
+     * Default capacity of the hash table.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Maximum ratio of occupied slots before the table is resized.
+     */
+    private static final double LOAD_FACTOR = 0.5;
+
+    /**
+     * Size of an array header in bytes, used by {@link #memoryFootprint()}.
+     */
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    /**
+     * Size of this object (header and fields) in bytes, used by {@link #memoryFootprint()}.
+     */
+    private static final int OBJECT_BYTES = 32;
+
+    /**
+     * Size of a reference in bytes, used by {@link #memoryFootprint()}.
+     */
+    private static final int REFERENCE_BYTES = 4;
+
+    /**
+     * Keys of the entries. 0 marks an empty slot.
+     */
+    private int[] keys;
+
+    /**
+     * Values of the entries, {@code values[i]} belongs to {@code keys[i]}.
+     */
+    private V[] values;
+
+    /**
+     * Number of entries in the arrays.
+     */
+    private int size;
+
+    /**
+     * True if the table contains the entry with key 0.
+     */
+    private boolean hasZeroKey;
+
+    /**
+     * Value of the entry with key 0.
+     */
+    private V zeroValue;
+
+    /**
+     * Constructs a new hash table with the default capacity (16).
+     */
+    public IntObjectHashtable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new hash table with the given capacity.
+     * <p>
+     * The capacity of the hash table is the first power of 2 that is greater than or equal to the given capacity.
+     *
+     * @param capacity capacity of the hash table
+     *
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    @SuppressWarnings("unchecked")
+    public IntObjectHashtable(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        }
+        int length = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        keys = new int[length];
+        values = (V[]) new Object[length];
+    }
+
+    /**
+     * Returns the number of entries in the hash table.
+     *
+     * @return number of entries in the hash table
+     */
+    public int size() {
+        return hasZeroKey ? size + 1 : size;
+    }
+
+    /**
+     * Checks if the hash table is empty.
+     *
+     * @return true if the hash table is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the capacity of the hash table.
+     *
+     * @return capacity of the hash table
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Calculates the home slot of the given key.
+     *
+     * @param key  key whose slot is calculated
+     * @param mask table length - 1
+     * @return home slot of the key
+     */
+    private static int slotFor(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the slot of the given non-zero key or -1 if the key is not in the table.
+     *
+     * @param key key which is searched for
+     * @return slot of the key or -1
+     */
+    private int findSlot(int key) {
+        int mask = keys.length - 1;
+        int slot = slotFor(key, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Adds the entry with the given key and value to the hash table.
+     * <p>
+     * If the entry with the given key already exists, the value of the entry is overwritten with the given value.
+     *
+     * @param key   key of the entry
+     * @param value value of the entry
+     * @return value of the overwritten entry or null if a new entry is added
+     */
+    public V put(int key, V value) {
+        if (key == 0) {
+            V oldValue = hasZeroKey ? zeroValue : null;
+            hasZeroKey = true;
+            zeroValue = value;
+            return oldValue;
+        }
+        int mask = keys.length - 1;
+        int slot = slotFor(key, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                V oldValue = values[slot];
+                values[slot] = value;
+                return oldValue;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            resize();
+            mask = keys.length - 1;
+            slot = slotFor(key, mask);
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        return null;
+    }
+
+    /**
+     * Doubles the capacity of the hash table and reinserts all entries.
+     */
+    @SuppressWarnings("unchecked")
+    private void resize() {
+        int[] oldKeys = keys;
+        V[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = (V[]) new Object[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0) {
+                continue;
+            }
+            int slot = slotFor(oldKeys[i], mask);
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    /**
+     * Returns the value of the entry with the given key.
+     *
+     * @param key key of the entry
+     * @return value of the entry or null if the entry does not exist
+     */
+    public V get(int key) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : null;
+        }
+        int slot = findSlot(key);
+        return slot == -1 ? null : values[slot];
+    }
+
+    /**
+     * Checks if the hash table contains the entry with the given key.
+     *
+     * @param key key of the entry
+     * @return true if the hash table contains the entry with the given key, false otherwise
+     */
+    public boolean containsKey(int key) {
+        return key == 0 ? hasZeroKey : findSlot(key) != -1;
+    }
+
+    /**
+     * Checks if the hash table contains the entry with the given value.
+     *
+     * @param value value of the entry
+     * @return true if the hash table contains the entry with the given value, false otherwise
+     */
+    public boolean containsValue(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (hasZeroKey && value.equals(zeroValue)) {
+            return true;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0 && value.equals(values[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the entry with the given key from the hash table and returns its value.
+     *
+     * @param key key of the entry
+     * @return value of the entry or null if the entry does not exist
+     */
+    public V remove(int key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return null;
+            }
+            V value = zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            return value;
+        }
+        int slot = findSlot(key);
+        if (slot == -1) {
+            return null;
+        }
+        V value = values[slot];
+        // backward-shift deletion, see OpenAddressingHashtable
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != 0) {
+            int home = slotFor(keys[next], mask);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = 0;
+        values[hole] = null;
+        size--;
+        return value;
+    }
+
+    /**
+     * Clears the hash table.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        size = 0;
+        hasZeroKey = false;
+        zeroValue = null;
+    }
+
+    /**
+     * Calls the given processor for every entry of the hash table.
+     *
+     * @param processor processor which is called for every entry
+     *
+     * @throws NullPointerException if the processor is null
+     */
+    public void forEach(EntryProcessor<? super V> processor) {
+        if (processor == null) {
+            throw new NullPointerException("Processor must not be null.");
+        }
+        if (hasZeroKey) {
+            processor.process(0, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                processor.process(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the estimated number of bytes which the hash table occupies on the heap.
+     * <p>
+     * The estimate covers this object and its key and value arrays, assuming compressed references
+     * (4 bytes per reference). The values themselves are not included.
+     *
+     * @return estimated memory footprint in bytes
+     */
+    public long memoryFootprint() {
+        return OBJECT_BYTES + 2L * ARRAY_HEADER_BYTES + (long) Integer.BYTES * keys.length
+                + (long) REFERENCE_BYTES * values.length;
+    }
+
+    /**
+     * Returns the estimated number of bytes per entry, i.e. {@link #memoryFootprint()} divided by {@link #size()}.
+     *
+     * @return estimated memory footprint per entry in bytes, or the whole footprint if the table is empty
+     */
+    public double bytesPerEntry() {
+        return memoryFootprint() / (double) Math.max(1, size());
+    }
+
+    /**
+     * Returns the string representation of the hash table.
+     *
+     * @return string representation of the hash table
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        forEach((key, value) -> sb.append(key).append("=").append(value).append(", "));
+        // remove the last comma and space
+        if (sb.length() > 1) {
+            sb.delete(sb.length() - 2, sb.length());
+        }
+        return sb.append("]").toString();
+    }
+}
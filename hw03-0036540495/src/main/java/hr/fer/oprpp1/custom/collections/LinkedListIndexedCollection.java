@@ -15,7 +15,7 @@ import java.util.*;
  * @see Collection
  * @see ElementsGetter
  *
- * @version 3.0
+ * @version 3.2
  * @author Marko Šelendić
  */
 public class LinkedListIndexedCollection<T> implements List<T> {
@@ -68,6 +68,26 @@ public class LinkedListIndexedCollection<T> implements List<T> {
      */
     private long modificationCount = 0;
 
+    /**
+     * The last snapshot of the collection, null if no snapshot has been taken.
+     */
+    private PersistentVector<T> snapshot;
+
+    /**
+     * Number of modifications made to the collection when the last snapshot was taken.
+     */
+    private long snapshotModificationCount;
+
+    /**
+     * Bloom filter of the elements, null unless it is enabled by {@link #enableMembershipFilter(double)}.
+     */
+    private BloomFilter membershipFilter;
+
+    /**
+     * Metrics which are notified of the operations, null unless they are set by {@link #setMetrics(CollectionMetrics)}.
+     */
+    private CollectionMetrics metrics;
+
     /**
      * Creates an empty collection.
      */
@@ -116,6 +136,131 @@ public class LinkedListIndexedCollection<T> implements List<T> {
         this.last = newNode;
         this.size++;
         modificationCount++;
+        this.addToMembershipFilter(value);
+        this.record(CollectionMetrics.Operation.ADD);
+    }
+
+    /**
+     * Enables a Bloom filter which lets {@link #contains(Object)}, {@link #indexOf(Object)} and
+     * {@link #remove(Object)} skip the scan of the nodes for values which are definitely not in the collection.
+     * <p>
+     * The filter is built from the current elements and kept up to date by every modification.
+     * It is rebuilt from the elements when the collection has doubled in size or half of the added
+     * values have been removed since the last build, which takes amortised constant time per modification.
+     *
+     * @param falsePositiveRate probability that a value which is not in the collection still has to be searched
+     * @throws IllegalArgumentException if the rate is not between 0 and 1
+     */
+    public void enableMembershipFilter(double falsePositiveRate) {
+        this.rebuildMembershipFilter(falsePositiveRate);
+    }
+
+    /**
+     * Disables the membership filter, so every search scans the nodes again.
+     */
+    public void disableMembershipFilter() {
+        this.membershipFilter = null;
+    }
+
+    /**
+     * Returns the membership filter, whose methods report its memory usage and false positive rate.
+     *
+     * @return membership filter, or null if it is not enabled
+     */
+    public BloomFilter getMembershipFilter() {
+        return this.membershipFilter;
+    }
+
+    /**
+     * Replaces the membership filter with a new one built from the current elements,
+     * keeping the statistics of the old filter.
+     *
+     * @param falsePositiveRate false positive rate of the new filter
+     */
+    private void rebuildMembershipFilter(double falsePositiveRate) {
+        BloomFilter filter = new BloomFilter(this.size * 2, falsePositiveRate);
+        for (ListNode<T> node = this.first; node != null; node = node.next) {
+            filter.add(node.value);
+        }
+        if (this.membershipFilter != null) {
+            filter.copyStatistics(this.membershipFilter);
+        }
+        this.membershipFilter = filter;
+    }
+
+    /**
+     * Rebuilds the membership filter when it has outgrown its size or holds too many removed values.
+     */
+    private void rebuildMembershipFilterIfNeeded() {
+        if (this.membershipFilter.needsRebuild()) {
+            this.rebuildMembershipFilter(this.membershipFilter.getFalsePositiveRate());
+        }
+    }
+
+    /**
+     * Adds the given value to the membership filter, if it is enabled, and rebuilds the filter if it is full.
+     *
+     * @param value value which has been added to the collection
+     */
+    private void addToMembershipFilter(Object value) {
+        if (this.membershipFilter != null) {
+            this.membershipFilter.add(value);
+            this.rebuildMembershipFilterIfNeeded();
+        }
+    }
+
+    /**
+     * Records removed values in the membership filter, if it is enabled, and rebuilds the filter if too many
+     * of its values are gone.
+     *
+     * @param count number of values which have been removed from the collection
+     */
+    private void removeFromMembershipFilter(int count) {
+        if (this.membershipFilter != null) {
+            this.membershipFilter.recordRemovals(count);
+            this.rebuildMembershipFilterIfNeeded();
+        }
+    }
+
+    /**
+     * Sets the metrics which are notified of the operations and failed iterations of this collection.
+     *
+     * @param metrics metrics of the collection, or null to stop recording
+     */
+    public void setMetrics(CollectionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the metrics of this collection.
+     *
+     * @return metrics of the collection, or null if none are set
+     */
+    public CollectionMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Notifies the metrics, if they are set, of an operation.
+     *
+     * @param operation kind of the operation
+     */
+    private void record(CollectionMetrics.Operation operation) {
+        if (this.metrics != null) {
+            this.metrics.operation(operation);
+        }
+    }
+
+    /**
+     * Notifies the metrics, if they are set, of a failed iteration and creates the exception which is thrown.
+     *
+     * @return exception for a modification of the collection during an iteration
+     */
+    private ConcurrentModificationException concurrentModification() {
+        if (this.metrics != null) {
+            this.metrics.concurrentModification();
+        }
+        return new ConcurrentModificationException("The collection has been modified.");
     }
 
     /**
@@ -197,6 +342,7 @@ public class LinkedListIndexedCollection<T> implements List<T> {
             throw new IndexOutOfBoundsException("Index must be between 0 and size-1.");
         }
 
+        this.record(CollectionMetrics.Operation.GET);
         ListNode<T> node = findNodeAtIndex(index);
         return node.value;
     }
@@ -210,6 +356,10 @@ public class LinkedListIndexedCollection<T> implements List<T> {
         this.last = null;
         this.size = 0;
         modificationCount++;
+        if (this.membershipFilter != null) {
+            this.membershipFilter.clear();
+        }
+        this.record(CollectionMetrics.Operation.CLEAR);
     }
 
     /**
@@ -246,6 +396,8 @@ public class LinkedListIndexedCollection<T> implements List<T> {
 
         this.size++;
         modificationCount++;
+        this.addToMembershipFilter(value);
+        this.record(CollectionMetrics.Operation.INSERT);
     }
 
     /**
@@ -271,6 +423,28 @@ public class LinkedListIndexedCollection<T> implements List<T> {
     }
 
     /**
+     * Returns an immutable copy of the current elements of this collection.
+     * <p>
+     * The previous snapshot is returned if the collection has not been modified since it was taken,
+     * otherwise the nodes are walked once to build a new one.
+     *
+     * @see Collection#snapshot()
+     */
+    @Override
+    public PersistentVector<T> snapshot() {
+        if (this.snapshot == null || this.snapshotModificationCount != this.modificationCount) {
+            this.snapshot = PersistentVector.of(this);
+            this.snapshotModificationCount = this.modificationCount;
+        }
+        return this.snapshot;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the given value.
+     * <p>
+     * If the membership filter is enabled and reports that the value is definitely not in the collection,
+     * the nodes are not walked.
+     *
      * @see List#indexOf(Object)
      */
     @Override
@@ -279,6 +453,11 @@ public class LinkedListIndexedCollection<T> implements List<T> {
             return -1;
         }
 
+        this.record(CollectionMetrics.Operation.SEARCH);
+        if (this.membershipFilter != null && !this.membershipFilter.mightContain(value)) {
+            return -1;
+        }
+
         ListNode<T> current = this.first;
         for (int i = 0; i < this.size; i++) {
             if (current.value.equals(value)) {
@@ -287,6 +466,9 @@ public class LinkedListIndexedCollection<T> implements List<T> {
             current = current.next;
         }
 
+        if (this.membershipFilter != null) {
+            this.membershipFilter.recordFalsePositive();
+        }
         return -1;
     }
 
@@ -312,6 +494,8 @@ public class LinkedListIndexedCollection<T> implements List<T> {
 
         this.size--;
         modificationCount++;
+        this.removeFromMembershipFilter(1);
+        this.record(CollectionMetrics.Operation.REMOVE);
     }
 
     private static class LinkedListElementsGetter<T> implements ElementsGetter<T> {
@@ -348,7 +532,7 @@ public class LinkedListIndexedCollection<T> implements List<T> {
         @Override
         public boolean hasNextElement() {
             if (this.savedModificationCount != this.collection.modificationCount) {
-                throw new ConcurrentModificationException("The collection has been modified.");
+                throw this.collection.concurrentModification();
             }
             return this.node != null;
         }
@@ -360,10 +544,6 @@ public class LinkedListIndexedCollection<T> implements List<T> {
          */
         @Override
         public T getNextElement() {
-            if (this.savedModificationCount != this.collection.modificationCount) {
-                throw new ConcurrentModificationException("The collection has been modified.");
-            }
-
             if (!this.hasNextElement()) {
                 throw new NoSuchElementException("The collection has no more elements.");
             }
@@ -372,6 +552,31 @@ public class LinkedListIndexedCollection<T> implements List<T> {
             this.node = this.node.next;
             return value;
         }
+
+        /**
+         * Processes the remaining elements by walking the nodes directly.
+         * <p>
+         * The modification count is checked after every processed element, so a modification made by
+         * the processor is detected before the next element is processed.
+         *
+         * @see ElementsGetter#processRemaining(Processor)
+         * @throws ConcurrentModificationException if the collection has been modified after ElementsGetter was created
+         */
+        @Override
+        public void processRemaining(Processor<? super T> p) {
+            LinkedListIndexedCollection<T> collection = this.collection;
+            if (this.savedModificationCount != collection.modificationCount) {
+                throw collection.concurrentModification();
+            }
+            while (this.node != null) {
+                ListNode<T> node = this.node;
+                this.node = node.next;
+                p.process(node.value);
+                if (this.savedModificationCount != collection.modificationCount) {
+                    throw collection.concurrentModification();
+                }
+            }
+        }
     }
 
     @Override
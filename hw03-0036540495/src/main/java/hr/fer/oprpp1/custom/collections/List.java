@@ -8,7 +8,7 @@ package hr.fer.oprpp1.custom.collections;
  * @see ArrayIndexedCollection
  * @see LinkedListIndexedCollection
  *
- * @version 2.0
+ * @version 2.1
  * @author Marko Šelendić
  */
 public interface List<T> extends Collection<T> {
@@ -48,4 +48,55 @@ public interface List<T> extends Collection<T> {
      * @throws IndexOutOfBoundsException if index is outside the range of the list
      */
     void remove(int index);
+
+    /**
+     * Inserts all elements of the given collection at the given position in the list, keeping their order.
+     * Elements starting from this position are shifted upwards by the size of the given collection.
+     * <p>
+     * The default implementation inserts the elements one by one.
+     *
+     * @param other    collection whose elements are inserted
+     * @param position position at which the first element will be inserted
+     * @throws NullPointerException      if the given collection is null or contains null
+     * @throws IndexOutOfBoundsException if position is outside the range of the list
+     */
+    default void insertAll(Collection<? extends T> other, int position) {
+        if (other == null) {
+            throw new NullPointerException("Other collection must not be null.");
+        }
+        if (position < 0 || position > this.size()) {
+            throw new IndexOutOfBoundsException("Position must be between 0 and size.");
+        }
+        Object[] values = other.toArray();
+        for (Object value : values) {
+            if (value == null) {
+                throw new NullPointerException("Value must not be null.");
+            }
+        }
+        for (int i = 0; i < values.length; i++) {
+            @SuppressWarnings("unchecked")
+            T value = (T) values[i];
+            this.insert(value, position + i);
+        }
+    }
+
+    /**
+     * Removes the elements from index fromIndex (inclusive) to index toIndex (exclusive).
+     * Shifts all subsequent elements downwards by the number of removed elements.
+     * <p>
+     * The default implementation removes the elements one by one.
+     *
+     * @param fromIndex index of the first element to be removed
+     * @param toIndex   index after the last element to be removed
+     * @throws IndexOutOfBoundsException if fromIndex is negative, toIndex is greater than size
+     *                                   or fromIndex is greater than toIndex
+     */
+    default void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > this.size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range must satisfy 0 <= fromIndex <= toIndex <= size.");
+        }
+        for (int i = fromIndex; i < toIndex; i++) {
+            this.remove(fromIndex);
+        }
+    }
 }
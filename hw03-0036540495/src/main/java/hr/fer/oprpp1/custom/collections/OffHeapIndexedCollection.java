@@ -0,0 +1,519 @@
+package hr.fer.oprpp1.custom.collections;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+/**
+ * Collection of objects implemented as an indexed list whose elements are stored outside the Java heap.
+ * <p>
+ * Every element is encoded by an {@link ElementCodec} into a fixed number of bytes. The bytes are kept
+ * in direct {@link ByteBuffer} chunks of equal size, so the garbage collector sees only the chunk objects
+ * and never the elements. The collection grows by allocating a new chunk, only the array of chunk references
+ * is copied when it is full. Elements are decoded on every read, so {@link #get(int)} returns a new object
+ * for codecs of boxed types.
+ * <p>
+ * Inserting and removing in the middle moves the bytes of the following elements, like in
+ * {@link ArrayIndexedCollection}.
+ * <p>
+ * Duplicate elements are allowed.
+ * Storage of null references is not allowed.
+ *
+ * @param <T> type of elements stored in the collection
+ *
+ * @see List
+ * @see ElementCodec
+ * @see ArrayIndexedCollection
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public class OffHeapIndexedCollection<T> implements List<T> {
+
+    /**
+     * Default number of elements in a chunk.
+     */
+    private static final int DEFAULT_CHUNK_CAPACITY = 1 << 16;
+
+    /**
+     * Initial length of the array of chunks.
+     */
+    private static final int INITIAL_DIRECTORY_LENGTH = 8;
+
+    /**
+     * Maximal number of bytes moved by one copy when elements are shifted.
+     */
+    private static final int MOVE_BUFFER_BYTES = 8192;
+
+    /**
+     * Codec which encodes and decodes the elements.
+     */
+    private final ElementCodec<T> codec;
+
+    /**
+     * Number of bytes of an encoded element.
+     */
+    private final int width;
+
+    /**
+     * Base 2 logarithm of the number of elements in a chunk.
+     */
+    private final int chunkShift;
+
+    /**
+     * Number of elements in a chunk minus 1, selects the position of an element in its chunk.
+     */
+    private final int chunkMask;
+
+    /**
+     * Allocated chunks, the first chunkCount of them are not null.
+     */
+    private ByteBuffer[] chunks;
+
+    /**
+     * Number of allocated chunks.
+     */
+    private int chunkCount;
+
+    /**
+     * Current number of elements stored in the collection.
+     */
+    private int size;
+
+    /**
+     * Number of modifications made to the collection.
+     */
+    private long modificationCount = 0;
+
+    /**
+     * Buffer through which the bytes are moved when elements are shifted, allocated on first use.
+     */
+    private byte[] moveBuffer;
+
+    /**
+     * Creates an empty collection with the given codec and the default chunk capacity.
+     *
+     * @param codec codec which encodes the elements
+     * @throws NullPointerException if the codec is null
+     */
+    public OffHeapIndexedCollection(ElementCodec<T> codec) {
+        this(codec, DEFAULT_CHUNK_CAPACITY);
+    }
+
+    /**
+     * Creates an empty collection with the given codec and chunk capacity.
+     *
+     * @param codec         codec which encodes the elements
+     * @param chunkCapacity number of elements in a chunk
+     * @throws NullPointerException     if the codec is null
+     * @throws IllegalArgumentException if chunk capacity is not a power of 2, if the codec width is less than 1
+     *                                  or if a chunk would be larger than {@link Integer#MAX_VALUE} bytes
+     */
+    public OffHeapIndexedCollection(ElementCodec<T> codec, int chunkCapacity) {
+        if (codec == null) {
+            throw new NullPointerException("Codec must not be null.");
+        }
+
+        if (chunkCapacity < 1 || Integer.bitCount(chunkCapacity) != 1) {
+            throw new IllegalArgumentException("Chunk capacity must be a power of 2.");
+        }
+
+        if (codec.width() < 1) {
+            throw new IllegalArgumentException("Codec width must be greater than 0.");
+        }
+
+        if ((long) chunkCapacity * codec.width() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Chunk must not be larger than Integer.MAX_VALUE bytes.");
+        }
+
+        this.codec = codec;
+        this.width = codec.width();
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkCapacity);
+        this.chunkMask = chunkCapacity - 1;
+        this.chunks = new ByteBuffer[INITIAL_DIRECTORY_LENGTH];
+    }
+
+    /**
+     * Creates a collection with the given codec, the default chunk capacity and the elements of the given collection.
+     *
+     * @param codec codec which encodes the elements
+     * @param other collection whose elements will be copied into this collection
+     * @throws NullPointerException if the codec or other collection is null
+     */
+    public OffHeapIndexedCollection(ElementCodec<T> codec, Collection<? extends T> other) {
+        this(codec);
+        if (other == null) {
+            throw new NullPointerException("Other collection must not be null.");
+        }
+        this.addAll(other);
+    }
+
+    /**
+     * Returns the number of elements in a chunk.
+     *
+     * @return number of elements in a chunk
+     */
+    public int getChunkCapacity() {
+        return this.chunkMask + 1;
+    }
+
+    /**
+     * Returns the number of allocated chunks.
+     *
+     * @return number of allocated chunks
+     */
+    public int getChunkCount() {
+        return this.chunkCount;
+    }
+
+    /**
+     * Returns the number of bytes allocated outside the heap for the elements.
+     *
+     * @return number of bytes in all allocated chunks
+     */
+    public long offHeapBytes() {
+        return (long) this.chunkCount * this.getChunkCapacity() * this.width;
+    }
+
+    /**
+     * Returns the chunk which holds the element at the given index.
+     *
+     * @param index index of the element
+     * @return chunk of the element
+     */
+    private ByteBuffer chunk(int index) {
+        return this.chunks[index >>> this.chunkShift];
+    }
+
+    /**
+     * Returns the offset of the first byte of the element at the given index in its chunk.
+     *
+     * @param index index of the element
+     * @return offset of the element
+     */
+    private int offset(int index) {
+        return (index & this.chunkMask) * this.width;
+    }
+
+    /**
+     * Allocates chunks until the collection can hold the given number of elements.
+     * <p>
+     * Only the array of chunk references is copied when it is full, the stored bytes are never copied.
+     *
+     * @param minCapacity minimal number of elements
+     */
+    private void ensureCapacity(int minCapacity) {
+        while ((long) this.chunkCount << this.chunkShift < minCapacity) {
+            if (this.chunkCount == this.chunks.length) {
+                this.chunks = Arrays.copyOf(this.chunks, this.chunks.length * 2);
+            }
+            this.chunks[this.chunkCount++] = ByteBuffer
+                    .allocateDirect(this.getChunkCapacity() * this.width)
+                    .order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * Moves the bytes of the given number of elements from one index to another.
+     * <p>
+     * The bytes are copied through a small heap buffer, in pieces which do not cross the end of a chunk.
+     * Overlapping ranges are moved from the end when moving up and from the beginning when moving down,
+     * so no element is overwritten before it is copied.
+     *
+     * @param from  index of the first moved element
+     * @param to    index to which the first element is moved
+     * @param count number of moved elements
+     */
+    private void moveElements(int from, int to, int count) {
+        if (count == 0 || from == to) {
+            return;
+        }
+        if (this.moveBuffer == null) {
+            this.moveBuffer = new byte[Math.max(this.width, MOVE_BUFFER_BYTES / this.width * this.width)];
+        }
+        int bufferElements = this.moveBuffer.length / this.width;
+        boolean up = to > from;
+
+        while (count > 0) {
+            int piece;
+            int source;
+            int target;
+            if (up) {
+                // the last elements of the range, up to the beginning of the source or target chunk
+                int sourceEnd = from + count;
+                int targetEnd = to + count;
+                piece = Math.min(count, bufferElements);
+                piece = Math.min(piece, ((sourceEnd - 1) & this.chunkMask) + 1);
+                piece = Math.min(piece, ((targetEnd - 1) & this.chunkMask) + 1);
+                source = sourceEnd - piece;
+                target = targetEnd - piece;
+            } else {
+                // the first elements of the range, up to the end of the source or target chunk
+                piece = Math.min(count, bufferElements);
+                piece = Math.min(piece, this.getChunkCapacity() - (from & this.chunkMask));
+                piece = Math.min(piece, this.getChunkCapacity() - (to & this.chunkMask));
+                source = from;
+                target = to;
+                from += piece;
+                to += piece;
+            }
+
+            int bytes = piece * this.width;
+            this.chunk(source).get(this.offset(source), this.moveBuffer, 0, bytes);
+            this.chunk(target).put(this.offset(target), this.moveBuffer, 0, bytes);
+            count -= piece;
+        }
+    }
+
+    /**
+     * @see Collection#size()
+     */
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @see Collection#add(T)
+     * @throws NullPointerException if the value is null
+     */
+    @Override
+    public void add(T value) {
+        if (value == null) {
+            throw new NullPointerException("Value must not be null.");
+        }
+
+        this.ensureCapacity(this.size + 1);
+        this.codec.encode(value, this.chunk(this.size), this.offset(this.size));
+        this.size++;
+        modificationCount++;
+    }
+
+    /**
+     * @see Collection#contains(Object)
+     */
+    @Override
+    public boolean contains(Object value) {
+        return this.indexOf(value) != -1;
+    }
+
+    /**
+     * Removes a single instance of the given value from this collection if it exists.
+     * Shifts the elements at greater positions one place toward the beginning.
+     *
+     * @param value value to be removed from the collection
+     * @return true if the collection contains given value, false otherwise
+     */
+    @Override
+    public boolean remove(Object value) {
+        int index = this.indexOf(value);
+        if (index == -1) {
+            return false;
+        }
+
+        this.remove(index);
+        return true;
+    }
+
+    /**
+     * @see Collection#toArray()
+     */
+    @Override
+    public Object[] toArray() {
+        Object[] array = new Object[this.size];
+        for (int i = 0; i < this.size; i++) {
+            array[i] = this.codec.decode(this.chunk(i), this.offset(i));
+        }
+        return array;
+    }
+
+    /**
+     * @see Collection#toArray(T[])
+     * @throws NullPointerException if the given array is null
+     * @throws ArrayStoreException if an element copied from this collection is not of a runtime type
+     *                             that can be stored in the new array
+     */
+    @Override
+    public T[] toArray(T[] a) {
+        if (a == null) {
+            throw new NullPointerException("Given array must not be null.");
+        }
+        if (a.length < this.size) {
+            a = Arrays.copyOf(a, this.size);
+        }
+        for (int i = 0; i < this.size; i++) {
+            a[i] = this.codec.decode(this.chunk(i), this.offset(i));
+        }
+        if (a.length > this.size) {
+            a[this.size] = null;
+        }
+        return a;
+    }
+
+    /**
+     * @see List#get(int)
+     */
+    @Override
+    public T get(int index) {
+        if (index < 0 || index > this.size - 1) {
+            throw new IndexOutOfBoundsException("Index must be between 0 and size-1.");
+        }
+
+        return this.codec.decode(this.chunk(index), this.offset(index));
+    }
+
+    /**
+     * Removes all elements and releases all chunks.
+     * <p>
+     * The memory of the chunks is freed when the garbage collector collects them.
+     *
+     * @see Collection#clear()
+     */
+    @Override
+    public void clear() {
+        this.chunks = new ByteBuffer[INITIAL_DIRECTORY_LENGTH];
+        this.chunkCount = 0;
+        this.size = 0;
+        modificationCount++;
+    }
+
+    /**
+     * @see List#insert(T, int)
+     */
+    @Override
+    public void insert(T value, int position) {
+        if (value == null) {
+            throw new NullPointerException("Value must not be null.");
+        }
+
+        if (position < 0 || position > this.size) {
+            throw new IndexOutOfBoundsException("Position must be between 0 and size.");
+        }
+
+        this.ensureCapacity(this.size + 1);
+        this.moveElements(position, position + 1, this.size - position);
+        this.codec.encode(value, this.chunk(position), this.offset(position));
+        this.size++;
+        modificationCount++;
+    }
+
+    /**
+     * @see List#indexOf(Object)
+     */
+    @Override
+    public int indexOf(Object value) {
+        if (value == null) {
+            return -1;
+        }
+
+        for (int i = 0; i < this.size; i++) {
+            if (this.codec.decode(this.chunk(i), this.offset(i)).equals(value)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @see List#remove(int)
+     */
+    @Override
+    public void remove(int index) {
+        if (index < 0 || index > this.size - 1) {
+            throw new IndexOutOfBoundsException("Index must be between 0 and size-1.");
+        }
+
+        this.moveElements(index + 1, index, this.size - index - 1);
+        this.size--;
+        modificationCount++;
+    }
+
+    /**
+     * Removes the elements in the given range by moving the following elements once.
+     *
+     * @see List#removeRange(int, int)
+     */
+    @Override
+    public void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > this.size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range must satisfy 0 <= fromIndex <= toIndex <= size.");
+        }
+
+        if (fromIndex == toIndex) {
+            return;
+        }
+
+        this.moveElements(toIndex, fromIndex, this.size - toIndex);
+        this.size -= toIndex - fromIndex;
+        modificationCount++;
+    }
+
+    /**
+     * Implementation of the ElementsGetter interface for the OffHeapIndexedCollection class.
+     */
+    private static class OffHeapElementsGetter<T> implements ElementsGetter<T> {
+        /**
+         * Collection whose elements ElementsGetter will be getting.
+         */
+        private final OffHeapIndexedCollection<T> collection;
+
+        /**
+         * Current index ElementsGetter has reached in the collection.
+         */
+        private int index;
+
+        /**
+         * Number of modifications made to the collection when this ElementsGetter was created.
+         */
+        private final long savedModificationCount;
+
+        /**
+         * Creates a new instance of OffHeapElementsGetter.
+         *
+         * @param collection collection whose elements ElementsGetter will be getting
+         */
+        private OffHeapElementsGetter(OffHeapIndexedCollection<T> collection) {
+            this.collection = collection;
+            this.savedModificationCount = collection.modificationCount;
+        }
+
+        /**
+         * @see ElementsGetter#hasNextElement()
+         * @throws ConcurrentModificationException if the collection has been modified after ElementsGetter was created
+         */
+        @Override
+        public boolean hasNextElement() {
+            if (this.savedModificationCount != this.collection.modificationCount) {
+                throw new ConcurrentModificationException("The collection has been modified.");
+            }
+            return this.index < this.collection.size;
+        }
+
+        /**
+         * @see ElementsGetter#getNextElement()
+         * @throws ConcurrentModificationException if the collection has been modified after ElementsGetter was created
+         */
+        @Override
+        public T getNextElement() {
+            if (!this.hasNextElement()) {
+                throw new NoSuchElementException("The collection has no more elements.");
+            }
+
+            int i = this.index++;
+            return this.collection.codec.decode(this.collection.chunk(i), this.collection.offset(i));
+        }
+    }
+
+    /**
+     * Creates and returns a new instance of OffHeapElementsGetter.
+     *
+     * @return new instance of OffHeapElementsGetter
+     */
+    @Override
+    public ElementsGetter<T> createElementsGetter() {
+        return new OffHeapElementsGetter<>(this);
+    }
+}
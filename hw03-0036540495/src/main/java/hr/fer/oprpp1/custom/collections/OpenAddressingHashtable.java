@@ -0,0 +1,532 @@
+package hr.fer.oprpp1.custom.collections;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class represents a hash table which uses open addressing (linear probing) instead of chaining.
+ * <p>
+ * Keys and values are stored in two parallel arrays, so no object is allocated per mapping and
+ * lookups walk consecutive array slots instead of following references to separately allocated entries.
+ * Removal uses backward-shift deletion, so the table never contains tombstones.
+ * <p>
+ * The public contract is the same as the one of {@link SimpleHashtable}: null keys are not allowed,
+ * iteration returns {@link SimpleHashtable.TableEntry} objects and the iterator is fail-fast.
+ *
+ * @param <K> key
+ * @param <V> value
+ *
+ * @see SimpleHashtable
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public class OpenAddressingHashtable<K,V> implements Iterable<SimpleHashtable.TableEntry<K,V>> {
+
+    /**
+     * Default capacity of the hash table.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Maximum ratio of occupied slots before the table is resized.
+     */
+    private static final double LOAD_FACTOR = 0.5;
+
+    /**
+     * Keys of the entries. A null reference marks an empty slot.
+     */
+    private K[] keys;
+
+    /**
+     * Values of the entries, {@code values[i]} belongs to {@code keys[i]}.
+     */
+    private V[] values;
+
+    /**
+     * Number of entries in the hash table.
+     */
+    private int size;
+
+    /**
+     * Counter for the number of modifications of the hash table.
+     */
+    private int modificationCount;
+
+    /**
+     * Constructs a new hash table with the default capacity (16).
+     */
+    public OpenAddressingHashtable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new hash table with the given capacity.
+     * <p>
+     * The capacity of the hash table is the first power of 2 that is greater than or equal to the given capacity.
+     *
+     * @param capacity capacity of the hash table
+     *
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    public OpenAddressingHashtable(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        }
+        // at least two slots so that one slot is always empty
+        allocate(Math.max(2, Integer.highestOneBit(capacity - 1) << 1));
+    }
+
+    /**
+     * Allocates new key and value arrays of the given length.
+     *
+     * @param capacity length of the new arrays, must be a power of 2
+     */
+    @SuppressWarnings("unchecked")
+    private void allocate(int capacity) {
+        keys = (K[]) new Object[capacity];
+        values = (V[]) new Object[capacity];
+    }
+
+    /**
+     * Returns the number of entries in the hash table.
+     *
+     * @return number of entries in the hash table
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the capacity of the hash table.
+     *
+     * @return capacity of the hash table
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Checks if the hash table is empty.
+     *
+     * @return true if the hash table is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Calculates the home slot of the given key.
+     * <p>
+     * The hash code is mixed before masking, so keys which differ only in the higher bits
+     * do not end up in the same cluster.
+     *
+     * @param key key whose slot is calculated
+     * @param mask table length - 1
+     * @return home slot of the key
+     */
+    private static int slotFor(Object key, int mask) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the slot of the given key or -1 if the key is not in the table.
+     *
+     * @param key key which is searched for, must not be null
+     * @return slot of the key or -1
+     */
+    private int findSlot(Object key) {
+        int mask = keys.length - 1;
+        int slot = slotFor(key, mask);
+        // one slot is always empty, so the loop terminates
+        while (keys[slot] != null) {
+            if (keys[slot].equals(key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Adds the entry with the given key and value to the hash table.
+     * <p>
+     * If the entry with the given key already exists, the value of the entry is overwritten with the given value.
+     *
+     * @param key   key of the entry
+     * @param value value of the entry
+     * @return value of the overwritten entry or null if a new entry is added
+     *
+     * @throws NullPointerException if the key is null
+     */
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new NullPointerException("Key must not be null");
+        }
+        modificationCount++;
+        int mask = keys.length - 1;
+        int slot = slotFor(key, mask);
+        // walk the cluster until the key or an empty slot is found
+        while (keys[slot] != null) {
+            if (keys[slot].equals(key)) {
+                V oldValue = values[slot];
+                values[slot] = value;
+                return oldValue;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            resize();
+            slot = slotFor(key, keys.length - 1);
+            while (keys[slot] != null) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        return null;
+    }
+
+    /**
+     * Doubles the capacity of the hash table and reinserts all entries.
+     */
+    private void resize() {
+        K[] oldKeys = keys;
+        V[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == null) {
+                continue;
+            }
+            int slot = slotFor(oldKeys[i], mask);
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    /**
+     * Returns the value of the entry with the given key.
+     *
+     * @param key key of the entry
+     * @return value of the entry or null if the entry does not exist
+     */
+    public V get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        int slot = findSlot(key);
+        return slot == -1 ? null : values[slot];
+    }
+
+    /**
+     * Checks if the hash table contains the entry with the given key.
+     *
+     * @param key key of the entry
+     * @return true if the hash table contains the entry with the given key, false otherwise
+     */
+    public boolean containsKey(Object key) {
+        return key != null && findSlot(key) != -1;
+    }
+
+    /**
+     * Checks if the hash table contains the entry with the given value.
+     *
+     * @param value value of the entry
+     * @return true if the hash table contains the entry with the given value, false otherwise
+     */
+    public boolean containsValue(Object value) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && values[i] != null && values[i].equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the entry with the given key from the hash table and returns its value.
+     *
+     * @param key key of the entry
+     * @return value of the entry or null if the entry does not exist
+     */
+    public V remove(Object key) {
+        if (key == null) {
+            return null;
+        }
+        int slot = findSlot(key);
+        if (slot == -1) {
+            return null;
+        }
+        V value = values[slot];
+        deleteSlot(slot);
+        modificationCount++;
+        return value;
+    }
+
+    /**
+     * Empties the given slot and shifts the following entries of the cluster backwards,
+     * so that every remaining entry is still reachable from its home slot.
+     *
+     * @param slot occupied slot to be emptied
+     */
+    private void deleteSlot(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != null) {
+            int home = slotFor(keys[next], mask);
+            // the entry may fill the hole only if its home slot is not between the hole and its current slot
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = null;
+        values[hole] = null;
+        size--;
+    }
+
+    /**
+     * Clears the hash table.
+     */
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+        modificationCount++;
+    }
+
+    /**
+     * Returns the string representation of the hash table.
+     *
+     * @return string representation of the hash table
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                sb.append(keys[i]).append("=").append(values[i]).append(", ");
+            }
+        }
+        // remove the last comma and space
+        if (sb.length() > 1) {
+            sb.delete(sb.length() - 2, sb.length());
+        }
+        return sb.append("]").toString();
+    }
+
+    /**
+     * Returns the array of entries in the hash table.
+     * <p>
+     * The returned entries hold their key and value, {@link SimpleHashtable.TableEntry#setValue(Object)}
+     * writes through to the table for as long as the table contains the key of the entry.
+     *
+     * @return array of entries in the hash table
+     */
+    @SuppressWarnings("unchecked")
+    public SimpleHashtable.TableEntry<K, V>[] toArray() {
+        SimpleHashtable.TableEntry<K, V>[] array = (SimpleHashtable.TableEntry<K, V>[]) new SimpleHashtable.TableEntry[size];
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                array[j++] = new SlotEntry(i);
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Returns the iterator for the hash table.
+     *
+     * @return iterator for the hash table
+     */
+    @Override
+    public Iterator<SimpleHashtable.TableEntry<K, V>> iterator() {
+        return new IteratorImpl();
+    }
+
+    /**
+     * Entry which holds the key and value of a slot and writes values set on it through to the table.
+     * <p>
+     * Entries stay valid when the table is modified: the key is looked up again if it has been moved
+     * to another slot by a removal or a resize. Once the key has been removed from the table, the entry
+     * keeps the last value it has seen, like an entry of a {@link SimpleHashtable}.
+     */
+    private class SlotEntry extends SimpleHashtable.TableEntry<K,V> {
+        /**
+         * Slot in which the key was last found.
+         */
+        private int slot;
+
+        /**
+         * Constructs a new entry with the key and value of the given slot.
+         *
+         * @param slot occupied slot
+         */
+        private SlotEntry(int slot) {
+            // the hash code is not needed, so it is not calculated
+            super(null, 0, keys[slot], values[slot]);
+            this.slot = slot;
+        }
+
+        /**
+         * Returns the current slot of the key of the entry.
+         *
+         * @return slot of the key or -1 if the key is no longer in the table
+         */
+        private int locate() {
+            if (slot < keys.length && keys[slot] == key) {
+                return slot;
+            }
+            int found = findSlot(key);
+            if (found != -1) {
+                slot = found;
+            }
+            return found;
+        }
+
+        @Override
+        public V getValue() {
+            int current = locate();
+            if (current != -1) {
+                value = values[current];
+            }
+            return value;
+        }
+
+        @Override
+        public void setValue(V value) {
+            this.value = value;
+            int current = locate();
+            if (current != -1) {
+                values[current] = value;
+            }
+        }
+    }
+
+    /**
+     * This class represents an iterator for the hash table.
+     * <p>
+     * Iteration starts right after an empty slot and goes around the table once. Since clusters never span
+     * an empty slot, the backward shift caused by {@link #remove()} only moves not yet visited entries
+     * into the current slot, which is then visited again.
+     */
+    private class IteratorImpl implements Iterator<SimpleHashtable.TableEntry<K,V>> {
+        /**
+         * Number of slots which have not been visited yet.
+         */
+        private int remainingSlots;
+
+        /**
+         * Slot which is examined next.
+         */
+        private int slot;
+
+        /**
+         * Slot of the entry returned by the last call of next(), or -1.
+         */
+        private int currentSlot;
+
+        /**
+         * Counter for the saved number of modifications of the hash table.
+         */
+        private int savedModificationCount;
+
+        /**
+         * Constructs a new iterator for the hash table.
+         */
+        public IteratorImpl() {
+            int start = 0;
+            while (keys[start] != null) {
+                start++;
+            }
+            slot = (start + 1) & (keys.length - 1);
+            remainingSlots = keys.length;
+            currentSlot = -1;
+            savedModificationCount = modificationCount;
+        }
+
+        /**
+         * Checks if there are more entries in the hash table.
+         *
+         * @return true if there are more entries in the hash table, false otherwise
+         *
+         * @throws ConcurrentModificationException if the hash table has been modified since the iterator was created
+         *                                         (except through the iterator's own remove() method)
+         */
+        @Override
+        public boolean hasNext() {
+            checkModificationCount();
+            while (remainingSlots > 0 && keys[slot] == null) {
+                slot = (slot + 1) & (keys.length - 1);
+                remainingSlots--;
+            }
+            return remainingSlots > 0;
+        }
+
+        /**
+         * Returns the next entry in the hash table.
+         *
+         * @return next entry in the hash table
+         *
+         * @throws ConcurrentModificationException if the hash table has been modified since the iterator was created
+         *                                         (except through the iterator's own remove() method)
+         * @throws NoSuchElementException          if there are no more entries
+         */
+        @Override
+        public SimpleHashtable.TableEntry<K,V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("There are no more elements.");
+            }
+            currentSlot = slot;
+            slot = (slot + 1) & (keys.length - 1);
+            remainingSlots--;
+            return new SlotEntry(currentSlot);
+        }
+
+        /**
+         * Removes the current entry from the hash table.
+         *
+         * @throws ConcurrentModificationException if the hash table has been modified since the iterator was created
+         *                                         (except through this method)
+         * @throws IllegalStateException           if the current entry is null or the entry has already been removed
+         */
+        @Override
+        public void remove() {
+            checkModificationCount();
+            if (currentSlot == -1) {
+                throw new IllegalStateException("There is no current element.");
+            }
+            deleteSlot(currentSlot);
+            // an entry from further in the cluster may have been shifted into the current slot
+            slot = currentSlot;
+            remainingSlots++;
+            currentSlot = -1;
+            modificationCount++;
+            savedModificationCount++;
+        }
+
+        /**
+         * Checks if the modification count has changed since the iterator was created.
+         *
+         * @throws ConcurrentModificationException if the hash table has been modified since the iterator was created
+         *                                         (except through the iterator's own remove() method)
+         */
+        private void checkModificationCount() {
+            if (savedModificationCount != modificationCount) {
+                throw new ConcurrentModificationException("The hash table has been modified.");
+            }
+        }
+    }
+}
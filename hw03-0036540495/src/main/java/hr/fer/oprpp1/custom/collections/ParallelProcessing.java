@@ -0,0 +1,197 @@
+package hr.fer.oprpp1.custom.collections;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel bulk operations over {@link SplittableElementsGetter}s, run on the common {@link ForkJoinPool}.
+ * <p>
+ * A getter is split recursively until its parts are small enough, about four parts per thread of the pool,
+ * and every part is processed by its own task.
+ *
+ * @see Collection#parallelForEach(Processor)
+ * @see Collection#parallelFilterInto(Tester, Collection)
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+final class ParallelProcessing {
+    /**
+     * Number of parts per thread of the pool, so that threads which finish early can steal work.
+     */
+    private static final int PARTS_PER_THREAD = 4;
+
+    /**
+     * Utility class, it cannot be instantiated.
+     */
+    private ParallelProcessing() {
+    }
+
+    /**
+     * Calculates the size under which a getter is not split any more.
+     *
+     * @param getter getter of all elements
+     * @return size threshold
+     */
+    private static long threshold(SplittableElementsGetter<?> getter) {
+        long parts = (long) ForkJoinPool.getCommonPoolParallelism() * PARTS_PER_THREAD;
+        return Math.max(1, getter.estimateSize() / parts);
+    }
+
+    /**
+     * Calls the given processor for every element of the given getter, in parallel.
+     *
+     * @param getter    getter of the elements
+     * @param processor processor which is called for every element, it must be thread-safe
+     * @param <T>       type of elements
+     */
+    static <T> void forEach(SplittableElementsGetter<T> getter, Processor<? super T> processor) {
+        ForkJoinPool.commonPool().invoke(new ForEachTask<>(getter, processor, threshold(getter)));
+    }
+
+    /**
+     * Adds every element of the given getter which satisfies the given tester to the given collection.
+     * <p>
+     * The elements are tested in parallel, but added to the collection by the calling thread,
+     * in the order in which the getter returns them.
+     *
+     * @param getter getter of the elements
+     * @param tester tester which is called for every element, it must be thread-safe
+     * @param target collection to which the elements are added
+     * @param <T>    type of elements
+     */
+    static <T> void filterInto(SplittableElementsGetter<T> getter, Tester<? super T> tester,
+                               Collection<? super T> target) {
+        ArrayIndexedCollection<T> result =
+                ForkJoinPool.commonPool().invoke(new FilterTask<>(getter, tester, threshold(getter)));
+        target.addAll(result);
+    }
+
+    /**
+     * A task which processes the elements of a getter.
+     */
+    private static class ForEachTask<T> extends RecursiveAction {
+        /**
+         * Serialization version of the task.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Getter of the elements.
+         */
+        private final SplittableElementsGetter<T> getter;
+
+        /**
+         * Processor which is called for every element.
+         */
+        private final Processor<? super T> processor;
+
+        /**
+         * Size under which the getter is not split any more.
+         */
+        private final long threshold;
+
+        /**
+         * Task which was forked before this one by the same parent.
+         */
+        private ForEachTask<T> previous;
+
+        /**
+         * Creates a new task.
+         *
+         * @param getter    getter of the elements
+         * @param processor processor which is called for every element
+         * @param threshold size under which the getter is not split any more
+         */
+        private ForEachTask(SplittableElementsGetter<T> getter, Processor<? super T> processor, long threshold) {
+            this.getter = getter;
+            this.processor = processor;
+            this.threshold = threshold;
+        }
+
+        /**
+         * Splits off parts of the getter into forked tasks while it is big enough, then processes the rest.
+         */
+        @Override
+        protected void compute() {
+            ForEachTask<T> forked = null;
+            SplittableElementsGetter<T> prefix;
+            while (this.getter.estimateSize() > this.threshold && (prefix = this.getter.trySplit()) != null) {
+                ForEachTask<T> task = new ForEachTask<>(prefix, this.processor, this.threshold);
+                task.fork();
+                // keep the forked tasks in a chain, so that all of them are joined
+                task.previous = forked;
+                forked = task;
+            }
+            this.getter.processRemaining(this.processor);
+            for (; forked != null; forked = forked.previous) {
+                forked.join();
+            }
+        }
+
+    }
+
+    /**
+     * A task which collects the elements of a getter which satisfy a tester.
+     */
+    private static class FilterTask<T> extends RecursiveTask<ArrayIndexedCollection<T>> {
+        /**
+         * Serialization version of the task.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Getter of the elements.
+         */
+        private final SplittableElementsGetter<T> getter;
+
+        /**
+         * Tester which is called for every element.
+         */
+        private final Tester<? super T> tester;
+
+        /**
+         * Size under which the getter is not split any more.
+         */
+        private final long threshold;
+
+        /**
+         * Creates a new task.
+         *
+         * @param getter    getter of the elements
+         * @param tester    tester which is called for every element
+         * @param threshold size under which the getter is not split any more
+         */
+        private FilterTask(SplittableElementsGetter<T> getter, Tester<? super T> tester, long threshold) {
+            this.getter = getter;
+            this.tester = tester;
+            this.threshold = threshold;
+        }
+
+        /**
+         * Splits the getter in two tasks while it is big enough, otherwise tests the elements.
+         *
+         * @return elements which satisfy the tester, in the order of the getter
+         */
+        @Override
+        protected ArrayIndexedCollection<T> compute() {
+            SplittableElementsGetter<T> prefix;
+            if (this.getter.estimateSize() > this.threshold && (prefix = this.getter.trySplit()) != null) {
+                FilterTask<T> left = new FilterTask<>(prefix, this.tester, this.threshold);
+                left.fork();
+                ArrayIndexedCollection<T> right = new FilterTask<>(this.getter, this.tester, this.threshold).compute();
+                ArrayIndexedCollection<T> result = left.join();
+                result.addAll(right);
+                return result;
+            }
+            ArrayIndexedCollection<T> result = new ArrayIndexedCollection<>();
+            this.getter.processRemaining(value -> {
+                if (this.tester.test(value)) {
+                    result.add(value);
+                }
+            });
+            return result;
+        }
+    }
+}
@@ -0,0 +1,616 @@
+package hr.fer.oprpp1.custom.collections;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable list of objects implemented as a persistent vector.
+ * <p>
+ * The elements are stored in a trie with 32-way branching, and the last up to 32 elements are kept in a separate
+ * tail array. {@link #append(Object)}, {@link #with(int, Object)} and {@link #withoutLast()} do not change the vector,
+ * but return a new one which shares all unchanged nodes with it, so they copy only O(log32 n) small arrays.
+ * {@link #get(int)} walks at most log32 n levels, which is at most 7 for any size an {@code int} can hold.
+ * <p>
+ * The mutating methods of {@link List} throw an {@link UnsupportedOperationException}.
+ * <p>
+ * Duplicate elements are allowed.
+ * Storage of null references is not allowed.
+ *
+ * @param <T> type of elements stored in the vector
+ *
+ * @see List
+ * @see Collection#snapshot()
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public final class PersistentVector<T> implements List<T> {
+
+    /**
+     * Number of bits of an index which select a child on one level of the trie.
+     */
+    private static final int BITS = 5;
+
+    /**
+     * Number of children of a node and number of elements in a leaf.
+     */
+    private static final int WIDTH = 1 << BITS;
+
+    /**
+     * Mask which selects the child on one level of the trie.
+     */
+    private static final int MASK = WIDTH - 1;
+
+    /**
+     * Node without children, shared by all vectors whose elements fit into the tail.
+     */
+    private static final Object[] EMPTY_NODE = new Object[WIDTH];
+
+    /**
+     * The empty vector.
+     */
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, new Object[0]);
+
+    /**
+     * Number of elements in the vector.
+     */
+    private final int size;
+
+    /**
+     * Number of index bits below the root, i.e. 5 times the number of levels under the root.
+     */
+    private final int shift;
+
+    /**
+     * Root of the trie. Inner nodes hold child nodes, leaves hold elements, all of them are {@code Object[]}.
+     */
+    private final Object[] root;
+
+    /**
+     * The last elements of the vector, which are not in the trie yet.
+     */
+    private final Object[] tail;
+
+    /**
+     * Creates a vector from its parts.
+     *
+     * @param size  number of elements
+     * @param shift number of index bits below the root
+     * @param root  root of the trie
+     * @param tail  the last elements
+     */
+    private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    /**
+     * Returns the empty vector.
+     *
+     * @param <T> type of elements
+     * @return empty vector
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentVector<T> empty() {
+        return (PersistentVector<T>) EMPTY;
+    }
+
+    /**
+     * Creates a vector with the elements of the given collection, in the order of its {@link ElementsGetter}.
+     * <p>
+     * The trie is built level by level, so this takes linear time and allocates no intermediate vectors.
+     *
+     * @param other collection whose elements are copied
+     * @param <T>   type of elements
+     * @return vector with the elements of the given collection
+     * @throws NullPointerException if the given collection is null or contains null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentVector<T> of(Collection<? extends T> other) {
+        if (other == null) {
+            throw new NullPointerException("Other collection must not be null.");
+        }
+        if (other instanceof PersistentVector) {
+            return (PersistentVector<T>) other;
+        }
+        return fromArray(other.toArray(), other.size());
+    }
+
+    /**
+     * Creates a vector from the first elements of the given array, which is not changed or kept.
+     *
+     * @param elements array with the elements
+     * @param size     number of elements which are used
+     * @param <T>      type of elements
+     * @return vector with the given elements
+     * @throws NullPointerException if one of the elements is null
+     */
+    static <T> PersistentVector<T> fromArray(Object[] elements, int size) {
+        for (int i = 0; i < size; i++) {
+            if (elements[i] == null) {
+                throw new NullPointerException("Value must not be null.");
+            }
+        }
+        if (size == 0) {
+            return empty();
+        }
+
+        int tailOffset = tailOffset(size);
+        Object[] tail = Arrays.copyOfRange(elements, tailOffset, size);
+        if (tailOffset == 0) {
+            return new PersistentVector<>(size, BITS, EMPTY_NODE, tail);
+        }
+
+        // the leaves, then every level above them, until one node is left
+        Object[] level = new Object[tailOffset / WIDTH];
+        for (int i = 0; i < level.length; i++) {
+            level[i] = Arrays.copyOfRange(elements, i * WIDTH, (i + 1) * WIDTH);
+        }
+        int shift = 0;
+        do {
+            Object[] parents = new Object[(level.length + MASK) / WIDTH];
+            for (int i = 0; i < parents.length; i++) {
+                Object[] parent = new Object[WIDTH];
+                System.arraycopy(level, i * WIDTH, parent, 0, Math.min(WIDTH, level.length - i * WIDTH));
+                parents[i] = parent;
+            }
+            level = parents;
+            shift += BITS;
+        } while (level.length > 1);
+
+        return new PersistentVector<>(size, shift, (Object[]) level[0], tail);
+    }
+
+    /**
+     * Returns the index of the first element in the tail of a vector of the given size.
+     *
+     * @param size size of the vector
+     * @return number of elements in the trie
+     */
+    private static int tailOffset(int size) {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    /**
+     * Returns the leaf or the tail which holds the element at the given index.
+     *
+     * @param index index of the element, between 0 and size - 1
+     * @return array which holds the element at position {@code index & 31}
+     */
+    private Object[] arrayFor(int index) {
+        if (index >= tailOffset(this.size)) {
+            return this.tail;
+        }
+        Object[] node = this.root;
+        for (int level = this.shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    /**
+     * @see Collection#size()
+     */
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @see List#get(int)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index > this.size - 1) {
+            throw new IndexOutOfBoundsException("Index must be between 0 and size-1.");
+        }
+
+        return (T) this.arrayFor(index)[index & MASK];
+    }
+
+    /**
+     * Returns a vector with the given value appended to the elements of this vector.
+     *
+     * @param value value which is appended
+     * @return new vector
+     * @throws NullPointerException if the value is null
+     */
+    public PersistentVector<T> append(T value) {
+        if (value == null) {
+            throw new NullPointerException("Value must not be null.");
+        }
+
+        // room in the tail
+        if (this.size - tailOffset(this.size) < WIDTH) {
+            Object[] newTail = Arrays.copyOf(this.tail, this.tail.length + 1);
+            newTail[this.tail.length] = value;
+            return new PersistentVector<>(this.size + 1, this.shift, this.root, newTail);
+        }
+
+        // the full tail becomes a leaf of the trie
+        Object[] newRoot;
+        int newShift = this.shift;
+        if ((this.size >>> BITS) > (1 << this.shift)) {
+            // the trie is full, so it gets a new root
+            newRoot = new Object[WIDTH];
+            newRoot[0] = this.root;
+            newRoot[1] = newPath(this.shift, this.tail);
+            newShift += BITS;
+        } else {
+            newRoot = this.pushTail(this.shift, this.root, this.tail);
+        }
+        return new PersistentVector<>(this.size + 1, newShift, newRoot, new Object[]{value});
+    }
+
+    /**
+     * Returns a vector with the given range of the array appended to the elements of this vector.
+     * <p>
+     * The tail is filled with one copy per leaf instead of one copy per element.
+     *
+     * @param values array with the values, which must not be null
+     * @param from   index of the first appended value
+     * @param to     index after the last appended value
+     * @return new vector, or this vector if the range is empty
+     */
+    @SuppressWarnings("unchecked")
+    PersistentVector<T> appendAll(Object[] values, int from, int to) {
+        PersistentVector<T> vector = this;
+        while (from < to) {
+            int tailLength = vector.tail.length;
+            if (tailLength == WIDTH) {
+                vector = vector.append((T) values[from++]);
+                continue;
+            }
+            int count = Math.min(WIDTH - tailLength, to - from);
+            Object[] newTail = Arrays.copyOf(vector.tail, tailLength + count);
+            System.arraycopy(values, from, newTail, tailLength, count);
+            vector = new PersistentVector<>(vector.size + count, vector.shift, vector.root, newTail);
+            from += count;
+        }
+        return vector;
+    }
+
+    /**
+     * Creates a path of single-child nodes from the given level down to the given leaf.
+     *
+     * @param level number of index bits below the first node of the path
+     * @param leaf  leaf at the end of the path
+     * @return first node of the path
+     */
+    private static Object[] newPath(int level, Object[] leaf) {
+        if (level == 0) {
+            return leaf;
+        }
+        Object[] node = new Object[WIDTH];
+        node[0] = newPath(level - BITS, leaf);
+        return node;
+    }
+
+    /**
+     * Returns a copy of the given node with the given leaf added after its last element.
+     *
+     * @param level number of index bits below the node
+     * @param node  node which is copied
+     * @param leaf  leaf which is added
+     * @return copy of the node
+     */
+    private Object[] pushTail(int level, Object[] node, Object[] leaf) {
+        int child = ((this.size - 1) >>> level) & MASK;
+        Object[] copy = node.clone();
+        if (level == BITS) {
+            copy[child] = leaf;
+        } else {
+            Object[] existing = (Object[]) node[child];
+            copy[child] = existing != null
+                    ? this.pushTail(level - BITS, existing, leaf)
+                    : newPath(level - BITS, leaf);
+        }
+        return copy;
+    }
+
+    /**
+     * Returns a vector in which the element at the given index is replaced by the given value.
+     *
+     * @param index index of the replaced element
+     * @param value new value
+     * @return new vector
+     * @throws NullPointerException      if the value is null
+     * @throws IndexOutOfBoundsException if index is outside the range of the vector
+     */
+    public PersistentVector<T> with(int index, T value) {
+        if (value == null) {
+            throw new NullPointerException("Value must not be null.");
+        }
+
+        if (index < 0 || index > this.size - 1) {
+            throw new IndexOutOfBoundsException("Index must be between 0 and size-1.");
+        }
+
+        if (index >= tailOffset(this.size)) {
+            Object[] newTail = this.tail.clone();
+            newTail[index & MASK] = value;
+            return new PersistentVector<>(this.size, this.shift, this.root, newTail);
+        }
+        return new PersistentVector<>(this.size, this.shift, replace(this.shift, this.root, index, value), this.tail);
+    }
+
+    /**
+     * Returns a copy of the given node in which the element at the given index is replaced.
+     *
+     * @param level number of index bits below the node
+     * @param node  node which is copied
+     * @param index index of the replaced element
+     * @param value new value
+     * @return copy of the node
+     */
+    private static Object[] replace(int level, Object[] node, int index, Object value) {
+        Object[] copy = node.clone();
+        if (level == 0) {
+            copy[index & MASK] = value;
+        } else {
+            int child = (index >>> level) & MASK;
+            copy[child] = replace(level - BITS, (Object[]) node[child], index, value);
+        }
+        return copy;
+    }
+
+    /**
+     * Returns a vector without the last element of this vector.
+     *
+     * @return new vector
+     * @throws NoSuchElementException if the vector is empty
+     */
+    public PersistentVector<T> withoutLast() {
+        if (this.size == 0) {
+            throw new NoSuchElementException("The vector is empty.");
+        }
+        if (this.size == 1) {
+            return empty();
+        }
+
+        if (this.size - tailOffset(this.size) > 1) {
+            Object[] newTail = Arrays.copyOf(this.tail, this.tail.length - 1);
+            return new PersistentVector<>(this.size - 1, this.shift, this.root, newTail);
+        }
+
+        // the last leaf of the trie becomes the tail
+        Object[] newTail = this.arrayFor(this.size - 2);
+        Object[] newRoot = this.popTail(this.shift, this.root);
+        int newShift = this.shift;
+        if (newRoot == null) {
+            newRoot = EMPTY_NODE;
+        }
+        if (this.shift > BITS && newRoot[1] == null) {
+            // the root has a single child, which becomes the root
+            newRoot = (Object[]) newRoot[0];
+            newShift -= BITS;
+        }
+        return new PersistentVector<>(this.size - 1, newShift, newRoot, newTail);
+    }
+
+    /**
+     * Returns a copy of the given node without its last leaf.
+     *
+     * @param level number of index bits below the node
+     * @param node  node which is copied
+     * @return copy of the node, or null if the node becomes empty
+     */
+    private Object[] popTail(int level, Object[] node) {
+        int child = ((this.size - 2) >>> level) & MASK;
+        if (level > BITS) {
+            Object[] newChild = this.popTail(level - BITS, (Object[]) node[child]);
+            if (newChild == null && child == 0) {
+                return null;
+            }
+            Object[] copy = node.clone();
+            copy[child] = newChild;
+            return copy;
+        }
+        if (child == 0) {
+            return null;
+        }
+        Object[] copy = node.clone();
+        copy[child] = null;
+        return copy;
+    }
+
+    /**
+     * Returns this vector, since it cannot change.
+     *
+     * @return this vector
+     */
+    @Override
+    public PersistentVector<T> snapshot() {
+        return this;
+    }
+
+    /**
+     * @see Collection#contains(Object)
+     */
+    @Override
+    public boolean contains(Object value) {
+        return this.indexOf(value) != -1;
+    }
+
+    /**
+     * @see List#indexOf(Object)
+     */
+    @Override
+    public int indexOf(Object value) {
+        if (value == null) {
+            return -1;
+        }
+
+        for (int i = 0; i < this.size; i += WIDTH) {
+            Object[] array = this.arrayFor(i);
+            int length = Math.min(WIDTH, this.size - i);
+            for (int j = 0; j < length; j++) {
+                if (array[j].equals(value)) {
+                    return i + j;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @see Collection#toArray()
+     */
+    @Override
+    public Object[] toArray() {
+        Object[] array = new Object[this.size];
+        this.copyTo(array);
+        return array;
+    }
+
+    /**
+     * Copies all elements to the beginning of the given array.
+     *
+     * @param array array which is at least as long as the vector
+     */
+    private void copyTo(Object[] array) {
+        for (int i = 0; i < this.size; i += WIDTH) {
+            System.arraycopy(this.arrayFor(i), 0, array, i, Math.min(WIDTH, this.size - i));
+        }
+    }
+
+    /**
+     * @see Collection#toArray(T[])
+     * @throws NullPointerException if the given array is null
+     * @throws ArrayStoreException if an element copied from this collection is not of a runtime type
+     *                             that can be stored in the new array
+     */
+    @Override
+    public T[] toArray(T[] a) {
+        if (a == null) {
+            throw new NullPointerException("Given array must not be null.");
+        }
+        if (a.length < this.size) {
+            a = Arrays.copyOf(a, this.size);
+        }
+        this.copyTo(a);
+        if (a.length > this.size) {
+            a[this.size] = null;
+        }
+        return a;
+    }
+
+    /**
+     * Throws an {@link UnsupportedOperationException}, use {@link #append(Object)} instead.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void add(T value) {
+        throw new UnsupportedOperationException("The vector is immutable, use append instead.");
+    }
+
+    /**
+     * Throws an {@link UnsupportedOperationException}, the vector is immutable.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void insert(T value, int position) {
+        throw new UnsupportedOperationException("The vector is immutable.");
+    }
+
+    /**
+     * Throws an {@link UnsupportedOperationException}, the vector is immutable.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean remove(Object value) {
+        throw new UnsupportedOperationException("The vector is immutable.");
+    }
+
+    /**
+     * Throws an {@link UnsupportedOperationException}, use {@link #withoutLast()} to remove the last element.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void remove(int index) {
+        throw new UnsupportedOperationException("The vector is immutable, use withoutLast instead.");
+    }
+
+    /**
+     * Throws an {@link UnsupportedOperationException}, use {@link #empty()} instead.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("The vector is immutable, use empty instead.");
+    }
+
+    /**
+     * Implementation of the ElementsGetter interface for the PersistentVector class.
+     * <p>
+     * The vector cannot change, so the getter never throws a {@link java.util.ConcurrentModificationException}.
+     */
+    private static class VectorElementsGetter<T> implements ElementsGetter<T> {
+        /**
+         * Vector whose elements ElementsGetter will be getting.
+         */
+        private final PersistentVector<T> vector;
+
+        /**
+         * Index of the next element.
+         */
+        private int index;
+
+        /**
+         * Leaf or tail which holds the next element.
+         */
+        private Object[] array;
+
+        /**
+         * Creates a new instance of VectorElementsGetter.
+         *
+         * @param vector vector whose elements ElementsGetter will be getting
+         */
+        private VectorElementsGetter(PersistentVector<T> vector) {
+            this.vector = vector;
+        }
+
+        /**
+         * @see ElementsGetter#hasNextElement()
+         */
+        @Override
+        public boolean hasNextElement() {
+            return this.index < this.vector.size;
+        }
+
+        /**
+         * @see ElementsGetter#getNextElement()
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public T getNextElement() {
+            if (!this.hasNextElement()) {
+                throw new NoSuchElementException("The collection has no more elements.");
+            }
+            // look up the next leaf only when a leaf is finished
+            if ((this.index & MASK) == 0) {
+                this.array = this.vector.arrayFor(this.index);
+            }
+            return (T) this.array[this.index++ & MASK];
+        }
+    }
+
+    /**
+     * Creates and returns a new instance of VectorElementsGetter.
+     *
+     * @return new instance of VectorElementsGetter
+     */
+    @Override
+    public ElementsGetter<T> createElementsGetter() {
+        return new VectorElementsGetter<>(this);
+    }
+}
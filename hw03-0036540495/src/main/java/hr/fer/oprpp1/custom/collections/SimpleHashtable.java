@@ -1,12 +1,17 @@
 package hr.fer.oprpp1.custom.collections;
 
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 /**
  * This class represents a simple hash table.
+ * <p>
+ * The capacity is always a power of 2, so the slot of a key is calculated by masking its hash code,
+ * mixed by a {@link HashSpreader}, with capacity - 1. When many keys of the same {@link Comparable} class end up
+ * in one slot, the slot is turned into a balanced binary search tree, so lookups in it stay logarithmic.
  *
  * @param <K> key
  * @param <V> value
@@ -23,17 +28,28 @@ public class SimpleHashtable<K,V> implements Iterable<SimpleHashtable.TableEntry
         /**
          * Key of the entry.
          */
-        private final K key;
+        final K key;
+
+        /**
+         * Hash code of the key, so that resizes and lookups do not have to call {@link Object#hashCode()}.
+         */
+        final int hash;
 
         /**
          * Value of the entry.
          */
-        private V value;
+        V value;
 
         /**
          * Reference to the next entry.
          */
-        private TableEntry<K, V> next;
+        TableEntry<K, V> next;
+
+        /**
+         * Table which created the entry and is told about values set through {@link #setValue(Object)},
+         * or null if the entry was not created by a {@link SimpleHashtable}.
+         */
+        final SimpleHashtable<?, ?> owner;
 
         /**
          * Constructor for the TableEntry
@@ -43,9 +59,32 @@ public class SimpleHashtable<K,V> implements Iterable<SimpleHashtable.TableEntry
          * @param next  reference to the next entry
          */
         public TableEntry(K key, V value, TableEntry<K, V> next) {
+            this(null, key == null ? 0 : key.hashCode(), key, value);
+            this.next = next;
+        }
+
+        /**
+         * Constructor for an entry of the given table whose key has the given hash code.
+         *
+         * @param owner table which creates the entry
+         * @param hash  hash code of the key
+         * @param key   key of the entry
+         * @param value value of the entry
+         */
+        TableEntry(SimpleHashtable<?, ?> owner, int hash, K key, V value) {
+            this.owner = owner;
+            this.hash = hash;
             this.key = key;
             this.value = value;
-            this.next = next;
+        }
+
+        /**
+         * Constructor for a copy of the given entry, which belongs to the same table but is not linked to any entry.
+         *
+         * @param source entry which is copied
+         */
+        TableEntry(TableEntry<K, V> source) {
+            this(source.owner, source.hash, source.key, source.value);
         }
 
         /**
@@ -73,19 +112,151 @@ public class SimpleHashtable<K,V> implements Iterable<SimpleHashtable.TableEntry
          */
         public void setValue(V value) {
             this.value = value;
+            // the filter of the table cannot be changed here, since values may be set from several threads
+            // by parallelForEach, so it is only marked to be rebuilt
+            if (owner != null && owner.valueFilter != null) {
+                owner.valueFilterStale = true;
+            }
+        }
+    }
+
+    /**
+     * This class models an entry of a slot which has been turned into a binary search tree.
+     * <p>
+     * The entries of such a slot are still linked through {@code next} (and {@code prev}), so iteration
+     * works the same as for ordinary slots. The slot holds the first entry of that list, and the root of the
+     * tree is found by following the parent references. The tree is ordered by hash code and then by
+     * {@link Comparable#compareTo(Object)}, and is kept balanced by rebuilding any subtree in which
+     * one child holds more than {@link #TREE_BALANCE} of the entries.
+     */
+    private static class TreeEntry<K,V> extends TableEntry<K,V> {
+        /**
+         * Parent in the tree, or null for the root.
+         */
+        private TreeEntry<K,V> parent;
+
+        /**
+         * Left child in the tree.
+         */
+        private TreeEntry<K,V> left;
+
+        /**
+         * Right child in the tree.
+         */
+        private TreeEntry<K,V> right;
+
+        /**
+         * Previous entry in the list of the slot.
+         */
+        private TreeEntry<K,V> prev;
+
+        /**
+         * Number of entries in the subtree rooted at this entry.
+         */
+        private int treeSize;
+
+        /**
+         * Constructor for the TreeEntry.
+         *
+         * @param hash  hash code of the key
+         * @param key   key of the entry
+         * @param value value of the entry
+         */
+        private TreeEntry(SimpleHashtable<?, ?> owner, int hash, K key, V value) {
+            super(owner, hash, key, value);
+            this.treeSize = 1;
+        }
+
+        /**
+         * Returns the root of the tree this entry belongs to.
+         *
+         * @return root of the tree
+         */
+        private TreeEntry<K,V> root() {
+            TreeEntry<K,V> root = this;
+            while (root.parent != null) {
+                root = root.parent;
+            }
+            return root;
         }
     }
 
+    /**
+     * This enum lists the ways in which the hash table can grow.
+     */
+    public enum ResizeMode {
+        /**
+         * All entries are moved to the new table by the put which crosses the load factor threshold.
+         */
+        IMMEDIATE,
+
+        /**
+         * The old and the new table are both kept while the entries are moved, and every
+         * put or remove moves only a bounded number of buckets from the old table to the new one.
+         */
+        INCREMENTAL
+    }
+
     /**
     * Default capacity of the hash table
     */
     private static final int DEFAULT_CAPACITY = 16;
 
+    /**
+     * Number of entries in a slot at which the slot is turned into a tree.
+     */
+    private static final int TREEIFY_THRESHOLD = 8;
+
+    /**
+     * Number of entries in a tree slot at which the slot is turned back into a list.
+     */
+    private static final int UNTREEIFY_THRESHOLD = 6;
+
+    /**
+     * Smallest capacity at which slots are turned into trees; smaller tables are expected to grow instead.
+     */
+    private static final int MIN_TREEIFY_CAPACITY = 64;
+
+    /**
+     * Largest share of the entries of a subtree that one child subtree may hold before the subtree is rebuilt.
+     */
+    private static final double TREE_BALANCE = 0.75;
+
+    /**
+     * Number of buckets of the old table which are moved by a single put or remove during an incremental resize.
+     * <p>
+     * A resize starts when the old table is 75% full, so the new table has room for at least
+     * {@code 0.75 * oldCapacity} more entries. Moving two or more buckets per put therefore always finishes
+     * the migration before the next resize is needed.
+     */
+    private static final int MIGRATION_STEP = 4;
+
     /**
      * Table of entries.
      */
     private TableEntry<K,V>[] table;
 
+    /**
+     * Table whose entries are being moved into {@link #table} during an incremental resize,
+     * or null if no resize is in progress.
+     */
+    private TableEntry<K,V>[] oldTable;
+
+    /**
+     * Index of the next bucket of {@link #oldTable} which will be moved to the new table.
+     */
+    private int migrationIndex;
+
+    /**
+     * The way in which the hash table grows.
+     */
+    private final ResizeMode resizeMode;
+
+    /**
+     * Strategy which mixes the hash codes before they are masked to a slot.
+     */
+    private final HashSpreader spreader;
+
     /**
      * Number of entries in the hash table.
      */
@@ -96,6 +267,22 @@ public class SimpleHashtable<K,V> implements Iterable<SimpleHashtable.TableEntry
      */
     private int modificationCount;
 
+    /**
+     * Bloom filter of the values, null unless it is enabled by {@link #enableValueFilter(double)}.
+     */
+    private BloomFilter valueFilter;
+
+    /**
+     * Whether a value has been set through {@link TableEntry#setValue(Object)} since the value filter was built,
+     * so that the filter may be missing it.
+     */
+    private boolean valueFilterStale;
+
+    /**
+     * Metrics which are notified of the operations, null unless they are set by {@link #setMetrics(CollectionMetrics)}.
+     */
+    private CollectionMetrics metrics;
+
     /**
      * Constructs a new hash table with the default capacity (16).
      */
@@ -112,12 +299,65 @@ public class SimpleHashtable<K,V> implements Iterable<SimpleHashtable.TableEntry
      *
      * @throws IllegalArgumentException if the capacity is less than 1
      */
-    @SuppressWarnings("unchecked")
     public SimpleHashtable(int capacity) {
+        this(capacity, ResizeMode.IMMEDIATE);
+    }
+
+    /**
+     * Constructs a new hash table with the given capacity which grows in the given way.
+     * <p>
+     * The hash codes are spread with {@link HashSpreader#ABSOLUTE}.
+     *
+     * @param capacity   capacity of the hash table
+     * @param resizeMode the way in which the hash table grows
+     *
+     * @throws IllegalArgumentException if the capacity is less than 1
+     * @throws NullPointerException     if the resize mode is null
+     */
+    public SimpleHashtable(int capacity, ResizeMode resizeMode) {
+        this(capacity, resizeMode, HashSpreader.ABSOLUTE);
+    }
+
+    /**
+     * Constructs a new hash table with the given capacity which spreads hash codes with the given strategy.
+     *
+     * @param capacity capacity of the hash table
+     * @param spreader strategy which mixes the hash codes before they are masked to a slot
+     *
+     * @throws IllegalArgumentException if the capacity is less than 1
+     * @throws NullPointerException     if the spreader is null
+     */
+    public SimpleHashtable(int capacity, HashSpreader spreader) {
+        this(capacity, ResizeMode.IMMEDIATE, spreader);
+    }
+
+    /**
+     * Constructs a new hash table with the given capacity which grows in the given way
+     * and spreads hash codes with the given strategy.
+     * <p>
+     * The capacity of the hash table is the first power of 2 that is greater than or equal to the given capacity.
+     *
+     * @param capacity   capacity of the hash table
+     * @param resizeMode the way in which the hash table grows
+     * @param spreader   strategy which mixes the hash codes before they are masked to a slot
+     *
+     * @throws IllegalArgumentException if the capacity is less than 1
+     * @throws NullPointerException     if the resize mode or the spreader is null
+     */
+    @SuppressWarnings("unchecked")
+    public SimpleHashtable(int capacity, ResizeMode resizeMode, HashSpreader spreader) {
         if (capacity < 1) {
             throw new IllegalArgumentException("Capacity must be greater than 0");
         }
-        capacity = (int) Math.pow(2, Math.ceil(Math.log(capacity) / Math.log(2)));
+        if (resizeMode == null) {
+            throw new NullPointerException("Resize mode must not be null");
+        }
+        if (spreader == null) {
+            throw new NullPointerException("Spreader must not be null");
+        }
+        this.resizeMode = resizeMode;
+        this.spreader = spreader;
+        capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
         table = (TableEntry<K,V>[]) new TableEntry[capacity];
         size = 0;
         modificationCount = 0;
@@ -141,6 +381,50 @@ public class SimpleHashtable<K,V> implements Iterable<SimpleHashtable.TableEntry
         return table.length;
     }
 
+    /**
+     * Returns the distribution of the slot lengths of the hash table.
+     * <p>
+     * Element {@code i} of the returned array is the number of slots which hold exactly {@code i} entries,
+     * so element 0 is the number of empty slots and the length of the array is the length of the longest slot + 1.
+     * During an incremental resize the slots of both tables are counted.
+     *
+     * @return histogram of the slot lengths
+     */
+    public int[] bucketLengthHistogram() {
+        int[] histogram = oldTable == null ? new int[1] : addSlotLengths(new int[1], oldTable);
+        return addSlotLengths(histogram, table);
+    }
+
+    /**
+     * Adds the slot lengths of the given table to the given histogram.
+     *
+     * @param histogram histogram of the slot lengths
+     * @param table     table whose slots are counted
+     * @return updated histogram, which is a new array if the given one was too short
+     */
+    private static int[] addSlotLengths(int[] histogram, TableEntry<?, ?>[] table) {
+        for (TableEntry<?, ?> entry : table) {
+            int length = 0;
+            for (; entry != null; entry = entry.next) {
+                length++;
+            }
+            if (length >= histogram.length) {
+                histogram = Arrays.copyOf(histogram, length + 1);
+            }
+            histogram[length]++;
+        }
+        return histogram;
+    }
+
+    /**
+     * Checks if an incremental resize is in progress, i.e. if the entries are split between the old and the new table.
+     *
+     * @return true if an incremental resize is in progress, false otherwise
+     */
+    public boolean isResizing() {
+        return oldTable != null;
+    }
+
     /**
      * Adds the entry with the given key and value to the hash table.
      * <p>
@@ -154,180 +438,987 @@ public class SimpleHashtable<K,V> implements Iterable<SimpleHashtable.TableEntry
         if (key == null) {
             throw new NullPointerException("Key must not be null");
         }
+        record(CollectionMetrics.Operation.ADD);
+        return putEntry(key.hashCode(), key, value);
+    }
+
+    /**
+     * Adds the entry with the given key and value, without notifying the metrics of the operation.
+     *
+     * @param hash  hash code of the key
+     * @param key   key of the entry, must not be null
+     * @param value value of the entry
+     * @return value of the overwritten entry or null if a new entry is added
+     */
+    private V putEntry(int hash, K key, V value) {
         // increment the modification count
         modificationCount++;
-        // calculate the slot with slot=|hashCode()| % table.length
-        int slot = Math.abs(key.hashCode()) % table.length;
+        // during an incremental resize the key may still be in the old table
+        int compared = 0;
+        if (oldTable != null) {
+            TableEntry<K, V> oldEntry = findEntry(oldTable, hash, key, 0);
+            if (oldEntry != null) {
+                return replaceValue(oldEntry, value);
+            }
+            compared = comparedOnMiss(oldTable, hash);
+        }
+        // calculate the slot by masking the spread hash code
+        int slot = slotFor(hash, table);
         ///* debug */ System.out.println("Math.abs(key.hashCode()): " + Math.abs(key.hashCode()));
         TableEntry<K, V> entry = table[slot];
         // if the slot is empty, add the entry to the slot and return null
         if (entry == null) {
-            table[slot] = new TableEntry<>(key, value, null);
+            recordProbe(compared);
+            table[slot] = new TableEntry<>(this, hash, key, value);
             size++;
+            addToValueFilter(value);
+            migrateStep();
             return null;
         }
+        // a tree slot is searched through the tree
+        if (entry instanceof TreeEntry) {
+            TreeEntry<K, V> root = ((TreeEntry<K, V>) entry).root();
+            TreeEntry<K, V> existing = findTreeEntry(root, hash, key);
+            if (existing != null) {
+                return replaceValue(existing, value);
+            }
+            if (needsResize()) {
+                return putAfterResize(hash, key, value);
+            }
+            if (key.getClass() == root.key.getClass()) {
+                insertTreeEntry(slot, root, new TreeEntry<>(this, hash, key, value));
+                size++;
+                addToValueFilter(value);
+                migrateStep();
+                return null;
+            }
+            // a key of another class cannot be ordered in the tree, so the slot becomes a list again
+            untreeify(table, slot);
+            entry = table[slot];
+        }
         // otherwise, iterate through the entries in the slot and check if the key exists
         // if it does, overwrite the value and return the old value
         TableEntry<K, V> previousEntry = null;
+        int length = 0;
         while (entry != null) {
-            if (entry.key.equals(key)) {
-                V oldValue = entry.value;
-                entry.value = value;
-                return oldValue;
+            if (entry.hash == hash && entry.key.equals(key)) {
+                recordProbe(compared + length + 1);
+                return replaceValue(entry, value);
             }
             previousEntry = entry;
             entry = entry.next;
+            length++;
         }
         // if the key does not exist, first check if the table needs to be resized
-        if (size >= table.length * 0.75) {
-            // if it does, resize the table and add the entry to the slot
-            // (we have to call the method again after resizing because the slot might change)
-            // also, one increment of the modification count is enough
-            int oldModificationCount = modificationCount;
-            resize();
-            modificationCount = oldModificationCount;
-            return this.put(key, value);
+        // the put is repeated after the resize, so the probe is recorded only then
+        if (needsResize()) {
+            return putAfterResize(hash, key, value);
         }
+        recordProbe(compared + length);
         // otherwise, add the entry to the slot and return null
-        previousEntry.next = new TableEntry<>(key, value, null);
+        previousEntry.next = new TableEntry<>(this, hash, key, value);
         size++;
+        addToValueFilter(value);
+        // slots are not turned into trees while an incremental resize moves entries into the table
+        if (length + 1 >= TREEIFY_THRESHOLD && table.length >= MIN_TREEIFY_CAPACITY && oldTable == null) {
+            treeify(table, slot);
+        }
+        migrateStep();
         return null;
     }
 
     /**
-     * Resizes the hash table.
-     * <p>
-     * The new capacity is two times the old capacity.
+     * Overwrites the value of the given entry and records the change in the value filter.
+     *
+     * @param entry entry whose value is overwritten
+     * @param value new value of the entry
+     * @return old value of the entry
      */
-    @SuppressWarnings("unchecked")
-    private void resize() {
-        TableEntry<K, V>[] oldTable = this.toArray();
-        table = (TableEntry<K, V>[]) new TableEntry[table.length * 2];
-        size = 0;
-        for (TableEntry<K, V> entry : oldTable) {
-            if (entry != null) {
-                this.put(entry.key, entry.value);
-            }
+    private V replaceValue(TableEntry<K, V> entry, V value) {
+        V oldValue = entry.value;
+        entry.value = value;
+        if (valueFilter != null) {
+            valueFilter.add(value);
+            valueFilter.recordRemovals(1);
+            rebuildValueFilterIfNeeded();
         }
+        return oldValue;
     }
 
     /**
-     * Returns the value of the entry with the given key.
+     * Checks if adding a new entry requires the table to grow first.
      *
-     * @param key key of the entry
-     * @return value of the entry or null if the entry does not exist
+     * @return true if the table has to grow, false otherwise
      */
-    public V get(Object key) {
-        if (key == null) {
-            return null;
+    private boolean needsResize() {
+        return size >= table.length * 0.75;
+    }
+
+    /**
+     * Grows the table and then adds the entry with the given key, which is known not to be in the table.
+     *
+     * @param hash  hash code of the key
+     * @param key   key of the entry
+     * @param value value of the entry
+     * @return null, since a new entry is added
+     */
+    private V putAfterResize(int hash, K key, V value) {
+        // we have to call the put method again after resizing because the slot might change
+        // also, one increment of the modification count is enough
+        int oldModificationCount = modificationCount;
+        if (resizeMode == ResizeMode.INCREMENTAL) {
+            startMigration();
+        } else {
+            resize();
         }
-        // calculate the slot with slot=|hashCode()| % table.length
-        int slot = Math.abs(key.hashCode()) % table.length;
-        TableEntry<K, V> entry = table[slot];
-        // if the slot is empty, return null
-        if (entry == null) {
-            return null;
+        modificationCount = oldModificationCount;
+        return putEntry(hash, key, value);
+    }
+
+    /**
+     * Calculates the slot of the given hash code in the given table.
+     * <p>
+     * The capacity is a power of 2, so masking the spread hash code replaces the division of
+     * {@code |hashCode()| % table.length}.
+     *
+     * @param hash  hash code of the key
+     * @param table table in which the slot is calculated
+     * @return slot of the key
+     */
+    private int slotFor(int hash, TableEntry<?, ?>[] table) {
+        return spreader.spread(hash) & (table.length - 1);
+    }
+
+    /**
+     * Returns the entry with the given key from the given table.
+     * <p>
+     * A lookup records one probe, even if it searches both tables during an incremental resize:
+     * the probe is recorded when the key is found, or when it is not found in the current table,
+     * and includes the keys compared in the old table.
+     *
+     * @param table    table which is searched
+     * @param hash     hash code of the key
+     * @param key      key of the entry, must not be null
+     * @param compared number of keys already compared in the old table
+     * @return entry with the given key or null if the entry does not exist in the given table
+     */
+    private TableEntry<K, V> findEntry(TableEntry<K, V>[] table, int hash, Object key, int compared) {
+        TableEntry<K, V> entry = table[slotFor(hash, table)];
+        if (entry instanceof TreeEntry) {
+            return findTreeEntry(((TreeEntry<K, V>) entry).root(), hash, key);
         }
-        // otherwise, iterate through the entries in the slot and check if the key exists
-        // if it does, return the value
+        int length = compared;
         while (entry != null) {
-            if (entry.key.equals(key)) {
-                return entry.value;
+            length++;
+            if (entry.hash == hash && entry.key.equals(key)) {
+                break;
             }
             entry = entry.next;
         }
-        // if the key does not exist, return null
-        return null;
+        if (entry != null || table == this.table) {
+            recordProbe(length);
+        }
+        return entry;
     }
 
     /**
-     * Checks if the hash table contains the entry with the given key.
+     * Returns the number of keys compared by a lookup which has not found its key in the given table.
+     * <p>
+     * The slot is only walked again if the metrics are set.
      *
-     * @param key key of the entry
-     * @return true if the hash table contains the entry with the given key, false otherwise
+     * @param table table which has been searched
+     * @param hash  hash code of the key
+     * @return number of entries in the list slot of the key, or 0 for a tree slot or if no metrics are set
      */
-    public boolean containsKey(Object key) {
-        if (key == null) {
-            return false;
+    private int comparedOnMiss(TableEntry<K, V>[] table, int hash) {
+        if (metrics == null) {
+            return 0;
         }
-        // calculate the slot with slot=|hashCode()| % table.length
-        int slot = Math.abs(key.hashCode()) % table.length;
-        TableEntry<K, V> entry = table[slot];
-        // if the slot is empty, return false
-        if (entry == null) {
-            return false;
+        TableEntry<K, V> entry = table[slotFor(hash, table)];
+        if (entry instanceof TreeEntry) {
+            return 0;
         }
-        // otherwise, iterate through the entries in the slot and check if the key exists
-        // if it does, return true
-        while (entry != null) {
-            if (entry.key.equals(key)) {
-                return true;
-            }
-            entry = entry.next;
+        int length = 0;
+        for (; entry != null; entry = entry.next) {
+            length++;
         }
-        // if the key does not exist, return false
-        return false;
+        return length;
     }
 
     /**
-     * Checks if the hash table contains the entry with the given value.
+     * Sets the metrics which are notified of the operations, resizes, probe lengths and failed iterations
+     * of this hash table.
+     * <p>
+     * Probes are recorded for slots which are lists, lookups in tree slots are not counted.
      *
-     * @param value value of the entry
-     * @return true if the hash table contains the entry with the given value, false otherwise
+     * @param metrics metrics of the hash table, or null to stop recording
      */
-    public boolean containsValue(Object value) {
-        // iterate through all the slots in the table
-        for (TableEntry<K, V> entry : table) {
-            // if the slot is empty, continue
-            if (entry == null) {
-                continue;
-            }
-            // otherwise, iterate through the entries in the slot and check if the value exists
-            // if it does, return true
-            while (entry != null) {
-                if (entry.value.equals(value)) {
-                    return true;
-                }
-                entry = entry.next;
-            }
+    public void setMetrics(CollectionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the metrics of this hash table.
+     *
+     * @return metrics of the hash table, or null if none are set
+     */
+    public CollectionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Notifies the metrics, if they are set, of an operation.
+     *
+     * @param operation kind of the operation
+     */
+    private void record(CollectionMetrics.Operation operation) {
+        if (metrics != null) {
+            metrics.operation(operation);
         }
-        // if the value does not exist, return false
-        return false;
     }
 
     /**
-     * Removes the entry with the given key from the hash table and returns its value.
+     * Notifies the metrics, if they are set, of a lookup in a slot.
      *
-     * @param key key of the entry
-     * @return value of the entry or null if the entry does not exist
+     * @param length number of entries whose keys were compared
      */
-    public V remove(Object key) {
-        if (key == null) {
-            return null;
+    private void recordProbe(int length) {
+        if (metrics != null) {
+            metrics.probed(length);
         }
-        // calculate the slot with slot=|hashCode()| % table.length
-        int slot = Math.abs(key.hashCode()) % table.length;
+    }
+
+    /**
+     * Notifies the metrics, if they are set, of a failed iteration and creates the exception which is thrown.
+     *
+     * @return exception for a modification of the hash table during an iteration
+     */
+    private ConcurrentModificationException concurrentModification() {
+        if (metrics != null) {
+            metrics.concurrentModification();
+        }
+        return new ConcurrentModificationException("The hash table has been modified.");
+    }
+
+    /**
+     * Returns the entry with the given key, looking into both tables during an incremental resize.
+     *
+     * @param key key of the entry, must not be null
+     * @return entry with the given key or null if the entry does not exist
+     */
+    private TableEntry<K, V> findEntry(Object key) {
+        int hash = key.hashCode();
+        int compared = 0;
+        if (oldTable != null) {
+            TableEntry<K, V> entry = findEntry(oldTable, hash, key, 0);
+            if (entry != null) {
+                return entry;
+            }
+            compared = comparedOnMiss(oldTable, hash);
+        }
+        return findEntry(table, hash, key, compared);
+    }
+
+    /**
+     * Starts an incremental resize.
+     * <p>
+     * A new table with double capacity becomes the table into which new entries are added,
+     * while the current table is kept until all its buckets have been moved by {@link #migrateStep()}.
+     */
+    @SuppressWarnings("unchecked")
+    private void startMigration() {
+        // a previous resize which has not finished yet is completed first
+        while (oldTable != null) {
+            migrateStep();
+        }
+        oldTable = table;
+        migrationIndex = 0;
+        table = (TableEntry<K, V>[]) new TableEntry[oldTable.length * 2];
+        if (metrics != null) {
+            metrics.resized(oldTable.length, table.length);
+        }
+    }
+
+    /**
+     * Moves at most {@link #MIGRATION_STEP} buckets from the old table to the new one
+     * if an incremental resize is in progress.
+     * <p>
+     * The entries are relinked, not copied, and keep their relative order.
+     * Only the entries of tree slots are copied into plain entries.
+     */
+    private void migrateStep() {
+        if (oldTable == null) {
+            return;
+        }
+        int end = Math.min(migrationIndex + MIGRATION_STEP, oldTable.length);
+        for (; migrationIndex < end; migrationIndex++) {
+            TableEntry<K, V> entry = oldTable[migrationIndex];
+            oldTable[migrationIndex] = null;
+            while (entry != null) {
+                TableEntry<K, V> next = entry.next;
+                if (entry instanceof TreeEntry) {
+                    // the new table has no tree slots during the resize, so tree entries become plain entries
+                    entry = new TableEntry<>(entry);
+                }
+                entry.next = null;
+                appendEntry(entry);
+                entry = next;
+            }
+        }
+        if (migrationIndex == oldTable.length) {
+            oldTable = null;
+        }
+    }
+
+    /**
+     * Appends the given entry to the end of its bucket in the current table.
+     *
+     * @param entry entry which is appended
+     */
+    private void appendEntry(TableEntry<K, V> entry) {
+        int slot = slotFor(entry.hash, table);
+        if (table[slot] == null) {
+            table[slot] = entry;
+            return;
+        }
+        TableEntry<K, V> last = table[slot];
+        while (last.next != null) {
+            last = last.next;
+        }
+        last.next = entry;
+    }
+
+    /**
+     * Compares two keys of a tree slot: first by hash code and then with {@link Comparable#compareTo(Object)}.
+     *
+     * @param hash1 hash code of the first key
+     * @param key1  first key, an instance of the class of the tree keys
+     * @param hash2 hash code of the second key
+     * @param key2  second key, an instance of the class of the tree keys
+     * @return negative number, zero or positive number if the first key is less than, equal to or greater than
+     *         the second one
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareTreeKeys(int hash1, Object key1, int hash2, Object key2) {
+        if (hash1 != hash2) {
+            return hash1 < hash2 ? -1 : 1;
+        }
+        return ((Comparable) key1).compareTo(key2);
+    }
+
+    /**
+     * Returns the entry with the given key from the tree with the given root.
+     *
+     * @param root root of the tree
+     * @param hash hash code of the key
+     * @param key  key of the entry, must not be null
+     * @return entry with the given key or null if the entry does not exist in the tree
+     */
+    private static <K, V> TreeEntry<K, V> findTreeEntry(TreeEntry<K, V> root, int hash, Object key) {
+        // a key of another class cannot be compared with the tree keys, but may still be equal to one of them
+        if (key.getClass() != root.key.getClass()) {
+            TreeEntry<K, V> entry = root;
+            while (entry.prev != null) {
+                entry = entry.prev;
+            }
+            for (; entry != null; entry = (TreeEntry<K, V>) entry.next) {
+                if (entry.key.equals(key)) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+        TreeEntry<K, V> entry = root;
+        while (entry != null) {
+            int c = compareTreeKeys(hash, key, entry.hash, entry.key);
+            if (c == 0) {
+                if (entry.key.equals(key)) {
+                    return entry;
+                }
+                // compareTo is not consistent with equals, so the key may be in either subtree
+                TreeEntry<K, V> found = entry.right == null ? null : findTreeEntry(entry.right, hash, key);
+                if (found != null) {
+                    return found;
+                }
+                entry = entry.left;
+            } else {
+                entry = c < 0 ? entry.left : entry.right;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds the given new entry to the tree slot with the given root.
+     * <p>
+     * The entry is linked into the list of the slot right after its first entry, and into the tree as a leaf.
+     * If this makes some subtree unbalanced, the highest such subtree is rebuilt.
+     *
+     * @param slot  slot of the tree in the current table
+     * @param root  root of the tree
+     * @param entry new entry, whose key is not in the tree yet
+     */
+    private void insertTreeEntry(int slot, TreeEntry<K, V> root, TreeEntry<K, V> entry) {
+        // link the entry into the list of the slot
+        TreeEntry<K, V> first = (TreeEntry<K, V>) table[slot];
+        entry.prev = first;
+        entry.next = first.next;
+        if (first.next != null) {
+            ((TreeEntry<K, V>) first.next).prev = entry;
+        }
+        first.next = entry;
+        // link the entry into the tree, equal keys go to the right
+        TreeEntry<K, V> parent = root;
+        while (true) {
+            parent.treeSize++;
+            boolean left = compareTreeKeys(entry.hash, entry.key, parent.hash, parent.key) < 0;
+            TreeEntry<K, V> child = left ? parent.left : parent.right;
+            if (child == null) {
+                if (left) {
+                    parent.left = entry;
+                } else {
+                    parent.right = entry;
+                }
+                entry.parent = parent;
+                break;
+            }
+            parent = child;
+        }
+        // find the highest unbalanced subtree on the path to the new entry
+        TreeEntry<K, V> unbalanced = null;
+        for (TreeEntry<K, V> node = entry.parent; node != null; node = node.parent) {
+            if (Math.max(treeSize(node.left), treeSize(node.right)) > TREE_BALANCE * node.treeSize) {
+                unbalanced = node;
+            }
+        }
+        if (unbalanced != null) {
+            rebuildSubtree(unbalanced);
+        }
+    }
+
+    /**
+     * Removes the given entry from the list and the tree of its slot.
+     *
+     * @param table table of the slot
+     * @param slot  slot of the tree
+     * @param entry entry which is removed
+     */
+    private static <K, V> void deleteTreeEntry(TableEntry<K, V>[] table, int slot, TreeEntry<K, V> entry) {
+        // unlink the entry from the list of the slot, its next reference is kept for iterators
+        if (entry.prev == null) {
+            table[slot] = entry.next;
+        } else {
+            entry.prev.next = entry.next;
+        }
+        if (entry.next != null) {
+            ((TreeEntry<K, V>) entry.next).prev = entry.prev;
+        }
+        // unlink the entry from the tree
+        TreeEntry<K, V> changed;
+        if (entry.left == null || entry.right == null) {
+            TreeEntry<K, V> child = entry.left != null ? entry.left : entry.right;
+            replaceInParent(entry, child);
+            changed = entry.parent;
+        } else {
+            // the successor takes the place of the entry
+            TreeEntry<K, V> successor = entry.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            if (successor.parent != entry) {
+                changed = successor.parent;
+                replaceInParent(successor, successor.right);
+                successor.right = entry.right;
+                successor.right.parent = successor;
+            } else {
+                changed = successor;
+            }
+            replaceInParent(entry, successor);
+            successor.left = entry.left;
+            successor.left.parent = successor;
+        }
+        // recalculate the sizes of the subtrees above the change
+        for (; changed != null; changed = changed.parent) {
+            changed.treeSize = 1 + treeSize(changed.left) + treeSize(changed.right);
+        }
+        entry.parent = entry.left = entry.right = null;
+    }
+
+    /**
+     * Puts the given replacement into the place of the given entry in the tree.
+     *
+     * @param entry       entry whose place is taken
+     * @param replacement entry which takes the place, may be null
+     */
+    private static <K, V> void replaceInParent(TreeEntry<K, V> entry, TreeEntry<K, V> replacement) {
+        if (entry.parent != null) {
+            if (entry.parent.left == entry) {
+                entry.parent.left = replacement;
+            } else {
+                entry.parent.right = replacement;
+            }
+        }
+        if (replacement != null) {
+            replacement.parent = entry.parent;
+        }
+    }
+
+    /**
+     * Returns the number of entries in the given subtree.
+     *
+     * @param node root of the subtree, may be null
+     * @return number of entries in the subtree
+     */
+    private static int treeSize(TreeEntry<?, ?> node) {
+        return node == null ? 0 : node.treeSize;
+    }
+
+    /**
+     * Rebuilds the given subtree into a perfectly balanced one.
+     *
+     * @param subtree root of the subtree
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, V> void rebuildSubtree(TreeEntry<K, V> subtree) {
+        TreeEntry<K, V>[] sorted = (TreeEntry<K, V>[]) new TreeEntry[subtree.treeSize];
+        collectInOrder(subtree, sorted, 0);
+        TreeEntry<K, V> parent = subtree.parent;
+        boolean left = parent != null && parent.left == subtree;
+        TreeEntry<K, V> rebuilt = buildBalanced(sorted, 0, sorted.length, parent);
+        if (parent != null) {
+            if (left) {
+                parent.left = rebuilt;
+            } else {
+                parent.right = rebuilt;
+            }
+        }
+    }
+
+    /**
+     * Stores the entries of the given subtree into the given array in order.
+     *
+     * @param node  root of the subtree, may be null
+     * @param array array into which the entries are stored
+     * @param i     index at which the first entry is stored
+     * @return index after the last stored entry
+     */
+    private static <K, V> int collectInOrder(TreeEntry<K, V> node, TreeEntry<K, V>[] array, int i) {
+        while (node != null) {
+            i = collectInOrder(node.left, array, i);
+            array[i++] = node;
+            node = node.right;
+        }
+        return i;
+    }
+
+    /**
+     * Builds a perfectly balanced tree from the given sorted entries.
+     *
+     * @param sorted sorted entries
+     * @param from   index of the first entry (inclusive)
+     * @param to     index of the last entry (exclusive)
+     * @param parent parent of the built tree
+     * @return root of the built tree, or null if the range is empty
+     */
+    private static <K, V> TreeEntry<K, V> buildBalanced(TreeEntry<K, V>[] sorted, int from, int to,
+                                                         TreeEntry<K, V> parent) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        TreeEntry<K, V> node = sorted[middle];
+        node.parent = parent;
+        node.left = buildBalanced(sorted, from, middle, node);
+        node.right = buildBalanced(sorted, middle + 1, to, node);
+        node.treeSize = to - from;
+        return node;
+    }
+
+    /**
+     * Turns the given slot into a tree if all its keys are instances of the same {@link Comparable} class.
+     * <p>
+     * The entries are copied into {@link TreeEntry} objects, which keep the order of the list.
+     *
+     * @param table table of the slot
+     * @param slot  slot which is turned into a tree
+     */
+    @SuppressWarnings("unchecked")
+    private void treeify(TableEntry<K, V>[] table, int slot) {
+        Class<?> keyClass = table[slot].key.getClass();
+        if (!Comparable.class.isAssignableFrom(keyClass)) {
+            return;
+        }
+        int length = 0;
+        for (TableEntry<K, V> entry = table[slot]; entry != null; entry = entry.next) {
+            if (entry.key.getClass() != keyClass) {
+                return;
+            }
+            length++;
+        }
+        TreeEntry<K, V>[] entries = (TreeEntry<K, V>[]) new TreeEntry[length];
+        int i = 0;
+        TreeEntry<K, V> previous = null;
+        for (TableEntry<K, V> entry = table[slot]; entry != null; entry = entry.next) {
+            TreeEntry<K, V> treeEntry = new TreeEntry<>(entry.owner, entry.hash, entry.key, entry.value);
+            treeEntry.prev = previous;
+            if (previous != null) {
+                previous.next = treeEntry;
+            }
+            previous = treeEntry;
+            entries[i++] = treeEntry;
+        }
+        table[slot] = entries[0];
+        TreeEntry<K, V>[] sorted = Arrays.copyOf(entries, length);
+        Arrays.sort(sorted, (Comparator<TreeEntry<K, V>>) (a, b) -> compareTreeKeys(a.hash, a.key, b.hash, b.key));
+        buildBalanced(sorted, 0, length, null);
+    }
+
+    /**
+     * Turns the given tree slot back into a list of plain entries, keeping the order of the list.
+     *
+     * @param table table of the slot
+     * @param slot  slot which is turned into a list
+     */
+    private static <K, V> void untreeify(TableEntry<K, V>[] table, int slot) {
+        TableEntry<K, V> head = null;
+        TableEntry<K, V> last = null;
+        for (TableEntry<K, V> entry = table[slot]; entry != null; entry = entry.next) {
+            TableEntry<K, V> plain = new TableEntry<>(entry);
+            if (last == null) {
+                head = plain;
+            } else {
+                last.next = plain;
+            }
+            last = plain;
+        }
+        table[slot] = head;
+    }
+
+    /**
+     * Resizes the hash table.
+     * <p>
+     * The new capacity is two times the old capacity. Since the capacity is a power of 2, the entries of slot
+     * {@code i} either stay in slot {@code i} or move to slot {@code i + oldCapacity}, depending on one bit of
+     * the spread hash code. Every list is split into these two lists in place, keeping the order of the entries
+     * and using the hash codes stored in the entries, so no entry is copied or hashed again.
+     * Tree slots are split into plain lists, which are turned into trees again if they are long enough.
+     */
+    @SuppressWarnings("unchecked")
+    private void resize() {
+        TableEntry<K, V>[] oldTable = table;
+        int oldCapacity = oldTable.length;
+        if (metrics != null) {
+            metrics.resized(oldCapacity, oldCapacity * 2);
+        }
+        table = (TableEntry<K, V>[]) new TableEntry[oldCapacity * 2];
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            TableEntry<K, V> entry = oldTable[slot];
+            if (entry == null) {
+                continue;
+            }
+            boolean tree = entry instanceof TreeEntry;
+            TableEntry<K, V> lowTail = null;
+            TableEntry<K, V> highTail = null;
+            int lowLength = 0;
+            int highLength = 0;
+            while (entry != null) {
+                TableEntry<K, V> next = entry.next;
+                if (tree) {
+                    entry = new TableEntry<>(entry);
+                }
+                entry.next = null;
+                if ((spreader.spread(entry.hash) & oldCapacity) == 0) {
+                    if (lowTail == null) {
+                        table[slot] = entry;
+                    } else {
+                        lowTail.next = entry;
+                    }
+                    lowTail = entry;
+                    lowLength++;
+                } else {
+                    if (highTail == null) {
+                        table[slot + oldCapacity] = entry;
+                    } else {
+                        highTail.next = entry;
+                    }
+                    highTail = entry;
+                    highLength++;
+                }
+                entry = next;
+            }
+            if (tree && lowLength >= TREEIFY_THRESHOLD) {
+                treeify(table, slot);
+            }
+            if (tree && highLength >= TREEIFY_THRESHOLD) {
+                treeify(table, slot + oldCapacity);
+            }
+        }
+    }
+
+    /**
+     * Returns the value of the entry with the given key.
+     *
+     * @param key key of the entry
+     * @return value of the entry or null if the entry does not exist
+     */
+    public V get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        record(CollectionMetrics.Operation.GET);
+        TableEntry<K, V> entry = findEntry(key);
+        // if the key does not exist, return null
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * Checks if the hash table contains the entry with the given key.
+     *
+     * @param key key of the entry
+     * @return true if the hash table contains the entry with the given key, false otherwise
+     */
+    public boolean containsKey(Object key) {
+        if (key == null) {
+            return false;
+        }
+        record(CollectionMetrics.Operation.SEARCH);
+        return findEntry(key) != null;
+    }
+
+    /**
+     * Checks if the hash table contains the entry with the given value.
+     *
+     * @param value value of the entry
+     * @return true if the hash table contains the entry with the given value, false otherwise
+     */
+    public boolean containsValue(Object value) {
+        record(CollectionMetrics.Operation.SEARCH);
+        if (valueFilter != null) {
+            // values set through the entries of this table are not in the filter yet
+            if (valueFilterStale) {
+                rebuildValueFilter(valueFilter.getFalsePositiveRate());
+            }
+            if (!valueFilter.mightContain(value)) {
+                return false;
+            }
+        }
+        // during an incremental resize the old table is searched too
+        boolean found = oldTable != null && containsValue(oldTable, value) || containsValue(table, value);
+        if (!found && valueFilter != null) {
+            valueFilter.recordFalsePositive();
+        }
+        return found;
+    }
+
+    /**
+     * Enables a Bloom filter which lets {@link #containsValue(Object)} skip the scan of the whole table
+     * for values which are definitely not in it.
+     * <p>
+     * The filter is built from the current values and kept up to date by {@link #put(Object, Object)},
+     * {@link #remove(Object)}, {@link #clear()} and the iterator. It is rebuilt from the values when the table
+     * has doubled in size or half of the added values have been removed or overwritten since the last build.
+     * A value set through {@link TableEntry#setValue(Object)} of an entry of this table only marks the filter
+     * as stale, so after such calls the next {@code containsValue} rebuilds the filter first.
+     * Entries of other tables do not affect this filter.
+     *
+     * @param falsePositiveRate probability that a value which is not in the table still has to be searched
+     * @throws IllegalArgumentException if the rate is not between 0 and 1
+     */
+    public void enableValueFilter(double falsePositiveRate) {
+        rebuildValueFilter(falsePositiveRate);
+    }
+
+    /**
+     * Disables the value filter, so every {@link #containsValue(Object)} scans the table again.
+     */
+    public void disableValueFilter() {
+        valueFilter = null;
+    }
+
+    /**
+     * Returns the value filter, whose methods report its memory usage and false positive rate.
+     *
+     * @return value filter, or null if it is not enabled
+     */
+    public BloomFilter getValueFilter() {
+        return valueFilter;
+    }
+
+    /**
+     * Replaces the value filter with a new one built from the current values,
+     * keeping the statistics of the old filter.
+     *
+     * @param falsePositiveRate false positive rate of the new filter
+     */
+    private void rebuildValueFilter(double falsePositiveRate) {
+        BloomFilter filter = new BloomFilter(size * 2, falsePositiveRate);
+        valueFilterStale = false;
+        if (oldTable != null) {
+            addValues(filter, oldTable);
+        }
+        addValues(filter, table);
+        if (valueFilter != null) {
+            filter.copyStatistics(valueFilter);
+        }
+        valueFilter = filter;
+    }
+
+    /**
+     * Adds the values of all entries of the given table to the given filter.
+     *
+     * @param filter filter to which the values are added
+     * @param table  table whose values are added
+     */
+    private static void addValues(BloomFilter filter, TableEntry<?, ?>[] table) {
+        for (TableEntry<?, ?> entry : table) {
+            while (entry != null) {
+                filter.add(entry.value);
+                entry = entry.next;
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the value filter when it has outgrown its size or holds too many removed values.
+     */
+    private void rebuildValueFilterIfNeeded() {
+        if (valueFilter.needsRebuild()) {
+            rebuildValueFilter(valueFilter.getFalsePositiveRate());
+        }
+    }
+
+    /**
+     * Adds the given value to the value filter, if it is enabled, and rebuilds the filter if it is full.
+     *
+     * @param value value of a new entry
+     */
+    private void addToValueFilter(Object value) {
+        if (valueFilter != null) {
+            valueFilter.add(value);
+            rebuildValueFilterIfNeeded();
+        }
+    }
+
+    /**
+     * Checks if the given table contains the entry with the given value.
+     *
+     * @param table table which is searched
+     * @param value value of the entry
+     * @return true if the table contains the entry with the given value, false otherwise
+     */
+    private static boolean containsValue(TableEntry<?, ?>[] table, Object value) {
+        // iterate through all the slots in the table
+        for (TableEntry<?, ?> entry : table) {
+            // if the slot is empty, continue
+            if (entry == null) {
+                continue;
+            }
+            // otherwise, iterate through the entries in the slot and check if the value exists
+            // if it does, return true
+            while (entry != null) {
+                if (entry.value.equals(value)) {
+                    return true;
+                }
+                entry = entry.next;
+            }
+        }
+        // if the value does not exist, return false
+        return false;
+    }
+
+    /**
+     * Removes the entry with the given key from the hash table and returns its value.
+     *
+     * @param key key of the entry
+     * @return value of the entry or null if the entry does not exist
+     */
+    public V remove(Object key) {
+        if (key == null) {
+            return null;
+        }
+        record(CollectionMetrics.Operation.REMOVE);
+        TableEntry<K, V> removed = removeEntry(key, true);
+        if (removed == null) {
+            return null;
+        }
+        migrateStep();
+        return removed.value;
+    }
+
+    /**
+     * Removes the entry with the given key without moving any buckets of an incremental resize.
+     * <p>
+     * An iterator removes entries with {@code restructure} set to false, so that it can continue
+     * through the same tables and the same entries.
+     *
+     * @param key         key of the entry, must not be null
+     * @param restructure whether a tree slot may be turned back into a list
+     * @return removed entry or null if the entry does not exist
+     */
+    private TableEntry<K, V> removeEntry(Object key, boolean restructure) {
+        TableEntry<K, V> removed = null;
+        // during an incremental resize the key may still be in the old table
+        if (oldTable != null) {
+            removed = unlink(oldTable, key, restructure);
+        }
+        if (removed == null) {
+            removed = unlink(table, key, restructure);
+        }
+        if (removed != null) {
+            size--;
+            modificationCount++;
+            if (valueFilter != null) {
+                valueFilter.recordRemovals(1);
+                rebuildValueFilterIfNeeded();
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Unlinks the entry with the given key from its bucket in the given table.
+     * <p>
+     * The size and the modification count are not changed.
+     *
+     * @param table       table from which the entry is unlinked
+     * @param key         key of the entry, must not be null
+     * @param restructure whether a tree slot may be turned back into a list
+     * @return unlinked entry or null if the entry does not exist in the given table
+     */
+    private TableEntry<K, V> unlink(TableEntry<K, V>[] table, Object key, boolean restructure) {
+        int hash = key.hashCode();
+        int slot = slotFor(hash, table);
         TableEntry<K, V> entry = table[slot];
         // if the slot is empty, return null
         if (entry == null) {
             return null;
         }
-        // if the entry is the first in the slot, remove it and return its value
-        if (entry.key.equals(key)) {
+        // a tree slot is searched through the tree
+        if (entry instanceof TreeEntry) {
+            TreeEntry<K, V> root = ((TreeEntry<K, V>) entry).root();
+            TreeEntry<K, V> removed = findTreeEntry(root, hash, key);
+            if (removed == null) {
+                return null;
+            }
+            deleteTreeEntry(table, slot, removed);
+            if (restructure && table[slot] != null
+                    && ((TreeEntry<K, V>) table[slot]).root().treeSize <= UNTREEIFY_THRESHOLD) {
+                untreeify(table, slot);
+            }
+            return removed;
+        }
+        // if the entry is the first in the slot, unlink it
+        if (entry.hash == hash && entry.key.equals(key)) {
             table[slot] = entry.next;
-            size--;
-            modificationCount++;
-            return entry.value;
+            return entry;
         }
         // otherwise, iterate through the entries in the slot and check if the key exists
         // if it does, remove it and return its value
         while (entry.next != null) {
-            if (entry.next.key.equals(key)) {
-                V value = entry.next.value;
-                entry.next = entry.next.next;
-                size--;
-                modificationCount++;
-                return value;
+            if (entry.next.hash == hash && entry.next.key.equals(key)) {
+                TableEntry<K, V> removed = entry.next;
+                entry.next = removed.next;
+                return removed;
             }
             entry = entry.next;
         }
@@ -352,9 +1443,27 @@ public class SimpleHashtable<K,V> implements Iterable<SimpleHashtable.TableEntry
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("[");
+        if (oldTable != null) {
+            appendEntries(sb, oldTable);
+        }
+        appendEntries(sb, table);
+        // remove the last comma and space
+        if (sb.length() > 1) {
+            sb.delete(sb.length() - 2, sb.length());
+        }
+        return sb.append("]").toString();
+    }
+
+    /**
+     * Appends all entries of the given table to the given string builder.
+     *
+     * @param sb    string builder to which the entries are appended
+     * @param table table whose entries are appended
+     */
+    private static void appendEntries(StringBuilder sb, TableEntry<?, ?>[] table) {
         ///* debug */ int i = 0;
         // iterate through all the slots in the table
-        for (TableEntry<K, V> entry : table) {
+        for (TableEntry<?, ?> entry : table) {
             ///* debug */ sb.append("(slot ").append(i++).append(":) ");
             // if the slot is empty, continue
             if (entry == null) {
@@ -366,11 +1475,6 @@ public class SimpleHashtable<K,V> implements Iterable<SimpleHashtable.TableEntry
                 entry = entry.next;
             }
         }
-        // remove the last comma and space
-        if (sb.length() > 1) {
-            sb.delete(sb.length() - 2, sb.length());
-        }
-        return sb.append("]").toString();
     }
 
     /**
@@ -379,7 +1483,20 @@ public class SimpleHashtable<K,V> implements Iterable<SimpleHashtable.TableEntry
     @SuppressWarnings("unchecked")
     public TableEntry<K, V>[] toArray() {
         TableEntry<K, V>[] array = (TableEntry<K, V>[]) new TableEntry[size];
-        int i = 0;
+        int i = oldTable == null ? 0 : copyEntries(oldTable, array, 0);
+        copyEntries(table, array, i);
+        return array;
+    }
+
+    /**
+     * Copies all entries of the given table into the given array.
+     *
+     * @param table table whose entries are copied
+     * @param array array into which the entries are copied
+     * @param i     index of the array at which the first entry is stored
+     * @return index of the array after the last copied entry
+     */
+    private static <K, V> int copyEntries(TableEntry<K, V>[] table, TableEntry<K, V>[] array, int i) {
         // iterate through all the slots in the table
         for (TableEntry<K, V> entry : table) {
             // if the slot is empty, continue
@@ -392,7 +1509,7 @@ public class SimpleHashtable<K,V> implements Iterable<SimpleHashtable.TableEntry
                 entry = entry.next;
             }
         }
-        return array;
+        return i;
     }
 
     /**
@@ -401,8 +1518,13 @@ public class SimpleHashtable<K,V> implements Iterable<SimpleHashtable.TableEntry
     public void clear() {
         // iterate through all the slots in the table
         Arrays.fill(table, null);
+        oldTable = null;
         size = 0;
         modificationCount++;
+        if (valueFilter != null) {
+            valueFilter.clear();
+        }
+        record(CollectionMetrics.Operation.CLEAR);
     }
 
     /**
@@ -415,10 +1537,192 @@ public class SimpleHashtable<K,V> implements Iterable<SimpleHashtable.TableEntry
         return new IteratorImpl();
     }
 
+    /**
+     * Creates a new SplittableElementsGetter for the entries of the hash table.
+     * <p>
+     * The getter covers a range of slots, which is split in halves. During an incremental resize
+     * the slots of the old table come before the slots of the new one.
+     *
+     * @return new SplittableElementsGetter for the entries of the hash table
+     */
+    public SplittableElementsGetter<TableEntry<K, V>> createSplittableElementsGetter() {
+        int slots = (oldTable == null ? 0 : oldTable.length) + table.length;
+        return new SlotElementsGetter(0, slots, modificationCount);
+    }
+
+    /**
+     * Calls processor.process(.) for each entry of the hash table, using all threads of the common
+     * {@link java.util.concurrent.ForkJoinPool}.
+     * <p>
+     * The entries are processed in no particular order, so the processor must be thread-safe.
+     * The hash table must not be modified while the entries are processed, except by setting their values.
+     *
+     * @param processor processor whose method process(.) is called for each entry
+     *
+     * @throws NullPointerException if the given processor is null
+     */
+    public void parallelForEach(Processor<? super TableEntry<K, V>> processor) {
+        if (processor == null) {
+            throw new NullPointerException("Processor must not be null");
+        }
+        ParallelProcessing.forEach(createSplittableElementsGetter(), processor);
+    }
+
+    /**
+     * Adds all entries of the hash table which satisfy the condition of the given tester to the given collection.
+     * <p>
+     * The entries are tested in parallel, using all threads of the common {@link java.util.concurrent.ForkJoinPool},
+     * so the tester must be thread-safe. The satisfying entries are added to the given collection
+     * by the calling thread, in the iteration order of the hash table.
+     *
+     * @param tester tester whose test method is called for each entry
+     * @param target collection to which the satisfying entries are added
+     *
+     * @throws NullPointerException if the given tester or collection is null
+     */
+    public void parallelFilterInto(Tester<? super TableEntry<K, V>> tester, Collection<? super TableEntry<K, V>> target) {
+        if (tester == null || target == null) {
+            throw new NullPointerException("Tester and target collection must not be null");
+        }
+        ParallelProcessing.filterInto(createSplittableElementsGetter(), tester, target);
+    }
+
+    /**
+     * This class represents a splittable getter for the entries in a range of slots.
+     */
+    private class SlotElementsGetter implements SplittableElementsGetter<TableEntry<K, V>> {
+        /**
+         * Slot of the next entry, the slots of the old table come first during an incremental resize.
+         */
+        private int slot;
+
+        /**
+         * Slot after the last slot of the range.
+         */
+        private final int fence;
+
+        /**
+         * Next entry in the current slot, or null if the slot has not been entered yet.
+         */
+        private TableEntry<K, V> entry;
+
+        /**
+         * Saved number of modifications of the hash table.
+         */
+        private final int savedModificationCount;
+
+        /**
+         * Constructs a new getter for the given range of slots.
+         *
+         * @param slot                   first slot of the range
+         * @param fence                  slot after the last slot of the range
+         * @param savedModificationCount number of modifications of the hash table
+         */
+        private SlotElementsGetter(int slot, int fence, int savedModificationCount) {
+            this.slot = slot;
+            this.fence = fence;
+            this.savedModificationCount = savedModificationCount;
+        }
+
+        /**
+         * Returns the first entry of the given slot.
+         *
+         * @param slot slot in the range of both tables
+         * @return first entry of the slot or null if the slot is empty
+         */
+        private TableEntry<K, V> firstEntry(int slot) {
+            if (oldTable != null) {
+                return slot < oldTable.length ? oldTable[slot] : table[slot - oldTable.length];
+            }
+            return table[slot];
+        }
+
+        /**
+         * Moves to the next entry if the current slot has no more entries.
+         *
+         * @throws ConcurrentModificationException if the hash table has been modified since the getter was created
+         */
+        private void advance() {
+            if (savedModificationCount != modificationCount) {
+                throw concurrentModification();
+            }
+            while (entry == null && slot < fence) {
+                entry = firstEntry(slot++);
+            }
+        }
+
+        /**
+         * Checks if there are more entries in the range.
+         *
+         * @return true if there are more entries in the range, false otherwise
+         *
+         * @throws ConcurrentModificationException if the hash table has been modified since the getter was created
+         */
+        @Override
+        public boolean hasNextElement() {
+            advance();
+            return entry != null;
+        }
+
+        /**
+         * Returns the next entry in the range.
+         *
+         * @return next entry in the range
+         *
+         * @throws ConcurrentModificationException if the hash table has been modified since the getter was created
+         * @throws NoSuchElementException          if there are no more entries
+         */
+        @Override
+        public TableEntry<K, V> getNextElement() {
+            advance();
+            if (entry == null) {
+                throw new NoSuchElementException("There are no more elements.");
+            }
+            TableEntry<K, V> next = entry;
+            entry = entry.next;
+            return next;
+        }
+
+        /**
+         * Splits off the first half of the remaining slots.
+         *
+         * @return getter for the first half of the remaining slots, or null if there is only one slot left
+         */
+        @Override
+        public SplittableElementsGetter<TableEntry<K, V>> trySplit() {
+            int middle = (slot + fence) >>> 1;
+            if (middle <= slot) {
+                return null;
+            }
+            SlotElementsGetter prefix = new SlotElementsGetter(slot, middle, savedModificationCount);
+            // the rest of the slot which has already been entered goes with the first half
+            prefix.entry = entry;
+            entry = null;
+            slot = middle;
+            return prefix;
+        }
+
+        /**
+         * Estimates the number of remaining entries from the number of remaining slots.
+         *
+         * @return estimated number of remaining entries
+         */
+        @Override
+        public long estimateSize() {
+            int slots = (oldTable == null ? 0 : oldTable.length) + table.length;
+            return (long) size * (fence - slot) / slots + (entry == null ? 0 : 1);
+        }
+    }
+
     /**
      * This class represents an iterator for the hash table.
      */
     private class IteratorImpl implements Iterator<SimpleHashtable.TableEntry<K,V>> {
+        /**
+         * Table which is currently iterated; during an incremental resize the old table is iterated first.
+         */
+        private TableEntry<K,V>[] iteratedTable;
+
         /**
          * Index of the current slot.
          */
@@ -450,6 +1754,7 @@ public class SimpleHashtable<K,V> implements Iterable<SimpleHashtable.TableEntry
          * Constructs a new iterator for the hash table.
          */
         public IteratorImpl() {
+            iteratedTable = oldTable != null ? oldTable : table;
             slotIndex = -1;
             entryIndex = 0;
             entry = null;
@@ -494,12 +1799,17 @@ public class SimpleHashtable<K,V> implements Iterable<SimpleHashtable.TableEntry
             if (entry == null || entry.next == null) {
                 // increment the slot index
                 slotIndex++;
-                // find the next non-empty slot
-                while (slotIndex < table.length && table[slotIndex] == null) {
-                    slotIndex++;
+                // find the next non-empty slot, continuing from the old table into the new one
+                while (slotIndex == iteratedTable.length || iteratedTable[slotIndex] == null) {
+                    if (slotIndex == iteratedTable.length) {
+                        iteratedTable = table;
+                        slotIndex = 0;
+                    } else {
+                        slotIndex++;
+                    }
                 }
                 // set the current entry to the first entry in the slot
-                entry = table[slotIndex];
+                entry = iteratedTable[slotIndex];
             } else {
                 // otherwise, set the current entry to the next entry
                 entry = entry.next;
@@ -523,7 +1833,8 @@ public class SimpleHashtable<K,V> implements Iterable<SimpleHashtable.TableEntry
                 throw new IllegalStateException("There is no current element.");
             }
             // otherwise, remove the current entry
-            SimpleHashtable.this.remove(entry.key);
+            record(CollectionMetrics.Operation.REMOVE);
+            removeEntry(entry.key, false);
             // set the removed flag to true
             removed = true;
             // decrement the entry index
@@ -540,7 +1851,7 @@ public class SimpleHashtable<K,V> implements Iterable<SimpleHashtable.TableEntry
          */
         private void checkModificationCount() {
             if (savedModificationCount != modificationCount) {
-                throw new ConcurrentModificationException("The hash table has been modified.");
+                throw concurrentModification();
             }
         }
     }
@@ -0,0 +1,34 @@
+package hr.fer.oprpp1.custom.collections;
+
+/**
+ * An {@link ElementsGetter} which can hand off a part of its remaining elements to another getter,
+ * so that the elements of one collection can be processed by several threads.
+ * <p>
+ * The design follows {@link java.util.Spliterator}: {@link #trySplit()} returns a getter which covers
+ * the first part of the remaining elements, and this getter keeps the rest.
+ *
+ * @param <T> type of elements in the collection
+ *
+ * @see Collection#createSplittableElementsGetter()
+ * @see Collection#parallelForEach(Processor)
+ *
+ * @version 1.0
+ * @author Marko Šelendić
+ */
+public interface SplittableElementsGetter<T> extends ElementsGetter<T> {
+    /**
+     * Splits off the first part of the remaining elements into a new getter.
+     * <p>
+     * After the split, this getter returns only the elements which are not covered by the returned getter.
+     *
+     * @return getter for the first part of the remaining elements, or null if the elements cannot be split
+     */
+    SplittableElementsGetter<T> trySplit();
+
+    /**
+     * Returns an estimate of the number of remaining elements.
+     *
+     * @return estimated number of remaining elements
+     */
+    long estimateSize();
+}
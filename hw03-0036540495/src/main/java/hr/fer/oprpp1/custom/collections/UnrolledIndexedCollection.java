@@ -0,0 +1,613 @@
+package hr.fer.oprpp1.custom.collections;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+/**
+ * Collection of objects implemented as an unrolled list.
+ * <p>
+ * Instead of one node per element, the elements are stored in fixed-size array chunks.
+ * The chunks are kept in order in a chunk directory, together with an index of chunk sizes
+ * (a Fenwick tree), so the chunk which holds a given index is found in O(log c) steps, where c is
+ * the number of chunks. Inserting or removing an element shifts at most one chunk.
+ * <p>
+ * A full chunk is split in two halves, and a chunk which falls under a quarter of its capacity is merged
+ * with a neighbour if they fit into one chunk, so chunks stay at least a quarter full on average.
+ * <p>
+ * Duplicate elements are allowed.
+ * Storage of null references is not allowed.
+ *
+ * @param <T> type of elements stored in this collection
+ *
+ * @see List
+ * @see Collection
+ * @see ElementsGetter
+ * @see LinkedListIndexedCollection
+ *
+ * @version 1.1
+ * @author Marko Šelendić
+ */
+public class UnrolledIndexedCollection<T> implements List<T> {
+
+    /**
+     * Default number of elements in a chunk.
+     */
+    private static final int DEFAULT_CHUNK_CAPACITY = 64;
+
+    /**
+     * Size of an array header in bytes, used by {@link #memoryFootprint()}.
+     */
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    /**
+     * Size of this object (header and fields) in bytes, used by {@link #memoryFootprint()}.
+     */
+    private static final int OBJECT_BYTES = 48;
+
+    /**
+     * Size of a reference in bytes, used by {@link #memoryFootprint()}.
+     */
+    private static final int REFERENCE_BYTES = 4;
+
+    /**
+     * Number of elements a chunk can hold.
+     */
+    private final int chunkCapacity;
+
+    /**
+     * Chunks of elements in list order, only the first {@link #chunkCount} are used.
+     */
+    private Object[][] chunks;
+
+    /**
+     * Number of elements in every chunk.
+     */
+    private int[] chunkSizes;
+
+    /**
+     * Fenwick tree over {@link #chunkSizes}, {@code sizeIndex[i]} is the sum of the sizes of the chunks
+     * from {@code i - (i & -i)} to {@code i - 1}.
+     */
+    private int[] sizeIndex;
+
+    /**
+     * Number of used chunks.
+     */
+    private int chunkCount;
+
+    /**
+     * Current number of elements in the collection.
+     */
+    private int size;
+
+    /**
+     * Number of modifications made to the collection.
+     */
+    private long modificationCount = 0;
+
+    /**
+     * The last snapshot of the collection, null if no snapshot has been taken.
+     */
+    private PersistentVector<T> snapshot;
+
+    /**
+     * Number of modifications made to the collection when the last snapshot was taken.
+     */
+    private long snapshotModificationCount;
+
+    /**
+     * Creates an empty collection with the default chunk capacity (64).
+     */
+    public UnrolledIndexedCollection() {
+        this(DEFAULT_CHUNK_CAPACITY);
+    }
+
+    /**
+     * Creates an empty collection with the given chunk capacity.
+     *
+     * @param chunkCapacity number of elements a chunk can hold
+     * @throws IllegalArgumentException if chunk capacity is less than 4
+     */
+    public UnrolledIndexedCollection(int chunkCapacity) {
+        if (chunkCapacity < 4) {
+            throw new IllegalArgumentException("Chunk capacity must be at least 4.");
+        }
+
+        this.chunkCapacity = chunkCapacity;
+        this.chunks = new Object[4][];
+        this.chunkSizes = new int[4];
+        this.sizeIndex = new int[5];
+    }
+
+    /**
+     * Creates a collection with the same elements as the given collection and the default chunk capacity.
+     *
+     * @param other collection whose elements will be copied into this collection
+     * @throws NullPointerException if other collection is null
+     */
+    public UnrolledIndexedCollection(Collection<? extends T> other) {
+        this();
+        if (other == null) {
+            throw new NullPointerException("Other collection must not be null.");
+        }
+        this.addAll(other);
+    }
+
+    /**
+     * Returns the number of elements a chunk can hold.
+     *
+     * @return chunk capacity
+     */
+    public int getChunkCapacity() {
+        return this.chunkCapacity;
+    }
+
+    /**
+     * Returns the number of chunks currently in use.
+     *
+     * @return number of chunks
+     */
+    public int getChunkCount() {
+        return this.chunkCount;
+    }
+
+    /**
+     * @see Collection#size()
+     */
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Adds the given amount to the size of the given chunk in the size index.
+     *
+     * @param chunk chunk whose size changed
+     * @param delta change of the size
+     */
+    private void updateIndex(int chunk, int delta) {
+        this.chunkSizes[chunk] += delta;
+        for (int i = chunk + 1; i <= this.chunkCount; i += i & -i) {
+            this.sizeIndex[i] += delta;
+        }
+    }
+
+    /**
+     * Rebuilds the size index after chunks have been added, removed or moved.
+     */
+    private void rebuildIndex() {
+        Arrays.fill(this.sizeIndex, 0, this.chunkCount + 1, 0);
+        for (int i = 1; i <= this.chunkCount; i++) {
+            this.sizeIndex[i] += this.chunkSizes[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= this.chunkCount) {
+                this.sizeIndex[parent] += this.sizeIndex[i];
+            }
+        }
+    }
+
+    /**
+     * Finds the chunk which contains the element at the given index.
+     *
+     * @param index index of the element, between 0 and size - 1
+     * @return chunk in the upper 32 bits and offset inside the chunk in the lower 32 bits
+     */
+    private long locate(int index) {
+        int chunk = 0;
+        int remaining = index;
+        // descend the Fenwick tree, skipping whole ranges of chunks which end before the index
+        for (int step = Integer.highestOneBit(this.chunkCount); step > 0; step >>= 1) {
+            int next = chunk + step;
+            if (next <= this.chunkCount && this.sizeIndex[next] <= remaining) {
+                chunk = next;
+                remaining -= this.sizeIndex[next];
+            }
+        }
+        return (long) chunk << 32 | remaining;
+    }
+
+    /**
+     * Inserts a new empty chunk at the given position in the chunk directory.
+     *
+     * @param position position of the new chunk
+     */
+    private void insertChunk(int position) {
+        if (this.chunkCount == this.chunks.length) {
+            int newLength = this.chunks.length * 2;
+            this.chunks = Arrays.copyOf(this.chunks, newLength);
+            this.chunkSizes = Arrays.copyOf(this.chunkSizes, newLength);
+            this.sizeIndex = new int[newLength + 1];
+        }
+        System.arraycopy(this.chunks, position, this.chunks, position + 1, this.chunkCount - position);
+        System.arraycopy(this.chunkSizes, position, this.chunkSizes, position + 1, this.chunkCount - position);
+        this.chunks[position] = new Object[this.chunkCapacity];
+        this.chunkSizes[position] = 0;
+        this.chunkCount++;
+    }
+
+    /**
+     * Removes the chunk at the given position from the chunk directory.
+     *
+     * @param position position of the chunk
+     */
+    private void removeChunk(int position) {
+        int moved = this.chunkCount - position - 1;
+        System.arraycopy(this.chunks, position + 1, this.chunks, position, moved);
+        System.arraycopy(this.chunkSizes, position + 1, this.chunkSizes, position, moved);
+        this.chunkCount--;
+        this.chunks[this.chunkCount] = null;
+        this.chunkSizes[this.chunkCount] = 0;
+    }
+
+    /**
+     * @see Collection#add(T)
+     * @throws NullPointerException if the value is null
+     */
+    @Override
+    public void add(T value) {
+        if (value == null) {
+            throw new NullPointerException("Value must not be null.");
+        }
+
+        int last = this.chunkCount - 1;
+        if (last < 0 || this.chunkSizes[last] == this.chunkCapacity) {
+            last++;
+            this.insertChunk(last);
+            this.rebuildIndex();
+        }
+
+        this.chunks[last][this.chunkSizes[last]] = value;
+        this.updateIndex(last, 1);
+        this.size++;
+        modificationCount++;
+    }
+
+    /**
+     * @see Collection#contains(Object)
+     */
+    @Override
+    public boolean contains(Object value) {
+        return this.indexOf(value) != -1;
+    }
+
+    /**
+     * Removes a single instance of the given value from this collection if it exists.
+     *
+     * @param value value to be removed from the collection
+     * @return true if the collection contains given value, false otherwise
+     */
+    @Override
+    public boolean remove(Object value) {
+        int index = this.indexOf(value);
+        if (index == -1) {
+            return false;
+        }
+
+        this.remove(index);
+        return true;
+    }
+
+    /**
+     * @see Collection#toArray()
+     */
+    @Override
+    public Object[] toArray() {
+        Object[] array = new Object[this.size];
+        this.copyTo(array);
+        return array;
+    }
+
+    /**
+     * Copies all elements in list order to the beginning of the given array.
+     *
+     * @param array array which is at least as long as the collection
+     */
+    private void copyTo(Object[] array) {
+        int position = 0;
+        for (int i = 0; i < this.chunkCount; i++) {
+            System.arraycopy(this.chunks[i], 0, array, position, this.chunkSizes[i]);
+            position += this.chunkSizes[i];
+        }
+    }
+
+    /**
+     * @see Collection#toArray(T[])
+     * @throws NullPointerException if the given array is null
+     * @throws ArrayStoreException if an element copied from this collection is not of a runtime type
+     *                             that can be stored in the new array
+     */
+    @Override
+    public T[] toArray(T[] a) {
+        if (a == null) {
+            throw new NullPointerException("Given array must not be null.");
+        }
+        if (a.length < this.size) {
+            a = Arrays.copyOf(a, this.size);
+        }
+        this.copyTo(a);
+        if (a.length > this.size) {
+            a[this.size] = null;
+        }
+        return a;
+    }
+
+    /**
+     * @see List#get(int)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index > this.size - 1) {
+            throw new IndexOutOfBoundsException("Index must be between 0 and size-1.");
+        }
+
+        long location = this.locate(index);
+        return (T) this.chunks[(int) (location >>> 32)][(int) location];
+    }
+
+    /**
+     * @see Collection#clear()
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(this.chunks, 0, this.chunkCount, null);
+        Arrays.fill(this.chunkSizes, 0, this.chunkCount, 0);
+        Arrays.fill(this.sizeIndex, 0);
+        this.chunkCount = 0;
+        this.size = 0;
+        modificationCount++;
+    }
+
+    /**
+     * Inserts the given value at the given position.
+     * <p>
+     * Only the elements of one chunk are shifted. If that chunk is full, it is split in two halves first.
+     *
+     * @see List#insert(T, int)
+     */
+    @Override
+    public void insert(T value, int position) {
+        if (value == null) {
+            throw new NullPointerException("Value must not be null.");
+        }
+
+        if (position < 0 || position > this.size) {
+            throw new IndexOutOfBoundsException("Position must be between 0 and size.");
+        }
+
+        if (position == this.size) {
+            this.add(value);
+            return;
+        }
+
+        long location = this.locate(position);
+        int chunk = (int) (location >>> 32);
+        int offset = (int) location;
+
+        if (this.chunkSizes[chunk] == this.chunkCapacity) {
+            // move the upper half of the full chunk into a new chunk after it
+            int half = this.chunkCapacity / 2;
+            this.insertChunk(chunk + 1);
+            System.arraycopy(this.chunks[chunk], half, this.chunks[chunk + 1], 0, this.chunkCapacity - half);
+            Arrays.fill(this.chunks[chunk], half, this.chunkCapacity, null);
+            this.chunkSizes[chunk] = half;
+            this.chunkSizes[chunk + 1] = this.chunkCapacity - half;
+            this.rebuildIndex();
+            if (offset > half) {
+                chunk++;
+                offset -= half;
+            }
+        }
+
+        Object[] elements = this.chunks[chunk];
+        System.arraycopy(elements, offset, elements, offset + 1, this.chunkSizes[chunk] - offset);
+        elements[offset] = value;
+        this.updateIndex(chunk, 1);
+        this.size++;
+        modificationCount++;
+    }
+
+    /**
+     * Returns an immutable copy of the current elements of this collection.
+     * <p>
+     * The chunks are copied only if the collection has been modified since the previous snapshot,
+     * otherwise the previous snapshot is returned.
+     *
+     * @see Collection#snapshot()
+     */
+    @Override
+    public PersistentVector<T> snapshot() {
+        if (this.snapshot == null || this.snapshotModificationCount != this.modificationCount) {
+            this.snapshot = PersistentVector.of(this);
+            this.snapshotModificationCount = this.modificationCount;
+        }
+        return this.snapshot;
+    }
+
+    /**
+     * @see List#indexOf(Object)
+     */
+    @Override
+    public int indexOf(Object value) {
+        if (value == null) {
+            return -1;
+        }
+
+        int index = 0;
+        for (int i = 0; i < this.chunkCount; i++) {
+            Object[] elements = this.chunks[i];
+            for (int j = 0; j < this.chunkSizes[i]; j++) {
+                if (elements[j].equals(value)) {
+                    return index + j;
+                }
+            }
+            index += this.chunkSizes[i];
+        }
+
+        return -1;
+    }
+
+    /**
+     * Removes the element at the given index.
+     * <p>
+     * Only the elements of one chunk are shifted. If the chunk falls under a quarter of its capacity,
+     * it is merged with a neighbour when both fit into one chunk.
+     *
+     * @see List#remove(int)
+     */
+    @Override
+    public void remove(int index) {
+        if (index < 0 || index > this.size - 1) {
+            throw new IndexOutOfBoundsException("Index must be between 0 and size-1.");
+        }
+
+        long location = this.locate(index);
+        int chunk = (int) (location >>> 32);
+        int offset = (int) location;
+
+        Object[] elements = this.chunks[chunk];
+        int chunkSize = this.chunkSizes[chunk];
+        System.arraycopy(elements, offset + 1, elements, offset, chunkSize - offset - 1);
+        elements[chunkSize - 1] = null;
+        this.updateIndex(chunk, -1);
+        this.size--;
+        modificationCount++;
+
+        if (this.chunkSizes[chunk] == 0) {
+            this.removeChunk(chunk);
+            this.rebuildIndex();
+        } else if (this.chunkSizes[chunk] < this.chunkCapacity / 4) {
+            if (chunk + 1 < this.chunkCount && this.fitsIntoOneChunk(chunk, chunk + 1)) {
+                this.mergeChunks(chunk);
+            } else if (chunk > 0 && this.fitsIntoOneChunk(chunk - 1, chunk)) {
+                this.mergeChunks(chunk - 1);
+            }
+        }
+    }
+
+    /**
+     * Checks if the elements of the two given chunks fit into one chunk.
+     *
+     * @param first  first chunk
+     * @param second second chunk
+     * @return true if the chunks can be merged, false otherwise
+     */
+    private boolean fitsIntoOneChunk(int first, int second) {
+        return this.chunkSizes[first] + this.chunkSizes[second] <= this.chunkCapacity;
+    }
+
+    /**
+     * Moves all elements of the chunk after the given one into the given chunk and removes the emptied chunk.
+     *
+     * @param chunk chunk into which the next chunk is merged
+     */
+    private void mergeChunks(int chunk) {
+        System.arraycopy(this.chunks[chunk + 1], 0, this.chunks[chunk], this.chunkSizes[chunk],
+                this.chunkSizes[chunk + 1]);
+        this.chunkSizes[chunk] += this.chunkSizes[chunk + 1];
+        this.removeChunk(chunk + 1);
+        this.rebuildIndex();
+    }
+
+    /**
+     * Returns the estimated number of bytes which the collection occupies on the heap, without the elements.
+     * <p>
+     * The estimate covers this object, the chunk directory, the size arrays and the chunks.
+     *
+     * @return estimated memory footprint in bytes
+     */
+    public long memoryFootprint() {
+        return OBJECT_BYTES
+                + ARRAY_HEADER_BYTES + (long) REFERENCE_BYTES * this.chunks.length
+                + ARRAY_HEADER_BYTES + (long) Integer.BYTES * this.chunkSizes.length
+                + ARRAY_HEADER_BYTES + (long) Integer.BYTES * this.sizeIndex.length
+                + this.chunkCount * (ARRAY_HEADER_BYTES + (long) REFERENCE_BYTES * this.chunkCapacity);
+    }
+
+    /**
+     * Returns the estimated number of bytes per element, i.e. {@link #memoryFootprint()} divided by {@link #size()}.
+     *
+     * @return estimated memory footprint per element in bytes, or the whole footprint if the collection is empty
+     */
+    public double bytesPerElement() {
+        return this.memoryFootprint() / (double) Math.max(1, this.size);
+    }
+
+    /**
+     * Implementation of the ElementsGetter interface for the UnrolledIndexedCollection class.
+     */
+    private static class UnrolledElementsGetter<T> implements ElementsGetter<T> {
+        /**
+         * Collection whose elements ElementsGetter will be getting.
+         */
+        private final UnrolledIndexedCollection<T> collection;
+
+        /**
+         * Chunk which contains the next element.
+         */
+        private int chunk;
+
+        /**
+         * Offset of the next element inside its chunk.
+         */
+        private int offset;
+
+        /**
+         * Number of modifications made to the collection when this ElementsGetter was created.
+         */
+        private final long savedModificationCount;
+
+        /**
+         * Creates a new instance of UnrolledElementsGetter.
+         *
+         * @param collection collection whose elements ElementsGetter will be getting
+         */
+        private UnrolledElementsGetter(UnrolledIndexedCollection<T> collection) {
+            this.collection = collection;
+            this.savedModificationCount = collection.modificationCount;
+        }
+
+        /**
+         * @see ElementsGetter#hasNextElement()
+         * @throws ConcurrentModificationException if the collection has been modified after ElementsGetter was created
+         */
+        @Override
+        public boolean hasNextElement() {
+            if (this.savedModificationCount != this.collection.modificationCount) {
+                throw new ConcurrentModificationException("The collection has been modified.");
+            }
+            // chunks are never empty, so the end of a chunk means the next chunk has an element
+            return this.chunk < this.collection.chunkCount;
+        }
+
+        /**
+         * @see ElementsGetter#getNextElement()
+         * @throws ConcurrentModificationException if the collection has been modified after ElementsGetter was created
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public T getNextElement() {
+            if (!this.hasNextElement()) {
+                throw new NoSuchElementException("The collection has no more elements.");
+            }
+
+            T value = (T) this.collection.chunks[this.chunk][this.offset++];
+            if (this.offset == this.collection.chunkSizes[this.chunk]) {
+                this.chunk++;
+                this.offset = 0;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Creates and returns a new instance of UnrolledElementsGetter.
+     *
+     * @return new instance of UnrolledElementsGetter
+     */
+    @Override
+    public ElementsGetter<T> createElementsGetter() {
+        return new UnrolledElementsGetter<>(this);
+    }
+}
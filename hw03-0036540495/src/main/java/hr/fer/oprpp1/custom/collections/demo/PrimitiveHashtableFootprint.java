@@ -0,0 +1,72 @@
+package hr.fer.oprpp1.custom.collections.demo;
+
+import hr.fer.oprpp1.custom.collections.IntIntHashtable;
+import hr.fer.oprpp1.custom.collections.IntObjectHashtable;
+import hr.fer.oprpp1.custom.collections.LongObjectHashtable;
+import hr.fer.oprpp1.custom.collections.SimpleHashtable;
+
+/**
+ * A program which prints the estimated memory footprint per entry of the primitive-specialised hash tables
+ * and compares it with a {@link SimpleHashtable} holding the same mappings. The time needed to fill and read
+ * the tables is measured by {@code PrimitiveHashtableBenchmark} in the JMH benchmarks.
+ * <p>
+ * The estimates assume a 64-bit JVM with compressed references: 12 byte object headers, 16 byte array headers
+ * and 4 byte references. Values of the object tables are not counted, the boxed keys and values of
+ * {@link SimpleHashtable} are.
+ * The optional command line argument is the number of entries (default 1 000 000).
+ */
+public class PrimitiveHashtableFootprint {
+    /**
+     * Estimated size of a {@link SimpleHashtable.TableEntry}: header, hash, and the key, value, next
+     * and owner references.
+     */
+    private static final int TABLE_ENTRY_BYTES = 32;
+
+    /**
+     * Estimated size of a boxed {@link Integer} or {@link Long}.
+     */
+    private static final int BOX_BYTES = 16;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        IntIntHashtable intInt = new IntIntHashtable();
+        for (int i = 0; i < n; i++) {
+            intInt.put(i, i);
+        }
+        report("IntIntHashtable", n, intInt.bytesPerEntry());
+
+        IntObjectHashtable<String> intObject = new IntObjectHashtable<>();
+        for (int i = 0; i < n; i++) {
+            intObject.put(i, "");
+        }
+        report("IntObjectHashtable", n, intObject.bytesPerEntry());
+
+        LongObjectHashtable<String> longObject = new LongObjectHashtable<>();
+        for (long i = 0; i < n; i++) {
+            longObject.put(i, "");
+        }
+        report("LongObjectHashtable", n, longObject.bytesPerEntry());
+
+        SimpleHashtable<Integer, Integer> simple = new SimpleHashtable<>();
+        for (int i = 0; i < n; i++) {
+            simple.put(i, i);
+        }
+        // bucket array plus one entry, one boxed key and one boxed value per mapping
+        // (small Integer values are cached by the JVM, so this is an upper bound)
+        long simpleBytes = 16L + 4L * simple.capacity() + (long) n * (TABLE_ENTRY_BYTES + 2 * BOX_BYTES);
+        report("SimpleHashtable<Integer,Integer>", n, simpleBytes / (double) n);
+    }
+
+    /**
+     * Prints the footprint of one table.
+     *
+     * @param name          name of the table
+     * @param n             number of entries
+     * @param bytesPerEntry estimated bytes per entry
+     */
+    private static void report(String name, int n, double bytesPerEntry) {
+        System.out.printf("%-33s %6.1f bytes/entry, %8.1f MB total%n",
+                name, bytesPerEntry, bytesPerEntry * n / (1 << 20));
+    }
+}
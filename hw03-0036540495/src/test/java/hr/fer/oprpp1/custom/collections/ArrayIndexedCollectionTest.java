@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ConcurrentModificationException;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -425,4 +426,338 @@ public class ArrayIndexedCollectionTest {
         collection.clear();
         assertThrows(ConcurrentModificationException.class, getter::getNextElement);
     }
+
+    @Test
+    void testAddAllGrowsOnce() {
+        ArrayIndexedCollection<Integer> other = new ArrayIndexedCollection<>(100);
+        for (int i = 0; i < 100; i++) {
+            other.add(i);
+        }
+        ArrayIndexedCollection<Integer> collection = new ArrayIndexedCollection<>(2);
+        collection.add(-1);
+        collection.addAll(other);
+        assertEquals(101, collection.size());
+        assertEquals(101, collection.getCapacity());
+        assertEquals(-1, collection.get(0));
+        assertEquals(99, collection.get(100));
+
+        LinkedListIndexedCollection<Integer> list = new LinkedListIndexedCollection<>();
+        list.add(1000);
+        list.add(1001);
+        collection.addAll(list);
+        assertEquals(103, collection.size());
+        assertEquals(202, collection.getCapacity());
+        assertEquals(1001, collection.get(102));
+
+        collection.addAll(collection);
+        assertEquals(206, collection.size());
+        assertEquals(1001, collection.get(205));
+    }
+
+    @Test
+    void testAddAllWithNullLeavesCollectionUnchanged() {
+        ArrayIndexedCollection<Integer> collection = new ArrayIndexedCollection<>(2);
+        collection.add(1);
+        // no collection accepts null, so one which passes null to the processor is faked
+        LinkedListIndexedCollection<Integer> withNull = new LinkedListIndexedCollection<>() {
+            @Override
+            public void forEach(Processor<? super Integer> processor) {
+                processor.process(2);
+                processor.process(null);
+                processor.process(3);
+            }
+        };
+        assertThrows(NullPointerException.class, () -> collection.addAll(withNull));
+        assertEquals(1, collection.size());
+        assertArrayEquals(new Object[]{1}, collection.toArray());
+        collection.add(4);
+        assertEquals(4, collection.get(1));
+    }
+
+    @Test
+    void testInsertAll() {
+        ArrayIndexedCollection<String> collection = new ArrayIndexedCollection<>(2);
+        collection.add("1");
+        collection.add("4");
+        ArrayIndexedCollection<String> other = new ArrayIndexedCollection<>();
+        other.add("2");
+        other.add("3");
+
+        collection.insertAll(other, 1);
+        assertArrayEquals(new Object[]{"1", "2", "3", "4"}, collection.toArray());
+        collection.insertAll(other, 0);
+        collection.insertAll(other, 6);
+        assertArrayEquals(new Object[]{"2", "3", "1", "2", "3", "4", "2", "3"}, collection.toArray());
+        collection.insertAll(new ArrayIndexedCollection<>(), 3);
+        assertEquals(8, collection.size());
+    }
+
+    @Test
+    void testInsertAllIntoItself() {
+        ArrayIndexedCollection<String> collection = new ArrayIndexedCollection<>();
+        collection.add("1");
+        collection.add("2");
+        collection.insertAll(collection, 1);
+        assertArrayEquals(new Object[]{"1", "1", "2", "2"}, collection.toArray());
+    }
+
+    @Test
+    void testInsertAllIllegal() {
+        ArrayIndexedCollection<String> collection = new ArrayIndexedCollection<>();
+        collection.add("1");
+        LinkedListIndexedCollection<String> other = new LinkedListIndexedCollection<>();
+        other.add("2");
+        assertThrows(NullPointerException.class, () -> collection.insertAll(null, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> collection.insertAll(other, -1));
+        assertThrows(IndexOutOfBoundsException.class, () -> collection.insertAll(other, 2));
+        assertEquals(1, collection.size());
+    }
+
+    @Test
+    void testRemoveRange() {
+        ArrayIndexedCollection<Integer> collection = new ArrayIndexedCollection<>();
+        for (int i = 0; i < 10; i++) {
+            collection.add(i);
+        }
+        collection.removeRange(2, 5);
+        assertArrayEquals(new Object[]{0, 1, 5, 6, 7, 8, 9}, collection.toArray());
+        collection.removeRange(3, 3);
+        assertEquals(7, collection.size());
+        collection.removeRange(4, 7);
+        assertArrayEquals(new Object[]{0, 1, 5, 6}, collection.toArray());
+        collection.removeRange(0, 4);
+        assertTrue(collection.isEmpty());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> collection.removeRange(-1, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> collection.removeRange(0, 1));
+        collection.add(1);
+        assertThrows(IndexOutOfBoundsException.class, () -> collection.removeRange(1, 0));
+    }
+
+    @Test
+    void testElementsGetterWithConcurrentBulkOperations() {
+        ArrayIndexedCollection<String> collection = new ArrayIndexedCollection<>();
+        collection.add("1");
+        collection.add("2");
+
+        ElementsGetter<String> getter = collection.createElementsGetter();
+        collection.insertAll(collection, 0);
+        assertThrows(ConcurrentModificationException.class, getter::getNextElement);
+
+        ElementsGetter<String> getter2 = collection.createElementsGetter();
+        collection.removeRange(0, 2);
+        assertThrows(ConcurrentModificationException.class, getter2::getNextElement);
+    }
+
+    @Test
+    void testParallelForEach() {
+        ArrayIndexedCollection<Integer> collection = new ArrayIndexedCollection<>();
+        for (int i = 0; i < 100_000; i++) {
+            collection.add(i);
+        }
+        LongAdder sum = new LongAdder();
+        LongAdder count = new LongAdder();
+        collection.parallelForEach(value -> {
+            sum.add(value);
+            count.increment();
+        });
+        assertEquals(100_000, count.sum());
+        assertEquals(100_000L * 99_999 / 2, sum.sum());
+        assertThrows(NullPointerException.class, () -> collection.parallelForEach(null));
+    }
+
+    @Test
+    void testParallelFilterIntoKeepsOrder() {
+        ArrayIndexedCollection<Integer> collection = new ArrayIndexedCollection<>();
+        for (int i = 0; i < 100_000; i++) {
+            collection.add(i);
+        }
+        LinkedListIndexedCollection<Number> target = new LinkedListIndexedCollection<>();
+        target.add(-1);
+        collection.parallelFilterInto(value -> value % 3 == 0, target);
+        assertEquals(1 + 33_334, target.size());
+        Object[] result = target.toArray();
+        assertEquals(-1, result[0]);
+        for (int i = 1; i < result.length; i++) {
+            assertEquals((i - 1) * 3, result[i]);
+        }
+        assertThrows(NullPointerException.class, () -> collection.parallelFilterInto(null, target));
+        assertThrows(NullPointerException.class, () -> collection.parallelFilterInto(value -> true, null));
+    }
+
+    @Test
+    void testSplittableElementsGetter() {
+        ArrayIndexedCollection<Integer> collection = new ArrayIndexedCollection<>();
+        for (int i = 0; i < 10; i++) {
+            collection.add(i);
+        }
+        SplittableElementsGetter<Integer> getter = collection.createSplittableElementsGetter();
+        assertEquals(10, getter.estimateSize());
+        assertEquals(0, getter.getNextElement());
+        SplittableElementsGetter<Integer> prefix = getter.trySplit();
+        assertEquals(4, prefix.estimateSize());
+        assertEquals(5, getter.estimateSize());
+        assertEquals(1, prefix.getNextElement());
+        assertEquals(5, getter.getNextElement());
+
+        SplittableElementsGetter<Integer> single = prefix.trySplit();
+        assertEquals(1, single.estimateSize());
+        assertNull(single.trySplit());
+
+        collection.add(10);
+        assertThrows(ConcurrentModificationException.class, getter::getNextElement);
+        assertThrows(ConcurrentModificationException.class, () -> prefix.processRemaining(value -> {}));
+    }
+
+    @Test
+    void testSnapshot() {
+        ArrayIndexedCollection<Integer> collection = new ArrayIndexedCollection<>();
+        for (int i = 0; i < 100; i++) {
+            collection.add(i);
+        }
+        PersistentVector<Integer> first = collection.snapshot();
+        assertArrayEquals(collection.toArray(), first.toArray());
+        assertSame(first, collection.snapshot());
+
+        collection.add(100);
+        collection.addAll(first);
+        PersistentVector<Integer> second = collection.snapshot();
+        assertEquals(100, first.size());
+        assertEquals(201, second.size());
+        assertArrayEquals(collection.toArray(), second.toArray());
+
+        collection.insert(-1, 0);
+        collection.remove(Integer.valueOf(50));
+        PersistentVector<Integer> third = collection.snapshot();
+        assertArrayEquals(collection.toArray(), third.toArray());
+        assertEquals(0, second.get(0));
+        assertEquals(50, second.get(50));
+
+        collection.clear();
+        assertTrue(collection.snapshot().isEmpty());
+        assertEquals(201, third.size());
+    }
+
+    @Test
+    void testProcessRemaining() {
+        ArrayIndexedCollection<Integer> collection = new ArrayIndexedCollection<>();
+        for (int i = 0; i < 3000; i++) {
+            collection.add(i);
+        }
+        ElementsGetter<Integer> getter = collection.createElementsGetter();
+        getter.getNextElement();
+        getter.getNextElement();
+        long[] sum = new long[1];
+        getter.processRemaining(value -> sum[0] += value);
+        assertEquals(3000L * 2999 / 2 - 1, sum[0]);
+        assertFalse(getter.hasNextElement());
+
+        sum[0] = 0;
+        collection.forEach(value -> sum[0] += value);
+        assertEquals(3000L * 2999 / 2, sum[0]);
+
+        ElementsGetter<Integer> stale = collection.createElementsGetter();
+        collection.add(3000);
+        assertThrows(ConcurrentModificationException.class, () -> stale.processRemaining(value -> {}));
+    }
+
+    @Test
+    void testProcessRemainingDetectsModificationByProcessor() {
+        ArrayIndexedCollection<Integer> collection = new ArrayIndexedCollection<>();
+        for (int i = 0; i < 3000; i++) {
+            collection.add(i);
+        }
+        int[] processed = new int[1];
+        assertThrows(ConcurrentModificationException.class, () -> collection.forEach(value -> {
+            processed[0]++;
+            if (value == 10) {
+                collection.remove(collection.size() - 1);
+            }
+        }));
+        assertEquals(11, processed[0]);
+
+        ArrayIndexedCollection<Integer> small = new ArrayIndexedCollection<>();
+        for (int i = 0; i < 10; i++) {
+            small.add(i);
+        }
+        StringBuilder sb = new StringBuilder();
+        assertThrows(ConcurrentModificationException.class, () -> small.forEach(value -> {
+            sb.append(value);
+            if (value == 2) {
+                small.remove(0);
+            }
+        }));
+        assertEquals("012", sb.toString());
+
+        sb.setLength(0);
+        assertThrows(ConcurrentModificationException.class, () -> small.forEach(value -> {
+            sb.append(value);
+            if (value == 8) {
+                small.add(99);
+            }
+        }));
+        assertEquals("12345678", sb.toString());
+    }
+
+    @Test
+    void testMembershipFilter() {
+        ArrayIndexedCollection<Integer> collection = new ArrayIndexedCollection<>();
+        for (int i = 0; i < 1000; i++) {
+            collection.add(i);
+        }
+        assertNull(collection.getMembershipFilter());
+        assertThrows(IllegalArgumentException.class, () -> collection.enableMembershipFilter(0));
+        collection.enableMembershipFilter(0.01);
+        BloomFilter filter = collection.getMembershipFilter();
+        assertNotNull(filter);
+
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(i < 1000, collection.contains(i));
+            assertEquals(i < 1000 ? i : -1, collection.indexOf(i));
+        }
+        assertEquals(4000, filter.getProbeCount());
+        assertTrue(filter.getNegativeCount() > 1900);
+        assertEquals(2000, filter.getNegativeCount() + filter.getFalsePositiveCount());
+
+        collection.insert(5000, 0);
+        assertTrue(collection.contains(5000));
+        assertTrue(collection.remove(Integer.valueOf(5000)));
+        assertFalse(collection.contains(5000));
+
+        collection.clear();
+        assertFalse(collection.contains(0));
+        collection.add(7);
+        assertTrue(collection.contains(7));
+
+        collection.disableMembershipFilter();
+        assertNull(collection.getMembershipFilter());
+        assertTrue(collection.contains(7));
+    }
+
+    @Test
+    void testMembershipFilterIsRebuilt() {
+        ArrayIndexedCollection<Integer> collection = new ArrayIndexedCollection<>();
+        collection.enableMembershipFilter(0.01);
+        for (int i = 0; i < 10_000; i++) {
+            collection.add(i);
+        }
+        // the filter grows with the collection
+        BloomFilter grown = collection.getMembershipFilter();
+        assertTrue(grown.getExpectedValues() >= 10_000);
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(collection.contains(i));
+        }
+
+        collection.removeRange(0, 9_000);
+        // the removed values are dropped from the filter
+        assertNotSame(grown, collection.getMembershipFilter());
+        assertEquals(10_000, collection.getMembershipFilter().getProbeCount());
+        for (int i = 0; i < 9_000; i++) {
+            assertFalse(collection.contains(i));
+        }
+        assertTrue(collection.getMembershipFilter().observedFalsePositiveRate() < 0.05);
+        for (int i = 9_000; i < 10_000; i++) {
+            assertTrue(collection.contains(i));
+        }
+    }
 }
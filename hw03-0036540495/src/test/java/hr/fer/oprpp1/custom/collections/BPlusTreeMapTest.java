@@ -0,0 +1,153 @@
+package hr.fer.oprpp1.custom.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BPlusTreeMapTest {
+
+    private static void assertSameEntries(TreeMap<Integer, String> expected, Iterator<BPlusTreeMap.Entry<Integer, String>> it) {
+        for (Map.Entry<Integer, String> entry : expected.entrySet()) {
+            assertTrue(it.hasNext());
+            BPlusTreeMap.Entry<Integer, String> actual = it.next();
+            assertEquals(entry.getKey(), actual.getKey());
+            assertEquals(entry.getValue(), actual.getValue());
+        }
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    void testConstructors() {
+        assertThrows(IllegalArgumentException.class, () -> new BPlusTreeMap<Integer, String>(3));
+        assertDoesNotThrow(() -> new BPlusTreeMap<Integer, String>(4));
+
+        BPlusTreeMap<String, Integer> reversed = new BPlusTreeMap<>(Comparator.reverseOrder());
+        reversed.put("a", 1);
+        reversed.put("c", 3);
+        reversed.put("b", 2);
+        assertEquals("[c=3, b=2, a=1]", reversed.toString());
+        assertEquals("c", reversed.firstKey());
+        assertEquals("a", reversed.lastKey());
+    }
+
+    @Test
+    void testPutGetRemove() {
+        BPlusTreeMap<String, Integer> map = new BPlusTreeMap<>();
+        assertTrue(map.isEmpty());
+        assertNull(map.put("Ivana", 2));
+        assertNull(map.put("Ante", 5));
+        assertEquals(2, map.put("Ivana", 5));
+        assertNull(map.put("Jasna", null));
+        assertEquals(3, map.size());
+
+        assertEquals(5, map.get("Ivana"));
+        assertNull(map.get("Jasna"));
+        assertTrue(map.containsKey("Jasna"));
+        assertFalse(map.containsKey("Kristina"));
+        assertNull(map.get(null));
+
+        assertEquals(5, map.remove("Ante"));
+        assertNull(map.remove("Ante"));
+        assertNull(map.remove(null));
+        assertEquals(2, map.size());
+        assertEquals("[Ivana=5, Jasna=null]", map.toString());
+
+        assertThrows(NullPointerException.class, () -> map.put(null, 1));
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.firstKey());
+        assertEquals("[]", map.toString());
+    }
+
+    @Test
+    void testMatchesTreeMap() {
+        for (int order : new int[]{4, 5, 64}) {
+            BPlusTreeMap<Integer, String> map = new BPlusTreeMap<>(order);
+            TreeMap<Integer, String> expected = new TreeMap<>();
+            Random random = new Random(order);
+            for (int step = 0; step < 20_000; step++) {
+                int key = random.nextInt(2_000);
+                if (random.nextInt(3) == 0) {
+                    assertEquals(expected.remove(key), map.remove(key));
+                } else {
+                    assertEquals(expected.put(key, "v" + step), map.put(key, "v" + step));
+                }
+                assertEquals(expected.size(), map.size());
+            }
+            assertSameEntries(expected, map.iterator());
+            for (int key = -1; key <= 2_000; key++) {
+                assertEquals(expected.get(key), map.get(key));
+                assertEquals(expected.floorKey(key), map.floorKey(key));
+                assertEquals(expected.ceilingKey(key), map.ceilingKey(key));
+            }
+            assertEquals(expected.firstKey(), map.firstKey());
+            assertEquals(expected.lastKey(), map.lastKey());
+
+            for (Integer key : expected.keySet().toArray(new Integer[0])) {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            assertTrue(map.isEmpty());
+            assertEquals(1, map.height());
+        }
+    }
+
+    @Test
+    void testHeightGrowsLogarithmically() {
+        BPlusTreeMap<Integer, Integer> map = new BPlusTreeMap<>(4);
+        for (int i = 0; i < 1_000; i++) {
+            map.put(i, i);
+        }
+        // every node holds at least 2 keys, so there are at most log3(1000) + 1 levels of inner nodes
+        assertTrue(map.height() <= 8, "height " + map.height());
+        assertEquals(999, map.floorKey(5_000));
+        assertNull(map.ceilingKey(1_000));
+        assertNull(map.floorKey(-1));
+    }
+
+    @Test
+    void testRangeIterator() {
+        BPlusTreeMap<Integer, String> map = new BPlusTreeMap<>(4);
+        TreeMap<Integer, String> expected = new TreeMap<>();
+        for (int i = 0; i < 200; i += 2) {
+            map.put(i, "v" + i);
+            expected.put(i, "v" + i);
+        }
+
+        assertSameEntries(new TreeMap<>(expected.subMap(10, 50)), map.rangeIterator(10, 50));
+        assertSameEntries(new TreeMap<>(expected.subMap(11, 51)), map.rangeIterator(11, 51));
+        assertSameEntries(new TreeMap<>(expected.headMap(31)), map.rangeIterator(null, 31));
+        assertSameEntries(new TreeMap<>(expected.tailMap(187)), map.rangeIterator(187, null));
+        assertFalse(map.rangeIterator(20, 20).hasNext());
+        assertFalse(map.rangeIterator(500, null).hasNext());
+        assertThrows(IllegalArgumentException.class, () -> map.rangeIterator(5, 4));
+
+        Iterator<BPlusTreeMap.Entry<Integer, String>> it = map.rangeIterator(0, 4);
+        it.next();
+        it.next();
+        assertThrows(NoSuchElementException.class, it::next);
+    }
+
+    @Test
+    void testIteratorFailsAfterModification() {
+        BPlusTreeMap<Integer, String> map = new BPlusTreeMap<>();
+        map.put(1, "a");
+        map.put(2, "b");
+
+        Iterator<BPlusTreeMap.Entry<Integer, String>> it = map.iterator();
+        it.next();
+        map.put(1, "c");
+        assertEquals(2, it.next().getKey());
+
+        Iterator<BPlusTreeMap.Entry<Integer, String>> modified = map.iterator();
+        map.put(3, "d");
+        assertThrows(ConcurrentModificationException.class, modified::hasNext);
+    }
+}
@@ -0,0 +1,95 @@
+package hr.fer.oprpp1.custom.collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+    @Test
+    void testConstructor() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(-1, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, Double.NaN));
+
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        assertEquals(1_000, filter.getExpectedValues());
+        assertEquals(0.01, filter.getFalsePositiveRate());
+        // about 9.6 bits per value, rounded up to a power of 2
+        assertEquals(16_384, filter.getBitCount());
+        assertEquals(11, filter.getHashCount());
+        assertEquals(2_048, filter.memoryBytes());
+
+        BloomFilter small = new BloomFilter(0, 0.5);
+        assertEquals(16, small.getExpectedValues());
+        assertEquals(64, small.getBitCount());
+    }
+
+    @Test
+    void testNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("value" + i);
+        }
+        filter.add(null);
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("value" + i));
+        }
+        assertTrue(filter.mightContain(null));
+        assertEquals(0, filter.getNegativeCount());
+        assertEquals(10_001, filter.getProbeCount());
+    }
+
+    @Test
+    void testFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(i);
+        }
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filter.mightContain(i)) {
+                filter.recordFalsePositive();
+            }
+        }
+        assertTrue(filter.estimatedFalsePositiveRate() < 0.01, "estimated " + filter.estimatedFalsePositiveRate());
+        assertTrue(filter.observedFalsePositiveRate() < 0.02, "observed " + filter.observedFalsePositiveRate());
+        assertEquals(100_000, filter.getNegativeCount() + filter.getFalsePositiveCount());
+    }
+
+    @Test
+    void testNeedsRebuild() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+        for (int i = 0; i < 100; i++) {
+            filter.add(i);
+        }
+        assertFalse(filter.needsRebuild());
+        filter.recordRemovals(50);
+        assertFalse(filter.needsRebuild());
+        filter.recordRemovals(1);
+        assertTrue(filter.needsRebuild());
+
+        filter.clear();
+        assertFalse(filter.needsRebuild());
+        for (int i = 0; i <= 100; i++) {
+            filter.add(i);
+        }
+        assertTrue(filter.needsRebuild());
+    }
+
+    @Test
+    void testClearKeepsStatistics() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+        filter.add("a");
+        assertTrue(filter.mightContain("a"));
+        filter.recordFalsePositive();
+        filter.clear();
+
+        assertFalse(filter.mightContain("a"));
+        assertEquals(0, filter.estimatedFalsePositiveRate());
+        assertEquals(2, filter.getProbeCount());
+        assertEquals(1, filter.getNegativeCount());
+        assertEquals(1, filter.getFalsePositiveCount());
+        assertEquals(0.5, filter.observedFalsePositiveRate());
+    }
+}
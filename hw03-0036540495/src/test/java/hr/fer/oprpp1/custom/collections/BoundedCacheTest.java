@@ -0,0 +1,176 @@
+package hr.fer.oprpp1.custom.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedCacheTest {
+
+    @Test
+    void testConstructors() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedCache<String, String>(0));
+        assertThrows(NullPointerException.class, () -> new BoundedCache<String, String>(10, null));
+        assertThrows(NullPointerException.class,
+                () -> new BoundedCache<String, String>(10, null, BoundedCache.EvictionPolicy.LRU));
+
+        BoundedCache<String, String> cache = new BoundedCache<>(10);
+        assertEquals(BoundedCache.EvictionPolicy.LRU, cache.getPolicy());
+        assertEquals(10, cache.getMaximumWeight());
+        assertTrue(cache.isEmpty());
+    }
+
+    @Test
+    void testGetPutRemove() {
+        for (BoundedCache.EvictionPolicy policy : BoundedCache.EvictionPolicy.values()) {
+            BoundedCache<String, Integer> cache = new BoundedCache<>(10, policy);
+            assertNull(cache.put("a", 1));
+            assertNull(cache.put("b", 2));
+            assertEquals(1, cache.put("a", 3));
+            assertEquals(2, cache.size());
+
+            assertEquals(3, cache.get("a"));
+            assertNull(cache.get("c"));
+            assertNull(cache.get(null));
+            assertTrue(cache.containsKey("b"));
+            assertEquals(1, cache.getHitCount());
+            assertEquals(1, cache.getMissCount());
+            assertEquals(0.5, cache.hitRate());
+
+            assertEquals(2, cache.remove("b"));
+            assertNull(cache.remove("b"));
+            assertEquals(1, cache.size());
+            assertEquals(1, cache.weight());
+
+            assertThrows(NullPointerException.class, () -> cache.put(null, 1));
+            assertThrows(NullPointerException.class, () -> cache.put("d", null));
+
+            cache.clear();
+            assertTrue(cache.isEmpty());
+            assertEquals(0, cache.weight());
+            assertNull(cache.get("a"));
+            cache.resetStatistics();
+            assertEquals(0, cache.hitRate());
+        }
+    }
+
+    @Test
+    void testLruEvictsLeastRecentlyUsed() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(3);
+        java.util.List<Integer> evicted = new ArrayList<>();
+        cache.setEvictionListener((key, value) -> evicted.add(key));
+
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.put(3, "c");
+        cache.get(1);
+        cache.put(4, "d");
+        cache.put(2, "e");
+        cache.put(5, "f");
+
+        // 1 was used after 2 and 3, so it is evicted last
+        assertEquals(java.util.List.of(2, 3, 1), evicted);
+        assertEquals(3, cache.getEvictionCount());
+        assertEquals(3, cache.size());
+        assertEquals("e", cache.get(2));
+        assertTrue(cache.containsKey(4));
+        assertTrue(cache.containsKey(5));
+    }
+
+    @Test
+    void testWeightBound() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, (key, value) -> value.length(),
+                BoundedCache.EvictionPolicy.LRU);
+        cache.put("a", "xxxx");
+        cache.put("b", "xxxx");
+        assertEquals(8, cache.weight());
+        cache.put("c", "xxx");
+        assertEquals(7, cache.weight());
+        assertFalse(cache.containsKey("a"));
+
+        // growing an entry evicts others
+        cache.put("c", "xxxxxx");
+        assertEquals(10, cache.weight());
+        assertTrue(cache.containsKey("b"));
+
+        // an entry heavier than the bound is rejected, and its previous value is removed without an eviction
+        String[] evicted = new String[1];
+        cache.setEvictionListener((key, value) -> evicted[0] = key + "=" + value);
+        long evictions = cache.getEvictionCount();
+        assertEquals("xxxx", cache.put("b", "xxxxxxxxxxx"));
+        assertNull(evicted[0]);
+        assertEquals(evictions, cache.getEvictionCount());
+        assertEquals(1, cache.getRejectionCount());
+        assertFalse(cache.containsKey("b"));
+        assertEquals(6, cache.weight());
+        assertNull(cache.put("d", "xxxxxxxxxxx"));
+        assertEquals(2, cache.getRejectionCount());
+        cache.resetStatistics();
+        assertEquals(0, cache.getRejectionCount());
+
+        BoundedCache<String, String> negative = new BoundedCache<>(10, (key, value) -> -1,
+                BoundedCache.EvictionPolicy.W_TINY_LFU);
+        assertThrows(IllegalArgumentException.class, () -> negative.put("a", "b"));
+    }
+
+    @Test
+    void testTinyLfuResistsScan() {
+        BoundedCache<Integer, Integer> lru = new BoundedCache<>(100, BoundedCache.EvictionPolicy.LRU);
+        BoundedCache<Integer, Integer> tinyLfu = new BoundedCache<>(100, BoundedCache.EvictionPolicy.W_TINY_LFU);
+        for (BoundedCache<Integer, Integer> cache : java.util.List.of(lru, tinyLfu)) {
+            // a hot set of 50 keys is used repeatedly, interleaved with a scan over keys used only once
+            int scanKey = 1000;
+            for (int round = 0; round < 20; round++) {
+                for (int key = 0; key < 50; key++) {
+                    if (cache.get(key) == null) {
+                        cache.put(key, key);
+                    }
+                    for (int i = 0; i < 4; i++, scanKey++) {
+                        if (cache.get(scanKey) == null) {
+                            cache.put(scanKey, scanKey);
+                        }
+                    }
+                }
+            }
+            assertTrue(cache.size() <= 100);
+            assertEquals(cache.size(), cache.weight());
+        }
+        assertTrue(lru.hitRate() < 0.01, "LRU " + lru.hitRate());
+        assertTrue(tinyLfu.hitRate() > 0.15, "W-TinyLFU " + tinyLfu.hitRate());
+    }
+
+    @Test
+    void testMatchesBoundAfterRandomOperations() {
+        for (BoundedCache.EvictionPolicy policy : BoundedCache.EvictionPolicy.values()) {
+            BoundedCache<Integer, Integer> cache = new BoundedCache<>(64, policy);
+            long[] evictions = new long[1];
+            cache.setEvictionListener((key, value) -> {
+                evictions[0]++;
+                assertEquals(key, value);
+            });
+            Random random = new Random(7);
+            int puts = 0;
+            int removes = 0;
+            for (int i = 0; i < 100_000; i++) {
+                int key = (int) Math.abs(random.nextGaussian() * 100);
+                switch (random.nextInt(4)) {
+                    case 0 -> removes += cache.remove(key) == null ? 0 : 1;
+                    case 1 -> {
+                        if (!cache.containsKey(key)) puts++;
+                        cache.put(key, key);
+                    }
+                    default -> {
+                        Integer value = cache.get(key);
+                        if (value != null) assertEquals(key, value);
+                    }
+                }
+                assertTrue(cache.size() <= 64);
+            }
+            assertEquals(evictions[0], cache.getEvictionCount());
+            assertEquals(puts - removes - evictions[0], cache.size());
+            assertEquals(cache.size(), cache.weight());
+        }
+    }
+}
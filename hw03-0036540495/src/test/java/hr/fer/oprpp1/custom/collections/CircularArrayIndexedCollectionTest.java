@@ -0,0 +1,182 @@
+package hr.fer.oprpp1.custom.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircularArrayIndexedCollectionTest {
+
+    @Test
+    void testConstructors() {
+        assertEquals(16, new CircularArrayIndexedCollection<String>().getCapacity());
+        assertEquals(3, new CircularArrayIndexedCollection<String>(3).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new CircularArrayIndexedCollection<>(0));
+        assertThrows(NullPointerException.class, () -> new CircularArrayIndexedCollection<>(null));
+
+        ArrayIndexedCollection<String> other = new ArrayIndexedCollection<>();
+        other.add("1");
+        other.add("2");
+        CircularArrayIndexedCollection<String> collection = new CircularArrayIndexedCollection<>(other, 1);
+        assertEquals(2, collection.getCapacity());
+        assertArrayEquals(new Object[]{"1", "2"}, collection.toArray());
+    }
+
+    @Test
+    void testInsertAndRemoveAtBothEnds() {
+        CircularArrayIndexedCollection<Integer> collection = new CircularArrayIndexedCollection<>(4);
+        collection.add(2);
+        collection.insert(1, 0);
+        collection.insert(0, 0);
+        collection.add(3);
+        assertEquals(4, collection.getCapacity());
+        assertArrayEquals(new Object[]{0, 1, 2, 3}, collection.toArray());
+
+        collection.insert(-1, 0);
+        assertEquals(8, collection.getCapacity());
+        assertArrayEquals(new Object[]{-1, 0, 1, 2, 3}, collection.toArray());
+
+        collection.remove(0);
+        collection.remove(collection.size() - 1);
+        assertArrayEquals(new Object[]{0, 1, 2}, collection.toArray());
+        assertEquals(0, collection.get(0));
+        assertEquals(2, collection.get(2));
+    }
+
+    @Test
+    void testQueueWrapsAround() {
+        CircularArrayIndexedCollection<Integer> collection = new CircularArrayIndexedCollection<>(4);
+        for (int i = 0; i < 100; i++) {
+            collection.add(i);
+            collection.add(i);
+            assertEquals(i, collection.get(0));
+            collection.remove(0);
+            collection.remove(0);
+            assertTrue(collection.isEmpty());
+        }
+        assertEquals(4, collection.getCapacity());
+    }
+
+    @Test
+    void testAgainstArrayIndexedCollection() {
+        Random random = new Random(42);
+        CircularArrayIndexedCollection<Integer> collection = new CircularArrayIndexedCollection<>(2);
+        ArrayIndexedCollection<Integer> expected = new ArrayIndexedCollection<>();
+        for (int i = 0; i < 10_000; i++) {
+            int operation = random.nextInt(4);
+            if (operation < 2 || expected.isEmpty()) {
+                int position = random.nextInt(expected.size() + 1);
+                collection.insert(i, position);
+                expected.insert(i, position);
+            } else if (operation == 2) {
+                int index = random.nextInt(expected.size());
+                collection.remove(index);
+                expected.remove(index);
+            } else {
+                Integer value = expected.get(random.nextInt(expected.size()));
+                assertEquals(expected.indexOf(value), collection.indexOf(value));
+                assertTrue(collection.remove(value));
+                expected.remove(value);
+            }
+            assertEquals(expected.size(), collection.size());
+        }
+        assertArrayEquals(expected.toArray(), collection.toArray());
+        assertArrayEquals(expected.toArray(new Integer[0]), collection.toArray(new Integer[0]));
+    }
+
+    @Test
+    void testContainsAndIndexOf() {
+        CircularArrayIndexedCollection<String> collection = new CircularArrayIndexedCollection<>();
+        collection.add("1");
+        collection.insert("0", 0);
+        assertTrue(collection.contains("1"));
+        assertFalse(collection.contains("2"));
+        assertFalse(collection.contains(null));
+        assertEquals(0, collection.indexOf("0"));
+        assertEquals(-1, collection.indexOf(null));
+        assertFalse(collection.remove("2"));
+        assertFalse(collection.remove(null));
+    }
+
+    @Test
+    void testIllegalArguments() {
+        CircularArrayIndexedCollection<String> collection = new CircularArrayIndexedCollection<>();
+        assertThrows(NullPointerException.class, () -> collection.add(null));
+        assertThrows(NullPointerException.class, () -> collection.insert(null, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> collection.insert("1", 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> collection.get(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> collection.remove(0));
+        assertThrows(NullPointerException.class, () -> collection.toArray(null));
+    }
+
+    @Test
+    void testToTypedArray() {
+        CircularArrayIndexedCollection<String> collection = new CircularArrayIndexedCollection<>(2);
+        collection.add("2");
+        collection.insert("1", 0);
+        String[] big = {"a", "b", "c", "d"};
+        assertSame(big, collection.toArray(big));
+        assertArrayEquals(new String[]{"1", "2", null, "d"}, big);
+        assertArrayEquals(new String[]{"1", "2"}, collection.toArray(new String[0]));
+    }
+
+    @Test
+    void testClear() {
+        CircularArrayIndexedCollection<String> collection = new CircularArrayIndexedCollection<>(4);
+        collection.add("2");
+        collection.insert("1", 0);
+        collection.clear();
+        assertTrue(collection.isEmpty());
+        collection.add("3");
+        assertEquals("3", collection.get(0));
+    }
+
+    @Test
+    void testBulkOperations() {
+        CircularArrayIndexedCollection<Integer> collection = new CircularArrayIndexedCollection<>(2);
+        ArrayIndexedCollection<Integer> other = new ArrayIndexedCollection<>();
+        other.add(1);
+        other.add(2);
+        collection.addAll(other);
+        collection.insertAll(other, 0);
+        collection.addAllSatisfying(other, n -> n > 1);
+        assertArrayEquals(new Object[]{1, 2, 1, 2, 2}, collection.toArray());
+        collection.removeRange(1, 4);
+        assertArrayEquals(new Object[]{1, 2}, collection.toArray());
+    }
+
+    @Test
+    void testElementsGetter() {
+        CircularArrayIndexedCollection<String> collection = new CircularArrayIndexedCollection<>(2);
+        collection.add("2");
+        collection.insert("1", 0);
+
+        ElementsGetter<String> getter = collection.createElementsGetter();
+        assertEquals("1", getter.getNextElement());
+        assertEquals("2", getter.getNextElement());
+        assertFalse(getter.hasNextElement());
+        assertThrows(NoSuchElementException.class, getter::getNextElement);
+
+        ElementsGetter<String> getter2 = collection.createElementsGetter();
+        collection.remove(0);
+        assertThrows(ConcurrentModificationException.class, getter2::hasNextElement);
+        assertThrows(ConcurrentModificationException.class, getter2::getNextElement);
+    }
+
+    @Test
+    void testSnapshot() {
+        CircularArrayIndexedCollection<Integer> collection = new CircularArrayIndexedCollection<>(4);
+        collection.add(1);
+        collection.insert(0, 0);
+        PersistentVector<Integer> snapshot = collection.snapshot();
+        assertArrayEquals(new Object[]{0, 1}, snapshot.toArray());
+        assertSame(snapshot, collection.snapshot());
+
+        collection.remove(0);
+        assertArrayEquals(new Object[]{1}, collection.snapshot().toArray());
+        assertArrayEquals(new Object[]{0, 1}, snapshot.toArray());
+    }
+}
@@ -0,0 +1,212 @@
+package hr.fer.oprpp1.custom.collections;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CollectionMetricsRecorderTest {
+
+    @Test
+    void testArrayIndexedCollection() {
+        CollectionMetricsRecorder metrics = new CollectionMetricsRecorder();
+        ArrayIndexedCollection<Integer> collection = new ArrayIndexedCollection<>(2);
+        assertNull(collection.getMetrics());
+        collection.add(0);
+        collection.setMetrics(metrics);
+        assertSame(metrics, collection.getMetrics());
+
+        collection.add(1);
+        collection.add(2);
+        collection.insert(3, 0);
+        collection.get(1);
+        assertTrue(collection.contains(2));
+        assertTrue(collection.remove(Integer.valueOf(2)));
+        collection.clear();
+
+        assertEquals(2, metrics.getAddCount());
+        assertEquals(1, metrics.getInsertCount());
+        assertEquals(1, metrics.getGetCount());
+        assertEquals(2, metrics.getSearchCount());
+        assertEquals(1, metrics.getRemoveCount());
+        assertEquals(1, metrics.getClearCount());
+        assertEquals(1, metrics.getResizeCount());
+        assertEquals(2, metrics.getLastResizeOldCapacity());
+        assertEquals(4, metrics.getLastResizeNewCapacity());
+
+        collection.add(1);
+        ElementsGetter<Integer> getter = collection.createElementsGetter();
+        collection.add(2);
+        assertThrows(ConcurrentModificationException.class, getter::hasNextElement);
+        assertEquals(1, metrics.getConcurrentModificationCount());
+
+        collection.setMetrics(null);
+        collection.add(3);
+        assertEquals(4, metrics.getAddCount());
+    }
+
+    @Test
+    void testArrayIndexedCollectionBulkOperations() {
+        CollectionMetricsRecorder metrics = new CollectionMetricsRecorder();
+        ArrayIndexedCollection<Integer> collection = new ArrayIndexedCollection<>();
+        collection.setMetrics(metrics);
+        LinkedListIndexedCollection<Integer> other = new LinkedListIndexedCollection<>();
+        other.add(1);
+        other.add(2);
+
+        collection.addAll(other);
+        collection.addAll(new ArrayIndexedCollection<>(other));
+        collection.addAll(collection);
+        assertEquals(3, metrics.getAddCount());
+        assertEquals(0, metrics.getInsertCount());
+
+        collection.insertAll(other, 0);
+        collection.insertAll(collection, 0);
+        assertEquals(3, metrics.getAddCount());
+        assertEquals(2, metrics.getInsertCount());
+        assertEquals(20, collection.size());
+    }
+
+    @Test
+    void testLinkedListIndexedCollection() {
+        CollectionMetricsRecorder metrics = new CollectionMetricsRecorder();
+        LinkedListIndexedCollection<String> collection = new LinkedListIndexedCollection<>();
+        collection.setMetrics(metrics);
+
+        collection.add("a");
+        collection.insert("b", 0);
+        assertEquals(1, collection.indexOf("a"));
+        collection.get(0);
+        collection.remove(0);
+        ElementsGetter<String> getter = collection.createElementsGetter();
+        collection.clear();
+        assertThrows(ConcurrentModificationException.class, getter::getNextElement);
+
+        assertEquals(1, metrics.getAddCount());
+        assertEquals(1, metrics.getInsertCount());
+        assertEquals(1, metrics.getSearchCount());
+        assertEquals(1, metrics.getGetCount());
+        assertEquals(1, metrics.getRemoveCount());
+        assertEquals(1, metrics.getClearCount());
+        assertEquals(0, metrics.getResizeCount());
+        assertEquals(1, metrics.getConcurrentModificationCount());
+    }
+
+    @Test
+    void testSimpleHashtableIteratorRemove() {
+        CollectionMetricsRecorder metrics = new CollectionMetricsRecorder();
+        SimpleHashtable<Integer, Integer> table = new SimpleHashtable<>();
+        for (int i = 0; i < 10; i++) {
+            table.put(i, i);
+        }
+        table.setMetrics(metrics);
+
+        Iterator<SimpleHashtable.TableEntry<Integer, Integer>> it = table.iterator();
+        while (it.hasNext()) {
+            if (it.next().getKey() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(5, metrics.getRemoveCount());
+        assertEquals(5, table.size());
+
+        table.remove(1);
+        assertEquals(6, metrics.getRemoveCount());
+    }
+
+    @Test
+    void testSimpleHashtable() {
+        CollectionMetricsRecorder metrics = new CollectionMetricsRecorder();
+        // every key falls into slot 0
+        SimpleHashtable<Integer, Integer> table = new SimpleHashtable<>(16, hashCode -> 0);
+        table.setMetrics(metrics);
+
+        for (int i = 0; i < 5; i++) {
+            table.put(i, i);
+        }
+        assertEquals(5, metrics.getAddCount());
+        assertEquals(5, metrics.getProbeCount());
+        assertEquals(4, metrics.getMaxProbeLength());
+        assertArrayEquals(new long[]{1, 1, 1, 1, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0},
+                metrics.getProbeLengthHistogram());
+
+        assertEquals(4, table.get(4));
+        assertNull(table.get(7));
+        assertTrue(table.containsKey(0));
+        assertTrue(table.containsValue(3));
+        assertEquals(2, table.remove(2));
+        assertEquals(1, metrics.getRemoveCount());
+        assertEquals(2, metrics.getGetCount());
+        assertEquals(2, metrics.getSearchCount());
+        assertEquals(8, metrics.getProbeCount());
+        assertEquals((0 + 1 + 2 + 3 + 4 + 5 + 5 + 1) / 8.0, metrics.getAverageProbeLength());
+
+        for (int i = 5; i < 14; i++) {
+            table.put(i, i);
+        }
+        // entries which are put again by the resize are not counted as operations
+        assertEquals(14, metrics.getAddCount());
+        assertEquals(1, metrics.getResizeCount());
+        assertEquals(16, metrics.getLastResizeOldCapacity());
+        assertEquals(32, metrics.getLastResizeNewCapacity());
+
+        Iterator<SimpleHashtable.TableEntry<Integer, Integer>> it = table.iterator();
+        table.clear();
+        assertThrows(ConcurrentModificationException.class, it::next);
+        assertEquals(1, metrics.getClearCount());
+        assertEquals(1, metrics.getConcurrentModificationCount());
+
+        metrics.reset();
+        assertEquals(0, metrics.getAddCount());
+        assertEquals(0, metrics.getProbeCount());
+        assertEquals(0, metrics.getMaxProbeLength());
+        assertEquals(0, metrics.getAverageProbeLength());
+        assertEquals(0, metrics.getLastResizeNewCapacity());
+    }
+
+    @Test
+    void testIncrementalResizeIsRecorded() {
+        CollectionMetricsRecorder metrics = new CollectionMetricsRecorder();
+        SimpleHashtable<Integer, Integer> table = new SimpleHashtable<>(16, SimpleHashtable.ResizeMode.INCREMENTAL);
+        table.setMetrics(metrics);
+        for (int i = 0; i < 100; i++) {
+            table.put(i, i);
+        }
+        assertEquals(100, metrics.getAddCount());
+        // every put is one lookup, also while both tables are searched and when the put is repeated after a resize
+        assertEquals(100, metrics.getProbeCount());
+        assertTrue(metrics.getResizeCount() >= 3);
+        assertEquals(table.capacity(), metrics.getLastResizeNewCapacity());
+        assertEquals(table.capacity() / 2, metrics.getLastResizeOldCapacity());
+
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i < 100, table.containsKey(i));
+        }
+        assertEquals(300, metrics.getProbeCount());
+        assertTrue(metrics.getAverageProbeLength() < 2);
+    }
+
+    @Test
+    void testRegister() throws Exception {
+        CollectionMetricsRecorder metrics = new CollectionMetricsRecorder();
+        ObjectName name = metrics.register("test:cache");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertEquals(CollectionMetricsRecorder.DOMAIN, name.getDomain());
+            metrics.operation(CollectionMetrics.Operation.ADD);
+            metrics.resized(16, 32);
+            assertEquals(1L, server.getAttribute(name, "AddCount"));
+            assertEquals(32, server.getAttribute(name, "LastResizeNewCapacity"));
+            server.invoke(name, "reset", null, null);
+            assertEquals(0L, server.getAttribute(name, "AddCount"));
+            assertThrows(NullPointerException.class, () -> metrics.register(null));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
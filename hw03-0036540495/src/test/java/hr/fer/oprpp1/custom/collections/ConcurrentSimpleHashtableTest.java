@@ -0,0 +1,219 @@
+package hr.fer.oprpp1.custom.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentSimpleHashtableTest {
+    @Test
+    void testConstructors() {
+        assertEquals(16, new ConcurrentSimpleHashtable<String, Integer>().capacity());
+        assertEquals(64, new ConcurrentSimpleHashtable<String, Integer>(64, 4).capacity());
+        assertEquals(1, new ConcurrentSimpleHashtable<String, Integer>(1, 1).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentSimpleHashtable<>(0));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentSimpleHashtable<>(16, 0));
+    }
+
+    @Test
+    void testPutGetRemove() {
+        ConcurrentSimpleHashtable<String, Integer> table = new ConcurrentSimpleHashtable<>(2, 1);
+        assertNull(table.put("one", 1));
+        assertNull(table.put("two", 22));
+        assertNull(table.put("three", 3));
+        assertEquals(22, table.put("two", 2));
+        assertEquals(3, table.size());
+        assertEquals(1, table.get("one"));
+        assertEquals(2, table.get("two"));
+        assertNull(table.get("four"));
+        assertNull(table.get(null));
+        assertTrue(table.containsKey("three"));
+        assertFalse(table.containsKey(null));
+        assertTrue(table.containsValue(2));
+        assertFalse(table.containsValue(22));
+        assertEquals(1, table.remove("one"));
+        assertNull(table.remove("one"));
+        assertNull(table.remove(null));
+        assertEquals(2, table.size());
+        assertThrows(NullPointerException.class, () -> table.put(null, 1));
+    }
+
+    @Test
+    void testRemoveFromMiddleOfChain() {
+        // "Aa" and "BB" have the same hash code, so they share a chain
+        ConcurrentSimpleHashtable<String, Integer> table = new ConcurrentSimpleHashtable<>(1, 1);
+        table.put("Aa", 1);
+        table.put("BB", 2);
+        table.put("AaAa", 3);
+        table.put("BBBB", 4);
+        assertEquals(2, table.remove("BB"));
+        assertEquals(1, table.get("Aa"));
+        assertEquals(3, table.get("AaAa"));
+        assertEquals(4, table.get("BBBB"));
+    }
+
+    @Test
+    void testClearAndToString() {
+        ConcurrentSimpleHashtable<String, Integer> table = new ConcurrentSimpleHashtable<>();
+        assertTrue(table.isEmpty());
+        assertEquals("[]", table.toString());
+        table.put("one", 1);
+        assertEquals("[one=1]", table.toString());
+        table.clear();
+        assertTrue(table.isEmpty());
+        assertNull(table.get("one"));
+    }
+
+    @Test
+    void testIteratorIsWeaklyConsistent() {
+        ConcurrentSimpleHashtable<Integer, Integer> table = new ConcurrentSimpleHashtable<>();
+        for (int i = 0; i < 1000; i++) {
+            table.put(i, i);
+        }
+        int count = 0;
+        for (SimpleHashtable.TableEntry<Integer, Integer> entry : table) {
+            // modifications during iteration do not throw
+            table.put(entry.getKey() + 1000, 0);
+            entry.setValue(-entry.getKey());
+            count++;
+        }
+        assertTrue(count >= 1000);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(-i, table.get(i));
+        }
+    }
+
+    @Test
+    void testIteratorRemove() {
+        ConcurrentSimpleHashtable<Integer, Integer> table = new ConcurrentSimpleHashtable<>();
+        for (int i = 0; i < 100; i++) {
+            table.put(i, i);
+        }
+        Iterator<SimpleHashtable.TableEntry<Integer, Integer>> it = table.iterator();
+        assertThrows(IllegalStateException.class, it::remove);
+        while (it.hasNext()) {
+            it.next();
+            it.remove();
+            assertThrows(IllegalStateException.class, it::remove);
+        }
+        assertThrows(NoSuchElementException.class, it::next);
+        assertTrue(table.isEmpty());
+    }
+
+    @Test
+    void testConcurrentWriters() throws InterruptedException {
+        ConcurrentSimpleHashtable<Integer, Integer> table = new ConcurrentSimpleHashtable<>();
+        int threads = 8;
+        int perThread = 20_000;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int base = t * perThread;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = base; i < base + perThread; i++) {
+                        table.put(i, i);
+                        if (!Integer.valueOf(i).equals(table.get(i))) {
+                            throw new AssertionError("Missing key " + i);
+                        }
+                    }
+                    for (int i = base; i < base + perThread; i += 2) {
+                        table.remove(i);
+                    }
+                } catch (Throwable ex) {
+                    failure.set(ex);
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertNull(failure.get());
+        assertEquals(threads * perThread / 2, table.size());
+        for (int i = 0; i < threads * perThread; i++) {
+            assertEquals(i % 2 == 0 ? null : i, table.get(i));
+        }
+    }
+
+    @Test
+    void testReadersSeeValuesOfNewEntries() throws InterruptedException {
+        ConcurrentSimpleHashtable<Integer, Integer> table = new ConcurrentSimpleHashtable<>(1, 2);
+        int writers = 2;
+        int readers = 4;
+        int perWriter = 100_000;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread[] writerThreads = new Thread[writers];
+        for (int t = 0; t < writers; t++) {
+            int base = t * perWriter;
+            writerThreads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = base; i < base + perWriter; i++) {
+                        table.put(i, -i);
+                    }
+                } catch (Throwable ex) {
+                    failure.set(ex);
+                }
+            });
+        }
+        Thread[] readerThreads = new Thread[readers];
+        for (int t = 0; t < readers; t++) {
+            int seed = t;
+            readerThreads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    int key = seed;
+                    while (writing.get() && failure.get() == null) {
+                        key = (key + 7919) % (writers * perWriter);
+                        if (table.containsKey(key)) {
+                            Integer value = table.get(key);
+                            if (value == null || value != -key) {
+                                throw new AssertionError("Key " + key + " is present with value " + value);
+                            }
+                        }
+                        Integer value = table.get(key);
+                        if (value != null && value != -key) {
+                            throw new AssertionError("Key " + key + " has value " + value);
+                        }
+                    }
+                    for (SimpleHashtable.TableEntry<Integer, Integer> entry : table) {
+                        if (entry.getValue() == null || entry.getValue() != -entry.getKey()) {
+                            throw new AssertionError("Entry " + entry.getKey() + " has value " + entry.getValue());
+                        }
+                    }
+                } catch (Throwable ex) {
+                    failure.set(ex);
+                }
+            });
+        }
+
+        for (Thread thread : writerThreads) {
+            thread.start();
+        }
+        for (Thread thread : readerThreads) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : writerThreads) {
+            thread.join();
+        }
+        writing.set(false);
+        for (Thread thread : readerThreads) {
+            thread.join();
+        }
+        assertNull(failure.get());
+        assertEquals(writers * perWriter, table.size());
+    }
+}
@@ -91,4 +91,65 @@ public class DictionaryTest {
         assertEquals(0, dictionary.size());
         assertNull(dictionary.remove("four"));
     }
+
+    @Test
+    public void testSwitchToIndex() {
+        Dictionary<String, Integer> dictionary = new Dictionary<>();
+        for (int i = 0; i < Dictionary.INDEX_THRESHOLD - 1; i++) {
+            dictionary.put("key" + i, i);
+        }
+        assertFalse(dictionary.isIndexed());
+        dictionary.put("key0", -1);
+        assertFalse(dictionary.isIndexed());
+        dictionary.put("last", 100);
+        assertTrue(dictionary.isIndexed());
+        assertEquals(Dictionary.INDEX_THRESHOLD, dictionary.size());
+        assertEquals(-1, dictionary.get("key0"));
+        assertEquals(100, dictionary.get("last"));
+        assertNull(dictionary.get(1));
+        assertNull(dictionary.get(null));
+        dictionary.clear();
+        assertFalse(dictionary.isIndexed());
+        assertNull(dictionary.get("last"));
+    }
+
+    @Test
+    public void testManyEntries() {
+        Dictionary<Integer, Integer> dictionary = new Dictionary<>();
+        for (int i = 0; i < 10_000; i++) {
+            dictionary.put(i, i);
+        }
+        for (int i = 0; i < 10_000; i += 2) {
+            dictionary.put(i, -i);
+        }
+        assertEquals(10_000, dictionary.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i % 2 == 0 ? -i : i, dictionary.get(i));
+        }
+    }
+
+    @Test
+    public void testRemoveFromIndexed() {
+        Dictionary<Integer, Integer> dictionary = new Dictionary<>();
+        for (int i = 0; i < 1000; i++) {
+            dictionary.put(i, i);
+        }
+        // removing most entries drops them from the collection in between
+        for (int i = 0; i < 900; i++) {
+            assertEquals(i, dictionary.remove(i));
+            assertNull(dictionary.remove(i));
+        }
+        assertEquals(100, dictionary.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i < 900 ? null : i, dictionary.get(i));
+        }
+        dictionary.put(0, 0);
+        assertEquals(101, dictionary.size());
+        assertEquals(0, dictionary.get(0));
+        for (int i = 900; i < 1000; i++) {
+            dictionary.remove(i);
+        }
+        dictionary.remove(0);
+        assertTrue(dictionary.isEmpty());
+    }
 }
@@ -0,0 +1,84 @@
+package hr.fer.oprpp1.custom.collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntIntHashtableTest {
+    @Test
+    void testConstructors() {
+        assertEquals(16, new IntIntHashtable().capacity());
+        assertEquals(32, new IntIntHashtable(17).capacity());
+        assertEquals(-1, new IntIntHashtable(16, -1).getNoEntryValue());
+        assertThrows(IllegalArgumentException.class, () -> new IntIntHashtable(0));
+    }
+
+    @Test
+    void testPutGetRemove() {
+        IntIntHashtable table = new IntIntHashtable(2, -1);
+        assertEquals(-1, table.put(1, 10));
+        assertEquals(-1, table.put(2, 20));
+        assertEquals(-1, table.put(0, 0));
+        assertEquals(-1, table.put(Integer.MIN_VALUE, 30));
+        assertEquals(20, table.put(2, 22));
+        assertEquals(4, table.size());
+        assertEquals(10, table.get(1));
+        assertEquals(22, table.get(2));
+        assertEquals(0, table.get(0));
+        assertEquals(30, table.get(Integer.MIN_VALUE));
+        assertEquals(-1, table.get(3));
+        assertEquals(0, table.remove(0));
+        assertEquals(-1, table.remove(0));
+        assertEquals(10, table.remove(1));
+        assertEquals(-1, table.remove(1));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void testContains() {
+        IntIntHashtable table = new IntIntHashtable();
+        table.put(0, 5);
+        table.put(7, 70);
+        assertTrue(table.containsKey(0));
+        assertTrue(table.containsKey(7));
+        assertFalse(table.containsKey(8));
+        assertTrue(table.containsValue(5));
+        assertTrue(table.containsValue(70));
+        assertFalse(table.containsValue(0));
+    }
+
+    @Test
+    void testManyEntries() {
+        IntIntHashtable table = new IntIntHashtable();
+        for (int i = -50_000; i < 50_000; i++) {
+            table.put(i, i * 3);
+        }
+        assertEquals(100_000, table.size());
+        for (int i = -50_000; i < 50_000; i += 2) {
+            assertEquals(i * 3, table.remove(i));
+        }
+        assertEquals(50_000, table.size());
+        for (int i = -50_000; i < 50_000; i++) {
+            assertEquals(i % 2 != 0, table.containsKey(i));
+        }
+        long[] sum = new long[1];
+        table.forEach((key, value) -> sum[0] += value - 3L * key);
+        assertEquals(0, sum[0]);
+    }
+
+    @Test
+    void testClearToStringAndFootprint() {
+        IntIntHashtable table = new IntIntHashtable();
+        assertEquals("[]", table.toString());
+        table.put(0, 1);
+        assertEquals("[0=1]", table.toString());
+        for (int i = 1; i < 1000; i++) {
+            table.put(i, i);
+        }
+        // two int arrays at load factor between 0.25 and 0.5
+        assertTrue(table.bytesPerEntry() >= 16 && table.bytesPerEntry() <= 33, "" + table.bytesPerEntry());
+        table.clear();
+        assertTrue(table.isEmpty());
+        assertFalse(table.containsKey(0));
+    }
+}
@@ -0,0 +1,44 @@
+package hr.fer.oprpp1.custom.collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntObjectHashtableTest {
+    @Test
+    void testPutGetRemove() {
+        IntObjectHashtable<String> table = new IntObjectHashtable<>(2);
+        assertNull(table.put(1, "one"));
+        assertNull(table.put(0, "zero"));
+        assertNull(table.put(-1, "minus one"));
+        assertEquals("one", table.put(1, "ONE"));
+        assertEquals(3, table.size());
+        assertEquals("ONE", table.get(1));
+        assertEquals("zero", table.get(0));
+        assertEquals("minus one", table.get(-1));
+        assertNull(table.get(2));
+        assertTrue(table.containsValue("zero"));
+        assertFalse(table.containsValue(null));
+        assertEquals("zero", table.remove(0));
+        assertNull(table.remove(0));
+        assertEquals("minus one", table.remove(-1));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void testManyEntriesAndClear() {
+        IntObjectHashtable<Integer> table = new IntObjectHashtable<>();
+        for (int i = 0; i < 10_000; i++) {
+            table.put(i * 7, i);
+        }
+        for (int i = 0; i < 10_000; i += 3) {
+            assertEquals(i, table.remove(i * 7));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i % 3 == 0 ? null : i, table.get(i * 7));
+        }
+        table.clear();
+        assertTrue(table.isEmpty());
+        assertEquals("[]", table.toString());
+    }
+}
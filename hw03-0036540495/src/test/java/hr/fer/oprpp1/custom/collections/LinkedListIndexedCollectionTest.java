@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ConcurrentModificationException;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -402,4 +403,188 @@ public class LinkedListIndexedCollectionTest {
         collection.clear();
         assertThrows(ConcurrentModificationException.class, getter::getNextElement);
     }
+
+    @Test
+    void testInsertAll() {
+        LinkedListIndexedCollection<String> collection = new LinkedListIndexedCollection<>();
+        collection.add("1");
+        collection.add("4");
+        ArrayIndexedCollection<String> other = new ArrayIndexedCollection<>();
+        other.add("2");
+        other.add("3");
+        collection.insertAll(other, 1);
+        assertArrayEquals(new Object[]{"1", "2", "3", "4"}, collection.toArray());
+        assertThrows(IndexOutOfBoundsException.class, () -> collection.insertAll(other, 5));
+    }
+
+    @Test
+    void testRemoveRange() {
+        LinkedListIndexedCollection<Integer> collection = new LinkedListIndexedCollection<>();
+        for (int i = 0; i < 6; i++) {
+            collection.add(i);
+        }
+        collection.removeRange(1, 4);
+        assertArrayEquals(new Object[]{0, 4, 5}, collection.toArray());
+        assertThrows(IndexOutOfBoundsException.class, () -> collection.removeRange(2, 4));
+    }
+
+    @Test
+    void testParallelForEachAndFilterInto() {
+        LinkedListIndexedCollection<Integer> collection = new LinkedListIndexedCollection<>();
+        for (int i = 0; i < 50_000; i++) {
+            collection.add(i);
+        }
+        LongAdder sum = new LongAdder();
+        collection.parallelForEach(sum::add);
+        assertEquals(50_000L * 49_999 / 2, sum.sum());
+
+        ArrayIndexedCollection<Integer> target = new ArrayIndexedCollection<>();
+        collection.parallelFilterInto(value -> value % 2 == 1, target);
+        assertEquals(25_000, target.size());
+        for (int i = 0; i < target.size(); i++) {
+            assertEquals(2 * i + 1, target.get(i));
+        }
+    }
+
+    @Test
+    void testSplittableElementsGetterCoversAllElements() {
+        LinkedListIndexedCollection<Integer> collection = new LinkedListIndexedCollection<>();
+        for (int i = 0; i < 5000; i++) {
+            collection.add(i);
+        }
+        SplittableElementsGetter<Integer> getter = collection.createSplittableElementsGetter();
+        ArrayIndexedCollection<Integer> seen = new ArrayIndexedCollection<>();
+        SplittableElementsGetter<Integer> prefix;
+        while ((prefix = getter.trySplit()) != null) {
+            prefix.processRemaining(seen::add);
+        }
+        getter.processRemaining(seen::add);
+        assertEquals(5000, seen.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i, seen.get(i));
+        }
+    }
+
+    @Test
+    void testProcessRemaining() {
+        LinkedListIndexedCollection<Integer> collection = new LinkedListIndexedCollection<>();
+        for (int i = 0; i < 3000; i++) {
+            collection.add(i);
+        }
+        ElementsGetter<Integer> getter = collection.createElementsGetter();
+        getter.getNextElement();
+        getter.getNextElement();
+        long[] sum = new long[1];
+        getter.processRemaining(value -> sum[0] += value);
+        assertEquals(3000L * 2999 / 2 - 1, sum[0]);
+        assertFalse(getter.hasNextElement());
+
+        sum[0] = 0;
+        collection.forEach(value -> sum[0] += value);
+        assertEquals(3000L * 2999 / 2, sum[0]);
+
+        ElementsGetter<Integer> stale = collection.createElementsGetter();
+        collection.add(3000);
+        assertThrows(ConcurrentModificationException.class, () -> stale.processRemaining(value -> {}));
+    }
+
+    @Test
+    void testProcessRemainingDetectsModificationByProcessor() {
+        LinkedListIndexedCollection<Integer> collection = new LinkedListIndexedCollection<>();
+        for (int i = 0; i < 3000; i++) {
+            collection.add(i);
+        }
+        int[] processed = new int[1];
+        assertThrows(ConcurrentModificationException.class, () -> collection.forEach(value -> {
+            processed[0]++;
+            if (value == 10) {
+                collection.remove(collection.size() - 1);
+            }
+        }));
+        assertEquals(11, processed[0]);
+
+        LinkedListIndexedCollection<Integer> small = new LinkedListIndexedCollection<>();
+        for (int i = 0; i < 10; i++) {
+            small.add(i);
+        }
+        StringBuilder sb = new StringBuilder();
+        assertThrows(ConcurrentModificationException.class, () -> small.forEach(value -> {
+            sb.append(value);
+            if (value == 2) {
+                small.remove(0);
+            }
+        }));
+        assertEquals("012", sb.toString());
+
+        sb.setLength(0);
+        assertThrows(ConcurrentModificationException.class, () -> small.forEach(value -> {
+            sb.append(value);
+            if (value == 8) {
+                small.add(99);
+            }
+        }));
+        assertEquals("12345678", sb.toString());
+    }
+
+    @Test
+    void testMembershipFilter() {
+        LinkedListIndexedCollection<Integer> collection = new LinkedListIndexedCollection<>();
+        for (int i = 0; i < 1000; i++) {
+            collection.add(i);
+        }
+        assertNull(collection.getMembershipFilter());
+        assertThrows(IllegalArgumentException.class, () -> collection.enableMembershipFilter(0));
+        collection.enableMembershipFilter(0.01);
+        BloomFilter filter = collection.getMembershipFilter();
+        assertNotNull(filter);
+
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(i < 1000, collection.contains(i));
+            assertEquals(i < 1000 ? i : -1, collection.indexOf(i));
+        }
+        assertEquals(4000, filter.getProbeCount());
+        assertTrue(filter.getNegativeCount() > 1900);
+        assertEquals(2000, filter.getNegativeCount() + filter.getFalsePositiveCount());
+
+        collection.insert(5000, 0);
+        assertTrue(collection.contains(5000));
+        assertTrue(collection.remove(Integer.valueOf(5000)));
+        assertFalse(collection.contains(5000));
+
+        collection.clear();
+        assertFalse(collection.contains(0));
+        collection.add(7);
+        assertTrue(collection.contains(7));
+
+        collection.disableMembershipFilter();
+        assertNull(collection.getMembershipFilter());
+        assertTrue(collection.contains(7));
+    }
+
+    @Test
+    void testMembershipFilterIsRebuilt() {
+        LinkedListIndexedCollection<Integer> collection = new LinkedListIndexedCollection<>();
+        collection.enableMembershipFilter(0.01);
+        for (int i = 0; i < 10_000; i++) {
+            collection.add(i);
+        }
+        // the filter grows with the collection
+        BloomFilter grown = collection.getMembershipFilter();
+        assertTrue(grown.getExpectedValues() >= 10_000);
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(collection.contains(i));
+        }
+
+        collection.removeRange(0, 9_000);
+        // the removed values are dropped from the filter
+        assertNotSame(grown, collection.getMembershipFilter());
+        assertEquals(10_000, collection.getMembershipFilter().getProbeCount());
+        for (int i = 0; i < 9_000; i++) {
+            assertFalse(collection.contains(i));
+        }
+        assertTrue(collection.getMembershipFilter().observedFalsePositiveRate() < 0.05);
+        for (int i = 9_000; i < 10_000; i++) {
+            assertTrue(collection.contains(i));
+        }
+    }
 }
@@ -0,0 +1,47 @@
+package hr.fer.oprpp1.custom.collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongObjectHashtableTest {
+    @Test
+    void testPutGetRemove() {
+        LongObjectHashtable<String> table = new LongObjectHashtable<>(2);
+        assertNull(table.put(1L, "one"));
+        assertNull(table.put(0L, "zero"));
+        assertNull(table.put(Long.MAX_VALUE, "max"));
+        assertNull(table.put(1L << 32, "high"));
+        assertEquals("one", table.put(1L, "ONE"));
+        assertEquals(4, table.size());
+        assertEquals("ONE", table.get(1L));
+        assertEquals("zero", table.get(0L));
+        assertEquals("max", table.get(Long.MAX_VALUE));
+        assertEquals("high", table.get(1L << 32));
+        assertNull(table.get(2L));
+        assertTrue(table.containsKey(1L << 32));
+        assertFalse(table.containsKey(1L << 33));
+        assertEquals("high", table.remove(1L << 32));
+        assertNull(table.remove(1L << 32));
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    void testManyEntries() {
+        LongObjectHashtable<Long> table = new LongObjectHashtable<>();
+        for (long i = 0; i < 10_000; i++) {
+            table.put(i << 32, i);
+        }
+        assertEquals(10_000, table.size());
+        for (long i = 0; i < 10_000; i += 2) {
+            assertEquals(i, table.remove(i << 32));
+        }
+        long[] count = new long[1];
+        table.forEach((key, value) -> {
+            assertEquals(key >>> 32, value);
+            count[0]++;
+        });
+        assertEquals(5_000, count[0]);
+        assertTrue(table.memoryFootprint() > 5_000L * (Long.BYTES + 4));
+    }
+}
@@ -0,0 +1,157 @@
+package hr.fer.oprpp1.custom.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapIndexedCollectionTest {
+
+    /**
+     * Fixed-width record used to test a codec of a user type.
+     */
+    private record Point(int x, int y) {
+    }
+
+    /**
+     * Codec which encodes a point in 8 bytes.
+     */
+    private static final ElementCodec<Point> POINT = new ElementCodec<>() {
+        @Override
+        public int width() {
+            return 8;
+        }
+
+        @Override
+        public void encode(Point value, ByteBuffer buffer, int offset) {
+            buffer.putInt(offset, value.x());
+            buffer.putInt(offset + 4, value.y());
+        }
+
+        @Override
+        public Point decode(ByteBuffer buffer, int offset) {
+            return new Point(buffer.getInt(offset), buffer.getInt(offset + 4));
+        }
+    };
+
+    @Test
+    void testConstructors() {
+        assertEquals(1 << 16, new OffHeapIndexedCollection<>(ElementCodec.INTEGER).getChunkCapacity());
+        assertEquals(4, new OffHeapIndexedCollection<>(ElementCodec.LONG, 4).getChunkCapacity());
+        assertThrows(NullPointerException.class, () -> new OffHeapIndexedCollection<>(null));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapIndexedCollection<>(ElementCodec.INTEGER, 0));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapIndexedCollection<>(ElementCodec.INTEGER, 12));
+        assertThrows(IllegalArgumentException.class,
+                () -> new OffHeapIndexedCollection<>(ElementCodec.LONG, 1 << 30));
+        assertThrows(NullPointerException.class,
+                () -> new OffHeapIndexedCollection<>(ElementCodec.INTEGER, (Collection<Integer>) null));
+
+        ArrayIndexedCollection<Double> other = new ArrayIndexedCollection<>();
+        other.add(1.5);
+        other.add(-2.0);
+        OffHeapIndexedCollection<Double> collection = new OffHeapIndexedCollection<>(ElementCodec.DOUBLE, other);
+        assertArrayEquals(new Object[]{1.5, -2.0}, collection.toArray());
+    }
+
+    @Test
+    void testGrowsInChunks() {
+        OffHeapIndexedCollection<Integer> collection = new OffHeapIndexedCollection<>(ElementCodec.INTEGER, 8);
+        assertEquals(0, collection.getChunkCount());
+        for (int i = 0; i < 100; i++) {
+            collection.add(i);
+        }
+        assertEquals(13, collection.getChunkCount());
+        assertEquals(13 * 8 * 4, collection.offHeapBytes());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, collection.get(i));
+        }
+
+        collection.clear();
+        assertEquals(0, collection.size());
+        assertEquals(0, collection.getChunkCount());
+        assertThrows(IndexOutOfBoundsException.class, () -> collection.get(0));
+    }
+
+    @Test
+    void testMatchesArrayIndexedCollection() {
+        OffHeapIndexedCollection<Integer> collection = new OffHeapIndexedCollection<>(ElementCodec.INTEGER, 4);
+        ArrayIndexedCollection<Integer> expected = new ArrayIndexedCollection<>();
+        Random random = new Random(42);
+        for (int step = 0; step < 5_000; step++) {
+            int operation = random.nextInt(10);
+            if (operation < 4 || expected.isEmpty()) {
+                int position = random.nextInt(expected.size() + 1);
+                collection.insert(step, position);
+                expected.insert(step, position);
+            } else if (operation < 7) {
+                collection.add(step);
+                expected.add(step);
+            } else if (operation < 9) {
+                int index = random.nextInt(expected.size());
+                collection.remove(index);
+                expected.remove(index);
+            } else {
+                int from = random.nextInt(expected.size());
+                int to = from + random.nextInt(Math.min(20, expected.size() - from) + 1);
+                collection.removeRange(from, to);
+                expected.removeRange(from, to);
+            }
+            assertEquals(expected.size(), collection.size());
+        }
+        assertArrayEquals(expected.toArray(), collection.toArray());
+    }
+
+    @Test
+    void testInsertAndRemoveThrow() {
+        OffHeapIndexedCollection<Integer> collection = new OffHeapIndexedCollection<>(ElementCodec.INTEGER, 4);
+        collection.add(1);
+        assertThrows(NullPointerException.class, () -> collection.add(null));
+        assertThrows(NullPointerException.class, () -> collection.insert(null, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> collection.insert(2, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> collection.remove(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> collection.removeRange(1, 0));
+    }
+
+    @Test
+    void testSearch() {
+        OffHeapIndexedCollection<Point> collection = new OffHeapIndexedCollection<>(POINT, 2);
+        for (int i = 0; i < 10; i++) {
+            collection.add(new Point(i, -i));
+        }
+        assertEquals(7, collection.indexOf(new Point(7, -7)));
+        assertTrue(collection.contains(new Point(9, -9)));
+        assertFalse(collection.contains(new Point(9, 9)));
+        assertFalse(collection.contains(null));
+        assertEquals(-1, collection.indexOf("point"));
+
+        assertTrue(collection.remove(new Point(0, 0)));
+        assertFalse(collection.remove(new Point(0, 0)));
+        assertEquals(new Point(1, -1), collection.get(0));
+
+        Point[] points = collection.toArray(new Point[10]);
+        assertEquals(new Point(9, -9), points[8]);
+        assertNull(points[9]);
+    }
+
+    @Test
+    void testElementsGetter() {
+        OffHeapIndexedCollection<Long> collection = new OffHeapIndexedCollection<>(ElementCodec.LONG, 2);
+        collection.add(Long.MAX_VALUE);
+        collection.add(Long.MIN_VALUE);
+        collection.add(0L);
+
+        ElementsGetter<Long> getter = collection.createElementsGetter();
+        assertEquals(Long.MAX_VALUE, getter.getNextElement());
+        assertEquals(Long.MIN_VALUE, getter.getNextElement());
+        assertEquals(0L, getter.getNextElement());
+        assertThrows(NoSuchElementException.class, getter::getNextElement);
+
+        ElementsGetter<Long> modified = collection.createElementsGetter();
+        collection.remove(0);
+        assertThrows(ConcurrentModificationException.class, modified::hasNextElement);
+    }
+}
@@ -0,0 +1,247 @@
+package hr.fer.oprpp1.custom.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpenAddressingHashtableTest {
+    @Test
+    void testDefaultConstructor() {
+        OpenAddressingHashtable<String, Integer> table = new OpenAddressingHashtable<>();
+        assertEquals(16, table.capacity());
+    }
+
+    @Test
+    void testConstructorWithCapacity() {
+        assertEquals(16, new OpenAddressingHashtable<String, Integer>(10).capacity());
+        assertEquals(32, new OpenAddressingHashtable<String, Integer>(17).capacity());
+        assertEquals(2, new OpenAddressingHashtable<String, Integer>(1).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new OpenAddressingHashtable<>(0));
+    }
+
+    @Test
+    void testPut() {
+        OpenAddressingHashtable<String, Integer> table = new OpenAddressingHashtable<>(2);
+        assertNull(table.put("one", 1));
+        assertNull(table.put("two", 22));
+        assertNull(table.put("three", 3));
+        assertEquals(3, table.size());
+        assertEquals(22, table.put("two", 2));
+        assertEquals(3, table.size());
+        assertEquals(2, table.get("two"));
+        assertThrows(NullPointerException.class, () -> table.put(null, 1));
+    }
+
+    @Test
+    void testPutManyKeysResizes() {
+        OpenAddressingHashtable<Integer, Integer> table = new OpenAddressingHashtable<>();
+        for (int i = 0; i < 10_000; i++) {
+            table.put(i, i * 2);
+        }
+        assertEquals(10_000, table.size());
+        assertTrue(table.capacity() >= 10_000 / 0.75);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i * 2, table.get(i));
+        }
+    }
+
+    @Test
+    void testGet() {
+        OpenAddressingHashtable<String, Integer> table = new OpenAddressingHashtable<>();
+        table.put("one", 1);
+        table.put("two", 2);
+        assertEquals(1, table.get("one"));
+        assertEquals(2, table.get("two"));
+        assertNull(table.get("five"));
+        assertNull(table.get(null));
+        assertNull(table.get(1));
+        assertNull(table.get(new Object()));
+    }
+
+    @Test
+    void testContainsKeyAndValue() {
+        OpenAddressingHashtable<String, Integer> table = new OpenAddressingHashtable<>();
+        table.put("one", 1);
+        table.put("two", null);
+        assertTrue(table.containsKey("one"));
+        assertTrue(table.containsKey("two"));
+        assertFalse(table.containsKey("three"));
+        assertFalse(table.containsKey(null));
+        assertTrue(table.containsValue(1));
+        assertFalse(table.containsValue(2));
+        assertFalse(table.containsValue(null));
+    }
+
+    @Test
+    void testRemoveKeepsCollidingKeysReachable() {
+        // "Aa" and "BB" have the same hash code, so they share the home slot
+        OpenAddressingHashtable<String, Integer> table = new OpenAddressingHashtable<>();
+        table.put("Aa", 1);
+        table.put("BB", 2);
+        table.put("AaAa", 3);
+        table.put("BBBB", 4);
+        table.put("AaBB", 5);
+        assertEquals(1, table.remove("Aa"));
+        assertEquals(2, table.get("BB"));
+        assertEquals(5, table.remove("AaBB"));
+        assertEquals(3, table.get("AaAa"));
+        assertEquals(4, table.get("BBBB"));
+        assertNull(table.remove("Aa"));
+        assertNull(table.remove(null));
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    void testRemoveMany() {
+        OpenAddressingHashtable<Integer, Integer> table = new OpenAddressingHashtable<>();
+        for (int i = 0; i < 1000; i++) {
+            table.put(i, i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertEquals(i, table.remove(i));
+        }
+        assertEquals(500, table.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 0 ? null : i, table.get(i));
+        }
+    }
+
+    @Test
+    void testClearAndIsEmpty() {
+        OpenAddressingHashtable<String, Integer> table = new OpenAddressingHashtable<>();
+        assertTrue(table.isEmpty());
+        table.put("one", 1);
+        assertFalse(table.isEmpty());
+        table.clear();
+        assertTrue(table.isEmpty());
+        assertNull(table.get("one"));
+    }
+
+    @Test
+    void testToStringAndToArray() {
+        OpenAddressingHashtable<String, Integer> table = new OpenAddressingHashtable<>();
+        assertEquals("[]", table.toString());
+        table.put("one", 1);
+        assertEquals("[one=1]", table.toString());
+        SimpleHashtable.TableEntry<String, Integer>[] array = table.toArray();
+        assertEquals(1, array.length);
+        assertEquals("one", array[0].getKey());
+        array[0].setValue(11);
+        assertEquals(11, table.get("one"));
+    }
+
+    @Test
+    void testEntriesHeldAcrossRemove() {
+        OpenAddressingHashtable<Integer, String> table = new OpenAddressingHashtable<>(4);
+        table.put(0, "v0");
+        table.put(16, "v16");
+        table.put(32, "v32");
+        SimpleHashtable.TableEntry<Integer, String>[] array = table.toArray();
+        table.remove(0);
+        for (SimpleHashtable.TableEntry<Integer, String> entry : array) {
+            assertEquals("v" + entry.getKey(), entry.getValue());
+        }
+        for (SimpleHashtable.TableEntry<Integer, String> entry : array) {
+            entry.setValue("x" + entry.getKey());
+        }
+        for (SimpleHashtable.TableEntry<Integer, String> entry : array) {
+            assertEquals("x" + entry.getKey(), entry.getValue());
+        }
+        assertNull(table.get(0));
+        assertEquals("x16", table.get(16));
+        assertEquals("x32", table.get(32));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void testEntriesHeldAcrossResize() {
+        OpenAddressingHashtable<Integer, String> table = new OpenAddressingHashtable<>(2);
+        table.put(1, "one");
+        SimpleHashtable.TableEntry<Integer, String> entry = table.toArray()[0];
+        for (int i = 2; i < 100; i++) {
+            table.put(i, "v" + i);
+        }
+        assertEquals("one", entry.getValue());
+        entry.setValue("ONE");
+        assertEquals("ONE", table.get(1));
+        assertEquals(99, table.size());
+    }
+
+    @Test
+    void testIterator() {
+        OpenAddressingHashtable<Integer, Integer> table = new OpenAddressingHashtable<>();
+        int sum = 0;
+        for (int i = 0; i < 100; i++) {
+            table.put(i, i);
+            sum += i;
+        }
+        int count = 0;
+        for (SimpleHashtable.TableEntry<Integer, Integer> entry : table) {
+            sum -= entry.getValue();
+            count++;
+        }
+        assertEquals(100, count);
+        assertEquals(0, sum);
+    }
+
+    @Test
+    void testIteratorRemoveAll() {
+        OpenAddressingHashtable<String, Integer> table = new OpenAddressingHashtable<>();
+        String[] keys = {"Aa", "BB", "AaAa", "BBBB", "AaBB", "BBAa", "one", "two", "three"};
+        for (int i = 0; i < keys.length; i++) {
+            table.put(keys[i], i);
+        }
+        int count = 0;
+        Iterator<SimpleHashtable.TableEntry<String, Integer>> it = table.iterator();
+        while (it.hasNext()) {
+            it.next();
+            it.remove();
+            count++;
+        }
+        assertEquals(keys.length, count);
+        assertTrue(table.isEmpty());
+    }
+
+    @Test
+    void testIteratorRemoveSome() {
+        OpenAddressingHashtable<Integer, Integer> table = new OpenAddressingHashtable<>();
+        for (int i = 0; i < 500; i++) {
+            table.put(i, i);
+        }
+        Iterator<SimpleHashtable.TableEntry<Integer, Integer>> it = table.iterator();
+        int visited = 0;
+        while (it.hasNext()) {
+            if (it.next().getKey() % 3 == 0) {
+                it.remove();
+            }
+            visited++;
+        }
+        assertEquals(500, visited);
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i % 3 != 0, table.containsKey(i));
+        }
+    }
+
+    @Test
+    void testIteratorExceptions() {
+        OpenAddressingHashtable<String, Integer> table = new OpenAddressingHashtable<>();
+        table.put("one", 1);
+        Iterator<SimpleHashtable.TableEntry<String, Integer>> it = table.iterator();
+        assertThrows(IllegalStateException.class, it::remove);
+        it.next();
+        it.remove();
+        assertThrows(IllegalStateException.class, it::remove);
+        assertThrows(NoSuchElementException.class, it::next);
+
+        table.put("two", 2);
+        Iterator<SimpleHashtable.TableEntry<String, Integer>> it2 = table.iterator();
+        it2.next();
+        table.put("three", 3);
+        assertThrows(ConcurrentModificationException.class, it2::hasNext);
+        assertThrows(ConcurrentModificationException.class, it2::next);
+    }
+}
@@ -0,0 +1,166 @@
+package hr.fer.oprpp1.custom.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistentVectorTest {
+
+    /**
+     * Sizes around the boundaries of the tail and of the first three levels of the trie.
+     */
+    private static final int[] SIZES = {0, 1, 31, 32, 33, 64, 65, 1024, 1056, 1057, 1089, 32 * 32 * 32 + 33, 40_000};
+
+    private static PersistentVector<Integer> appended(int size) {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        for (int i = 0; i < size; i++) {
+            vector = vector.append(i);
+        }
+        return vector;
+    }
+
+    private static ArrayIndexedCollection<Integer> collection(int size) {
+        ArrayIndexedCollection<Integer> collection = new ArrayIndexedCollection<>();
+        for (int i = 0; i < size; i++) {
+            collection.add(i);
+        }
+        return collection;
+    }
+
+    private static void assertElements(int size, PersistentVector<Integer> vector) {
+        assertEquals(size, vector.size());
+        for (int i = 0; i < size; i++) {
+            assertEquals(i, vector.get(i));
+        }
+    }
+
+    @Test
+    void testEmpty() {
+        PersistentVector<String> vector = PersistentVector.empty();
+        assertTrue(vector.isEmpty());
+        assertSame(vector, PersistentVector.<Integer>empty());
+        assertEquals(0, vector.toArray().length);
+        assertFalse(vector.createElementsGetter().hasNextElement());
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.get(0));
+        assertThrows(NoSuchElementException.class, vector::withoutLast);
+    }
+
+    @Test
+    void testAppend() {
+        for (int size : SIZES) {
+            assertElements(size, appended(size));
+        }
+        assertThrows(NullPointerException.class, () -> PersistentVector.empty().append(null));
+    }
+
+    @Test
+    void testAppendKeepsOldVersions() {
+        PersistentVector<Integer> vector = appended(1024);
+        PersistentVector<Integer> longer = vector.append(1024);
+        PersistentVector<Integer> other = vector.append(-1);
+
+        assertElements(1024, vector);
+        assertElements(1025, longer);
+        assertEquals(-1, other.get(1024));
+        assertEquals(1023, other.get(1023));
+    }
+
+    @Test
+    void testOf() {
+        for (int size : SIZES) {
+            assertElements(size, PersistentVector.of(collection(size)));
+        }
+        PersistentVector<Integer> vector = appended(10);
+        assertSame(vector, PersistentVector.of(vector));
+
+        ArrayIndexedCollection<Integer> collection = collection(100);
+        PersistentVector<Integer> built = PersistentVector.of(collection);
+        assertElements(200, built.appendAll(collection(200).toArray(), 100, 200));
+        assertSame(built, built.appendAll(new Object[0], 0, 0));
+
+        assertThrows(NullPointerException.class, () -> PersistentVector.of(null));
+    }
+
+    @Test
+    void testWith() {
+        for (int size : SIZES) {
+            if (size < 2) {
+                continue;
+            }
+            PersistentVector<Integer> vector = appended(size);
+            PersistentVector<Integer> first = vector.with(0, -1);
+            PersistentVector<Integer> last = vector.with(size - 1, -2);
+
+            assertElements(size, vector);
+            assertEquals(-1, first.get(0));
+            assertEquals(size - 1, first.get(size - 1));
+            assertEquals(-2, last.get(size - 1));
+            assertEquals(0, last.get(0));
+        }
+
+        PersistentVector<Integer> vector = appended(5);
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.with(5, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.with(-1, 1));
+        assertThrows(NullPointerException.class, () -> vector.with(0, null));
+    }
+
+    @Test
+    void testWithoutLast() {
+        PersistentVector<Integer> vector = appended(32 * 32 * 32 + 33);
+        for (int size = vector.size() - 1; size >= 0; size--) {
+            vector = vector.withoutLast();
+            assertEquals(size, vector.size());
+            if (size > 0) {
+                assertEquals(size - 1, vector.get(size - 1));
+                assertEquals(0, vector.get(0));
+            }
+        }
+        assertSame(PersistentVector.empty(), vector);
+
+        // appending after shrinking reuses the shorter trie correctly
+        PersistentVector<Integer> shrunk = appended(1057).withoutLast().withoutLast();
+        for (int i = 1055; i < 2000; i++) {
+            shrunk = shrunk.append(i);
+        }
+        assertElements(2000, shrunk);
+    }
+
+    @Test
+    void testReadMethods() {
+        PersistentVector<Integer> vector = appended(100);
+        assertTrue(vector.contains(99));
+        assertFalse(vector.contains(100));
+        assertFalse(vector.contains(null));
+        assertEquals(40, vector.indexOf(40));
+        assertEquals(-1, vector.indexOf("40"));
+
+        Object[] array = vector.toArray();
+        assertEquals(100, array.length);
+        assertEquals(64, array[64]);
+
+        Integer[] typed = vector.toArray(new Integer[101]);
+        assertEquals(99, typed[99]);
+        assertNull(typed[100]);
+        assertEquals(100, vector.toArray(new Integer[0]).length);
+        assertThrows(NullPointerException.class, () -> vector.toArray(null));
+
+        ElementsGetter<Integer> getter = vector.createElementsGetter();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, getter.getNextElement());
+        }
+        assertThrows(NoSuchElementException.class, getter::getNextElement);
+    }
+
+    @Test
+    void testMutatorsThrow() {
+        PersistentVector<Integer> vector = appended(3);
+        assertThrows(UnsupportedOperationException.class, () -> vector.add(3));
+        assertThrows(UnsupportedOperationException.class, () -> vector.insert(3, 0));
+        assertThrows(UnsupportedOperationException.class, () -> vector.remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> vector.remove(Integer.valueOf(0)));
+        assertThrows(UnsupportedOperationException.class, vector::clear);
+        assertSame(vector, vector.snapshot());
+    }
+}
@@ -2,6 +2,11 @@ package hr.fer.oprpp1.custom.collections;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class SimpleHashtableTest {
@@ -161,4 +166,516 @@ public class SimpleHashtableTest {
 
         // TODO
     }
+
+    @Test
+    void testIncrementalResizeKeepsAllEntries() {
+        SimpleHashtable<Integer, Integer> table = new SimpleHashtable<>(16, SimpleHashtable.ResizeMode.INCREMENTAL);
+        for (int i = 0; i < 10_000; i++) {
+            assertNull(table.put(i, i));
+            assertEquals(i / 2, table.get(i / 2));
+        }
+        assertEquals(10_000, table.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(table.containsKey(i));
+            assertTrue(table.containsValue(i));
+            assertEquals(i, table.put(i, i + 1));
+        }
+        for (int i = 0; i < 10_000; i += 2) {
+            assertEquals(i + 1, table.remove(i));
+        }
+        assertEquals(5_000, table.size());
+        assertEquals(5_000, table.toArray().length);
+    }
+
+    @Test
+    void testIncrementalResizeMovesBoundedNumberOfBuckets() {
+        SimpleHashtable<Integer, Integer> table = new SimpleHashtable<>(1024, SimpleHashtable.ResizeMode.INCREMENTAL);
+        int key = 0;
+        while (!table.isResizing()) {
+            table.put(key, key);
+            key++;
+        }
+        assertEquals(2048, table.capacity());
+        // every put moves at most a few buckets, so the old table stays live for a while
+        int puts = 0;
+        while (table.isResizing()) {
+            table.put(key, key);
+            key++;
+            puts++;
+        }
+        assertTrue(puts > 1024 / 8, "migration finished after " + puts + " puts");
+        assertTrue(puts <= 1024, "migration finished after " + puts + " puts");
+        for (int i = 0; i < key; i++) {
+            assertEquals(i, table.get(i));
+        }
+    }
+
+    @Test
+    void testIteratorDuringIncrementalResize() {
+        SimpleHashtable<Integer, Integer> table = new SimpleHashtable<>(64, SimpleHashtable.ResizeMode.INCREMENTAL);
+        int key = 0;
+        while (!table.isResizing()) {
+            table.put(key, key);
+            key++;
+        }
+        long sum = 0;
+        int count = 0;
+        for (SimpleHashtable.TableEntry<Integer, Integer> entry : table) {
+            sum += entry.getKey();
+            count++;
+        }
+        assertEquals(key, count);
+        assertEquals((long) key * (key - 1) / 2, sum);
+
+        Iterator<SimpleHashtable.TableEntry<Integer, Integer>> it = table.iterator();
+        while (it.hasNext()) {
+            if (it.next().getKey() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertTrue(table.isResizing());
+        assertEquals(key / 2, table.size());
+        for (int i = 0; i < key; i++) {
+            assertEquals(i % 2 != 0, table.containsKey(i));
+        }
+    }
+
+    @Test
+    void testClearDuringIncrementalResize() {
+        SimpleHashtable<Integer, Integer> table = new SimpleHashtable<>(16, SimpleHashtable.ResizeMode.INCREMENTAL);
+        for (int i = 0; !table.isResizing(); i++) {
+            table.put(i, i);
+        }
+        table.clear();
+        assertFalse(table.isResizing());
+        assertTrue(table.isEmpty());
+        assertEquals("[]", table.toString());
+    }
+
+    /**
+     * A key with a constant hash code which is not comparable.
+     */
+    private record CollidingKey(int id) {
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+
+    /**
+     * A comparable key with a constant hash code.
+     */
+    private record ComparableCollidingKey(int id) implements Comparable<ComparableCollidingKey> {
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+
+        @Override
+        public int compareTo(ComparableCollidingKey other) {
+            return Integer.compare(id, other.id);
+        }
+    }
+
+    @Test
+    void testMinValueHashCode() {
+        // "polygenelubricants" has the hash code Integer.MIN_VALUE
+        assertEquals(Integer.MIN_VALUE, "polygenelubricants".hashCode());
+        SimpleHashtable<String, Integer> table = new SimpleHashtable<>(16);
+        table.put("polygenelubricants", 1);
+        table.put("other", 2);
+        assertEquals(1, table.get("polygenelubricants"));
+        assertEquals(1, table.remove("polygenelubricants"));
+        assertFalse(table.containsKey("polygenelubricants"));
+    }
+
+    @Test
+    void testHashSpreaders() {
+        HashSpreader[] spreaders = {HashSpreader.ABSOLUTE, HashSpreader.XOR_SHIFT, HashSpreader.MURMUR3};
+        for (HashSpreader spreader : spreaders) {
+            SimpleHashtable<Integer, Integer> table = new SimpleHashtable<>(16, spreader);
+            for (int i = 0; i < 1000; i++) {
+                table.put(i * 1024, i);
+            }
+            assertEquals(1000, table.size());
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(i, table.get(i * 1024));
+            }
+            for (int i = 0; i < 1000; i += 2) {
+                assertEquals(i, table.remove(i * 1024));
+            }
+            assertEquals(500, table.size());
+        }
+        assertThrows(NullPointerException.class, () -> new SimpleHashtable<>(16, (HashSpreader) null));
+    }
+
+    @Test
+    void testBucketLengthHistogram() {
+        SimpleHashtable<Integer, Integer> table = new SimpleHashtable<>(16);
+        assertArrayEquals(new int[]{16}, table.bucketLengthHistogram());
+        table.put(1, 1);
+        table.put(17, 17);
+        table.put(2, 2);
+        assertArrayEquals(new int[]{14, 1, 1}, table.bucketLengthHistogram());
+    }
+
+    @Test
+    void testSpreaderImprovesDistribution() {
+        // keys whose low bits are all zero end up in few slots without mixing
+        SimpleHashtable<Integer, Integer> absolute = new SimpleHashtable<>(4096, HashSpreader.ABSOLUTE);
+        SimpleHashtable<Integer, Integer> murmur = new SimpleHashtable<>(4096, HashSpreader.MURMUR3);
+        for (int i = 0; i < 1000; i++) {
+            absolute.put(i << 16, i);
+            murmur.put(i << 16, i);
+        }
+        assertTrue(absolute.bucketLengthHistogram().length > 8);
+        assertTrue(murmur.bucketLengthHistogram().length <= 8);
+    }
+
+    @Test
+    void testTreeifiedBucket() {
+        SimpleHashtable<ComparableCollidingKey, Integer> table = new SimpleHashtable<>(64);
+        for (int i = 0; i < 1000; i++) {
+            table.put(new ComparableCollidingKey(i), i);
+        }
+        assertEquals(1000, table.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, table.get(new ComparableCollidingKey(i)));
+        }
+        assertEquals(1000, table.bucketLengthHistogram().length - 1);
+        assertNull(table.get(new ComparableCollidingKey(1000)));
+        assertEquals(5, table.put(new ComparableCollidingKey(5), -5));
+        assertEquals(-5, table.get(new ComparableCollidingKey(5)));
+
+        for (int i = 0; i < 1000; i += 3) {
+            assertEquals(i == 5 ? -5 : i, table.remove(new ComparableCollidingKey(i)));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 3 != 0, table.containsKey(new ComparableCollidingKey(i)));
+        }
+
+        int count = 0;
+        Iterator<SimpleHashtable.TableEntry<ComparableCollidingKey, Integer>> it = table.iterator();
+        while (it.hasNext()) {
+            SimpleHashtable.TableEntry<ComparableCollidingKey, Integer> entry = it.next();
+            count++;
+            if (entry.getKey().id() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(666, count);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 3 != 0 && i % 2 != 0, table.containsKey(new ComparableCollidingKey(i)));
+        }
+
+        // removing almost everything turns the bucket back into a list
+        for (int i = 0; i < 1000; i++) {
+            table.remove(new ComparableCollidingKey(i));
+        }
+        assertTrue(table.isEmpty());
+        table.put(new ComparableCollidingKey(1), 1);
+        assertEquals(1, table.get(new ComparableCollidingKey(1)));
+    }
+
+    @Test
+    void testTreeifiedStringBucket() {
+        // every combination of "Aa" and "BB" has the same hash code
+        String[] keys = new String[512];
+        for (int i = 0; i < keys.length; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int bit = 0; bit < 9; bit++) {
+                sb.append((i >> bit & 1) == 0 ? "Aa" : "BB");
+            }
+            keys[i] = sb.toString();
+        }
+        SimpleHashtable<String, Integer> table = new SimpleHashtable<>(64, HashSpreader.MURMUR3);
+        for (int i = 0; i < keys.length; i++) {
+            table.put(keys[i], i);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i, table.get(keys[i]));
+        }
+        for (int i = 0; i < keys.length; i += 2) {
+            assertEquals(i, table.remove(keys[i]));
+        }
+        assertEquals(keys.length / 2, table.size());
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i % 2 != 0, table.containsKey(keys[i]));
+        }
+    }
+
+    @Test
+    void testCollidingKeysWithoutOrdering() {
+        SimpleHashtable<Object, Integer> table = new SimpleHashtable<>(64);
+        for (int i = 0; i < 100; i++) {
+            table.put(new CollidingKey(i), i);
+        }
+        // comparable keys of another class mixed into the chain
+        for (int i = 0; i < 20; i++) {
+            table.put(new ComparableCollidingKey(i), -i);
+        }
+        assertEquals(120, table.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, table.get(new CollidingKey(i)));
+        }
+        for (int i = 0; i < 20; i++) {
+            assertEquals(-i, table.get(new ComparableCollidingKey(i)));
+        }
+        for (int i = 0; i < 100; i += 2) {
+            assertEquals(i, table.remove(new CollidingKey(i)));
+        }
+        assertEquals(70, table.size());
+        int count = 0;
+        for (SimpleHashtable.TableEntry<Object, Integer> entry : table) {
+            count++;
+        }
+        assertEquals(70, count);
+    }
+
+    @Test
+    void testMixedKeysInTreeifiedBucket() {
+        SimpleHashtable<Object, Integer> table = new SimpleHashtable<>(64);
+        for (int i = 0; i < 50; i++) {
+            table.put(new ComparableCollidingKey(i), i);
+        }
+        // a key of another class turns the tree back into a list
+        table.put(new CollidingKey(0), -1);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, table.get(new ComparableCollidingKey(i)));
+        }
+        assertEquals(-1, table.get(new CollidingKey(0)));
+        assertEquals(51, table.size());
+    }
+
+    @Test
+    void testParallelForEach() {
+        SimpleHashtable<Integer, Integer> table = new SimpleHashtable<>();
+        for (int i = 0; i < 100_000; i++) {
+            table.put(i, i);
+        }
+        LongAdder sum = new LongAdder();
+        table.parallelForEach(entry -> sum.add(entry.getValue()));
+        assertEquals(100_000L * 99_999 / 2, sum.sum());
+        table.parallelForEach(entry -> entry.setValue(-entry.getKey()));
+        assertEquals(-5, table.get(5));
+        assertThrows(NullPointerException.class, () -> table.parallelForEach(null));
+    }
+
+    @Test
+    void testParallelFilterIntoKeepsIterationOrder() {
+        SimpleHashtable<Integer, Integer> table = new SimpleHashtable<>(64, SimpleHashtable.ResizeMode.INCREMENTAL);
+        int key = 0;
+        while (key < 50_000 || !table.isResizing()) {
+            table.put(key, key);
+            key++;
+        }
+        ArrayIndexedCollection<SimpleHashtable.TableEntry<Integer, Integer>> expected = new ArrayIndexedCollection<>();
+        for (SimpleHashtable.TableEntry<Integer, Integer> entry : table) {
+            if (entry.getKey() % 7 == 0) {
+                expected.add(entry);
+            }
+        }
+        ArrayIndexedCollection<SimpleHashtable.TableEntry<Integer, Integer>> result = new ArrayIndexedCollection<>();
+        table.parallelFilterInto(entry -> entry.getKey() % 7 == 0, result);
+        assertArrayEquals(expected.toArray(), result.toArray());
+    }
+
+    @Test
+    void testSplittableElementsGetter() {
+        SimpleHashtable<Integer, Integer> table = new SimpleHashtable<>(16);
+        for (int i = 0; i < 10; i++) {
+            table.put(i, i);
+        }
+        SplittableElementsGetter<SimpleHashtable.TableEntry<Integer, Integer>> getter =
+                table.createSplittableElementsGetter();
+        assertEquals(10, getter.estimateSize());
+        assertEquals(0, getter.getNextElement().getKey());
+        SplittableElementsGetter<SimpleHashtable.TableEntry<Integer, Integer>> prefix = getter.trySplit();
+        long count = 1;
+        while (prefix.hasNextElement()) {
+            prefix.getNextElement();
+            count++;
+        }
+        while (getter.hasNextElement()) {
+            getter.getNextElement();
+            count++;
+        }
+        assertEquals(10, count);
+        assertThrows(NoSuchElementException.class, getter::getNextElement);
+
+        SplittableElementsGetter<SimpleHashtable.TableEntry<Integer, Integer>> modified =
+                table.createSplittableElementsGetter();
+        table.put(100, 100);
+        assertThrows(ConcurrentModificationException.class, modified::hasNextElement);
+    }
+
+    @Test
+    void testValueFilter() {
+        SimpleHashtable<String, Integer> table = new SimpleHashtable<>();
+        for (int i = 0; i < 1000; i++) {
+            table.put("key" + i, i);
+        }
+        assertNull(table.getValueFilter());
+        assertThrows(IllegalArgumentException.class, () -> table.enableValueFilter(1));
+        table.enableValueFilter(0.01);
+        BloomFilter filter = table.getValueFilter();
+
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(i < 1000, table.containsValue(i));
+        }
+        assertTrue(filter.getNegativeCount() > 950);
+        assertEquals(1000, filter.getNegativeCount() + filter.getFalsePositiveCount());
+
+        assertEquals(5, table.put("key5", 5000));
+        assertTrue(table.containsValue(5000));
+        assertFalse(table.containsValue(5));
+        table.put("new", 6000);
+        assertTrue(table.containsValue(6000));
+        table.remove("new");
+        assertFalse(table.containsValue(6000));
+
+        Iterator<SimpleHashtable.TableEntry<String, Integer>> it = table.iterator();
+        SimpleHashtable.TableEntry<String, Integer> entry = it.next();
+        entry.setValue(7000);
+        assertTrue(table.containsValue(7000));
+        it.remove();
+        assertFalse(table.containsValue(7000));
+
+        table.clear();
+        assertFalse(table.containsValue(1));
+        table.put("a", 1);
+        assertTrue(table.containsValue(1));
+
+        table.disableValueFilter();
+        assertNull(table.getValueFilter());
+        assertTrue(table.containsValue(1));
+    }
+
+    @Test
+    void testValueFilterIsNotInvalidatedByOtherTables() {
+        SimpleHashtable<String, Integer> filtered = new SimpleHashtable<>();
+        SimpleHashtable<String, Integer> other = new SimpleHashtable<>();
+        for (int i = 0; i < 100; i++) {
+            filtered.put("key" + i, i);
+            other.put("key" + i, i);
+        }
+        filtered.enableValueFilter(0.01);
+        other.enableValueFilter(0.01);
+        BloomFilter filter = filtered.getValueFilter();
+        BloomFilter otherFilter = other.getValueFilter();
+
+        for (SimpleHashtable.TableEntry<String, Integer> entry : other) {
+            entry.setValue(entry.getValue() + 1000);
+        }
+        assertFalse(filtered.containsValue(1050));
+        assertSame(filter, filtered.getValueFilter());
+
+        assertTrue(other.containsValue(1050));
+        assertNotSame(otherFilter, other.getValueFilter());
+        assertSame(filter, filtered.getValueFilter());
+    }
+
+    @Test
+    void testValueFilterDuringIncrementalResize() {
+        SimpleHashtable<Integer, Integer> table = new SimpleHashtable<>(16, SimpleHashtable.ResizeMode.INCREMENTAL);
+        table.enableValueFilter(0.01);
+        for (int i = 0; i < 10_000; i++) {
+            table.put(i, -i);
+            assertTrue(table.containsValue(-i));
+        }
+        assertTrue(table.getValueFilter().getExpectedValues() >= 10_000);
+        for (int i = 0; i < 10_000; i += 2) {
+            table.remove(i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i % 2 == 1, table.containsValue(-i));
+        }
+    }
+
+    /**
+     * A key which counts the calls of its hash code.
+     */
+    private record CountingKey(int id, int[] hashCodeCalls) {
+        @Override
+        public int hashCode() {
+            hashCodeCalls[0]++;
+            return id;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CountingKey key && key.id == id;
+        }
+    }
+
+    @Test
+    void testResizeDoesNotHashKeysAgain() {
+        int[] hashCodeCalls = new int[1];
+        SimpleHashtable<CountingKey, Integer> table = new SimpleHashtable<>(16);
+        for (int i = 0; i < 10_000; i++) {
+            table.put(new CountingKey(i, hashCodeCalls), i);
+        }
+        assertEquals(16_384, table.capacity());
+        assertEquals(10_000, hashCodeCalls[0]);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, table.get(new CountingKey(i, hashCodeCalls)));
+        }
+    }
+
+    @Test
+    void testResizeKeepsOrderOfBuckets() {
+        // with the identity spreader, keys 0, 16, 32, ... share slot 0 until the table grows
+        SimpleHashtable<Integer, Integer> table = new SimpleHashtable<>(16, h -> h);
+        for (int i = 0; i < 6; i++) {
+            table.put(i * 16, i);
+        }
+        for (int i = 1; i < 7; i++) {
+            table.put(i, i);
+        }
+        assertEquals(16, table.capacity());
+        table.put(6 * 16, 6);
+        assertEquals(32, table.capacity());
+        // slot 0 keeps the even multiples of 16 and slot 16 gets the odd ones, both in insertion order
+        assertEquals("[0=0, 32=2, 64=4, 96=6, 1=1, 2=2, 3=3, 4=4, 5=5, 6=6, 16=1, 48=3, 80=5]", table.toString());
+    }
+
+    @Test
+    void testResizeSplitsTreeifiedBucket() {
+        SimpleHashtable<ComparableHashKey, Integer> table = new SimpleHashtable<>(64, h -> h);
+        for (int i = 1; i < 20; i++) {
+            table.put(new ComparableHashKey(i), -i);
+        }
+        // these keys fall into slot 0 of a table of 64, half of them into slot 64 after the resize
+        for (int i = 0; i < 40; i++) {
+            table.put(new ComparableHashKey(i * 64), i);
+        }
+        assertEquals(128, table.capacity());
+        int[] histogram = table.bucketLengthHistogram();
+        assertEquals(2, histogram[20]);
+        for (int i = 0; i < 40; i++) {
+            assertEquals(i, table.get(new ComparableHashKey(i * 64)));
+        }
+        for (int i = 0; i < 40; i += 2) {
+            assertEquals(i, table.remove(new ComparableHashKey(i * 64)));
+        }
+        for (int i = 1; i < 40; i += 2) {
+            assertEquals(i, table.get(new ComparableHashKey(i * 64)));
+        }
+        assertEquals(39, table.size());
+    }
+
+    /**
+     * A comparable key whose hash code is its id.
+     */
+    private record ComparableHashKey(int id) implements Comparable<ComparableHashKey> {
+        @Override
+        public int hashCode() {
+            return id;
+        }
+
+        @Override
+        public int compareTo(ComparableHashKey other) {
+            return Integer.compare(id, other.id);
+        }
+    }
 }
@@ -0,0 +1,171 @@
+package hr.fer.oprpp1.custom.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UnrolledIndexedCollectionTest {
+
+    @Test
+    void testConstructors() {
+        assertEquals(64, new UnrolledIndexedCollection<String>().getChunkCapacity());
+        assertEquals(8, new UnrolledIndexedCollection<String>(8).getChunkCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new UnrolledIndexedCollection<>(3));
+        assertThrows(NullPointerException.class, () -> new UnrolledIndexedCollection<>(null));
+
+        ArrayIndexedCollection<String> other = new ArrayIndexedCollection<>();
+        other.add("1");
+        other.add("2");
+        assertArrayEquals(new Object[]{"1", "2"}, new UnrolledIndexedCollection<>(other).toArray());
+    }
+
+    @Test
+    void testAddAndGet() {
+        UnrolledIndexedCollection<Integer> collection = new UnrolledIndexedCollection<>(4);
+        for (int i = 0; i < 100; i++) {
+            collection.add(i);
+        }
+        assertEquals(100, collection.size());
+        assertEquals(25, collection.getChunkCount());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, collection.get(i));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> collection.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> collection.get(100));
+    }
+
+    @Test
+    void testInsertSplitsChunk() {
+        UnrolledIndexedCollection<Integer> collection = new UnrolledIndexedCollection<>(4);
+        for (int i = 0; i < 4; i++) {
+            collection.add(i * 10);
+        }
+        assertEquals(1, collection.getChunkCount());
+        collection.insert(5, 1);
+        assertEquals(2, collection.getChunkCount());
+        collection.insert(25, 4);
+        collection.insert(-5, 0);
+        assertArrayEquals(new Object[]{-5, 0, 5, 10, 20, 25, 30}, collection.toArray());
+    }
+
+    @Test
+    void testRemoveMergesChunks() {
+        UnrolledIndexedCollection<Integer> collection = new UnrolledIndexedCollection<>(8);
+        for (int i = 0; i < 64; i++) {
+            collection.add(i);
+        }
+        assertEquals(8, collection.getChunkCount());
+        // leave one element in every chunk
+        for (int i = 63; i >= 0; i--) {
+            if (i % 8 != 0) {
+                collection.remove(i);
+            }
+        }
+        assertEquals(8, collection.size());
+        assertTrue(collection.getChunkCount() <= 2);
+        assertArrayEquals(new Object[]{0, 8, 16, 24, 32, 40, 48, 56}, collection.toArray());
+        while (!collection.isEmpty()) {
+            collection.remove(0);
+        }
+        assertEquals(0, collection.getChunkCount());
+    }
+
+    @Test
+    void testAgainstArrayIndexedCollection() {
+        Random random = new Random(7);
+        UnrolledIndexedCollection<Integer> collection = new UnrolledIndexedCollection<>(4);
+        ArrayIndexedCollection<Integer> expected = new ArrayIndexedCollection<>();
+        for (int i = 0; i < 20_000; i++) {
+            int operation = random.nextInt(5);
+            if (operation < 2 || expected.isEmpty()) {
+                int position = random.nextInt(expected.size() + 1);
+                collection.insert(i, position);
+                expected.insert(i, position);
+            } else if (operation == 2) {
+                int index = random.nextInt(expected.size());
+                collection.remove(index);
+                expected.remove(index);
+            } else if (operation == 3) {
+                Integer value = expected.get(random.nextInt(expected.size()));
+                assertEquals(expected.indexOf(value), collection.indexOf(value));
+                assertTrue(collection.remove(value));
+                expected.remove(value);
+            } else {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.get(index), collection.get(index));
+            }
+            assertEquals(expected.size(), collection.size());
+        }
+        assertArrayEquals(expected.toArray(), collection.toArray());
+        assertArrayEquals(expected.toArray(new Integer[0]), collection.toArray(new Integer[0]));
+    }
+
+    @Test
+    void testContainsAndIndexOf() {
+        UnrolledIndexedCollection<String> collection = new UnrolledIndexedCollection<>();
+        collection.add("1");
+        collection.add("2");
+        assertTrue(collection.contains("2"));
+        assertFalse(collection.contains("3"));
+        assertFalse(collection.contains(null));
+        assertEquals(1, collection.indexOf("2"));
+        assertEquals(-1, collection.indexOf(null));
+        assertFalse(collection.remove("3"));
+    }
+
+    @Test
+    void testIllegalArguments() {
+        UnrolledIndexedCollection<String> collection = new UnrolledIndexedCollection<>();
+        assertThrows(NullPointerException.class, () -> collection.add(null));
+        assertThrows(NullPointerException.class, () -> collection.insert(null, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> collection.insert("1", 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> collection.remove(0));
+        assertThrows(NullPointerException.class, () -> collection.toArray(null));
+    }
+
+    @Test
+    void testClear() {
+        UnrolledIndexedCollection<Integer> collection = new UnrolledIndexedCollection<>(4);
+        for (int i = 0; i < 20; i++) {
+            collection.add(i);
+        }
+        collection.clear();
+        assertTrue(collection.isEmpty());
+        assertEquals(0, collection.getChunkCount());
+        collection.add(1);
+        assertEquals(1, collection.get(0));
+    }
+
+    @Test
+    void testMemoryFootprint() {
+        UnrolledIndexedCollection<Integer> collection = new UnrolledIndexedCollection<>();
+        for (int i = 0; i < 10_000; i++) {
+            collection.add(i);
+        }
+        // a node of the linked list alone takes 24 bytes per element
+        assertTrue(collection.bytesPerElement() < 6, "bytes per element: " + collection.bytesPerElement());
+    }
+
+    @Test
+    void testElementsGetter() {
+        UnrolledIndexedCollection<Integer> collection = new UnrolledIndexedCollection<>(4);
+        for (int i = 0; i < 10; i++) {
+            collection.add(i);
+        }
+        ElementsGetter<Integer> getter = collection.createElementsGetter();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(getter.hasNextElement());
+            assertEquals(i, getter.getNextElement());
+        }
+        assertFalse(getter.hasNextElement());
+        assertThrows(NoSuchElementException.class, getter::getNextElement);
+
+        ElementsGetter<Integer> getter2 = collection.createElementsGetter();
+        collection.insert(-1, 0);
+        assertThrows(ConcurrentModificationException.class, getter2::hasNextElement);
+    }
+}